@@ -0,0 +1,172 @@
+package com.sme.analytics.config;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.time.Duration;
+
+/**
+ * Circuit breaker and bulkhead guarding calls to the ML service.
+ * When the ML service is slow or failing the breaker opens and callers fall back
+ * immediately; the bulkhead caps how many request threads can wait on it at once.
+ * Batched prediction calls get their own breaker and bulkhead, so slow batches can
+ * neither starve chat of permits nor open the chat circuit.
+ * The reactive chat path shares the chat breaker but has its own, larger bulkhead: its
+ * calls hold no thread, so it is limited by ML connections rather than request threads.
+ */
+@Configuration
+public class MlResilienceConfig {
+
+    public static final String ML_SERVICE = "mlService";
+    public static final String ML_BATCH = "mlBatch";
+    public static final String ML_REACTIVE = "mlReactive";
+
+    @Value("${ml.service.resilience.failure-rate-threshold:50}")
+    private float failureRateThreshold;
+
+    @Value("${ml.service.resilience.slow-call-rate-threshold:80}")
+    private float slowCallRateThreshold;
+
+    @Value("${ml.service.resilience.slow-call-duration:10s}")
+    private Duration slowCallDuration;
+
+    @Value("${ml.service.resilience.sliding-window-size:20}")
+    private int slidingWindowSize;
+
+    @Value("${ml.service.resilience.minimum-calls:10}")
+    private int minimumCalls;
+
+    @Value("${ml.service.resilience.open-duration:30s}")
+    private Duration openDuration;
+
+    @Value("${ml.service.resilience.half-open-calls:3}")
+    private int halfOpenCalls;
+
+    @Value("${ml.service.resilience.max-concurrent-calls:25}")
+    private int maxConcurrentCalls;
+
+    @Value("${ml.service.resilience.max-wait:0ms}")
+    private Duration maxWait;
+
+    @Value("${ml.service.reactive.max-concurrent-calls:1000}")
+    private int reactiveConcurrentCalls;
+
+    @Value("${ml.predictions.batch.max-concurrent:4}")
+    private int batchConcurrentCalls;
+
+    @Value("${ml.predictions.batch.max-wait:30s}")
+    private Duration batchMaxWait;
+
+    @Value("${ml.predictions.batch.slow-call-duration:60s}")
+    private Duration batchSlowCallDuration;
+
+    @Bean
+    public CircuitBreakerRegistry mlCircuitBreakerRegistry() {
+        CircuitBreakerConfig config = CircuitBreakerConfig.custom()
+            .failureRateThreshold(failureRateThreshold)
+            .slowCallRateThreshold(slowCallRateThreshold)
+            .slowCallDurationThreshold(slowCallDuration)
+            .slidingWindowType(CircuitBreakerConfig.SlidingWindowType.COUNT_BASED)
+            .slidingWindowSize(slidingWindowSize)
+            .minimumNumberOfCalls(minimumCalls)
+            .waitDurationInOpenState(openDuration)
+            .permittedNumberOfCallsInHalfOpenState(halfOpenCalls)
+            .automaticTransitionFromOpenToHalfOpenEnabled(true)
+            // A full bulkhead or a rejected (4xx) request says nothing about the ML service's health
+            .ignoreExceptions(BulkheadFullException.class, HttpClientErrorException.class)
+            .ignoreException(MlResilienceConfig::isReactiveClientError)
+            .build();
+        return CircuitBreakerRegistry.of(config);
+    }
+
+    /**
+     * The reactive path reports 4xx and 5xx responses as the same exception type
+     */
+    static boolean isReactiveClientError(Throwable error) {
+        return error instanceof WebClientResponseException response && response.getStatusCode().is4xxClientError();
+    }
+
+    @Bean
+    public BulkheadRegistry mlBulkheadRegistry() {
+        BulkheadConfig config = BulkheadConfig.custom()
+            .maxConcurrentCalls(maxConcurrentCalls)
+            .maxWaitDuration(maxWait)
+            .build();
+        return BulkheadRegistry.of(config);
+    }
+
+    @Bean
+    public CircuitBreaker mlServiceCircuitBreaker(CircuitBreakerRegistry mlCircuitBreakerRegistry) {
+        return mlCircuitBreakerRegistry.circuitBreaker(ML_SERVICE);
+    }
+
+    @Bean
+    public Bulkhead mlServiceBulkhead(BulkheadRegistry mlBulkheadRegistry) {
+        return mlBulkheadRegistry.bulkhead(ML_SERVICE);
+    }
+
+    /**
+     * Same thresholds as chat, but a batch is only slow well beyond a chat answer's duration
+     */
+    @Bean
+    public CircuitBreaker mlBatchCircuitBreaker(CircuitBreakerRegistry mlCircuitBreakerRegistry) {
+        CircuitBreakerConfig config = CircuitBreakerConfig.from(mlCircuitBreakerRegistry.getDefaultConfig())
+            .slowCallDurationThreshold(batchSlowCallDuration)
+            .build();
+        return mlCircuitBreakerRegistry.circuitBreaker(ML_BATCH, config);
+    }
+
+    /**
+     * Few concurrent batches, and a batch waits for a permit instead of being rejected
+     */
+    @Bean
+    public Bulkhead mlBatchBulkhead(BulkheadRegistry mlBulkheadRegistry) {
+        BulkheadConfig config = BulkheadConfig.custom()
+            .maxConcurrentCalls(batchConcurrentCalls)
+            .maxWaitDuration(batchMaxWait)
+            .build();
+        return mlBulkheadRegistry.bulkhead(ML_BATCH, config);
+    }
+
+    /**
+     * In-flight reactive chat calls; the reactor operator never waits for a permit, so a
+     * call over the limit is rejected at once and answered with the fallback
+     */
+    @Bean
+    public Bulkhead mlReactiveBulkhead(BulkheadRegistry mlBulkheadRegistry) {
+        BulkheadConfig config = BulkheadConfig.custom()
+            .maxConcurrentCalls(reactiveConcurrentCalls)
+            .maxWaitDuration(Duration.ZERO)
+            .build();
+        return mlBulkheadRegistry.bulkhead(ML_REACTIVE, config);
+    }
+
+    /**
+     * Export breaker state, call outcomes and not-permitted calls as resilience4j.circuitbreaker.*
+     */
+    @Bean
+    public MeterBinder mlCircuitBreakerMetrics(CircuitBreakerRegistry mlCircuitBreakerRegistry) {
+        return TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(mlCircuitBreakerRegistry);
+    }
+
+    /**
+     * Export available and maximum concurrent calls as resilience4j.bulkhead.*
+     */
+    @Bean
+    public MeterBinder mlBulkheadMetrics(BulkheadRegistry mlBulkheadRegistry) {
+        return TaggedBulkheadMetrics.ofBulkheadRegistry(mlBulkheadRegistry);
+    }
+}
@@ -0,0 +1,37 @@
+package com.sme.analytics.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Small, bounded executor for fire-and-forget ML warmup calls made after an upload.
+ * When it is saturated new warmups are rejected rather than queued without limit;
+ * the first question on that file then simply pays the preparation cost itself.
+ */
+@Configuration
+public class MlWarmupConfig {
+
+    @Value("${ml.service.warmup.threads:2}")
+    private int threads;
+
+    @Value("${ml.service.warmup.queue-capacity:20}")
+    private int queueCapacity;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Bean
+    public ThreadPoolTaskExecutor mlWarmupExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("ml-warmup-");
+        executor.setVirtualThreads(virtualThreads);
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,37 @@
+package com.sme.analytics.config;
+
+import com.sme.analytics.mapper.MarketNewsMapper;
+import com.sme.analytics.repository.MarketNewsRepository;
+import com.sme.analytics.repository.MarketNewsSearchRepository;
+import com.sme.analytics.service.InMemoryNewsSearchIndex;
+import com.sme.analytics.service.PostgresNewsSearchIndex;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Chooses the market news search engine: Postgres full-text search (default) or an in-process index
+ */
+@Configuration
+public class NewsSearchConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "market.search.engine", havingValue = "postgres", matchIfMissing = true)
+    public PostgresNewsSearchIndex postgresNewsSearchIndex(MarketNewsSearchRepository searchRepository) {
+        return new PostgresNewsSearchIndex(searchRepository);
+    }
+
+    /**
+     * Loads all stored news at startup and then indexes news as it is added; memory grows with the table
+     */
+    @Bean
+    @ConditionalOnProperty(name = "market.search.engine", havingValue = "memory")
+    public InMemoryNewsSearchIndex inMemoryNewsSearchIndex(
+        MarketNewsRepository marketNewsRepository,
+        MarketNewsMapper marketNewsMapper
+    ) {
+        InMemoryNewsSearchIndex index = new InMemoryNewsSearchIndex();
+        index.index(marketNewsMapper.toDtos(marketNewsRepository.findAll()));
+        return index;
+    }
+}
@@ -0,0 +1,79 @@
+package com.sme.analytics.config;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+/**
+ * Non-blocking WebClient for the reactive chat path (chat.reactive.enabled).
+ * ML calls wait on Netty event loops instead of request threads; only the short
+ * database phases run on the bounded chatDbScheduler.
+ */
+@Configuration
+public class ReactiveMlConfig {
+
+    @Value("${ml.service.reactive.max-connections:500}")
+    private int maxConnections;
+
+    @Value("${ml.service.reactive.pending-acquire-max:5000}")
+    private int pendingAcquireMax;
+
+    @Value("${ml.service.http.connect-timeout:2s}")
+    private Duration connectTimeout;
+
+    @Value("${ml.service.http.read-timeout:30s}")
+    private Duration readTimeout;
+
+    @Value("${ml.service.http.connection-request-timeout:2s}")
+    private Duration connectionRequestTimeout;
+
+    @Value("${ml.service.http.idle-eviction:30s}")
+    private Duration idleEviction;
+
+    @Value("${ml.service.http.compression.response:true}")
+    private boolean compressResponses;
+
+    @Value("${chat.reactive.db-threads:20}")
+    private int dbThreads;
+
+    @Value("${chat.reactive.db-queue:10000}")
+    private int dbQueue;
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider mlConnectionProvider() {
+        return ConnectionProvider.builder("ml-service")
+            .maxConnections(maxConnections)
+            .pendingAcquireMaxCount(pendingAcquireMax)
+            .pendingAcquireTimeout(connectionRequestTimeout)
+            .maxIdleTime(idleEviction)
+            .metrics(true)
+            .build();
+    }
+
+    @Bean
+    public WebClient mlWebClient(WebClient.Builder builder, ConnectionProvider mlConnectionProvider) {
+        HttpClient httpClient = HttpClient.create(mlConnectionProvider)
+            .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+            .responseTimeout(readTimeout)
+            .compress(compressResponses);
+        return builder.clientConnector(new ReactorClientHttpConnector(httpClient)).build();
+    }
+
+    /**
+     * Bounded scheduler for the blocking JPA phases of reactive chat requests.
+     * Sized to the connection pool so queued work waits here rather than on Hikari.
+     */
+    @Bean(destroyMethod = "dispose")
+    public Scheduler chatDbScheduler() {
+        return Schedulers.newBoundedElastic(dbThreads, dbQueue, "chat-db");
+    }
+}
@@ -1,14 +1,113 @@
 package com.sme.analytics.config;
 
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClientBuilder;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
+
+/**
+ * HTTP client configuration for calls to the ML service.
+ * The shared RestTemplate is backed by a pooled Apache HttpClient so connections
+ * to the ML service are kept alive and reused instead of re-handshaking per call.
+ */
 @Configuration
 public class WebConfig {
 
+    @Value("${ml.service.http.max-connections:100}")
+    private int maxConnections;
+
+    @Value("${ml.service.http.max-connections-per-route:20}")
+    private int maxConnectionsPerRoute;
+
+    @Value("${ml.service.http.connect-timeout:2s}")
+    private Duration connectTimeout;
+
+    @Value("${ml.service.http.read-timeout:30s}")
+    private Duration readTimeout;
+
+    @Value("${ml.service.http.connection-request-timeout:2s}")
+    private Duration connectionRequestTimeout;
+
+    @Value("${ml.service.http.keep-alive:60s}")
+    private Duration keepAlive;
+
+    @Value("${ml.service.http.idle-eviction:30s}")
+    private Duration idleEviction;
+
+    @Value("${ml.service.http.compression.request:false}")
+    private boolean compressRequests;
+
+    @Value("${ml.service.http.compression.request-min-size:2048}")
+    private int compressRequestMinSize;
+
+    @Value("${ml.service.http.compression.response:true}")
+    private boolean compressResponses;
+
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager mlConnectionManager() {
+        ConnectionConfig connectionConfig = ConnectionConfig.custom()
+            .setConnectTimeout(Timeout.ofMilliseconds(connectTimeout.toMillis()))
+            .setSocketTimeout(Timeout.ofMilliseconds(readTimeout.toMillis()))
+            .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+            .build();
+
+        return PoolingHttpClientConnectionManagerBuilder.create()
+            .setMaxConnTotal(maxConnections)
+            .setMaxConnPerRoute(maxConnectionsPerRoute)
+            .setDefaultConnectionConfig(connectionConfig)
+            .build();
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient mlHttpClient(PoolingHttpClientConnectionManager mlConnectionManager) {
+        RequestConfig requestConfig = RequestConfig.custom()
+            .setConnectionRequestTimeout(Timeout.ofMilliseconds(connectionRequestTimeout.toMillis()))
+            .setResponseTimeout(Timeout.ofMilliseconds(readTimeout.toMillis()))
+            .build();
+
+        HttpClientBuilder builder = HttpClients.custom()
+            .setConnectionManager(mlConnectionManager)
+            .setDefaultRequestConfig(requestConfig)
+            .setKeepAliveStrategy((response, context) -> TimeValue.ofMilliseconds(keepAlive.toMillis()))
+            .evictExpiredConnections()
+            .evictIdleConnections(TimeValue.ofMilliseconds(idleEviction.toMillis()));
+
+        // Response decompression (Accept-Encoding: gzip) is on by default in HttpClient 5
+        if (!compressResponses) {
+            builder.disableContentCompression();
+        }
+
+        return builder.build();
+    }
+
+    @Bean
+    public RestTemplate restTemplate(CloseableHttpClient mlHttpClient) {
+        RestTemplate restTemplate = new RestTemplate(new HttpComponentsClientHttpRequestFactory(mlHttpClient));
+        if (compressRequests) {
+            restTemplate.getInterceptors().add(new GzipRequestInterceptor(compressRequestMinSize));
+        }
+        return restTemplate;
+    }
+
+    /**
+     * Export pool usage (leased, pending, available, max) as httpcomponents.httpclient.pool.* metrics
+     */
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public MeterBinder mlConnectionPoolMetrics(PoolingHttpClientConnectionManager mlConnectionManager) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(mlConnectionManager, "ml-service");
     }
 }
@@ -1,26 +1,20 @@
 package com.sme.analytics.controller;
 
-import com.sme.analytics.dto.ConversationDTO;
-import com.sme.analytics.dto.CreateConversationRequest;
-import com.sme.analytics.dto.MessageDTO;
-import com.sme.analytics.dto.SendMessageRequest;
+import com.sme.analytics.dto.*;
+import com.sme.analytics.mapper.MessageMapper;
 import com.sme.analytics.model.Conversation;
-import com.sme.analytics.model.Message;
 import com.sme.analytics.service.ChatService;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.core.type.TypeReference;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
 
 /**
  * REST Controller for chat functionality
@@ -36,13 +30,16 @@ public class ChatController {
     private ChatService chatService;
 
     @Autowired
-    private ObjectMapper objectMapper;
+    private MessageMapper messageMapper;
+
+    @Value("${chat.reactive.enabled:false}")
+    private boolean reactiveEnabled;
 
     /**
      * Create a new conversation
      */
     @PostMapping("/conversations")
-    public ResponseEntity<Map<String, Object>> createConversation(
+    public ResponseEntity<ConversationResponse> createConversation(
         @Valid @RequestBody CreateConversationRequest request
     ) {
         try {
@@ -52,21 +49,13 @@ public class ChatController {
                 request.getTitle()
             );
 
-            ConversationDTO dto = convertToConversationDTO(conversation);
-
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("conversation", dto);
-            response.put("message", "Conversation created successfully");
+            ConversationDTO dto = chatService.getConversationSummary(conversation.getId());
 
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(new ConversationResponse(true, "Conversation created successfully", dto));
 
         } catch (RuntimeException e) {
             logger.error("Error creating conversation", e);
-            Map<String, Object> errorResponse = new HashMap<>();
-            errorResponse.put("success", false);
-            errorResponse.put("message", e.getMessage());
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ConversationResponse.failure(e.getMessage()));
         }
     }
 
@@ -74,28 +63,18 @@ public class ChatController {
      * Get all conversations for a user
      */
     @GetMapping("/conversations/user/{userId}")
-    public ResponseEntity<Map<String, Object>> getUserConversations(
+    public ResponseEntity<ConversationListResponse> getUserConversations(
         @PathVariable Long userId
     ) {
         try {
-            List<Conversation> conversations = chatService.getUserConversations(userId);
-            List<ConversationDTO> dtos = conversations.stream()
-                .map(this::convertToConversationDTO)
-                .collect(Collectors.toList());
-
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("conversations", dtos);
-            response.put("count", dtos.size());
+            List<ConversationDTO> dtos = chatService.getUserConversationSummaries(userId);
 
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(ConversationListResponse.of(dtos));
 
         } catch (Exception e) {
             logger.error("Error getting user conversations", e);
-            Map<String, Object> errorResponse = new HashMap<>();
-            errorResponse.put("success", false);
-            errorResponse.put("message", e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(ConversationListResponse.failure(e.getMessage()));
         }
     }
 
@@ -103,25 +82,17 @@ public class ChatController {
      * Get a specific conversation
      */
     @GetMapping("/conversations/{conversationId}")
-    public ResponseEntity<Map<String, Object>> getConversation(
+    public ResponseEntity<ConversationResponse> getConversation(
         @PathVariable Long conversationId
     ) {
         try {
-            Conversation conversation = chatService.getConversation(conversationId);
-            ConversationDTO dto = convertToConversationDTO(conversation);
+            ConversationDTO dto = chatService.getConversationSummary(conversationId);
 
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("conversation", dto);
-
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(new ConversationResponse(true, null, dto));
 
         } catch (RuntimeException e) {
             logger.error("Error getting conversation", e);
-            Map<String, Object> errorResponse = new HashMap<>();
-            errorResponse.put("success", false);
-            errorResponse.put("message", e.getMessage());
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ConversationResponse.failure(e.getMessage()));
         }
     }
 
@@ -129,28 +100,18 @@ public class ChatController {
      * Get all messages in a conversation
      */
     @GetMapping("/conversations/{conversationId}/messages")
-    public ResponseEntity<Map<String, Object>> getConversationMessages(
+    public ResponseEntity<MessageListResponse> getConversationMessages(
         @PathVariable Long conversationId
     ) {
         try {
-            List<Message> messages = chatService.getConversationMessages(conversationId);
-            List<MessageDTO> dtos = messages.stream()
-                .map(this::convertToMessageDTO)
-                .collect(Collectors.toList());
-
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("messages", dtos);
-            response.put("count", dtos.size());
+            List<MessageDTO> dtos = messageMapper.toDtos(chatService.getConversationMessages(conversationId));
 
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(MessageListResponse.of(dtos));
 
         } catch (Exception e) {
             logger.error("Error getting conversation messages", e);
-            Map<String, Object> errorResponse = new HashMap<>();
-            errorResponse.put("success", false);
-            errorResponse.put("message", e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(MessageListResponse.failure(e.getMessage()));
         }
     }
 
@@ -158,98 +119,39 @@ public class ChatController {
      * Send a message and get AI response
      */
     @PostMapping("/conversations/{conversationId}/messages")
-    public ResponseEntity<Map<String, Object>> sendMessage(
+    public Mono<ResponseEntity<SendMessageResponse>> sendMessage(
         @PathVariable Long conversationId,
         @Valid @RequestBody SendMessageRequest request
     ) {
-        try {
-            Map<String, Object> result = chatService.sendMessage(
-                conversationId,
-                request.getMessage()
-            );
-
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("userMessage", result.get("userMessage"));
-            response.put("aiMessage", result.get("aiMessage"));
-            response.put("suggestions", result.get("suggestions"));
-
-            return ResponseEntity.ok(response);
-
-        } catch (RuntimeException e) {
-            logger.error("Error sending message", e);
-            Map<String, Object> errorResponse = new HashMap<>();
-            errorResponse.put("success", false);
-            errorResponse.put("message", e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
-        }
+        // The reactive path frees the request thread while the ML service answers
+        Mono<SendMessageResponse> response = reactiveEnabled
+            ? chatService.sendMessageReactive(conversationId, request.getMessage())
+            : Mono.fromCallable(() -> chatService.sendMessage(conversationId, request.getMessage()));
+
+        return response
+            .map(ResponseEntity::ok)
+            .onErrorResume(RuntimeException.class, e -> {
+                logger.error("Error sending message", e);
+                return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(SendMessageResponse.failure(e.getMessage())));
+            });
     }
 
     /**
      * Delete a conversation
      */
     @DeleteMapping("/conversations/{conversationId}")
-    public ResponseEntity<Map<String, Object>> deleteConversation(
+    public ResponseEntity<ApiStatusResponse> deleteConversation(
         @PathVariable Long conversationId
     ) {
         try {
             chatService.deleteConversation(conversationId);
 
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("message", "Conversation deleted successfully");
-
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(ApiStatusResponse.ok("Conversation deleted successfully"));
 
         } catch (RuntimeException e) {
             logger.error("Error deleting conversation", e);
-            Map<String, Object> errorResponse = new HashMap<>();
-            errorResponse.put("success", false);
-            errorResponse.put("message", e.getMessage());
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiStatusResponse.failure(e.getMessage()));
         }
     }
-
-    /**
-     * Convert Conversation entity to DTO
-     */
-    private ConversationDTO convertToConversationDTO(Conversation conversation) {
-        ConversationDTO dto = new ConversationDTO();
-        dto.setId(conversation.getId());
-        dto.setUserId(conversation.getUser().getId());
-        dto.setUploadedFileId(conversation.getUploadedFile().getId());
-        dto.setTitle(conversation.getTitle());
-        dto.setFileName(conversation.getUploadedFile().getFileName());
-        dto.setLastMessageAt(conversation.getLastMessageAt());
-        dto.setCreatedAt(conversation.getCreatedAt());
-        // You can add message count if needed
-        return dto;
-    }
-
-    /**
-     * Convert Message entity to DTO
-     */
-    private MessageDTO convertToMessageDTO(Message message) {
-        MessageDTO dto = new MessageDTO();
-        dto.setId(message.getId());
-        dto.setConversationId(message.getConversation().getId());
-        dto.setSenderType(message.getSenderType());
-        dto.setContent(message.getContent());
-        dto.setCreatedAt(message.getCreatedAt());
-
-        // Parse metadata if available
-        if (message.getMetadata() != null) {
-            try {
-                Map<String, Object> metadata = objectMapper.readValue(
-                    message.getMetadata(),
-                    new TypeReference<Map<String, Object>>() {}
-                );
-                dto.setMetadata(metadata);
-            } catch (Exception e) {
-                logger.error("Error parsing metadata", e);
-            }
-        }
-
-        return dto;
-    }
 }
@@ -0,0 +1,95 @@
+package com.sme.analytics.controller;
+
+import com.sme.analytics.dto.SendMessageRequest;
+import com.sme.analytics.service.ChatEventPublisher;
+import com.sme.analytics.service.ChatService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.handler.annotation.DestinationVariable;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Controller;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * STOMP controller for chat over WebSocket.
+ * Replies are not returned to the sender directly: the user message, the AI reply and
+ * list updates are published to the conversation and user topics by ChatEventPublisher,
+ * so every tab subscribed to the conversation sees them.
+ * At most chat.websocket.max-concurrent messages are answered at once; further messages
+ * are rejected with an error event rather than queued.
+ */
+@Controller
+public class ChatWebSocketController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChatWebSocketController.class);
+
+    private final ChatService chatService;
+    private final ChatEventPublisher chatEventPublisher;
+
+    // ML answers can take seconds; keep them off the broker's inbound channel threads
+    private final ExecutorService chatExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore inFlight;
+
+    public ChatWebSocketController(
+        ChatService chatService,
+        ChatEventPublisher chatEventPublisher,
+        @Value("${chat.websocket.max-concurrent:200}") int maxConcurrent
+    ) {
+        this.chatService = chatService;
+        this.chatEventPublisher = chatEventPublisher;
+        this.inFlight = new Semaphore(maxConcurrent);
+    }
+
+    /**
+     * Send a message in a conversation
+     * SEND /app/conversations/{conversationId}/messages {"message": "..."}
+     */
+    @MessageMapping("/conversations/{conversationId}/messages")
+    public void sendMessage(@DestinationVariable Long conversationId, @Payload SendMessageRequest request) {
+        if (request.getMessage() == null || request.getMessage().isBlank()) {
+            chatEventPublisher.error(conversationId, "Message content is required");
+            return;
+        }
+
+        if (!inFlight.tryAcquire()) {
+            chatEventPublisher.error(conversationId, "Too many chat messages in progress, please try again");
+            return;
+        }
+
+        chatEventPublisher.typing(conversationId);
+        try {
+            chatExecutor.execute(() -> {
+                try {
+                    chatService.sendMessage(conversationId, request.getMessage());
+                } catch (RuntimeException e) {
+                    logger.error("Error sending message over WebSocket", e);
+                    chatEventPublisher.error(conversationId, e.getMessage());
+                } finally {
+                    inFlight.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.release();
+            chatEventPublisher.error(conversationId, "Chat is shutting down, please try again");
+        }
+    }
+
+    /**
+     * Stop accepting messages and give in-flight answers a moment to be stored
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        chatExecutor.shutdown();
+        if (!chatExecutor.awaitTermination(10, TimeUnit.SECONDS)) {
+            chatExecutor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,309 @@
+package com.sme.analytics.controller;
+
+import com.sme.analytics.dto.ApiStatusResponse;
+import com.sme.analytics.dto.BulkNewsUpdateRequest;
+import com.sme.analytics.dto.BulkNewsUpdateResponse;
+import com.sme.analytics.dto.KeywordTrendResponse;
+import com.sme.analytics.dto.MarketIntelligenceResponse;
+import com.sme.analytics.dto.NewsFeedResponse;
+import com.sme.analytics.dto.NewsSearchHit;
+import com.sme.analytics.dto.NewsSearchResponse;
+import com.sme.analytics.dto.PriceHistoryResponse;
+import com.sme.analytics.dto.SentimentPoint;
+import com.sme.analytics.dto.SentimentTimeSeriesResponse;
+import com.sme.analytics.service.KeywordTrendTracker;
+import com.sme.analytics.service.MarketIntelligenceService;
+import com.sme.analytics.service.NewsFeedFilter;
+import com.sme.analytics.service.NewsSearchIndex;
+import com.sme.analytics.service.NewsSearchQuery;
+import com.sme.analytics.service.NewsSelection;
+import com.sme.analytics.service.PriceMonitorService;
+import com.sme.analytics.service.SentimentTimeSeries;
+import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * REST controller for market intelligence
+ */
+@RestController
+@RequestMapping("/api/v1/market-intelligence")
+@CrossOrigin(origins = "*")
+public class MarketIntelligenceController {
+
+    private static final int MAX_KEYWORDS = 100;
+    private static final int MAX_SEARCH_RESULTS = 100;
+    private static final int MAX_FEED_PAGE = 100;
+    private static final int MAX_QUERY_CHARS = 500;
+
+    private final MarketIntelligenceService marketIntelligenceService;
+    private final KeywordTrendTracker keywordTrendTracker;
+    private final SentimentTimeSeries sentimentTimeSeries;
+    private final NewsSearchIndex newsSearchIndex;
+    private final PriceMonitorService priceMonitorService;
+
+    public MarketIntelligenceController(
+        MarketIntelligenceService marketIntelligenceService,
+        KeywordTrendTracker keywordTrendTracker,
+        SentimentTimeSeries sentimentTimeSeries,
+        NewsSearchIndex newsSearchIndex,
+        PriceMonitorService priceMonitorService
+    ) {
+        this.marketIntelligenceService = marketIntelligenceService;
+        this.keywordTrendTracker = keywordTrendTracker;
+        this.sentimentTimeSeries = sentimentTimeSeries;
+        this.newsSearchIndex = newsSearchIndex;
+        this.priceMonitorService = priceMonitorService;
+    }
+
+    /**
+     * Market intelligence dashboard
+     */
+    @GetMapping("/dashboard")
+    public ResponseEntity<MarketIntelligenceResponse> getDashboard() {
+        return ResponseEntity.ok(marketIntelligenceService.getDashboard());
+    }
+
+    /**
+     * News feed, newest first, filtered by any combination of category, industry, location,
+     * competitor, impact level and unread; pass nextCursor from the previous page to continue
+     *
+     * GET /api/v1/market-intelligence/news?category=COMPETITOR&impact=HIGH&unread=true&limit=20&cursor=...
+     */
+    @GetMapping("/news")
+    public ResponseEntity<NewsFeedResponse> getNewsFeed(
+        @RequestParam(required = false) String category,
+        @RequestParam(required = false) String industry,
+        @RequestParam(required = false) String location,
+        @RequestParam(required = false) Long competitorId,
+        @RequestParam(required = false) String impact,
+        @RequestParam(defaultValue = "false") boolean unread,
+        @RequestParam(required = false) String cursor,
+        @RequestParam(defaultValue = "20") int limit
+    ) {
+        NewsFeedFilter filter = new NewsFeedFilter(
+            upperCaseOrNull(category),
+            blankToNull(industry),
+            blankToNull(location),
+            competitorId,
+            upperCaseOrNull(impact),
+            unread);
+        try {
+            return ResponseEntity.ok(marketIntelligenceService.getNewsFeed(
+                filter, cursor, Math.max(1, Math.min(limit, MAX_FEED_PAGE))));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(NewsFeedResponse.failure(e.getMessage()));
+        }
+    }
+
+    /**
+     * Other copies of the same story, clustered under this canonical article at ingest
+     *
+     * GET /api/v1/market-intelligence/news/42/duplicates
+     */
+    @GetMapping("/news/{id}/duplicates")
+    public ResponseEntity<NewsFeedResponse> getDuplicates(@PathVariable Long id) {
+        return ResponseEntity.ok(NewsFeedResponse.of(marketIntelligenceService.getDuplicates(id), null));
+    }
+
+    /**
+     * Mark many news items read (or unread with value=false) in one update
+     *
+     * POST /api/v1/market-intelligence/news/read {"ids": [1, 2, 3]}
+     * POST /api/v1/market-intelligence/news/read {"category": "MARKET", "before": "2026-10-01T00:00:00"}
+     */
+    @PostMapping("/news/read")
+    public ResponseEntity<BulkNewsUpdateResponse> markNewsRead(@Valid @RequestBody BulkNewsUpdateRequest request) {
+        String invalid = invalidSelection(request);
+        if (invalid != null) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(BulkNewsUpdateResponse.failure(invalid));
+        }
+        int updated = marketIntelligenceService.setRead(toSelection(request), !Boolean.FALSE.equals(request.getValue()));
+        return ResponseEntity.ok(BulkNewsUpdateResponse.of(updated));
+    }
+
+    /**
+     * Bookmark (or with value=false, un-bookmark) many news items in one update
+     *
+     * POST /api/v1/market-intelligence/news/bookmark {"ids": [1, 2, 3]}
+     */
+    @PostMapping("/news/bookmark")
+    public ResponseEntity<BulkNewsUpdateResponse> bookmarkNews(@Valid @RequestBody BulkNewsUpdateRequest request) {
+        String invalid = invalidSelection(request);
+        if (invalid != null) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(BulkNewsUpdateResponse.failure(invalid));
+        }
+        int updated = marketIntelligenceService.setBookmarked(
+            toSelection(request), !Boolean.FALSE.equals(request.getValue()));
+        return ResponseEntity.ok(BulkNewsUpdateResponse.of(updated));
+    }
+
+    /**
+     * Fetch the configured news feeds now
+     *
+     * POST /api/v1/market-intelligence/news/fetch?industry=Retail&location=Berlin
+     */
+    @PostMapping("/news/fetch")
+    public ResponseEntity<ApiStatusResponse> fetchNews(
+        @RequestParam(required = false) String industry,
+        @RequestParam(required = false) String location
+    ) {
+        int stored = marketIntelligenceService.fetchLatestNews(industry, location);
+        return ResponseEntity.ok(ApiStatusResponse.ok("Stored " + stored + " new articles"));
+    }
+
+    /**
+     * Full-text news search, ranked by relevance with highlighted matches
+     *
+     * GET /api/v1/market-intelligence/news/search?q=price+cut+-rumor&category=COMPETITOR&from=2026-10-01T00:00:00&limit=20
+     */
+    @GetMapping("/news/search")
+    public ResponseEntity<NewsSearchResponse> searchNews(
+        @RequestParam String q,
+        @RequestParam(required = false) String category,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+        @RequestParam(defaultValue = "20") int limit
+    ) {
+        if (q.isBlank() || q.length() > MAX_QUERY_CHARS) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(NewsSearchResponse.failure("q must be 1 to " + MAX_QUERY_CHARS + " characters"));
+        }
+        if (from != null && to != null && !from.isBefore(to)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(NewsSearchResponse.failure("from must be before to"));
+        }
+        long start = System.currentTimeMillis();
+        NewsSearchQuery query = new NewsSearchQuery(
+            q.strip(),
+            upperCaseOrNull(category),
+            from,
+            to,
+            Math.max(1, Math.min(limit, MAX_SEARCH_RESULTS)));
+        List<NewsSearchHit> results = newsSearchIndex.search(query);
+        return ResponseEntity.ok(NewsSearchResponse.of(query.text(), System.currentTimeMillis() - start, results));
+    }
+
+    /**
+     * Price history of a competitor as runs of unchanged price, oldest first
+     *
+     * GET /api/v1/market-intelligence/competitors/7/prices
+     */
+    @GetMapping("/competitors/{id}/prices")
+    public ResponseEntity<PriceHistoryResponse> getPriceHistory(@PathVariable Long id) {
+        return ResponseEntity.ok(PriceHistoryResponse.of(id, priceMonitorService.getHistory(id)));
+    }
+
+    /**
+     * Check all monitored competitor price pages now
+     *
+     * POST /api/v1/market-intelligence/competitors/prices/check
+     */
+    @PostMapping("/competitors/prices/check")
+    public ResponseEntity<ApiStatusResponse> checkPrices() {
+        int changed = priceMonitorService.poll();
+        return ResponseEntity.ok(ApiStatusResponse.ok(changed + " competitor prices changed"));
+    }
+
+    /**
+     * Top news keywords of the last hour, day or week
+     *
+     * GET /api/v1/market-intelligence/keywords/top?window=day&limit=10
+     */
+    @GetMapping("/keywords/top")
+    public ResponseEntity<KeywordTrendResponse> getTopKeywords(
+        @RequestParam(defaultValue = "day") String window,
+        @RequestParam(defaultValue = "10") int limit
+    ) {
+        KeywordTrendTracker.Window parsed;
+        try {
+            parsed = KeywordTrendTracker.Window.valueOf(window.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(KeywordTrendResponse.failure("window must be one of hour, day, week"));
+        }
+        int bounded = Math.max(1, Math.min(limit, MAX_KEYWORDS));
+        return ResponseEntity.ok(KeywordTrendResponse.of(
+            window.toLowerCase(Locale.ROOT), keywordTrendTracker.top(parsed, bounded)));
+    }
+
+    /**
+     * Sentiment time series, overall or for one category, industry or competitor id
+     *
+     * GET /api/v1/market-intelligence/sentiment/timeseries?dimension=category&key=COMPETITOR&resolution=hour&buckets=48
+     */
+    @GetMapping("/sentiment/timeseries")
+    public ResponseEntity<SentimentTimeSeriesResponse> getSentimentTimeSeries(
+        @RequestParam(defaultValue = "all") String dimension,
+        @RequestParam(required = false) String key,
+        @RequestParam(defaultValue = "hour") String resolution,
+        @RequestParam(defaultValue = "24") int buckets
+    ) {
+        SentimentTimeSeries.Dimension parsedDimension;
+        SentimentTimeSeries.Resolution parsedResolution;
+        try {
+            parsedDimension = SentimentTimeSeries.Dimension.valueOf(dimension.toUpperCase(Locale.ROOT));
+            parsedResolution = SentimentTimeSeries.Resolution.valueOf(resolution.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(SentimentTimeSeriesResponse.failure(
+                "dimension must be one of all, category, industry, competitor and resolution one of minute, hour"));
+        }
+        if (parsedDimension != SentimentTimeSeries.Dimension.ALL && (key == null || key.isBlank())) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(SentimentTimeSeriesResponse.failure("key is required for dimension " + dimension));
+        }
+
+        List<SentimentPoint> points = sentimentTimeSeries.points(
+            parsedDimension, key, parsedResolution, Math.max(1, buckets));
+        long count = points.stream().mapToLong(SentimentPoint::count).sum();
+        double sum = points.stream()
+            .filter(point -> point.average() != null)
+            .mapToDouble(point -> point.average() * point.count())
+            .sum();
+        return ResponseEntity.ok(new SentimentTimeSeriesResponse(
+            true,
+            null,
+            parsedDimension.name().toLowerCase(Locale.ROOT),
+            key,
+            parsedResolution.name().toLowerCase(Locale.ROOT),
+            count > 0 ? sum / count : null,
+            points
+        ));
+    }
+
+    /**
+     * Why the request selects no well-defined set of news, or null when it does
+     */
+    private static String invalidSelection(BulkNewsUpdateRequest request) {
+        boolean filtered = blankToNull(request.getCategory()) != null || request.getBefore() != null;
+        if (request.getIds() != null && filtered) {
+            return "Use either ids or category/before, not both";
+        }
+        if (request.getIds() == null && !filtered) {
+            return "Give ids or at least one of category/before";
+        }
+        return null;
+    }
+
+    private static NewsSelection toSelection(BulkNewsUpdateRequest request) {
+        if (request.getIds() != null) {
+            return NewsSelection.byIds(request.getIds());
+        }
+        return NewsSelection.byFilter(upperCaseOrNull(request.getCategory()), request.getBefore());
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.strip();
+    }
+
+    private static String upperCaseOrNull(String value) {
+        String stripped = blankToNull(value);
+        return stripped != null ? stripped.toUpperCase(Locale.ROOT) : null;
+    }
+}
@@ -1,6 +1,8 @@
 package com.sme.analytics.controller;
 
+import com.sme.analytics.dto.ApiStatusResponse;
 import com.sme.analytics.dto.EmailReportRequest;
+import com.sme.analytics.dto.HealthResponse;
 import com.sme.analytics.service.EmailService;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
@@ -9,9 +11,6 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.HashMap;
-import java.util.Map;
-
 /**
  * REST controller for report operations
  */
@@ -44,11 +43,9 @@ public class ReportController {
      * @return Response with success/failure status
      */
     @PostMapping("/email")
-    public ResponseEntity<Map<String, Object>> sendReportEmail(@Valid @RequestBody EmailReportRequest request) {
+    public ResponseEntity<ApiStatusResponse> sendReportEmail(@Valid @RequestBody EmailReportRequest request) {
         logger.info("Received request to email report to: {}", request.getEmail());
         
-        Map<String, Object> response = new HashMap<>();
-        
         try {
             emailService.sendReport(
                 request.getEmail(), 
@@ -56,20 +53,17 @@ public class ReportController {
                 request.getReportType()
             );
             
-            response.put("success", true);
-            response.put("message", "Report successfully sent to " + request.getEmail());
-            
             logger.info("Successfully sent report to {}", request.getEmail());
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(ApiStatusResponse.ok("Report successfully sent to " + request.getEmail()));
             
         } catch (Exception e) {
             logger.error("Failed to send report to {}: {}", request.getEmail(), e.getMessage(), e);
             
-            response.put("success", false);
-            response.put("message", "Failed to send email: " + e.getMessage());
-            response.put("error", e.getClass().getSimpleName());
-            
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(new ApiStatusResponse(
+                false,
+                "Failed to send email: " + e.getMessage(),
+                e.getClass().getSimpleName()
+            ));
         }
     }
     
@@ -77,10 +71,7 @@ public class ReportController {
      * Health check endpoint
      */
     @GetMapping("/health")
-    public ResponseEntity<Map<String, String>> health() {
-        Map<String, String> response = new HashMap<>();
-        response.put("status", "UP");
-        response.put("service", "ReportController");
-        return ResponseEntity.ok(response);
+    public ResponseEntity<HealthResponse> health() {
+        return ResponseEntity.ok(new HealthResponse("UP", "ReportController"));
     }
 }
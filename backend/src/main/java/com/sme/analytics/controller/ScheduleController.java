@@ -1,6 +1,10 @@
 package com.sme.analytics.controller;
 
+import com.sme.analytics.dto.ApiStatusResponse;
+import com.sme.analytics.dto.ScheduleDTO;
 import com.sme.analytics.dto.ScheduleRequest;
+import com.sme.analytics.dto.ScheduleResponse;
+import com.sme.analytics.mapper.ScheduleMapper;
 import com.sme.analytics.model.ComparisonSchedule;
 import com.sme.analytics.service.ScheduleService;
 import jakarta.validation.Valid;
@@ -10,9 +14,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 /**
  * REST controller for comparison schedules
@@ -25,9 +27,11 @@ public class ScheduleController {
     private static final Logger logger = LoggerFactory.getLogger(ScheduleController.class);
     
     private final ScheduleService scheduleService;
+    private final ScheduleMapper scheduleMapper;
     
-    public ScheduleController(ScheduleService scheduleService) {
+    public ScheduleController(ScheduleService scheduleService, ScheduleMapper scheduleMapper) {
         this.scheduleService = scheduleService;
+        this.scheduleMapper = scheduleMapper;
     }
     
     /**
@@ -35,7 +39,7 @@ public class ScheduleController {
      * GET /api/schedules
      */
     @GetMapping
-    public ResponseEntity<List<ComparisonSchedule>> getAllSchedules(
+    public ResponseEntity<List<ScheduleDTO>> getAllSchedules(
             @RequestParam(required = false, defaultValue = "false") boolean activeOnly) {
         
         logger.info("Fetching schedules (activeOnly={})", activeOnly);
@@ -44,7 +48,7 @@ public class ScheduleController {
             ? scheduleService.getActiveSchedules() 
             : scheduleService.getAllSchedules();
         
-        return ResponseEntity.ok(schedules);
+        return ResponseEntity.ok(scheduleMapper.toDtos(schedules));
     }
     
     /**
@@ -52,10 +56,11 @@ public class ScheduleController {
      * GET /api/schedules/{id}
      */
     @GetMapping("/{id}")
-    public ResponseEntity<ComparisonSchedule> getScheduleById(@PathVariable Long id) {
+    public ResponseEntity<ScheduleDTO> getScheduleById(@PathVariable Long id) {
         logger.info("Fetching schedule: {}", id);
         
         return scheduleService.getScheduleById(id)
+            .map(scheduleMapper::toDto)
             .map(ResponseEntity::ok)
             .orElse(ResponseEntity.notFound().build());
     }
@@ -65,35 +70,20 @@ public class ScheduleController {
      * POST /api/schedules
      */
     @PostMapping
-    public ResponseEntity<Map<String, Object>> createSchedule(@Valid @RequestBody ScheduleRequest request) {
+    public ResponseEntity<ScheduleResponse> createSchedule(@Valid @RequestBody ScheduleRequest request) {
         logger.info("Creating new schedule: {}", request);
         
-        Map<String, Object> response = new HashMap<>();
-        
         try {
-            ComparisonSchedule schedule = new ComparisonSchedule();
-            schedule.setName(request.getName());
-            schedule.setRecipientEmail(request.getRecipientEmail());
-            schedule.setFrequency(request.getFrequency());
-            schedule.setActive(request.getActive());
-            schedule.setDataSourceConfig(request.getDataSourceConfig());
-            schedule.setReportTemplate(request.getReportTemplate());
-            
-            ComparisonSchedule created = scheduleService.createSchedule(schedule);
-            
-            response.put("success", true);
-            response.put("message", "Schedule created successfully");
-            response.put("schedule", created);
+            ComparisonSchedule created = scheduleService.createSchedule(scheduleMapper.toEntity(request));
             
-            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+            return ResponseEntity.status(HttpStatus.CREATED).body(
+                new ScheduleResponse(true, "Schedule created successfully", scheduleMapper.toDto(created)));
             
         } catch (Exception e) {
             logger.error("Failed to create schedule: {}", e.getMessage(), e);
             
-            response.put("success", false);
-            response.put("message", "Failed to create schedule: " + e.getMessage());
-            
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(ScheduleResponse.failure("Failed to create schedule: " + e.getMessage()));
         }
     }
     
@@ -102,38 +92,22 @@ public class ScheduleController {
      * PUT /api/schedules/{id}
      */
     @PutMapping("/{id}")
-    public ResponseEntity<Map<String, Object>> updateSchedule(
+    public ResponseEntity<ScheduleResponse> updateSchedule(
             @PathVariable Long id,
             @Valid @RequestBody ScheduleRequest request) {
         
         logger.info("Updating schedule: {}", id);
         
-        Map<String, Object> response = new HashMap<>();
-        
         try {
-            ComparisonSchedule schedule = new ComparisonSchedule();
-            schedule.setName(request.getName());
-            schedule.setRecipientEmail(request.getRecipientEmail());
-            schedule.setFrequency(request.getFrequency());
-            schedule.setActive(request.getActive());
-            schedule.setDataSourceConfig(request.getDataSourceConfig());
-            schedule.setReportTemplate(request.getReportTemplate());
+            ComparisonSchedule updated = scheduleService.updateSchedule(id, scheduleMapper.toEntity(request));
             
-            ComparisonSchedule updated = scheduleService.updateSchedule(id, schedule);
-            
-            response.put("success", true);
-            response.put("message", "Schedule updated successfully");
-            response.put("schedule", updated);
-            
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(
+                new ScheduleResponse(true, "Schedule updated successfully", scheduleMapper.toDto(updated)));
             
         } catch (RuntimeException e) {
             logger.error("Failed to update schedule {}: {}", id, e.getMessage(), e);
             
-            response.put("success", false);
-            response.put("message", e.getMessage());
-            
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ScheduleResponse.failure(e.getMessage()));
         }
     }
     
@@ -142,26 +116,19 @@ public class ScheduleController {
      * DELETE /api/schedules/{id}
      */
     @DeleteMapping("/{id}")
-    public ResponseEntity<Map<String, Object>> deleteSchedule(@PathVariable Long id) {
+    public ResponseEntity<ApiStatusResponse> deleteSchedule(@PathVariable Long id) {
         logger.info("Deleting schedule: {}", id);
         
-        Map<String, Object> response = new HashMap<>();
-        
         try {
             scheduleService.deleteSchedule(id);
             
-            response.put("success", true);
-            response.put("message", "Schedule deleted successfully");
-            
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(ApiStatusResponse.ok("Schedule deleted successfully"));
             
         } catch (Exception e) {
             logger.error("Failed to delete schedule {}: {}", id, e.getMessage(), e);
             
-            response.put("success", false);
-            response.put("message", "Failed to delete schedule");
-            
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(ApiStatusResponse.failure("Failed to delete schedule"));
         }
     }
     
@@ -170,27 +137,22 @@ public class ScheduleController {
      * POST /api/schedules/{id}/toggle
      */
     @PostMapping("/{id}/toggle")
-    public ResponseEntity<Map<String, Object>> toggleSchedule(@PathVariable Long id) {
+    public ResponseEntity<ScheduleResponse> toggleSchedule(@PathVariable Long id) {
         logger.info("Toggling schedule: {}", id);
         
-        Map<String, Object> response = new HashMap<>();
-        
         try {
             ComparisonSchedule schedule = scheduleService.toggleSchedule(id);
             
-            response.put("success", true);
-            response.put("message", schedule.getActive() ? "Schedule activated" : "Schedule paused");
-            response.put("schedule", schedule);
-            
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(new ScheduleResponse(
+                true,
+                schedule.getActive() ? "Schedule activated" : "Schedule paused",
+                scheduleMapper.toDto(schedule)
+            ));
             
         } catch (RuntimeException e) {
             logger.error("Failed to toggle schedule {}: {}", id, e.getMessage(), e);
             
-            response.put("success", false);
-            response.put("message", e.getMessage());
-            
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ScheduleResponse.failure(e.getMessage()));
         }
     }
     
@@ -199,29 +161,22 @@ public class ScheduleController {
      * POST /api/schedules/{id}/execute
      */
     @PostMapping("/{id}/execute")
-    public ResponseEntity<Map<String, Object>> executeSchedule(@PathVariable Long id) {
+    public ResponseEntity<ApiStatusResponse> executeSchedule(@PathVariable Long id) {
         logger.info("Manually executing schedule: {}", id);
         
-        Map<String, Object> response = new HashMap<>();
-        
         try {
             ComparisonSchedule schedule = scheduleService.getScheduleById(id)
                 .orElseThrow(() -> new RuntimeException("Schedule not found"));
             
             scheduleService.executeSchedule(schedule);
             
-            response.put("success", true);
-            response.put("message", "Schedule executed successfully");
-            
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(ApiStatusResponse.ok("Schedule executed successfully"));
             
         } catch (Exception e) {
             logger.error("Failed to execute schedule {}: {}", id, e.getMessage(), e);
             
-            response.put("success", false);
-            response.put("message", "Failed to execute schedule: " + e.getMessage());
-            
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(ApiStatusResponse.failure("Failed to execute schedule: " + e.getMessage()));
         }
     }
 }
@@ -0,0 +1,18 @@
+package com.sme.analytics.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Response body for operations that only report success or failure
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ApiStatusResponse(boolean success, String message, String error) {
+
+    public static ApiStatusResponse ok(String message) {
+        return new ApiStatusResponse(true, message, null);
+    }
+
+    public static ApiStatusResponse failure(String message) {
+        return new ApiStatusResponse(false, message, null);
+    }
+}
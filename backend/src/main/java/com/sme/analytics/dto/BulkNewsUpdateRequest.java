@@ -0,0 +1,57 @@
+package com.sme.analytics.dto;
+
+import jakarta.validation.constraints.Size;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Request DTO for bulk read/bookmark changes.
+ * Either ids, or a filter of category and/or published-before; a request with neither is rejected.
+ */
+public class BulkNewsUpdateRequest {
+
+    @Size(max = 1000, message = "At most 1000 ids per request")
+    private List<Long> ids;
+
+    private String category;
+
+    private LocalDateTime before;
+
+    // Target flag value; defaults to true (read / bookmarked)
+    private Boolean value;
+
+    public BulkNewsUpdateRequest() {}
+
+    public List<Long> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<Long> ids) {
+        this.ids = ids;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public LocalDateTime getBefore() {
+        return before;
+    }
+
+    public void setBefore(LocalDateTime before) {
+        this.before = before;
+    }
+
+    public Boolean getValue() {
+        return value;
+    }
+
+    public void setValue(Boolean value) {
+        this.value = value;
+    }
+}
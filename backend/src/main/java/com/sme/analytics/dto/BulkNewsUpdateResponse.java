@@ -0,0 +1,18 @@
+package com.sme.analytics.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Response body for bulk read/bookmark changes; updated counts the items whose flag actually changed
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BulkNewsUpdateResponse(boolean success, String message, Integer updated) {
+
+    public static BulkNewsUpdateResponse of(int updated) {
+        return new BulkNewsUpdateResponse(true, null, updated);
+    }
+
+    public static BulkNewsUpdateResponse failure(String message) {
+        return new BulkNewsUpdateResponse(false, message, null);
+    }
+}
@@ -0,0 +1,38 @@
+package com.sme.analytics.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Event pushed to WebSocket chat subscribers.
+ * Types: message (a stored user or AI message), typing (the AI is working on a reply),
+ * conversation_updated (a conversation in the user's list has new messages) and error.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ChatEvent(
+    String type,
+    Long conversationId,
+    MessageDTO message,
+    List<String> suggestions,
+    LocalDateTime lastMessageAt,
+    String error
+) {
+
+    public static ChatEvent message(Long conversationId, MessageDTO message, List<String> suggestions) {
+        return new ChatEvent("message", conversationId, message, suggestions, null, null);
+    }
+
+    public static ChatEvent typing(Long conversationId) {
+        return new ChatEvent("typing", conversationId, null, null, null, null);
+    }
+
+    public static ChatEvent conversationUpdated(Long conversationId, LocalDateTime lastMessageAt) {
+        return new ChatEvent("conversation_updated", conversationId, null, null, lastMessageAt, null);
+    }
+
+    public static ChatEvent error(Long conversationId, String error) {
+        return new ChatEvent("error", conversationId, null, null, null, error);
+    }
+}
@@ -18,6 +18,22 @@ public class ConversationDTO {
 
     public ConversationDTO() {}
 
+    /**
+     * Projection constructor used by repository queries that select
+     * conversations together with their file name and message count
+     */
+    public ConversationDTO(Long id, Long userId, Long uploadedFileId, String title, String fileName,
+                           LocalDateTime lastMessageAt, LocalDateTime createdAt, Long messageCount) {
+        this.id = id;
+        this.userId = userId;
+        this.uploadedFileId = uploadedFileId;
+        this.title = title;
+        this.fileName = fileName;
+        this.lastMessageAt = lastMessageAt;
+        this.createdAt = createdAt;
+        this.messageCount = messageCount != null ? messageCount.intValue() : 0;
+    }
+
     // Getters and Setters
     public Long getId() {
         return id;
@@ -0,0 +1,25 @@
+package com.sme.analytics.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * Response body for a user's conversation list
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ConversationListResponse(
+    boolean success,
+    String message,
+    List<ConversationDTO> conversations,
+    Integer count
+) {
+
+    public static ConversationListResponse of(List<ConversationDTO> conversations) {
+        return new ConversationListResponse(true, null, conversations, conversations.size());
+    }
+
+    public static ConversationListResponse failure(String message) {
+        return new ConversationListResponse(false, message, null, null);
+    }
+}
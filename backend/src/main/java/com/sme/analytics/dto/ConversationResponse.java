@@ -0,0 +1,14 @@
+package com.sme.analytics.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Response body for a single conversation
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ConversationResponse(boolean success, String message, ConversationDTO conversation) {
+
+    public static ConversationResponse failure(String message) {
+        return new ConversationResponse(false, message, null);
+    }
+}
@@ -0,0 +1,7 @@
+package com.sme.analytics.dto;
+
+/**
+ * Response body for controller-level health checks
+ */
+public record HealthResponse(String status, String service) {
+}
@@ -0,0 +1,7 @@
+package com.sme.analytics.dto;
+
+/**
+ * Estimated number of news items mentioning a keyword within a time window
+ */
+public record KeywordCount(String keyword, long count) {
+}
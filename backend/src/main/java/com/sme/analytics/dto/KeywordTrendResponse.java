@@ -0,0 +1,25 @@
+package com.sme.analytics.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * Response body for the top keywords of a trailing window
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record KeywordTrendResponse(
+    boolean success,
+    String message,
+    String window,
+    List<KeywordCount> keywords
+) {
+
+    public static KeywordTrendResponse of(String window, List<KeywordCount> keywords) {
+        return new KeywordTrendResponse(true, null, window, keywords);
+    }
+
+    public static KeywordTrendResponse failure(String message) {
+        return new KeywordTrendResponse(false, message, null, null);
+    }
+}
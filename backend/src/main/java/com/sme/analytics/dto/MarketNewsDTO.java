@@ -24,6 +24,7 @@ public class MarketNewsDTO {
     private String impactLevel;
     private Boolean isRead;
     private Boolean isBookmarked;
+    private Long canonicalNewsId;
 
     public MarketNewsDTO() {}
 
@@ -171,4 +172,12 @@ public class MarketNewsDTO {
     public void setIsBookmarked(Boolean isBookmarked) {
         this.isBookmarked = isBookmarked;
     }
+
+    public Long getCanonicalNewsId() {
+        return canonicalNewsId;
+    }
+
+    public void setCanonicalNewsId(Long canonicalNewsId) {
+        this.canonicalNewsId = canonicalNewsId;
+    }
 }
@@ -0,0 +1,20 @@
+package com.sme.analytics.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * Response body for the messages of a conversation
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record MessageListResponse(boolean success, String message, List<MessageDTO> messages, Integer count) {
+
+    public static MessageListResponse of(List<MessageDTO> messages) {
+        return new MessageListResponse(true, null, messages, messages.size());
+    }
+
+    public static MessageListResponse failure(String message) {
+        return new MessageListResponse(false, message, null, null);
+    }
+}
@@ -0,0 +1,25 @@
+package com.sme.analytics.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * One page of the news feed; nextCursor is absent on the last page
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record NewsFeedResponse(
+    boolean success,
+    String message,
+    List<MarketNewsDTO> news,
+    String nextCursor
+) {
+
+    public static NewsFeedResponse of(List<MarketNewsDTO> news, String nextCursor) {
+        return new NewsFeedResponse(true, null, news, nextCursor);
+    }
+
+    public static NewsFeedResponse failure(String message) {
+        return new NewsFeedResponse(false, message, null, null);
+    }
+}
@@ -0,0 +1,8 @@
+package com.sme.analytics.dto;
+
+/**
+ * One search result: the article, its relevance score and highlighted title and summary excerpt.
+ * The highlights are HTML: the feed text is escaped and only the mark tags around matches are markup.
+ */
+public record NewsSearchHit(MarketNewsDTO news, double score, String titleHighlight, String summaryHighlight) {
+}
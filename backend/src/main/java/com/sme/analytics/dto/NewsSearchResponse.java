@@ -0,0 +1,26 @@
+package com.sme.analytics.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * Response body for a market news search
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record NewsSearchResponse(
+    boolean success,
+    String message,
+    String query,
+    Long tookMs,
+    List<NewsSearchHit> results
+) {
+
+    public static NewsSearchResponse of(String query, long tookMs, List<NewsSearchHit> results) {
+        return new NewsSearchResponse(true, null, query, tookMs, results);
+    }
+
+    public static NewsSearchResponse failure(String message) {
+        return new NewsSearchResponse(false, message, null, null, null);
+    }
+}
@@ -0,0 +1,25 @@
+package com.sme.analytics.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * Response body for a competitor's price history
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record PriceHistoryResponse(
+    boolean success,
+    String message,
+    Long competitorId,
+    List<PricePoint> history
+) {
+
+    public static PriceHistoryResponse of(Long competitorId, List<PricePoint> history) {
+        return new PriceHistoryResponse(true, null, competitorId, history);
+    }
+
+    public static PriceHistoryResponse failure(String message) {
+        return new PriceHistoryResponse(false, message, null, null);
+    }
+}
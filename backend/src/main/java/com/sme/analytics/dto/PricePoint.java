@@ -0,0 +1,9 @@
+package com.sme.analytics.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * A price observed unchanged from firstSeenAt to lastSeenAt, over the given number of checks
+ */
+public record PricePoint(Double price, LocalDateTime firstSeenAt, LocalDateTime lastSeenAt, int observations) {
+}
@@ -0,0 +1,22 @@
+package com.sme.analytics.dto;
+
+import com.sme.analytics.model.ComparisonSchedule.ScheduleFrequency;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO for ComparisonSchedule entity
+ */
+public record ScheduleDTO(
+    Long id,
+    String name,
+    String recipientEmail,
+    ScheduleFrequency frequency,
+    Boolean active,
+    LocalDateTime createdAt,
+    LocalDateTime lastRunAt,
+    LocalDateTime nextRunAt,
+    String dataSourceConfig,
+    String reportTemplate
+) {
+}
@@ -0,0 +1,14 @@
+package com.sme.analytics.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Response body for schedule create/update/toggle
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ScheduleResponse(boolean success, String message, ScheduleDTO schedule) {
+
+    public static ScheduleResponse failure(String message) {
+        return new ScheduleResponse(false, message, null);
+    }
+}
@@ -0,0 +1,22 @@
+package com.sme.analytics.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * Response body for a chat message: the stored user message, the AI reply and follow-up suggestions
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record SendMessageResponse(
+    boolean success,
+    String message,
+    MessageDTO userMessage,
+    MessageDTO aiMessage,
+    List<String> suggestions
+) {
+
+    public static SendMessageResponse failure(String message) {
+        return new SendMessageResponse(false, message, null, null, null);
+    }
+}
@@ -0,0 +1,9 @@
+package com.sme.analytics.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Average sentiment of the news published in one time bucket; average is null when the bucket is empty
+ */
+public record SentimentPoint(LocalDateTime bucketStart, Double average, long count) {
+}
@@ -0,0 +1,24 @@
+package com.sme.analytics.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * Response body for a sentiment time series
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record SentimentTimeSeriesResponse(
+    boolean success,
+    String message,
+    String dimension,
+    String key,
+    String resolution,
+    Double average,
+    List<SentimentPoint> points
+) {
+
+    public static SentimentTimeSeriesResponse failure(String message) {
+        return new SentimentTimeSeriesResponse(false, message, null, null, null, null, null);
+    }
+}
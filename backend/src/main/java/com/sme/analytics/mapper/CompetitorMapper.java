@@ -0,0 +1,18 @@
+package com.sme.analytics.mapper;
+
+import com.sme.analytics.dto.CompetitorDTO;
+import com.sme.analytics.model.Competitor;
+import org.mapstruct.Mapper;
+
+import java.util.List;
+
+/**
+ * Compile-time mapper from Competitor entities to DTOs
+ */
+@Mapper(componentModel = "spring")
+public interface CompetitorMapper {
+
+    CompetitorDTO toDto(Competitor competitor);
+
+    List<CompetitorDTO> toDtos(List<Competitor> competitors);
+}
@@ -0,0 +1,18 @@
+package com.sme.analytics.mapper;
+
+import com.sme.analytics.dto.PricePoint;
+import com.sme.analytics.model.CompetitorPriceHistory;
+import org.mapstruct.Mapper;
+
+import java.util.List;
+
+/**
+ * Compile-time mapper from price history runs to price points
+ */
+@Mapper(componentModel = "spring")
+public interface CompetitorPriceHistoryMapper {
+
+    PricePoint toPoint(CompetitorPriceHistory history);
+
+    List<PricePoint> toPoints(List<CompetitorPriceHistory> history);
+}
@@ -0,0 +1,23 @@
+package com.sme.analytics.mapper;
+
+import com.sme.analytics.dto.MarketNewsDTO;
+import com.sme.analytics.model.MarketNews;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+import java.util.List;
+
+/**
+ * Compile-time mapper from MarketNews entities to DTOs
+ */
+@Mapper(componentModel = "spring")
+public interface MarketNewsMapper {
+
+    @Mapping(target = "relatedCompetitorId", source = "relatedCompetitor.id")
+    @Mapping(target = "relatedCompetitorName", source = "relatedCompetitor.name")
+    MarketNewsDTO toDto(MarketNews news);
+
+    List<MarketNewsDTO> toDtos(List<MarketNews> news);
+
+    MarketNewsDTO copy(MarketNewsDTO news);
+}
@@ -0,0 +1,20 @@
+package com.sme.analytics.mapper;
+
+import com.sme.analytics.dto.MessageDTO;
+import com.sme.analytics.model.Message;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+import java.util.List;
+
+/**
+ * Compile-time mapper from Message entities to DTOs
+ */
+@Mapper(componentModel = "spring")
+public interface MessageMapper {
+
+    @Mapping(target = "conversationId", source = "conversation.id")
+    MessageDTO toDto(Message message);
+
+    List<MessageDTO> toDtos(List<Message> messages);
+}
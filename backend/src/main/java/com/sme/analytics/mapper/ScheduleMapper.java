@@ -0,0 +1,26 @@
+package com.sme.analytics.mapper;
+
+import com.sme.analytics.dto.ScheduleDTO;
+import com.sme.analytics.dto.ScheduleRequest;
+import com.sme.analytics.model.ComparisonSchedule;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+import java.util.List;
+
+/**
+ * Compile-time mapper between comparison schedules, their DTOs and create/update requests
+ */
+@Mapper(componentModel = "spring")
+public interface ScheduleMapper {
+
+    ScheduleDTO toDto(ComparisonSchedule schedule);
+
+    List<ScheduleDTO> toDtos(List<ComparisonSchedule> schedules);
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "createdAt", ignore = true)
+    @Mapping(target = "lastRunAt", ignore = true)
+    @Mapping(target = "nextRunAt", ignore = true)
+    ComparisonSchedule toEntity(ScheduleRequest request);
+}
@@ -56,6 +56,13 @@ public class Competitor {
     @Column
     private LocalDateTime priceLastUpdated;
 
+    // Validators from the last price page response, sent back to make the next check conditional
+    @Column(length = 512)
+    private String priceEtag;
+
+    @Column(length = 64)
+    private String priceLastModified;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -166,6 +173,22 @@ public class Competitor {
         this.priceLastUpdated = priceLastUpdated;
     }
 
+    public String getPriceEtag() {
+        return priceEtag;
+    }
+
+    public void setPriceEtag(String priceEtag) {
+        this.priceEtag = priceEtag;
+    }
+
+    public String getPriceLastModified() {
+        return priceLastModified;
+    }
+
+    public void setPriceLastModified(String priceLastModified) {
+        this.priceLastModified = priceLastModified;
+    }
+
     @Override
     public String toString() {
         return String.format("Competitor{id=%d, name='%s', industry='%s', active=%s}",
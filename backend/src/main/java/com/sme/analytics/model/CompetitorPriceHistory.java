@@ -0,0 +1,102 @@
+package com.sme.analytics.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * One run of identical price observations for a competitor.
+ * History is run-length encoded: a row is added only when the price changes, and repeated
+ * observations of the same price just extend lastSeenAt and the observation count.
+ */
+@Entity
+@Table(
+    name = "competitor_price_history",
+    indexes = @Index(name = "idx_price_history_competitor_first_seen", columnList = "competitor_id, first_seen_at")
+)
+public class CompetitorPriceHistory {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "competitor_id", nullable = false)
+    private Long competitorId;
+
+    @Column(nullable = false)
+    private Double price;
+
+    @Column(name = "first_seen_at", nullable = false)
+    private LocalDateTime firstSeenAt;
+
+    @Column(name = "last_seen_at", nullable = false)
+    private LocalDateTime lastSeenAt;
+
+    @Column(nullable = false)
+    private Integer observations = 1;
+
+    public CompetitorPriceHistory() {}
+
+    public CompetitorPriceHistory(Long competitorId, Double price, LocalDateTime observedAt) {
+        this.competitorId = competitorId;
+        this.price = price;
+        this.firstSeenAt = observedAt;
+        this.lastSeenAt = observedAt;
+    }
+
+    /**
+     * Count another observation of the same price
+     */
+    public void extend(LocalDateTime observedAt) {
+        lastSeenAt = observedAt;
+        observations++;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getCompetitorId() {
+        return competitorId;
+    }
+
+    public void setCompetitorId(Long competitorId) {
+        this.competitorId = competitorId;
+    }
+
+    public Double getPrice() {
+        return price;
+    }
+
+    public void setPrice(Double price) {
+        this.price = price;
+    }
+
+    public LocalDateTime getFirstSeenAt() {
+        return firstSeenAt;
+    }
+
+    public void setFirstSeenAt(LocalDateTime firstSeenAt) {
+        this.firstSeenAt = firstSeenAt;
+    }
+
+    public LocalDateTime getLastSeenAt() {
+        return lastSeenAt;
+    }
+
+    public void setLastSeenAt(LocalDateTime lastSeenAt) {
+        this.lastSeenAt = lastSeenAt;
+    }
+
+    public Integer getObservations() {
+        return observations;
+    }
+
+    public void setObservations(Integer observations) {
+        this.observations = observations;
+    }
+}
@@ -1,5 +1,6 @@
 package com.sme.analytics.model;
 
+import com.sme.analytics.util.UrlHashes;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
@@ -7,7 +8,20 @@ import java.time.LocalDateTime;
  * Entity representing market news and intelligence
  */
 @Entity
-@Table(name = "market_news")
+@Table(
+    name = "market_news",
+    uniqueConstraints = @UniqueConstraint(name = "uk_market_news_url_hash", columnNames = "url_hash"),
+    // Keyset feed pages: each filter column leads, followed by the (published_at, id) sort key
+    indexes = {
+        @Index(name = "idx_market_news_published_id", columnList = "published_at, id"),
+        @Index(name = "idx_market_news_category_published_id", columnList = "category, published_at, id"),
+        @Index(name = "idx_market_news_industry_published_id", columnList = "industry, published_at, id"),
+        @Index(name = "idx_market_news_competitor_published_id", columnList = "competitor_id, published_at, id"),
+        @Index(name = "idx_market_news_impact_published_id", columnList = "impact_level, published_at, id"),
+        @Index(name = "idx_market_news_read_published_id", columnList = "is_read, published_at, id"),
+        @Index(name = "idx_market_news_canonical", columnList = "canonical_news_id")
+    }
+)
 public class MarketNews {
 
     @Id
@@ -23,6 +37,18 @@ public class MarketNews {
     @Column(nullable = false, length = 2000)
     private String url;
 
+    // SHA-256 of the normalized URL; unique, so each article is stored once
+    @Column(name = "url_hash", nullable = false, length = 64)
+    private String urlHash;
+
+    // SimHash of title and summary for near-duplicate detection; null when the text is too short
+    @Column
+    private Long simhash;
+
+    // Set on near duplicates: id of the first stored article of the same story
+    @Column(name = "canonical_news_id")
+    private Long canonicalNewsId;
+
     @Column
     private String source;
 
@@ -39,7 +65,7 @@ public class MarketNews {
     @JoinColumn(name = "competitor_id")
     private Competitor relatedCompetitor;
 
-    @Column
+    @Column(nullable = false)
     private LocalDateTime publishedAt;
 
     @Column
@@ -66,6 +92,12 @@ public class MarketNews {
     @PrePersist
     protected void onCreate() {
         fetchedAt = LocalDateTime.now();
+        if (publishedAt == null) {
+            publishedAt = fetchedAt;
+        }
+        if (urlHash == null && url != null) {
+            urlHash = UrlHashes.hash(url);
+        }
     }
 
     // Getters and Setters
@@ -101,6 +133,30 @@ public class MarketNews {
         this.url = url;
     }
 
+    public String getUrlHash() {
+        return urlHash;
+    }
+
+    public void setUrlHash(String urlHash) {
+        this.urlHash = urlHash;
+    }
+
+    public Long getSimhash() {
+        return simhash;
+    }
+
+    public void setSimhash(Long simhash) {
+        this.simhash = simhash;
+    }
+
+    public Long getCanonicalNewsId() {
+        return canonicalNewsId;
+    }
+
+    public void setCanonicalNewsId(Long canonicalNewsId) {
+        this.canonicalNewsId = canonicalNewsId;
+    }
+
     public String getSource() {
         return source;
     }
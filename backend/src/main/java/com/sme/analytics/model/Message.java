@@ -6,6 +6,7 @@ import jakarta.validation.constraints.NotNull;
 import org.hibernate.annotations.Type;
 import io.hypersistence.utils.hibernate.type.json.JsonBinaryType;
 import java.time.LocalDateTime;
+import java.util.Map;
 
 /**
  * Entity representing a chat message in a conversation
@@ -33,7 +34,7 @@ public class Message {
 
     @Type(JsonBinaryType.class)
     @Column(columnDefinition = "jsonb")
-    private String metadata; // JSON string for additional context
+    private Map<String, Object> metadata; // additional context (confidence, suggestions, ...)
 
     @Column(nullable = false, name = "created_at")
     private LocalDateTime createdAt;
@@ -76,11 +77,11 @@ public class Message {
         this.content = content;
     }
 
-    public String getMetadata() {
+    public Map<String, Object> getMetadata() {
         return metadata;
     }
 
-    public void setMetadata(String metadata) {
+    public void setMetadata(Map<String, Object> metadata) {
         this.metadata = metadata;
     }
 
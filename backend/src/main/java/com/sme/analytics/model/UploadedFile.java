@@ -1,11 +1,13 @@
 package com.sme.analytics.model;
 
+import com.sme.analytics.dto.DataInsight;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import org.hibernate.annotations.Type;
 import io.hypersistence.utils.hibernate.type.json.JsonBinaryType;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -57,15 +59,15 @@ public class UploadedFile {
 
     @Type(JsonBinaryType.class)
     @Column(name = "insights", columnDefinition = "jsonb")
-    private String insights; // JSON string for insights
+    private List<DataInsight> insights;
 
     @Type(JsonBinaryType.class)
     @Column(name = "statistics", columnDefinition = "jsonb")
-    private String statistics; // JSON string for statistics
+    private Map<String, Object> statistics; // column name -> statistic name -> value
 
     @Type(JsonBinaryType.class)
     @Column(name = "predictions", columnDefinition = "jsonb")
-    private String predictions; // JSON string for predictions
+    private Map<String, Object> predictions;
 
     @Column(nullable = false, name = "uploaded_at")
     private LocalDateTime uploadedAt;
@@ -167,27 +169,27 @@ public class UploadedFile {
         this.columnCount = columnCount;
     }
 
-    public String getInsights() {
+    public List<DataInsight> getInsights() {
         return insights;
     }
 
-    public void setInsights(String insights) {
+    public void setInsights(List<DataInsight> insights) {
         this.insights = insights;
     }
 
-    public String getStatistics() {
+    public Map<String, Object> getStatistics() {
         return statistics;
     }
 
-    public void setStatistics(String statistics) {
+    public void setStatistics(Map<String, Object> statistics) {
         this.statistics = statistics;
     }
 
-    public String getPredictions() {
+    public Map<String, Object> getPredictions() {
         return predictions;
     }
 
-    public void setPredictions(String predictions) {
+    public void setPredictions(Map<String, Object> predictions) {
         this.predictions = predictions;
     }
 
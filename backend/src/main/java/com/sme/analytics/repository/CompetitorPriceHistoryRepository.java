@@ -0,0 +1,35 @@
+package com.sme.analytics.repository;
+
+import com.sme.analytics.model.CompetitorPriceHistory;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository for run-length encoded competitor price history
+ */
+@Repository
+public interface CompetitorPriceHistoryRepository extends JpaRepository<CompetitorPriceHistory, Long> {
+
+    /**
+     * Latest price run of a competitor
+     */
+    Optional<CompetitorPriceHistory> findTopByCompetitorIdOrderByFirstSeenAtDesc(Long competitorId);
+
+    /**
+     * Full price history of a competitor, oldest first
+     */
+    List<CompetitorPriceHistory> findByCompetitorIdOrderByFirstSeenAtAsc(Long competitorId);
+
+    /**
+     * Remove the history of a deleted competitor
+     */
+    @Modifying
+    @Query("DELETE FROM CompetitorPriceHistory h WHERE h.competitorId = :competitorId")
+    int deleteByCompetitorId(@Param("competitorId") Long competitorId);
+}
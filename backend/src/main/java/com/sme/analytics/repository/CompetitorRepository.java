@@ -2,6 +2,7 @@ package com.sme.analytics.repository;
 
 import com.sme.analytics.model.Competitor;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -17,6 +18,17 @@ public interface CompetitorRepository extends JpaRepository<Competitor, Long> {
      */
     List<Competitor> findByActiveTrue();
 
+    /**
+     * Find active competitors with a price page to monitor
+     */
+    List<Competitor> findByActiveTrueAndPriceMonitoringUrlIsNotNull();
+
+    /**
+     * Find all active competitors with their monitoring keywords in one query
+     */
+    @Query("SELECT DISTINCT c FROM Competitor c LEFT JOIN FETCH c.monitoringKeywords WHERE c.active = true")
+    List<Competitor> findActiveWithKeywords();
+
     /**
      * Find competitors by industry
      */
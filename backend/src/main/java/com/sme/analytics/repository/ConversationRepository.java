@@ -1,9 +1,12 @@
 package com.sme.analytics.repository;
 
+import com.sme.analytics.dto.ConversationDTO;
 import com.sme.analytics.model.Conversation;
 import com.sme.analytics.model.UploadedFile;
 import com.sme.analytics.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -39,4 +42,27 @@ public interface ConversationRepository extends JpaRepository<Conversation, Long
      * Find conversation by user and uploaded file
      */
     Optional<Conversation> findByUserAndUploadedFile(User user, UploadedFile uploadedFile);
+
+    /**
+     * Find conversation summaries for a user ID, including file name and message count.
+     * Selects only the columns the listing needs, so the uploaded file's content and
+     * JSON columns are never loaded.
+     */
+    @Query("SELECT new com.sme.analytics.dto.ConversationDTO(" +
+           "c.id, c.user.id, f.id, c.title, f.fileName, c.lastMessageAt, c.createdAt, " +
+           "(SELECT COUNT(m.id) FROM Message m WHERE m.conversation = c)) " +
+           "FROM Conversation c JOIN c.uploadedFile f " +
+           "WHERE c.user.id = :userId " +
+           "ORDER BY c.lastMessageAt DESC")
+    List<ConversationDTO> findSummariesByUserId(@Param("userId") Long userId);
+
+    /**
+     * Find a single conversation summary by conversation ID
+     */
+    @Query("SELECT new com.sme.analytics.dto.ConversationDTO(" +
+           "c.id, c.user.id, f.id, c.title, f.fileName, c.lastMessageAt, c.createdAt, " +
+           "(SELECT COUNT(m.id) FROM Message m WHERE m.conversation = c)) " +
+           "FROM Conversation c JOIN c.uploadedFile f " +
+           "WHERE c.id = :conversationId")
+    Optional<ConversationDTO> findSummaryById(@Param("conversationId") Long conversationId);
 }
@@ -0,0 +1,154 @@
+package com.sme.analytics.repository;
+
+import com.sme.analytics.model.MarketNews;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Set-based JDBC access to market_news for the ingestion pipeline, where saving
+ * entities one by one through JPA would cost a round trip per article.
+ * Inserts rely on the unique url_hash constraint to drop duplicates that slipped past
+ * the in-memory checks (e.g. a concurrent ingest of the same article).
+ */
+@Repository
+public class MarketNewsBatchRepository {
+
+    private static final String INSERT_SQL = """
+        INSERT INTO market_news (title, summary, url, url_hash, source, category, industry, location,
+            competitor_id, published_at, fetched_at, sentiment_score, sentiment_label, keywords, impact_level,
+            is_read, is_bookmarked, simhash, canonical_news_id)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+        ON CONFLICT (url_hash) DO NOTHING
+        """;
+
+    // Keeps IN lists well below the driver's bind parameter limit
+    private static final int LOOKUP_CHUNK = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    public MarketNewsBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    /**
+     * Insert the news in JDBC batches, skipping URLs already stored.
+     * Returns the items actually inserted, with their generated ids set.
+     */
+    public List<MarketNews> insertIgnoringDuplicates(List<MarketNews> news, int batchSize) {
+        if (news.isEmpty()) {
+            return List.of();
+        }
+        int[][] counts = jdbcTemplate.batchUpdate(INSERT_SQL, news, batchSize, (ps, item) -> {
+            ps.setString(1, item.getTitle());
+            ps.setString(2, item.getSummary());
+            ps.setString(3, item.getUrl());
+            ps.setString(4, item.getUrlHash());
+            ps.setString(5, item.getSource());
+            ps.setString(6, item.getCategory());
+            ps.setString(7, item.getIndustry());
+            ps.setString(8, item.getLocation());
+            if (item.getRelatedCompetitor() != null) {
+                ps.setLong(9, item.getRelatedCompetitor().getId());
+            } else {
+                ps.setNull(9, Types.BIGINT);
+            }
+            ps.setTimestamp(10, item.getPublishedAt() != null ? Timestamp.valueOf(item.getPublishedAt()) : null);
+            ps.setTimestamp(11, Timestamp.valueOf(item.getFetchedAt()));
+            if (item.getSentimentScore() != null) {
+                ps.setDouble(12, item.getSentimentScore());
+            } else {
+                ps.setNull(12, Types.DOUBLE);
+            }
+            ps.setString(13, item.getSentimentLabel());
+            ps.setString(14, item.getKeywords());
+            ps.setString(15, item.getImpactLevel());
+            ps.setBoolean(16, Boolean.TRUE.equals(item.getIsRead()));
+            ps.setBoolean(17, Boolean.TRUE.equals(item.getIsBookmarked()));
+            ps.setObject(18, item.getSimhash(), Types.BIGINT);
+            ps.setObject(19, item.getCanonicalNewsId(), Types.BIGINT);
+        });
+
+        List<MarketNews> inserted = new ArrayList<>();
+        int index = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                if (count != 0) {
+                    inserted.add(news.get(index));
+                }
+                index++;
+            }
+        }
+
+        Map<String, Long> ids = findIdsByUrlHash(inserted.stream().map(MarketNews::getUrlHash).toList());
+        inserted.forEach(item -> item.setId(ids.get(item.getUrlHash())));
+        return inserted;
+    }
+
+    /**
+     * Which of the given URL hashes are already stored
+     */
+    public Set<String> findExistingUrlHashes(Collection<String> urlHashes) {
+        return new HashSet<>(findIdsByUrlHash(urlHashes).keySet());
+    }
+
+    /**
+     * Stream every stored URL hash, e.g. to seed a Bloom filter.
+     * Call inside a transaction so the driver can fetch in chunks instead of loading all rows.
+     */
+    public void forEachUrlHash(Consumer<String> consumer) {
+        jdbcTemplate.query(con -> {
+            var statement = con.prepareStatement("SELECT url_hash FROM market_news");
+            statement.setFetchSize(10_000);
+            return statement;
+        }, rs -> {
+            consumer.accept(rs.getString(1));
+        });
+    }
+
+    /**
+     * Stream id, SimHash and canonical id of news with a SimHash published since the given time,
+     * e.g. to seed the near-duplicate index. Call inside a transaction for chunked fetching.
+     */
+    public void forEachSimhashSince(LocalDateTime since, SimhashRowConsumer consumer) {
+        jdbcTemplate.query(con -> {
+            var statement = con.prepareStatement(
+                "SELECT id, simhash, canonical_news_id FROM market_news " +
+                "WHERE simhash IS NOT NULL AND published_at >= ? ORDER BY id");
+            statement.setTimestamp(1, Timestamp.valueOf(since));
+            statement.setFetchSize(10_000);
+            return statement;
+        }, rs -> {
+            consumer.accept(rs.getLong(1), rs.getLong(2), rs.getObject(3, Long.class));
+        });
+    }
+
+    private Map<String, Long> findIdsByUrlHash(Collection<String> urlHashes) {
+        Map<String, Long> ids = new HashMap<>();
+        List<String> hashes = new ArrayList<>(urlHashes);
+        for (int start = 0; start < hashes.size(); start += LOOKUP_CHUNK) {
+            List<String> chunk = hashes.subList(start, Math.min(start + LOOKUP_CHUNK, hashes.size()));
+            namedJdbcTemplate.query(
+                "SELECT id, url_hash FROM market_news WHERE url_hash IN (:hashes)",
+                new MapSqlParameterSource("hashes", chunk),
+                rs -> {
+                    ids.put(rs.getString(2), rs.getLong(1));
+                });
+        }
+        return ids;
+    }
+
+    @FunctionalInterface
+    public interface SimhashRowConsumer {
+        void accept(long id, long simhash, Long canonicalNewsId);
+    }
+}
@@ -0,0 +1,113 @@
+package com.sme.analytics.repository;
+
+import com.sme.analytics.model.MarketNews;
+import com.sme.analytics.service.NewsFeedCursor;
+import com.sme.analytics.service.NewsFeedFilter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.TypedQuery;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keyset-paginated news feed with any combination of filters.
+ * Only the given filters are added to the query, so each combination gets its own plan on the
+ * matching (filter, published_at, id) index instead of one catch-all plan. The competitor is
+ * fetch-joined so mapping a page costs no extra queries. Bulk flag updates by filter are built
+ * the same way, which also keeps untyped null parameters out of the statement.
+ */
+@Repository
+public class MarketNewsFeedRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Up to limit news items after the cursor (or from the newest when null), newest first
+     */
+    public List<MarketNews> findPage(NewsFeedFilter filter, NewsFeedCursor after, int limit) {
+        StringBuilder jpql = new StringBuilder("SELECT n FROM MarketNews n LEFT JOIN FETCH n.relatedCompetitor WHERE 1 = 1");
+        Map<String, Object> params = new LinkedHashMap<>();
+        if (filter.category() != null) {
+            jpql.append(" AND n.category = :category");
+            params.put("category", filter.category());
+        }
+        if (filter.industry() != null) {
+            jpql.append(" AND n.industry = :industry");
+            params.put("industry", filter.industry());
+        }
+        if (filter.location() != null) {
+            jpql.append(" AND n.location = :location");
+            params.put("location", filter.location());
+        }
+        if (filter.competitorId() != null) {
+            jpql.append(" AND n.relatedCompetitor.id = :competitorId");
+            params.put("competitorId", filter.competitorId());
+        }
+        if (filter.impactLevel() != null) {
+            jpql.append(" AND n.impactLevel = :impactLevel");
+            params.put("impactLevel", filter.impactLevel());
+        }
+        if (filter.unreadOnly()) {
+            jpql.append(" AND n.isRead = false");
+        }
+        if (after != null) {
+            // Equivalent to (publishedAt, id) < (:at, :id); the first bound lets the index range scan start at the cursor
+            jpql.append(" AND n.publishedAt <= :cursorAt AND (n.publishedAt < :cursorAt OR n.id < :cursorId)");
+            params.put("cursorAt", after.publishedAt());
+            params.put("cursorId", after.id());
+        }
+        jpql.append(" ORDER BY n.publishedAt DESC, n.id DESC");
+
+        TypedQuery<MarketNews> query = entityManager.createQuery(jpql.toString(), MarketNews.class);
+        params.forEach(query::setParameter);
+        return query.setMaxResults(limit).getResultList();
+    }
+
+    /**
+     * Set the read flag on news matching the category and/or published before the given time;
+     * returns how many items changed
+     */
+    public int updateReadByFilter(String category, LocalDateTime before, boolean read) {
+        return updateFlagByFilter("isRead", category, before, read);
+    }
+
+    /**
+     * Set the bookmark flag on news matching the category and/or published before the given time;
+     * returns how many items changed
+     */
+    public int updateBookmarkedByFilter(String category, LocalDateTime before, boolean bookmarked) {
+        return updateFlagByFilter("isBookmarked", category, before, bookmarked);
+    }
+
+    private int updateFlagByFilter(String flag, String category, LocalDateTime before, boolean value) {
+        if (category == null && before == null) {
+            throw new IllegalArgumentException("A category or before filter is required");
+        }
+        StringBuilder jpql = new StringBuilder("UPDATE MarketNews n SET n.")
+            .append(flag).append(" = :value WHERE n.").append(flag).append(" <> :value");
+        Map<String, Object> params = new LinkedHashMap<>();
+        params.put("value", value);
+        if (category != null) {
+            jpql.append(" AND n.category = :category");
+            params.put("category", category);
+        }
+        if (before != null) {
+            jpql.append(" AND n.publishedAt < :before");
+            params.put("before", before);
+        }
+
+        // Same as @Modifying(flushAutomatically = true, clearAutomatically = true)
+        entityManager.flush();
+        Query query = entityManager.createQuery(jpql.toString());
+        params.forEach(query::setParameter);
+        int updated = query.executeUpdate();
+        entityManager.clear();
+        return updated;
+    }
+}
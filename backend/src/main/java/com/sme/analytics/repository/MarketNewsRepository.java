@@ -5,11 +5,13 @@ import com.sme.analytics.model.Competitor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -33,6 +35,16 @@ public interface MarketNewsRepository extends JpaRepository<MarketNews, Long> {
      */
     Long countByIsReadFalse();
 
+    /**
+     * Find recent news that are not near duplicates of another article
+     */
+    Page<MarketNews> findByCanonicalNewsIdIsNullOrderByPublishedAtDesc(Pageable pageable);
+
+    /**
+     * Find the near duplicates clustered under a canonical article
+     */
+    List<MarketNews> findByCanonicalNewsIdOrderByPublishedAtDesc(Long canonicalNewsId);
+
     /**
      * Find news by category
      */
@@ -48,6 +60,11 @@ public interface MarketNewsRepository extends JpaRepository<MarketNews, Long> {
      */
     Page<MarketNews> findByRelatedCompetitorOrderByPublishedAtDesc(Competitor competitor, Pageable pageable);
 
+    /**
+     * Count news by impact level
+     */
+    Long countByImpactLevel(String impactLevel);
+
     /**
      * Find high impact news
      */
@@ -65,8 +82,63 @@ public interface MarketNewsRepository extends JpaRepository<MarketNews, Long> {
     @Query("SELECT n.category, AVG(n.sentimentScore) FROM MarketNews n WHERE n.publishedAt >= :since GROUP BY n.category")
     List<Object[]> getAverageSentimentByCategory(@Param("since") LocalDateTime since);
 
+    /**
+     * Sum and count of sentiment scores per publish hour, category, industry and competitor since
+     * a point in time, used to rebuild the hourly sentiment rings; near duplicates are skipped.
+     * Rows are date, hour, category, industry, competitor id, sum, count
+     */
+    @Query("SELECT cast(n.publishedAt as LocalDate), extract(hour from n.publishedAt), " +
+           "n.category, n.industry, c.id, sum(n.sentimentScore), count(n.sentimentScore) " +
+           "FROM MarketNews n LEFT JOIN n.relatedCompetitor c " +
+           "WHERE n.publishedAt >= :since AND n.canonicalNewsId IS NULL AND n.sentimentScore IS NOT NULL " +
+           "GROUP BY cast(n.publishedAt as LocalDate), extract(hour from n.publishedAt), n.category, n.industry, c.id")
+    List<Object[]> sumSentimentByHourSince(@Param("since") LocalDateTime since);
+
+    /**
+     * Same as {@link #sumSentimentByHourSince} per publish minute, for the minute rings.
+     * Rows are date, hour, minute, category, industry, competitor id, sum, count
+     */
+    @Query("SELECT cast(n.publishedAt as LocalDate), extract(hour from n.publishedAt), extract(minute from n.publishedAt), " +
+           "n.category, n.industry, c.id, sum(n.sentimentScore), count(n.sentimentScore) " +
+           "FROM MarketNews n LEFT JOIN n.relatedCompetitor c " +
+           "WHERE n.publishedAt >= :since AND n.canonicalNewsId IS NULL AND n.sentimentScore IS NOT NULL " +
+           "GROUP BY cast(n.publishedAt as LocalDate), extract(hour from n.publishedAt), extract(minute from n.publishedAt), " +
+           "n.category, n.industry, c.id")
+    List<Object[]> sumSentimentByMinuteSince(@Param("since") LocalDateTime since);
+
+    /**
+     * Number of news items per publish hour and keyword list since a point in time, used to
+     * rebuild the keyword tracker; near duplicates are skipped. Rows are date, hour, keywords, count
+     */
+    @Query("SELECT cast(n.publishedAt as LocalDate), extract(hour from n.publishedAt), n.keywords, count(n) " +
+           "FROM MarketNews n " +
+           "WHERE n.publishedAt >= :since AND n.canonicalNewsId IS NULL AND n.keywords IS NOT NULL " +
+           "GROUP BY cast(n.publishedAt as LocalDate), extract(hour from n.publishedAt), n.keywords")
+    List<Object[]> countKeywordsByHourSince(@Param("since") LocalDateTime since);
+
     /**
      * Find bookmarked news
      */
     List<MarketNews> findByIsBookmarkedTrueOrderByPublishedAtDesc();
+
+    /**
+     * Set the read flag on the given news; returns how many items changed
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE MarketNews n SET n.isRead = :read WHERE n.id IN :ids AND n.isRead <> :read")
+    int updateReadByIds(@Param("ids") Collection<Long> ids, @Param("read") boolean read);
+
+    /**
+     * Set the bookmark flag on the given news; returns how many items changed
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE MarketNews n SET n.isBookmarked = :bookmarked WHERE n.id IN :ids AND n.isBookmarked <> :bookmarked")
+    int updateBookmarkedByIds(@Param("ids") Collection<Long> ids, @Param("bookmarked") boolean bookmarked);
+
+    /**
+     * Detach news from a competitor that is about to be deleted; returns how many items changed
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE MarketNews n SET n.relatedCompetitor = null WHERE n.relatedCompetitor.id = :competitorId")
+    int unlinkCompetitor(@Param("competitorId") Long competitorId);
 }
@@ -0,0 +1,132 @@
+package com.sme.analytics.repository;
+
+import com.sme.analytics.dto.MarketNewsDTO;
+import com.sme.analytics.dto.NewsSearchHit;
+import com.sme.analytics.service.NewsSearchQuery;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Postgres full-text search over market_news using the generated search_vector column.
+ * The inner query ranks matches found through the GIN index and keeps the top rows; only
+ * those rows are joined with competitors and highlighted, since ts_headline re-parses the text.
+ * Feed text is HTML-escaped before ts_headline adds its mark tags, so the highlights are safe to render.
+ */
+@Repository
+public class MarketNewsSearchRepository {
+
+    private static final String SCHEMA_SCRIPT = "db/migration/V5__add_market_news_search.sql";
+
+    private static final String HIGHLIGHT_TITLE = "StartSel=<mark>, StopSel=</mark>, HighlightAll=true";
+    private static final String HIGHLIGHT_SUMMARY =
+        "StartSel=<mark>, StopSel=</mark>, MaxWords=35, MinWords=15, MaxFragments=2, FragmentDelimiter=\" ... \"";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    public MarketNewsSearchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    /**
+     * Add the search column and indexes if missing; safe to run on every start
+     */
+    public void ensureSchema() {
+        new ResourceDatabasePopulator(new ClassPathResource(SCHEMA_SCRIPT)).execute(jdbcTemplate.getDataSource());
+    }
+
+    public List<NewsSearchHit> search(NewsSearchQuery query) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+            .addValue("text", query.text())
+            .addValue("limit", query.limit())
+            .addValue("titleOptions", HIGHLIGHT_TITLE)
+            .addValue("summaryOptions", HIGHLIGHT_SUMMARY);
+        StringBuilder filters = new StringBuilder();
+        if (query.category() != null) {
+            filters.append(" AND m.category = :category");
+            params.addValue("category", query.category());
+        }
+        if (query.from() != null) {
+            filters.append(" AND m.published_at >= :from");
+            params.addValue("from", Timestamp.valueOf(query.from()));
+        }
+        if (query.to() != null) {
+            filters.append(" AND m.published_at < :to");
+            params.addValue("to", Timestamp.valueOf(query.to()));
+        }
+
+        String sql = """
+            SELECT n.id, n.title, n.summary, n.url, n.source, n.category, n.industry, n.location,
+                n.competitor_id, c.name AS competitor_name, n.published_at, n.fetched_at,
+                n.sentiment_score, n.sentiment_label, n.keywords, n.impact_level, n.is_read, n.is_bookmarked,
+                n.canonical_news_id,
+                ranked.rank,
+                ts_headline('english', %2$s, ranked.query, :titleOptions) AS title_highlight,
+                ts_headline('english', %3$s, ranked.query, :summaryOptions) AS summary_highlight
+            FROM (
+                SELECT m.id, q.query, ts_rank_cd(m.search_vector, q.query, 32) AS rank, m.published_at
+                FROM market_news m, websearch_to_tsquery('english', :text) AS q(query)
+                WHERE m.search_vector @@ q.query%1$s
+                ORDER BY rank DESC, m.published_at DESC NULLS LAST
+                LIMIT :limit
+            ) ranked
+            JOIN market_news n ON n.id = ranked.id
+            LEFT JOIN competitors c ON c.id = n.competitor_id
+            ORDER BY ranked.rank DESC, ranked.published_at DESC NULLS LAST
+            """.formatted(filters, escapeHtml("n.title"), escapeHtml("coalesce(n.summary, '')"));
+        return namedJdbcTemplate.query(sql, params, (rs, rowNum) -> new NewsSearchHit(
+            toDto(rs),
+            rs.getDouble("rank"),
+            rs.getString("title_highlight"),
+            rs.getString("summary_highlight")
+        ));
+    }
+
+    /**
+     * SQL expression escaping the HTML special characters of a text column; the parser reads the
+     * entities as entity tokens, so they are neither highlighted nor change what matches
+     */
+    private static String escapeHtml(String column) {
+        return "replace(replace(replace(replace(" + column
+            + ", '&', '&amp;'), '<', '&lt;'), '>', '&gt;'), '\"', '&quot;')";
+    }
+
+    private static MarketNewsDTO toDto(ResultSet rs) throws SQLException {
+        MarketNewsDTO dto = new MarketNewsDTO();
+        dto.setId(rs.getLong("id"));
+        dto.setTitle(rs.getString("title"));
+        dto.setSummary(rs.getString("summary"));
+        dto.setUrl(rs.getString("url"));
+        dto.setSource(rs.getString("source"));
+        dto.setCategory(rs.getString("category"));
+        dto.setIndustry(rs.getString("industry"));
+        dto.setLocation(rs.getString("location"));
+        dto.setRelatedCompetitorId(rs.getObject("competitor_id", Long.class));
+        dto.setRelatedCompetitorName(rs.getString("competitor_name"));
+        dto.setPublishedAt(toLocalDateTime(rs.getTimestamp("published_at")));
+        dto.setFetchedAt(toLocalDateTime(rs.getTimestamp("fetched_at")));
+        dto.setSentimentScore(rs.getObject("sentiment_score", Double.class));
+        dto.setSentimentLabel(rs.getString("sentiment_label"));
+        dto.setKeywords(rs.getString("keywords"));
+        dto.setImpactLevel(rs.getString("impact_level"));
+        dto.setIsRead(rs.getObject("is_read", Boolean.class));
+        dto.setIsBookmarked(rs.getObject("is_bookmarked", Boolean.class));
+        dto.setCanonicalNewsId(rs.getObject("canonical_news_id", Long.class));
+        return dto;
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
@@ -4,11 +4,13 @@ import com.sme.analytics.model.Conversation;
 import com.sme.analytics.model.Message;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
 /**
- * Repository for Message entities
+ * Repository for Message entities.
+ * Finders run read-only, so loaded messages keep no JSONB snapshot for dirty checking.
  */
 @Repository
 public interface MessageRepository extends JpaRepository<Message, Long> {
@@ -16,25 +18,30 @@ public interface MessageRepository extends JpaRepository<Message, Long> {
     /**
      * Find all messages in a conversation ordered by creation time
      */
+    @Transactional(readOnly = true)
     List<Message> findByConversationOrderByCreatedAtAsc(Conversation conversation);
 
     /**
      * Find all messages in a conversation by conversation ID
      */
+    @Transactional(readOnly = true)
     List<Message> findByConversationIdOrderByCreatedAtAsc(Long conversationId);
 
     /**
      * Find messages by sender type in a conversation
      */
+    @Transactional(readOnly = true)
     List<Message> findByConversationAndSenderTypeOrderByCreatedAtAsc(Conversation conversation, String senderType);
 
     /**
      * Count messages in a conversation
      */
+    @Transactional(readOnly = true)
     long countByConversation(Conversation conversation);
 
     /**
      * Count messages in a conversation by ID
      */
+    @Transactional(readOnly = true)
     long countByConversationId(Long conversationId);
 }
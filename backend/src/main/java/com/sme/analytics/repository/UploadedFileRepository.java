@@ -4,12 +4,14 @@ import com.sme.analytics.model.UploadedFile;
 import com.sme.analytics.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
 
 /**
- * Repository for UploadedFile entities
+ * Repository for UploadedFile entities.
+ * Finders run read-only, so loaded files keep no JSONB snapshots for dirty checking.
  */
 @Repository
 public interface UploadedFileRepository extends JpaRepository<UploadedFile, Long> {
@@ -17,25 +19,30 @@ public interface UploadedFileRepository extends JpaRepository<UploadedFile, Long
     /**
      * Find uploaded file by session ID
      */
+    @Transactional(readOnly = true)
     Optional<UploadedFile> findBySessionId(String sessionId);
 
     /**
      * Find all files uploaded by a user
      */
+    @Transactional(readOnly = true)
     List<UploadedFile> findByUserOrderByUploadedAtDesc(User user);
 
     /**
      * Find all files uploaded by a user ID
      */
+    @Transactional(readOnly = true)
     List<UploadedFile> findByUserIdOrderByUploadedAtDesc(Long userId);
 
     /**
      * Find files by user and analysis type
      */
+    @Transactional(readOnly = true)
     List<UploadedFile> findByUserAndAnalysisTypeOrderByUploadedAtDesc(User user, String analysisType);
 
     /**
      * Check if session ID exists
      */
+    @Transactional(readOnly = true)
     boolean existsBySessionId(String sessionId);
 }
@@ -0,0 +1,174 @@
+package com.sme.analytics.service;
+
+import org.springframework.stereotype.Component;
+
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.util.*;
+
+/**
+ * Recognizes simple aggregate questions ("what is the average Revenue", "max Churn_Rate",
+ * "how many rows") and answers them from the column statistics computed at upload.
+ * Matching is deliberately strict: once the statistic and column are removed, only
+ * filler words may remain, otherwise the question is left for the ML service.
+ */
+@Component
+public class AggregateQuestionMatcher {
+
+    private static final Map<String, String> STAT_WORDS = Map.ofEntries(
+        Map.entry("average", "average"),
+        Map.entry("avg", "average"),
+        Map.entry("mean", "average"),
+        Map.entry("total", "sum"),
+        Map.entry("sum", "sum"),
+        Map.entry("max", "max"),
+        Map.entry("maximum", "max"),
+        Map.entry("highest", "max"),
+        Map.entry("largest", "max"),
+        Map.entry("biggest", "max"),
+        Map.entry("min", "min"),
+        Map.entry("minimum", "min"),
+        Map.entry("lowest", "min"),
+        Map.entry("smallest", "min"),
+        Map.entry("count", "count")
+    );
+
+    private static final List<String> COUNT_PHRASES = List.of("how many", "number of");
+
+    private static final Set<String> ROW_WORDS = Set.of("row", "rows", "record", "records", "entries", "lines");
+
+    private static final Set<String> FILLER_WORDS = Set.of(
+        "what", "whats", "s", "is", "are", "was", "were", "the", "of", "a", "an", "me", "show", "tell",
+        "give", "get", "find", "value", "values", "overall", "column", "field", "in", "data", "dataset",
+        "this", "file", "my", "our", "please", "can", "could", "you", "i", "know", "calculate",
+        "compute", "for", "all", "there", "do", "does", "have", "we", "it", "its"
+    );
+
+    private static final Map<String, String> STAT_LABELS = Map.of(
+        "average", "average",
+        "sum", "total",
+        "max", "maximum",
+        "min", "minimum",
+        "count", "number of values in"
+    );
+
+    /**
+     * Answer the question from column statistics, or return empty if it is not a simple aggregate.
+     * The returned map has the same shape as an ML service answer.
+     */
+    public Optional<Map<String, Object>> answer(String question, Map<String, Object> statistics, Integer rowCount) {
+        if (question == null || question.isBlank()) {
+            return Optional.empty();
+        }
+
+        String normalized = " " + normalize(question) + " ";
+        boolean countPhrase = false;
+        for (String phrase : COUNT_PHRASES) {
+            if (normalized.contains(" " + phrase + " ")) {
+                normalized = normalized.replace(" " + phrase + " ", " ");
+                countPhrase = true;
+            }
+        }
+
+        // Longest column name mentioned in the question wins (e.g. "net revenue" over "revenue")
+        String column = null;
+        String columnPhrase = null;
+        if (statistics != null) {
+            for (String candidate : statistics.keySet()) {
+                String phrase = normalize(candidate);
+                if (!phrase.isEmpty() && normalized.contains(" " + phrase + " ")
+                        && (columnPhrase == null || phrase.length() > columnPhrase.length())) {
+                    column = candidate;
+                    columnPhrase = phrase;
+                }
+            }
+        }
+        if (columnPhrase != null) {
+            normalized = normalized.replace(" " + columnPhrase + " ", " ");
+        }
+
+        Set<String> stats = new HashSet<>();
+        boolean mentionsRows = false;
+        for (String token : normalized.trim().split(" ")) {
+            if (token.isEmpty()) {
+                continue;
+            }
+            if (STAT_WORDS.containsKey(token)) {
+                stats.add(STAT_WORDS.get(token));
+            } else if (ROW_WORDS.contains(token)) {
+                mentionsRows = true;
+            } else if (!FILLER_WORDS.contains(token)) {
+                return Optional.empty();
+            }
+        }
+
+        // "how many" / "number of" take precedence over "total" in "total number of rows"
+        if (countPhrase) {
+            stats.remove("sum");
+            stats.add("count");
+        }
+        if (stats.size() != 1) {
+            return Optional.empty();
+        }
+        String stat = stats.iterator().next();
+
+        if (column == null) {
+            if ("count".equals(stat) && mentionsRows && rowCount != null) {
+                return Optional.of(buildAnswer(
+                    "The dataset contains " + formatNumber(rowCount) + " rows.",
+                    null, "row_count", rowCount));
+            }
+            return Optional.empty();
+        }
+        if (mentionsRows) {
+            return Optional.empty();
+        }
+
+        Object columnStats = statistics.get(column);
+        if (!(columnStats instanceof Map<?, ?> values) || !(values.get(stat) instanceof Number value)) {
+            return Optional.empty();
+        }
+
+        String text = "count".equals(stat)
+            ? String.format("%s has %s numeric values.", column, formatNumber(value))
+            : String.format("The %s %s is %s.", STAT_LABELS.get(stat), column, formatNumber(value));
+        return Optional.of(buildAnswer(text, column, stat, value));
+    }
+
+    private Map<String, Object> buildAnswer(String text, String column, String stat, Object value) {
+        Map<String, Object> referencedData = new HashMap<>();
+        referencedData.put("statistic", stat);
+        referencedData.put("value", value);
+        referencedData.put("source", "statistics");
+        if (column != null) {
+            referencedData.put("column", column);
+        }
+
+        List<String> suggestions = new ArrayList<>();
+        if (column != null) {
+            suggestions.add("What is the trend of " + column + " over time?");
+            suggestions.add("Which records have the highest " + column + "?");
+        } else {
+            suggestions.add("Which columns are in this dataset?");
+        }
+
+        Map<String, Object> answer = new HashMap<>();
+        answer.put("answer", text);
+        answer.put("confidence", "high");
+        answer.put("referenced_data", referencedData);
+        answer.put("suggestions", suggestions);
+        return answer;
+    }
+
+    private static String normalize(String text) {
+        return text.toLowerCase(Locale.ROOT)
+            .replace("'", "")
+            .replaceAll("[^a-z0-9]+", " ")
+            .trim();
+    }
+
+    private static String formatNumber(Number value) {
+        DecimalFormat format = new DecimalFormat("#,##0.##", DecimalFormatSymbols.getInstance(Locale.US));
+        return format.format(value.doubleValue());
+    }
+}
@@ -0,0 +1,152 @@
+package com.sme.analytics.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight layer in front of ML chat answers.
+ * Concurrent identical questions (same file, same normalized question, same recent
+ * history) share one in-flight ML call, and completed answers are kept for a short
+ * time so a burst of repeats is served without calling the ML service again.
+ * Failed calls are never cached: Caffeine drops exceptionally completed futures.
+ */
+@Component
+public class ChatAnswerCoalescer {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChatAnswerCoalescer.class);
+
+    private final AsyncCache<AnswerKey, Map<String, Object>> answers;
+    private final Duration joinTimeout;
+    private final Counter computed;
+    private final Counter joined;
+    private final Counter cached;
+
+    public ChatAnswerCoalescer(
+        @Value("${chat.answer-cache.ttl:30s}") Duration ttl,
+        @Value("${chat.answer-cache.max-size:1000}") long maxSize,
+        @Value("${chat.answer-cache.join-timeout:35s}") Duration joinTimeout,
+        MeterRegistry meterRegistry
+    ) {
+        this.answers = Caffeine.newBuilder()
+            .expireAfterWrite(ttl)
+            .maximumSize(maxSize)
+            .buildAsync();
+        this.joinTimeout = joinTimeout;
+        this.computed = counter(meterRegistry, "computed");
+        this.joined = counter(meterRegistry, "joined");
+        this.cached = counter(meterRegistry, "cached");
+    }
+
+    /**
+     * Return the answer for the key, running the loader on the calling thread only
+     * if no identical request is in flight or recently answered.
+     */
+    public Map<String, Object> getOrCompute(AnswerKey key, Supplier<Map<String, Object>> loader) {
+        CompletableFuture<Map<String, Object>> created = new CompletableFuture<>();
+        CompletableFuture<Map<String, Object>> existing = answers.asMap().putIfAbsent(key, created);
+
+        if (existing == null) {
+            computed.increment();
+            try {
+                Map<String, Object> answer = loader.get();
+                created.complete(answer);
+                return answer;
+            } catch (RuntimeException e) {
+                created.completeExceptionally(e);
+                throw e;
+            }
+        }
+
+        (existing.isDone() ? cached : joined).increment();
+        return await(key, existing);
+    }
+
+    /**
+     * Non-blocking variant for the reactive chat path: starts the loader's call only if no
+     * identical request is in flight or recently answered, and never blocks the caller.
+     */
+    public CompletableFuture<Map<String, Object>> getOrComputeAsync(
+        AnswerKey key,
+        Supplier<CompletableFuture<Map<String, Object>>> loader
+    ) {
+        CompletableFuture<Map<String, Object>> created = new CompletableFuture<>();
+        CompletableFuture<Map<String, Object>> existing = answers.asMap().putIfAbsent(key, created);
+
+        if (existing == null) {
+            computed.increment();
+            try {
+                loader.get().whenComplete((answer, error) -> {
+                    if (error != null) {
+                        created.completeExceptionally(error);
+                    } else {
+                        created.complete(answer);
+                    }
+                });
+            } catch (RuntimeException e) {
+                created.completeExceptionally(e);
+            }
+            return created;
+        }
+
+        (existing.isDone() ? cached : joined).increment();
+        // Copy so a joiner's timeout never completes the shared future
+        return existing.copy().orTimeout(joinTimeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private Map<String, Object> await(AnswerKey key, CompletableFuture<Map<String, Object>> future) {
+        try {
+            return future.get(joinTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new RuntimeException("Shared ML call failed", e.getCause());
+        } catch (TimeoutException e) {
+            logger.warn("Timed out waiting for shared ML answer for file {}", key.uploadedFileId());
+            throw new RuntimeException("Timed out waiting for shared ML answer", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for shared ML answer", e);
+        }
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("chat.answer.coalescer")
+            .description("Chat answers by how they were obtained")
+            .tag("outcome", outcome)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Normalize a question so trivially different phrasings share a key:
+     * lower case, collapsed whitespace, no trailing punctuation.
+     */
+    public static String normalizeQuestion(String question) {
+        if (question == null) {
+            return "";
+        }
+        String normalized = question.toLowerCase(Locale.ROOT).trim().replaceAll("\\s+", " ");
+        return normalized.replaceAll("[\\s?!.]+$", "");
+    }
+
+    /**
+     * Coalescing key: uploaded file, normalized question and a hash of the recent history
+     */
+    public record AnswerKey(Long uploadedFileId, String normalizedQuestion, String historyHash) {
+    }
+}
@@ -0,0 +1,50 @@
+package com.sme.analytics.service;
+
+import com.sme.analytics.dto.ChatEvent;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Pushes chat activity to WebSocket subscribers, whichever API the message came in through
+ */
+@Service
+public class ChatEventPublisher {
+
+    private final SimpMessagingTemplate messagingTemplate;
+
+    public ChatEventPublisher(SimpMessagingTemplate messagingTemplate) {
+        this.messagingTemplate = messagingTemplate;
+    }
+
+    public static String conversationTopic(Long conversationId) {
+        return "/topic/conversations/" + conversationId;
+    }
+
+    public static String userConversationsTopic(Long userId) {
+        return "/topic/users/" + userId + "/conversations";
+    }
+
+    public void typing(Long conversationId) {
+        messagingTemplate.convertAndSend(conversationTopic(conversationId), ChatEvent.typing(conversationId));
+    }
+
+    public void error(Long conversationId, String error) {
+        messagingTemplate.convertAndSend(conversationTopic(conversationId), ChatEvent.error(conversationId, error));
+    }
+
+    /**
+     * Sent only after the messages are committed, so subscribers never see rolled-back messages
+     */
+    @TransactionalEventListener
+    public void onMessagesAdded(ChatMessagesAddedEvent event) {
+        String topic = conversationTopic(event.conversationId());
+        messagingTemplate.convertAndSend(topic, ChatEvent.message(event.conversationId(), event.userMessage(), null));
+        messagingTemplate.convertAndSend(topic,
+            ChatEvent.message(event.conversationId(), event.aiMessage(), event.suggestions()));
+        if (event.userId() != null) {
+            messagingTemplate.convertAndSend(userConversationsTopic(event.userId()),
+                ChatEvent.conversationUpdated(event.conversationId(), event.lastMessageAt()));
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.sme.analytics.service;
+
+import com.sme.analytics.dto.MessageDTO;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Published by ChatService when a user message and its AI reply have been stored
+ */
+public record ChatMessagesAddedEvent(
+    Long conversationId,
+    Long userId,
+    MessageDTO userMessage,
+    MessageDTO aiMessage,
+    List<String> suggestions,
+    LocalDateTime lastMessageAt
+) {
+}
@@ -1,5 +1,9 @@
 package com.sme.analytics.service;
 
+import com.sme.analytics.dto.ConversationDTO;
+import com.sme.analytics.dto.MessageDTO;
+import com.sme.analytics.dto.SendMessageResponse;
+import com.sme.analytics.mapper.MessageMapper;
 import com.sme.analytics.model.Conversation;
 import com.sme.analytics.model.Message;
 import com.sme.analytics.model.UploadedFile;
@@ -8,20 +12,25 @@ import com.sme.analytics.repository.ConversationRepository;
 import com.sme.analytics.repository.MessageRepository;
 import com.sme.analytics.repository.UploadedFileRepository;
 import com.sme.analytics.repository.UserRepository;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.core.type.TypeReference;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.client.RestTemplate;
-import org.springframework.http.*;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * Service for handling chat conversations about uploaded documents
@@ -31,6 +40,9 @@ public class ChatService {
 
     private static final Logger logger = LoggerFactory.getLogger(ChatService.class);
 
+    // Number of prior messages that must match for two questions to share an answer
+    private static final int COALESCE_HISTORY_WINDOW = 6;
+
     @Autowired
     private ConversationRepository conversationRepository;
 
@@ -44,13 +56,35 @@ public class ChatService {
     private UserRepository userRepository;
 
     @Autowired
-    private RestTemplate restTemplate;
+    private MlServiceClient mlServiceClient;
+
+    @Autowired
+    private ChatAnswerCoalescer chatAnswerCoalescer;
+
+    @Autowired
+    private AggregateQuestionMatcher aggregateQuestionMatcher;
+
+    @Autowired
+    private DocumentContextBuilder documentContextBuilder;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private MessageMapper messageMapper;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ReactiveMlServiceClient reactiveMlServiceClient;
 
     @Autowired
-    private ObjectMapper objectMapper;
+    private TransactionTemplate transactionTemplate;
 
-    @Value("${ml.service.url:http://localhost:8001}")
-    private String mlServiceUrl;
+    @Autowired
+    @Qualifier("chatDbScheduler")
+    private Scheduler chatDbScheduler;
 
     /**
      * Create a new conversation for a user and uploaded file
@@ -84,6 +118,21 @@ public class ChatService {
         return conversationRepository.findByUserIdOrderByLastMessageAtDesc(userId);
     }
 
+    /**
+     * Get conversation summaries (with file name and message count) for a user
+     */
+    public List<ConversationDTO> getUserConversationSummaries(Long userId) {
+        return conversationRepository.findSummariesByUserId(userId);
+    }
+
+    /**
+     * Get a conversation summary by ID
+     */
+    public ConversationDTO getConversationSummary(Long conversationId) {
+        return conversationRepository.findSummaryById(conversationId)
+            .orElseThrow(() -> new RuntimeException("Conversation not found with id: " + conversationId));
+    }
+
     /**
      * Get a conversation by ID
      */
@@ -100,241 +149,217 @@ public class ChatService {
     }
 
     /**
-     * Send a message and get AI response
+     * Send a message and get AI response.
+     * Storing the question and storing the reply run in two short transactions; the ML call
+     * between them holds no database connection.
      */
-    @Transactional
-    public Map<String, Object> sendMessage(Long conversationId, String userMessage) {
+    public SendMessageResponse sendMessage(Long conversationId, String userMessage) {
+        PreparedQuestion prepared = transactionTemplate.execute(status -> prepareQuestion(conversationId, userMessage));
+
+        // Get AI response from ML service
+        Map<String, Object> answer;
+        try {
+            answer = answer(prepared);
+        } catch (Exception e) {
+            logger.error("Error calling ML service for chat response", e);
+            answer = buildErrorAnswer(e);
+        }
+
+        Map<String, Object> reply = answer;
+        return transactionTemplate.execute(status ->
+            saveAiReply(prepared.conversation(), prepared.userMessage(), reply));
+    }
+
+    /**
+     * Reactive variant of sendMessage: the ML call runs on the non-blocking WebClient and
+     * only the two short database phases (store the question, store the reply) run on the
+     * bounded chatDbScheduler, each in its own transaction.
+     */
+    public Mono<SendMessageResponse> sendMessageReactive(Long conversationId, String userMessage) {
+        return Mono.fromCallable(() -> transactionTemplate.execute(status -> prepareQuestion(conversationId, userMessage)))
+            .subscribeOn(chatDbScheduler)
+            .flatMap(prepared -> answerReactive(prepared)
+                .onErrorResume(e -> {
+                    logger.error("Error calling ML service for chat response", e);
+                    return Mono.just(buildErrorAnswer(e));
+                })
+                .publishOn(chatDbScheduler)
+                .map(answer -> transactionTemplate.execute(status ->
+                    saveAiReply(prepared.conversation(), prepared.userMessage(), answer))));
+    }
+
+    /**
+     * Store the question and do everything that needs the loaded entities:
+     * the statistics fast path, or building the ML request and its coalescing key
+     */
+    private PreparedQuestion prepareQuestion(Long conversationId, String userMessage) {
         Conversation conversation = getConversation(conversationId);
+        Message userMsg = saveUserMessage(conversation, userMessage);
+        UploadedFile uploadedFile = conversation.getUploadedFile();
+
+        Optional<Map<String, Object>> localAnswer = answerFromStatistics(userMessage, uploadedFile);
+        meterRegistry.counter("chat.fastpath", "result", localAnswer.isPresent() ? "hit" : "miss").increment();
+        if (localAnswer.isPresent()) {
+            return new PreparedQuestion(conversation, userMsg, localAnswer.get(), null, null);
+        }
+
+        List<Message> history = messageRepository.findByConversationIdOrderByCreatedAtAsc(conversationId);
+        ChatAnswerCoalescer.AnswerKey key = new ChatAnswerCoalescer.AnswerKey(
+            uploadedFile.getId(),
+            ChatAnswerCoalescer.normalizeQuestion(userMessage),
+            hashRecentHistory(history)
+        );
+        byte[] request = documentContextBuilder.buildRequest(userMessage, uploadedFile, history);
+        return new PreparedQuestion(conversation, userMsg, null, key, request);
+    }
+
+    private Mono<Map<String, Object>> answerReactive(PreparedQuestion prepared) {
+        if (prepared.localAnswer() != null) {
+            return Mono.just(prepared.localAnswer());
+        }
+        // suppressCancel: a cancelled caller must not cancel an answer other callers share
+        return Mono.fromFuture(() -> chatAnswerCoalescer.getOrComputeAsync(prepared.answerKey(), () ->
+                reactiveMlServiceClient.askQuestion(prepared.mlRequest()).toFuture()), true)
+            .onErrorResume(e -> e instanceof CallNotPermittedException || e instanceof BulkheadFullException, e -> {
+                logger.warn("ML service call rejected: {}", e.getMessage());
+                return Mono.just(buildFallbackAnswer());
+            })
+            .onErrorResume(e -> {
+                logger.error("Error calling ML service", e);
+                return Mono.just(buildFallbackAnswer());
+            });
+    }
 
-        // Save user message
+    private Message saveUserMessage(Conversation conversation, String userMessage) {
         Message userMsg = new Message();
         userMsg.setConversation(conversation);
         userMsg.setSenderType("USER");
         userMsg.setContent(userMessage);
-        userMsg = messageRepository.save(userMsg);
-
-        // Get conversation history
-        List<Message> history = messageRepository.findByConversationIdOrderByCreatedAtAsc(conversationId);
+        return messageRepository.save(userMsg);
+    }
 
-        // Get AI response from ML service
-        String aiResponse;
+    /**
+     * Store the AI reply, touch the conversation and notify subscribers after commit
+     */
+    private SendMessageResponse saveAiReply(Conversation conversation, Message userMsg, Map<String, Object> answer) {
         Map<String, Object> metadata = new HashMap<>();
-
-        try {
-            Map<String, Object> mlResponse = callMlServiceForAnswer(
-                userMessage,
-                conversation.getUploadedFile(),
-                history
-            );
-
-            aiResponse = (String) mlResponse.get("answer");
-            metadata.put("confidence", mlResponse.get("confidence"));
-            metadata.put("referenced_data", mlResponse.get("referenced_data"));
-            metadata.put("suggestions", mlResponse.get("suggestions"));
-
-        } catch (Exception e) {
-            logger.error("Error calling ML service for chat response", e);
-            aiResponse = "I apologize, but I'm having trouble processing your question right now. Please try again later.";
-            metadata.put("error", e.getMessage());
+        if (answer.containsKey("error")) {
+            metadata.put("error", answer.get("error"));
+        } else {
+            metadata.put("confidence", answer.get("confidence"));
+            metadata.put("referenced_data", answer.get("referenced_data"));
+            metadata.put("suggestions", answer.get("suggestions"));
         }
 
         // Save AI response
         Message aiMsg = new Message();
         aiMsg.setConversation(conversation);
         aiMsg.setSenderType("AI");
-        aiMsg.setContent(aiResponse);
-        try {
-            aiMsg.setMetadata(objectMapper.writeValueAsString(metadata));
-        } catch (Exception e) {
-            logger.error("Error serializing metadata", e);
-        }
+        aiMsg.setContent((String) answer.get("answer"));
+        aiMsg.setMetadata(metadata);
         aiMsg = messageRepository.save(aiMsg);
 
         // Update conversation last message time
         conversation.setLastMessageAt(LocalDateTime.now());
         conversationRepository.save(conversation);
 
-        // Return response
-        Map<String, Object> response = new HashMap<>();
-        response.put("userMessage", convertMessageToMap(userMsg));
-        response.put("aiMessage", convertMessageToMap(aiMsg));
-        response.put("suggestions", metadata.get("suggestions"));
+        MessageDTO userDto = messageMapper.toDto(userMsg);
+        MessageDTO aiDto = messageMapper.toDto(aiMsg);
+        List<String> suggestions = suggestionsFrom(metadata);
+        eventPublisher.publishEvent(new ChatMessagesAddedEvent(
+            conversation.getId(),
+            conversation.getUser() != null ? conversation.getUser().getId() : null,
+            userDto,
+            aiDto,
+            suggestions,
+            conversation.getLastMessageAt()
+        ));
+
+        return new SendMessageResponse(true, null, userDto, aiDto, suggestions);
+    }
+
+    /**
+     * Reply stored when answering failed unexpectedly
+     */
+    private Map<String, Object> buildErrorAnswer(Throwable e) {
+        Map<String, Object> answer = new HashMap<>();
+        answer.put("answer", "I apologize, but I'm having trouble processing your question right now. Please try again later.");
+        answer.put("error", e.getMessage());
+        return answer;
+    }
 
-        return response;
+    @SuppressWarnings("unchecked")
+    private static List<String> suggestionsFrom(Map<String, Object> metadata) {
+        return metadata.get("suggestions") instanceof List<?> suggestions ? (List<String>) suggestions : null;
     }
 
     /**
-     * Call ML service to get an answer to the user's question
+     * Try to answer the question from the statistics computed at upload
      */
-    private Map<String, Object> callMlServiceForAnswer(
-        String question,
-        UploadedFile uploadedFile,
-        List<Message> conversationHistory
-    ) {
+    private Optional<Map<String, Object>> answerFromStatistics(String question, UploadedFile uploadedFile) {
+        if (uploadedFile.getStatistics() == null) {
+            return Optional.empty();
+        }
+        return aggregateQuestionMatcher.answer(question, uploadedFile.getStatistics(), uploadedFile.getRowCount());
+    }
+
+    /**
+     * Answer a prepared question: the local answer, or the ML service
+     */
+    private Map<String, Object> answer(PreparedQuestion prepared) {
+        if (prepared.localAnswer() != null) {
+            return prepared.localAnswer();
+        }
         try {
-            // Build document context
-            Map<String, Object> documentContext = buildDocumentContext(uploadedFile);
-
-            // Build conversation history
-            List<Map<String, String>> historyMaps = conversationHistory.stream()
-                .map(msg -> {
-                    Map<String, String> map = new HashMap<>();
-                    map.put("sender_type", msg.getSenderType());
-                    map.put("content", msg.getContent());
-                    return map;
-                })
-                .collect(Collectors.toList());
-
-            // Build request
-            Map<String, Object> request = new HashMap<>();
-            request.put("question", question);
-            request.put("document_context", documentContext);
-            request.put("conversation_history", historyMaps);
-
-            // Call ML service
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(request, headers);
-
-            ResponseEntity<Map> response = restTemplate.exchange(
-                mlServiceUrl + "/api/chat/ask",
-                HttpMethod.POST,
-                entity,
-                Map.class
+            // Identical concurrent questions share one ML call (guarded by circuit breaker and bulkhead)
+            return chatAnswerCoalescer.getOrCompute(prepared.answerKey(), () ->
+                mlServiceClient.askQuestion(prepared.mlRequest())
             );
 
-            if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
-                return response.getBody();
-            } else {
-                throw new RuntimeException("ML service returned non-OK status: " + response.getStatusCode());
-            }
-
+        } catch (CallNotPermittedException | BulkheadFullException e) {
+            logger.warn("ML service call rejected: {}", e.getMessage());
+            return buildFallbackAnswer();
         } catch (Exception e) {
             logger.error("Error calling ML service", e);
-            Map<String, Object> fallback = new HashMap<>();
-            fallback.put("answer", "I'm sorry, I'm having trouble answering that question right now.");
-            fallback.put("confidence", "low");
-            fallback.put("referenced_data", new HashMap<>());
-            fallback.put("suggestions", new ArrayList<>());
-            return fallback;
+            return buildFallbackAnswer();
         }
     }
 
     /**
-     * Build document context from uploaded file
-     * Includes CSV data, columns, sample rows, and statistics for AI analysis
+     * Hash the messages preceding the current question, limited to the recent window
      */
-    private Map<String, Object> buildDocumentContext(UploadedFile uploadedFile) {
-        Map<String, Object> context = new HashMap<>();
-        context.put("file_name", uploadedFile.getFileName());
-        context.put("session_id", uploadedFile.getSessionId());
-        context.put("row_count", uploadedFile.getRowCount());
-        context.put("column_count", uploadedFile.getColumnCount());
-        context.put("analysis_type", uploadedFile.getAnalysisType());
-
-        // Parse CSV content to extract columns and sample data
-        try {
-            String csvContent = uploadedFile.getFileContent();
-            if (csvContent != null && !csvContent.isEmpty()) {
-                String[] lines = csvContent.split("\n");
-                
-                if (lines.length > 0) {
-                    // Extract column names from header row
-                    String[] columns = lines[0].split(",");
-                    List<String> columnNames = new ArrayList<>();
-                    for (String col : columns) {
-                        columnNames.add(col.trim().replace("\"", ""));
-                    }
-                    context.put("columns", columnNames);
-                    
-                    // Extract sample data (first 5 rows after header)
-                    List<Map<String, String>> sampleData = new ArrayList<>();
-                    int sampleSize = Math.min(6, lines.length); // Header + 5 data rows
-                    
-                    for (int i = 1; i < sampleSize; i++) {
-                        String[] values = lines[i].split(",");
-                        Map<String, String> row = new HashMap<>();
-                        
-                        for (int j = 0; j < Math.min(columns.length, values.length); j++) {
-                            String value = values[j].trim().replace("\"", "");
-                            row.put(columnNames.get(j), value);
-                        }
-                        sampleData.add(row);
-                    }
-                    context.put("sample_data", sampleData);
-                    
-                    // Generate a summary description
-                    StringBuilder summary = new StringBuilder();
-                    summary.append("This dataset contains ")
-                           .append(uploadedFile.getRowCount())
-                           .append(" rows and ")
-                           .append(columnNames.size())
-                           .append(" columns. ");
-                    summary.append("Columns: ")
-                           .append(String.join(", ", columnNames))
-                           .append(". ");
-                    summary.append("Analysis type: ")
-                           .append(uploadedFile.getAnalysisType() != null ? 
-                                   uploadedFile.getAnalysisType() : "General")
-                           .append(".");
-                    context.put("summary", summary.toString());
-                }
-            }
-        } catch (Exception e) {
-            logger.error("Error parsing CSV content for context", e);
-            // Add fallback summary if CSV parsing fails
-            context.put("summary", "Dataset with " + uploadedFile.getRowCount() + 
-                       " rows and " + uploadedFile.getColumnCount() + " columns.");
+    private String hashRecentHistory(List<Message> conversationHistory) {
+        int end = conversationHistory.size();
+        // The current question has already been saved as the last message
+        if (end > 0 && "USER".equals(conversationHistory.get(end - 1).getSenderType())) {
+            end--;
         }
+        int start = Math.max(0, end - COALESCE_HISTORY_WINDOW);
 
-        // Parse JSON fields if available
         try {
-            if (uploadedFile.getInsights() != null) {
-                List<Object> insights = objectMapper.readValue(
-                    uploadedFile.getInsights(),
-                    new TypeReference<List<Object>>() {}
-                );
-                context.put("insights", insights);
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (Message message : conversationHistory.subList(start, end)) {
+                digest.update(message.getSenderType().getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+                digest.update(message.getContent().getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
             }
-
-            if (uploadedFile.getStatistics() != null) {
-                Map<String, Object> stats = objectMapper.readValue(
-                    uploadedFile.getStatistics(),
-                    new TypeReference<Map<String, Object>>() {}
-                );
-                context.put("statistics", stats);
-            }
-        } catch (Exception e) {
-            logger.error("Error parsing JSON fields", e);
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
         }
-
-        return context;
     }
 
     /**
-     * Convert Message entity to Map for response
+     * Answer returned when the ML service is unavailable
      */
-    private Map<String, Object> convertMessageToMap(Message message) {
-        Map<String, Object> map = new HashMap<>();
-        map.put("id", message.getId());
-        map.put("senderType", message.getSenderType());
-        map.put("content", message.getContent());
-        map.put("createdAt", message.getCreatedAt().toString());
-
-        // Parse metadata if available
-        if (message.getMetadata() != null) {
-            try {
-                Map<String, Object> metadata = objectMapper.readValue(
-                    message.getMetadata(),
-                    new TypeReference<Map<String, Object>>() {}
-                );
-                map.put("metadata", metadata);
-            } catch (Exception e) {
-                logger.error("Error parsing metadata", e);
-            }
-        }
-
-        return map;
+    private Map<String, Object> buildFallbackAnswer() {
+        Map<String, Object> fallback = new HashMap<>();
+        fallback.put("answer", "I'm sorry, I'm having trouble answering that question right now.");
+        fallback.put("confidence", "low");
+        fallback.put("referenced_data", new HashMap<>());
+        fallback.put("suggestions", new ArrayList<>());
+        return fallback;
     }
 
     /**
@@ -345,4 +370,16 @@ public class ChatService {
         Conversation conversation = getConversation(conversationId);
         conversationRepository.delete(conversation);
     }
+
+    /**
+     * Result of the first database phase of a chat request
+     */
+    private record PreparedQuestion(
+        Conversation conversation,
+        Message userMessage,
+        Map<String, Object> localAnswer,
+        ChatAnswerCoalescer.AnswerKey answerKey,
+        byte[] mlRequest
+    ) {
+    }
 }
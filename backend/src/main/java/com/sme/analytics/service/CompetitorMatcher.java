@@ -0,0 +1,110 @@
+package com.sme.analytics.service;
+
+import com.sme.analytics.model.Competitor;
+import com.sme.analytics.repository.CompetitorRepository;
+import com.sme.analytics.util.AhoCorasickMatcher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+
+/**
+ * Links news to the competitors it mentions.
+ * One Aho-Corasick automaton holds the name and monitoring keywords of every active
+ * competitor, so a news item is checked against all of them in a single scan of its
+ * title and summary. The automaton is rebuilt whenever a competitor changes and swapped
+ * in atomically; matching never blocks.
+ */
+@Component
+public class CompetitorMatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(CompetitorMatcher.class);
+
+    // Title mentions are stronger evidence than mentions in the summary
+    private static final int TITLE_WEIGHT = 2;
+
+    private final CompetitorRepository competitorRepository;
+    private volatile AhoCorasickMatcher<CompetitorRef> automaton = AhoCorasickMatcher.<CompetitorRef>builder().build();
+
+    public CompetitorMatcher(CompetitorRepository competitorRepository) {
+        this.competitorRepository = competitorRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        rebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCompetitorsChanged(CompetitorsChangedEvent event) {
+        if (event.matchingChanged()) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Rebuild the automaton from the active competitors
+     */
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        automaton = build(competitorRepository.findActiveWithKeywords());
+        logger.info("Built competitor matcher with {} keywords in {} ms",
+            automaton.keywordCount(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * The competitor mentioned most in the title and summary, if any.
+     * Each keyword counts once per field; ties go to the lowest competitor id.
+     */
+    public Optional<CompetitorRef> bestMatch(String title, String summary) {
+        AhoCorasickMatcher<CompetitorRef> current = automaton;
+        Map<CompetitorRef, Integer> scores = new HashMap<>();
+        score(current, title, TITLE_WEIGHT, scores);
+        score(current, summary, 1, scores);
+        return scores.entrySet().stream()
+            .max(Map.Entry.<CompetitorRef, Integer>comparingByValue()
+                .thenComparing(entry -> -entry.getKey().id()))
+            .map(Map.Entry::getKey);
+    }
+
+    static AhoCorasickMatcher<CompetitorRef> build(List<Competitor> competitors) {
+        AhoCorasickMatcher.Builder<CompetitorRef> builder = AhoCorasickMatcher.builder();
+        for (Competitor competitor : competitors) {
+            CompetitorRef ref = new CompetitorRef(competitor.getId(), competitor.getName());
+            builder.add(competitor.getName(), ref);
+            if (competitor.getMonitoringKeywords() != null) {
+                competitor.getMonitoringKeywords().forEach(keyword -> builder.add(keyword, ref));
+            }
+        }
+        return builder.build();
+    }
+
+    private static void score(
+        AhoCorasickMatcher<CompetitorRef> automaton,
+        String text,
+        int weight,
+        Map<CompetitorRef, Integer> scores
+    ) {
+        if (text == null || text.isEmpty()) {
+            return;
+        }
+        Set<String> counted = new HashSet<>();
+        automaton.match(text, (competitor, start, end) -> {
+            // Repeats of the same keyword in one field count once
+            String keyword = text.substring(start, end).toLowerCase(Locale.ROOT);
+            if (counted.add(competitor.id() + ":" + keyword)) {
+                scores.merge(competitor, weight, Integer::sum);
+            }
+        });
+    }
+
+    /**
+     * Id and name of a matched competitor
+     */
+    public record CompetitorRef(Long id, String name) {
+    }
+}
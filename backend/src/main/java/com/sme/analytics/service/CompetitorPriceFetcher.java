@@ -0,0 +1,271 @@
+package com.sme.analytics.service;
+
+import com.sme.analytics.util.HostRateLimiter;
+import com.sme.analytics.util.OutboundUrlPolicy;
+import jakarta.annotation.PreDestroy;
+import org.apache.hc.client5.http.DnsResolver;
+import org.apache.hc.client5.http.classic.methods.HttpGet;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.HttpHeaders;
+import org.apache.hc.core5.util.Timeout;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Checks competitor price pages concurrently, one virtual thread per page, within per-host
+ * politeness limits. Pages are requested conditionally with the ETag / Last-Modified of the
+ * previous check, so an unchanged page costs a 304 and no download or extraction.
+ * Page URLs come from users, so every request, including each redirect hop, goes only to hosts
+ * that pass the {@link OutboundUrlPolicy}; redirects are followed here rather than by the client.
+ * The client resolves hosts through the policy and connects to the addresses it checked, so a
+ * DNS answer that changes after the check cannot send a request to another address.
+ */
+@Component
+public class CompetitorPriceFetcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(CompetitorPriceFetcher.class);
+
+    private static final int MAX_REDIRECTS = 5;
+    private static final int MAX_CONNECTIONS = 200;
+
+    private final List<PriceExtractor> extractors;
+    private final OutboundUrlPolicy urlPolicy;
+    private final HostRateLimiter rateLimiter;
+    private final CloseableHttpClient httpClient;
+    private final int maxBodyBytes;
+
+    @Autowired
+    public CompetitorPriceFetcher(
+        List<PriceExtractor> extractors,
+        @Value("${market.prices.per-host.min-interval:2s}") Duration perHostInterval,
+        @Value("${market.prices.per-host.max-concurrent:1}") int perHostConcurrency,
+        @Value("${market.prices.connect-timeout:5s}") Duration connectTimeout,
+        @Value("${market.prices.request-timeout:20s}") Duration requestTimeout,
+        @Value("${market.prices.max-body-bytes:2097152}") int maxBodyBytes,
+        @Value("${market.prices.user-agent:sme-analytics-prices/1.0}") String userAgent
+    ) {
+        this(extractors, OutboundUrlPolicy.PUBLIC_ONLY, perHostInterval, perHostConcurrency,
+            connectTimeout, requestTimeout, maxBodyBytes, userAgent);
+    }
+
+    CompetitorPriceFetcher(
+        List<PriceExtractor> extractors,
+        OutboundUrlPolicy urlPolicy,
+        Duration perHostInterval,
+        int perHostConcurrency,
+        Duration connectTimeout,
+        Duration requestTimeout,
+        int maxBodyBytes,
+        String userAgent
+    ) {
+        this.extractors = List.copyOf(extractors);
+        this.urlPolicy = urlPolicy;
+        this.rateLimiter = new HostRateLimiter(perHostInterval, perHostConcurrency);
+        ConnectionConfig connectionConfig = ConnectionConfig.custom()
+            .setConnectTimeout(Timeout.of(connectTimeout))
+            .setSocketTimeout(Timeout.of(requestTimeout))
+            .build();
+        // Response decompression (Accept-Encoding: gzip) is on by default in HttpClient 5
+        this.httpClient = HttpClients.custom()
+            .setConnectionManager(PoolingHttpClientConnectionManagerBuilder.create()
+                .setDnsResolver(new PolicyDnsResolver(urlPolicy))
+                .setMaxConnTotal(MAX_CONNECTIONS)
+                .setMaxConnPerRoute(perHostConcurrency)
+                .setDefaultConnectionConfig(connectionConfig)
+                .build())
+            .disableRedirectHandling()
+            .setUserAgent(userAgent)
+            .build();
+        this.maxBodyBytes = maxBodyBytes;
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        httpClient.close();
+    }
+
+    /**
+     * Check all pages; pages that fail are logged and left out of the result
+     */
+    public Map<PriceTarget, PriceCheck> checkAll(Collection<PriceTarget> targets) {
+        Map<PriceTarget, Future<PriceCheck>> pending = new LinkedHashMap<>();
+        Map<PriceTarget, PriceCheck> results = new LinkedHashMap<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (PriceTarget target : targets) {
+                pending.put(target, executor.submit(() -> check(target)));
+            }
+            pending.forEach((target, future) -> {
+                try {
+                    results.put(target, future.get());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (Exception e) {
+                    logger.warn("Failed to check price for competitor {} at {}: {}",
+                        target.competitorId(), target.url(), e.getMessage());
+                }
+            });
+        }
+        return results;
+    }
+
+    /**
+     * Check one page
+     */
+    public PriceCheck check(PriceTarget target) throws IOException, InterruptedException {
+        Page page = fetch(target);
+        if (page.status() / 100 != 2) {
+            if (page.status() == 304) {
+                return PriceCheck.notModified(target);
+            }
+            throw new IOException("HTTP " + page.status());
+        }
+
+        for (PriceExtractor extractor : extractors) {
+            Optional<Double> price = extractor.extract(page.body(), page.contentType());
+            if (price.isPresent()) {
+                return new PriceCheck(PriceCheck.Status.PRICE, price.get(), extractor.name(), page.etag(), page.lastModified());
+            }
+        }
+        return new PriceCheck(PriceCheck.Status.NO_PRICE, null, null, page.etag(), page.lastModified());
+    }
+
+    /**
+     * Request the page, following redirects after checking each new location against the URL policy.
+     * Like the client's NORMAL policy, a redirect from https to http is not followed.
+     */
+    private Page fetch(PriceTarget target) throws IOException, InterruptedException {
+        URI url = target.url();
+        for (int hop = 0; ; hop++) {
+            // The host is checked when the client resolves it to connect
+            urlPolicy.checkScheme(url);
+            HttpGet request = new HttpGet(url);
+            if (target.etag() != null) {
+                request.addHeader(HttpHeaders.IF_NONE_MATCH, target.etag());
+            }
+            if (target.lastModified() != null) {
+                request.addHeader(HttpHeaders.IF_MODIFIED_SINCE, target.lastModified());
+            }
+
+            String location;
+            try (HostRateLimiter.Permit ignored = rateLimiter.acquire(url.getHost())) {
+                ClassicHttpResponse response = httpClient.executeOpen(null, request, null);
+                try {
+                    int status = response.getCode();
+                    location = headerValue(response, HttpHeaders.LOCATION);
+                    if (!isRedirect(status) || location == null) {
+                        String contentType = Objects.requireNonNullElse(headerValue(response, HttpHeaders.CONTENT_TYPE), "text/html");
+                        String body = status / 100 == 2 ? readBody(response.getEntity(), contentType) : null;
+                        return new Page(status, contentType, headerValue(response, HttpHeaders.ETAG),
+                            headerValue(response, HttpHeaders.LAST_MODIFIED), body);
+                    }
+                } finally {
+                    // Closing the response would drain an unread body; aborting drops the connection instead
+                    request.abort();
+                }
+            }
+            if (hop == MAX_REDIRECTS) {
+                throw new IOException("Too many redirects from " + target.url());
+            }
+            URI next = url.resolve(location.trim());
+            if ("https".equalsIgnoreCase(url.getScheme()) && !"https".equalsIgnoreCase(next.getScheme())) {
+                throw new IOException("Refusing redirect from https to " + next);
+            }
+            url = next;
+        }
+    }
+
+    private static boolean isRedirect(int status) {
+        return status == 301 || status == 302 || status == 303 || status == 307 || status == 308;
+    }
+
+    private String readBody(HttpEntity entity, String contentType) throws IOException {
+        if (entity == null) {
+            return "";
+        }
+        // Not closed here: closing the content stream would read the rest of the body
+        InputStream in = entity.getContent();
+        return new String(in.readNBytes(maxBodyBytes), charset(contentType));
+    }
+
+    private static String headerValue(ClassicHttpResponse response, String name) {
+        Header header = response.getFirstHeader(name);
+        return header != null ? header.getValue() : null;
+    }
+
+    private static Charset charset(String contentType) {
+        for (String parameter : contentType.split(";")) {
+            String trimmed = parameter.trim();
+            if (trimmed.regionMatches(true, 0, "charset=", 0, 8)) {
+                try {
+                    return Charset.forName(trimmed.substring(8).replace("\"", ""));
+                } catch (IllegalArgumentException e) {
+                    break;
+                }
+            }
+        }
+        return StandardCharsets.UTF_8;
+    }
+
+    /**
+     * Final response of a fetch; the body is only read for a 2xx status
+     */
+    private record Page(int status, String contentType, String etag, String lastModified, String body) {
+    }
+
+    /**
+     * Resolves hosts through the URL policy, so the client connects only to addresses it checked
+     */
+    private record PolicyDnsResolver(OutboundUrlPolicy urlPolicy) implements DnsResolver {
+
+        @Override
+        public InetAddress[] resolve(String host) throws UnknownHostException {
+            return urlPolicy.resolve(host);
+        }
+
+        @Override
+        public String resolveCanonicalHostname(String host) throws UnknownHostException {
+            // Only used for SPNEGO, which this client does not do; skips a reverse lookup
+            return host;
+        }
+    }
+
+    /**
+     * A competitor's price page and the validators from its previous check
+     */
+    public record PriceTarget(Long competitorId, URI url, String etag, String lastModified) {
+    }
+
+    /**
+     * Result of checking a page; the validators to send next time are kept unchanged on a 304
+     */
+    public record PriceCheck(Status status, Double price, String extractor, String etag, String lastModified) {
+
+        public enum Status { PRICE, NO_PRICE, NOT_MODIFIED }
+
+        static PriceCheck notModified(PriceTarget target) {
+            return new PriceCheck(Status.NOT_MODIFIED, null, null, target.etag(), target.lastModified());
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.sme.analytics.service;
+
+/**
+ * Published when a competitor is created, updated or deleted, or its monitored price changes;
+ * competitorId is null when several competitors changed at once. matchingChanged tells whether
+ * anything news is matched on (name, keywords, active flag) changed, so listeners that only
+ * depend on those, like the competitor matcher, can skip price updates.
+ */
+public record CompetitorsChangedEvent(Long competitorId, boolean matchingChanged) {
+}
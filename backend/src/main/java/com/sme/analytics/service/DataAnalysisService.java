@@ -7,7 +7,6 @@ import com.sme.analytics.model.UploadedFile;
 import com.sme.analytics.model.User;
 import com.sme.analytics.repository.UploadedFileRepository;
 import com.sme.analytics.repository.UserRepository;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.poi.ss.usermodel.*;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.apache.poi.hssf.usermodel.HSSFWorkbook;
@@ -43,7 +42,10 @@ public class DataAnalysisService {
     private ChatService chatService;
 
     @Autowired
-    private ObjectMapper objectMapper;
+    private RowIndexService rowIndexService;
+
+    @Autowired
+    private MlWarmupService mlWarmupService;
 
     private final Map<String, List<DataInsight>> sessionInsights = new HashMap<>();
 
@@ -116,13 +118,8 @@ public class DataAnalysisService {
             uploadedFile.setColumnCount(columnCount);
             uploadedFile.setAnalyzedAt(LocalDateTime.now());
 
-            // Convert insights and statistics to JSON
-            try {
-                uploadedFile.setInsights(objectMapper.writeValueAsString(insights));
-                uploadedFile.setStatistics(objectMapper.writeValueAsString(basicStats));
-            } catch (Exception e) {
-                logger.error("Error serializing insights/statistics", e);
-            }
+            uploadedFile.setInsights(insights);
+            uploadedFile.setStatistics(basicStats);
 
             // Save uploaded file
             uploadedFile = uploadedFileRepository.save(uploadedFile);
@@ -136,6 +133,10 @@ public class DataAnalysisService {
             );
             conversationId = conversation.getId();
 
+            // Build the row retrieval index and warm up the ML service; neither can fail the upload
+            rowIndexService.index(uploadedFile);
+            mlWarmupService.warmUp(uploadedFile);
+
             logger.info("Created uploaded file (ID: {}) and conversation (ID: {}) for session {}",
                 uploadedFileId, conversationId, sessionId);
 
@@ -258,13 +259,8 @@ public class DataAnalysisService {
             uploadedFile.setColumnCount(columnCount);
             uploadedFile.setAnalyzedAt(LocalDateTime.now());
 
-            // Convert insights and statistics to JSON
-            try {
-                uploadedFile.setInsights(objectMapper.writeValueAsString(insights));
-                uploadedFile.setStatistics(objectMapper.writeValueAsString(basicStats));
-            } catch (Exception e) {
-                logger.error("Error serializing insights/statistics", e);
-            }
+            uploadedFile.setInsights(insights);
+            uploadedFile.setStatistics(basicStats);
 
             uploadedFile = uploadedFileRepository.save(uploadedFile);
             uploadedFileId = uploadedFile.getId();
@@ -277,6 +273,9 @@ public class DataAnalysisService {
             );
             conversationId = conversation.getId();
 
+            rowIndexService.index(uploadedFile);
+            mlWarmupService.warmUp(uploadedFile);
+
             logger.info("Created uploaded file (ID: {}) and conversation (ID: {}) for session {}",
                 uploadedFileId, conversationId, sessionId);
 
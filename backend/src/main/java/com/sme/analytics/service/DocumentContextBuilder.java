@@ -0,0 +1,249 @@
+package com.sme.analytics.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sme.analytics.dto.DataInsight;
+import com.sme.analytics.model.Message;
+import com.sme.analytics.model.UploadedFile;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * Builds the JSON request for the ML service's /api/chat/ask endpoint within a fixed byte budget.
+ * The file metadata, columns, summary and question are always sent. After that, sections
+ * are filled in priority order until the budget runs out, and once an element does not fit no
+ * later section gets any:
+ * relevant rows, statistics (columns named in the question first), recent history
+ * (newest first), then insights. Each section is truncated element by element in a fixed
+ * order, so the same inputs always produce the same payload.
+ * The budget is charged for the section keys, brackets and separators as well, with room
+ * reserved for the truncated_sections marker, so the body never exceeds chat.context.max-bytes
+ * unless the always-sent part alone does.
+ */
+@Component
+public class DocumentContextBuilder {
+
+    private static final List<String> SECTIONS = List.of("sample_data", "statistics", "conversation_history", "insights");
+
+    private final ObjectMapper objectMapper;
+    private final RowIndexService rowIndexService;
+    private final MeterRegistry meterRegistry;
+    private final DistributionSummary payloadSize;
+    private final int maxBytes;
+    private final int maxMessageChars;
+
+    public DocumentContextBuilder(
+        ObjectMapper objectMapper,
+        RowIndexService rowIndexService,
+        MeterRegistry meterRegistry,
+        @Value("${chat.context.max-bytes:65536}") int maxBytes,
+        @Value("${chat.context.max-message-chars:2000}") int maxMessageChars
+    ) {
+        this.objectMapper = objectMapper;
+        this.rowIndexService = rowIndexService;
+        this.meterRegistry = meterRegistry;
+        this.maxBytes = maxBytes;
+        this.maxMessageChars = maxMessageChars;
+        this.payloadSize = DistributionSummary.builder("ml.chat.payload.bytes")
+            .description("Size of chat requests sent to the ML service")
+            .baseUnit("bytes")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+    }
+
+    /**
+     * Build the serialized ML request for a question about an uploaded file
+     */
+    public byte[] buildRequest(String question, UploadedFile uploadedFile, List<Message> conversationHistory) {
+        Map<String, Object> context = new LinkedHashMap<>();
+        context.put("file_name", uploadedFile.getFileName());
+        context.put("session_id", uploadedFile.getSessionId());
+        context.put("row_count", uploadedFile.getRowCount());
+        context.put("column_count", uploadedFile.getColumnCount());
+        context.put("analysis_type", uploadedFile.getAnalysisType());
+
+        List<String> columnNames = extractColumns(uploadedFile.getFileContent());
+        if (!columnNames.isEmpty()) {
+            context.put("columns", columnNames);
+        }
+        context.put("summary", buildSummary(uploadedFile, columnNames));
+
+        Map<String, Object> statistics = uploadedFile.getStatistics();
+        List<DataInsight> insights = uploadedFile.getInsights();
+        // Empty sections, and a marker naming all of them, so the base size covers every key and bracket
+        if (!columnNames.isEmpty()) {
+            context.put("sample_data", List.of());
+        }
+        if (statistics != null) {
+            context.put("statistics", Map.of());
+        }
+        if (insights != null) {
+            context.put("insights", List.of());
+        }
+        context.put("truncated_sections", SECTIONS);
+
+        Map<String, Object> request = new LinkedHashMap<>();
+        request.put("question", question);
+        request.put("document_context", context);
+        request.put("conversation_history", List.of());
+
+        Budget budget = new Budget(maxBytes - sizeOf(request));
+        List<String> truncated = new ArrayList<>();
+
+        // 1. Rows most relevant to the question
+        if (!columnNames.isEmpty()) {
+            List<Map<String, String>> rows = rowIndexService.selectRows(uploadedFile, question);
+            context.put("sample_data", fillList(rows, budget, "sample_data", truncated));
+        }
+
+        // 2. Statistics, columns mentioned in the question first
+        if (statistics != null) {
+            context.put("statistics", fillStatistics(statistics, question, budget, truncated));
+        }
+
+        // 3. Conversation history, newest messages first, sent in chronological order
+        List<Map<String, String>> history = new ArrayList<>();
+        for (int i = conversationHistory.size() - 1; i >= 0; i--) {
+            Message message = conversationHistory.get(i);
+            Map<String, String> entry = new LinkedHashMap<>();
+            entry.put("sender_type", message.getSenderType());
+            entry.put("content", truncate(message.getContent(), maxMessageChars));
+            if (!budget.tryConsume(sizeOf(entry))) {
+                truncated.add("conversation_history");
+                break;
+            }
+            history.add(entry);
+        }
+        Collections.reverse(history);
+        request.put("conversation_history", history);
+
+        // 4. Insights
+        if (insights != null) {
+            context.put("insights", fillList(insights, budget, "insights", truncated));
+        }
+
+        context.remove("truncated_sections");
+        if (!truncated.isEmpty()) {
+            context.put("truncated_sections", truncated);
+            truncated.forEach(section ->
+                meterRegistry.counter("ml.chat.payload.truncations", "section", section).increment());
+        }
+
+        try {
+            byte[] payload = objectMapper.writeValueAsBytes(request);
+            payloadSize.record(payload.length);
+            return payload;
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize ML request", e);
+        }
+    }
+
+    private <T> List<T> fillList(List<T> items, Budget budget, String section, List<String> truncated) {
+        List<T> kept = new ArrayList<>();
+        for (T item : items) {
+            if (!budget.tryConsume(sizeOf(item))) {
+                truncated.add(section);
+                break;
+            }
+            kept.add(item);
+        }
+        return kept;
+    }
+
+    private Map<String, Object> fillStatistics(
+        Map<String, Object> statistics,
+        String question,
+        Budget budget,
+        List<String> truncated
+    ) {
+        String lowerQuestion = question == null ? "" : question.toLowerCase(Locale.ROOT).replace('_', ' ');
+        List<String> ordered = new ArrayList<>(new TreeSet<>(statistics.keySet()));
+        ordered.sort(Comparator.comparing(
+            (String column) -> !lowerQuestion.contains(column.toLowerCase(Locale.ROOT).replace('_', ' '))));
+
+        Map<String, Object> kept = new LinkedHashMap<>();
+        for (String column : ordered) {
+            // Key, colon, value and comma
+            if (!budget.tryConsume(sizeOf(column) + sizeOf(statistics.get(column)))) {
+                truncated.add("statistics");
+                break;
+            }
+            kept.put(column, statistics.get(column));
+        }
+        return kept;
+    }
+
+    private List<String> extractColumns(String csvContent) {
+        List<String> columnNames = new ArrayList<>();
+        if (csvContent == null || csvContent.isEmpty()) {
+            return columnNames;
+        }
+        int headerEnd = csvContent.indexOf('\n');
+        String header = headerEnd >= 0 ? csvContent.substring(0, headerEnd) : csvContent;
+        for (String col : header.split(",")) {
+            columnNames.add(col.trim().replace("\"", ""));
+        }
+        return columnNames;
+    }
+
+    private String buildSummary(UploadedFile uploadedFile, List<String> columnNames) {
+        if (columnNames.isEmpty()) {
+            return "Dataset with " + uploadedFile.getRowCount() +
+                   " rows and " + uploadedFile.getColumnCount() + " columns.";
+        }
+        StringBuilder summary = new StringBuilder();
+        summary.append("This dataset contains ")
+               .append(uploadedFile.getRowCount())
+               .append(" rows and ")
+               .append(columnNames.size())
+               .append(" columns. ");
+        summary.append("Columns: ")
+               .append(String.join(", ", columnNames))
+               .append(". ");
+        summary.append("Analysis type: ")
+               .append(uploadedFile.getAnalysisType() != null ?
+                       uploadedFile.getAnalysisType() : "General")
+               .append(".");
+        return summary.toString();
+    }
+
+    private int sizeOf(Object value) {
+        try {
+            // +1 for the separating comma
+            return objectMapper.writeValueAsBytes(value).length + 1;
+        } catch (JsonProcessingException e) {
+            return Integer.MAX_VALUE / 2;
+        }
+    }
+
+    private static String truncate(String text, int maxChars) {
+        if (text == null || text.length() <= maxChars) {
+            return text;
+        }
+        return text.substring(0, maxChars) + "...";
+    }
+
+    /**
+     * Remaining byte allowance for optional sections; spent for good by the first element that does not fit
+     */
+    private static final class Budget {
+        private int remaining;
+
+        Budget(int remaining) {
+            this.remaining = remaining;
+        }
+
+        boolean tryConsume(int bytes) {
+            if (bytes > remaining) {
+                remaining = -1;
+                return false;
+            }
+            remaining -= bytes;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.sme.analytics.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * One article read from a news feed, before it is stored as {@link com.sme.analytics.model.MarketNews}
+ */
+public record FeedItem(
+    String title,
+    String summary,
+    String url,
+    LocalDateTime publishedAt,
+    List<String> keywords
+) {
+}
@@ -0,0 +1,59 @@
+package com.sme.analytics.service;
+
+import com.sme.analytics.util.PriceParser;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Reads Open Graph / product meta tags (product:price:amount, og:price:amount) and
+ * microdata (itemprop="price" with a content attribute)
+ */
+@Component
+@Order(2)
+public class HtmlMetaPriceExtractor implements PriceExtractor {
+
+    private static final Pattern TAG = Pattern.compile("<[a-zA-Z][^>]*price[^>]*>", Pattern.CASE_INSENSITIVE);
+    private static final Pattern ATTRIBUTE = Pattern.compile("([\\w:-]+)\\s*=\\s*(?:\"([^\"]*)\"|'([^']*)')");
+    private static final Set<String> PRICE_PROPERTIES = Set.of("product:price:amount", "og:price:amount", "price");
+
+    @Override
+    public String name() {
+        return "html-meta";
+    }
+
+    @Override
+    public Optional<Double> extract(String body, String contentType) {
+        Matcher tags = TAG.matcher(body);
+        while (tags.find()) {
+            Map<String, String> attributes = attributes(tags.group());
+            String property = attributes.getOrDefault("property", attributes.get("name"));
+            boolean priceTag = (property != null && PRICE_PROPERTIES.contains(property.toLowerCase(Locale.ROOT)))
+                || "price".equalsIgnoreCase(attributes.get("itemprop"));
+            if (priceTag) {
+                Optional<Double> price = PriceParser.parse(attributes.get("content"));
+                if (price.isPresent()) {
+                    return price;
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static Map<String, String> attributes(String tag) {
+        Map<String, String> attributes = new HashMap<>();
+        Matcher matcher = ATTRIBUTE.matcher(tag);
+        while (matcher.find()) {
+            attributes.put(matcher.group(1).toLowerCase(Locale.ROOT),
+                matcher.group(2) != null ? matcher.group(2) : matcher.group(3));
+        }
+        return attributes;
+    }
+}
@@ -0,0 +1,257 @@
+package com.sme.analytics.service;
+
+import com.sme.analytics.dto.MarketNewsDTO;
+import com.sme.analytics.dto.NewsSearchHit;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.util.HtmlUtils;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * In-process inverted index over news title, keywords and summary, for tests and
+ * deployments without Postgres full-text search.
+ * Words are lower-cased, stop words dropped and plurals folded; title, keyword and summary
+ * hits are weighted 1.0, 0.4 and 0.2 like the tsvector weights A, B and C. All query words
+ * must match, "-word" excludes articles containing it, and quotes are ignored.
+ */
+public class InMemoryNewsSearchIndex implements NewsSearchIndex {
+
+    private static final Pattern WORD = Pattern.compile("[\\p{L}\\p{N}]+");
+    private static final Set<String> STOP_WORDS = Set.of(
+        "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "has", "in", "is", "it", "its",
+        "of", "on", "or", "that", "the", "this", "to", "was", "were", "will", "with");
+
+    private static final float TITLE_WEIGHT = 1.0f;
+    private static final float KEYWORDS_WEIGHT = 0.4f;
+    private static final float SUMMARY_WEIGHT = 0.2f;
+    private static final int SUMMARY_EXCERPT_CHARS = 240;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // term -> article id -> weighted term frequency
+    private final Map<String, Map<Long, Float>> postings = new HashMap<>();
+    private final Map<Long, MarketNewsDTO> articles = new HashMap<>();
+    private final Map<Long, Set<String>> articleTerms = new HashMap<>();
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNewsAdded(MarketNewsAddedEvent event) {
+        index(event.news());
+    }
+
+    /**
+     * Add or replace articles
+     */
+    public void index(Collection<MarketNewsDTO> news) {
+        lock.writeLock().lock();
+        try {
+            for (MarketNewsDTO article : news) {
+                if (article.getId() == null) {
+                    continue;
+                }
+                remove(article.getId());
+                Map<String, Float> frequencies = new HashMap<>();
+                addTerms(frequencies, article.getTitle(), TITLE_WEIGHT);
+                addTerms(frequencies, article.getKeywords(), KEYWORDS_WEIGHT);
+                addTerms(frequencies, article.getSummary(), SUMMARY_WEIGHT);
+                frequencies.forEach((term, frequency) ->
+                    postings.computeIfAbsent(term, key -> new HashMap<>()).put(article.getId(), frequency));
+                articles.put(article.getId(), article);
+                articleTerms.put(article.getId(), frequencies.keySet());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return articles.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<NewsSearchHit> search(NewsSearchQuery query) {
+        Set<String> required = new LinkedHashSet<>();
+        Set<String> excluded = new HashSet<>();
+        for (String word : query.text().split("\\s+")) {
+            boolean exclude = word.startsWith("-");
+            Matcher matcher = WORD.matcher(word);
+            while (matcher.find()) {
+                String term = normalize(matcher.group());
+                if (term != null) {
+                    (exclude ? excluded : required).add(term);
+                }
+            }
+        }
+        if (required.isEmpty()) {
+            return List.of();
+        }
+
+        List<NewsSearchHit> hits = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            // Walk the rarest term's postings and probe the others
+            List<Map<Long, Float>> lists = new ArrayList<>();
+            for (String term : required) {
+                Map<Long, Float> list = postings.get(term);
+                if (list == null) {
+                    return List.of();
+                }
+                lists.add(list);
+            }
+            lists.sort(Comparator.comparingInt(Map::size));
+            double total = articles.size();
+
+            for (Long id : lists.get(0).keySet()) {
+                MarketNewsDTO article = articles.get(id);
+                if (!matchesFilters(article, query) || excluded.stream().anyMatch(articleTerms.get(id)::contains)) {
+                    continue;
+                }
+                double score = 0;
+                boolean all = true;
+                for (Map<Long, Float> list : lists) {
+                    Float frequency = list.get(id);
+                    if (frequency == null) {
+                        all = false;
+                        break;
+                    }
+                    score += frequency / (frequency + 1.0) * Math.log(1 + total / list.size());
+                }
+                if (all) {
+                    hits.add(new NewsSearchHit(article, score, null, null));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        Comparator<NewsSearchHit> byPublished = Comparator.comparing(
+            hit -> hit.news().getPublishedAt(), Comparator.nullsFirst(Comparator.naturalOrder()));
+        return hits.stream()
+            .sorted(Comparator.comparingDouble(NewsSearchHit::score).thenComparing(byPublished).reversed())
+            .limit(query.limit())
+            .map(hit -> new NewsSearchHit(
+                hit.news(),
+                hit.score(),
+                highlight(hit.news().getTitle(), required, Integer.MAX_VALUE),
+                highlight(hit.news().getSummary(), required, SUMMARY_EXCERPT_CHARS)))
+            .toList();
+    }
+
+    private void remove(Long id) {
+        Set<String> terms = articleTerms.remove(id);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms) {
+            Map<Long, Float> list = postings.get(term);
+            list.remove(id);
+            if (list.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+        articles.remove(id);
+    }
+
+    private static boolean matchesFilters(MarketNewsDTO article, NewsSearchQuery query) {
+        if (query.category() != null && !query.category().equals(article.getCategory())) {
+            return false;
+        }
+        if (query.from() == null && query.to() == null) {
+            return true;
+        }
+        if (article.getPublishedAt() == null) {
+            return false;
+        }
+        return (query.from() == null || !article.getPublishedAt().isBefore(query.from()))
+            && (query.to() == null || article.getPublishedAt().isBefore(query.to()));
+    }
+
+    private static void addTerms(Map<String, Float> frequencies, String text, float weight) {
+        if (text == null) {
+            return;
+        }
+        Matcher matcher = WORD.matcher(text);
+        while (matcher.find()) {
+            String term = normalize(matcher.group());
+            if (term != null) {
+                frequencies.merge(term, weight, Float::sum);
+            }
+        }
+    }
+
+    /**
+     * Lower-case, drop stop words and fold simple plurals; null for words that are not indexed
+     */
+    static String normalize(String word) {
+        String term = word.toLowerCase(Locale.ROOT);
+        if (STOP_WORDS.contains(term)) {
+            return null;
+        }
+        if (term.length() > 4 && term.endsWith("ies")) {
+            return term.substring(0, term.length() - 3) + "y";
+        }
+        if (term.length() > 3 && term.endsWith("s") && !term.endsWith("ss")) {
+            return term.substring(0, term.length() - 1);
+        }
+        return term;
+    }
+
+    /**
+     * Wrap matched words in mark tags; long text is cut to an excerpt starting shortly before the first match.
+     * The text itself is HTML-escaped so the mark tags are the only markup.
+     */
+    static String highlight(String text, Set<String> terms, int maxChars) {
+        if (text == null || text.isEmpty()) {
+            return text;
+        }
+        int from = 0;
+        int to = text.length();
+        if (text.length() > maxChars) {
+            Matcher first = WORD.matcher(text);
+            while (first.find()) {
+                if (terms.contains(normalize(first.group()))) {
+                    from = Math.max(0, first.start() - maxChars / 4);
+                    break;
+                }
+            }
+            to = Math.min(text.length(), from + maxChars);
+            // Cut the excerpt on whitespace so no word is split
+            while (from > 0 && from < to && !Character.isWhitespace(text.charAt(from - 1))) {
+                from++;
+            }
+            int end = to;
+            while (end < text.length() && end > from && !Character.isWhitespace(text.charAt(end))) {
+                end--;
+            }
+            if (end > from) {
+                to = end;
+            }
+        }
+
+        StringBuilder result = new StringBuilder();
+        if (from > 0) {
+            result.append("... ");
+        }
+        Matcher matcher = WORD.matcher(text).region(from, to);
+        int last = from;
+        while (matcher.find()) {
+            if (terms.contains(normalize(matcher.group()))) {
+                result.append(HtmlUtils.htmlEscape(text.substring(last, matcher.start())))
+                    .append("<mark>").append(HtmlUtils.htmlEscape(matcher.group())).append("</mark>");
+                last = matcher.end();
+            }
+        }
+        result.append(HtmlUtils.htmlEscape(text.substring(last, to)));
+        if (to < text.length()) {
+            result.append(" ...");
+        }
+        return result.toString().strip();
+    }
+}
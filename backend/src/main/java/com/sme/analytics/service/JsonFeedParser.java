@@ -0,0 +1,70 @@
+package com.sme.analytics.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JSON Feed (https://jsonfeed.org) parser: reads url, title, summary or content_text,
+ * date_published and tags of each item
+ */
+@Component
+public class JsonFeedParser implements NewsFeedParser {
+
+    private final ObjectMapper objectMapper;
+
+    public JsonFeedParser(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public String format() {
+        return "json";
+    }
+
+    @Override
+    public List<FeedItem> parse(InputStream body) throws IOException {
+        JsonNode root = objectMapper.readTree(body);
+        List<FeedItem> items = new ArrayList<>();
+        for (JsonNode item : root.path("items")) {
+            String url = text(item, "url");
+            String title = text(item, "title");
+            if (url == null || title == null) {
+                continue;
+            }
+            String summary = text(item, "summary");
+            if (summary == null) {
+                summary = text(item, "content_text");
+            }
+            List<String> tags = new ArrayList<>();
+            item.path("tags").forEach(tag -> tags.add(tag.asText()));
+            items.add(new FeedItem(title, summary, url, parseDate(text(item, "date_published")), tags));
+        }
+        return items;
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    private static LocalDateTime parseDate(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return OffsetDateTime.parse(value).atZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.sme.analytics.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sme.analytics.util.PriceParser;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Reads schema.org offers: JSON-LD blocks embedded in HTML (Product.offers.price or lowPrice),
+ * or a JSON response with such an offer or a top-level "price" field
+ */
+@Component
+@Order(1)
+public class JsonLdPriceExtractor implements PriceExtractor {
+
+    private static final Pattern JSON_LD = Pattern.compile(
+        "<script[^>]*type\\s*=\\s*[\"']application/ld\\+json[\"'][^>]*>(.*?)</script>",
+        Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+
+    private final ObjectMapper objectMapper;
+
+    public JsonLdPriceExtractor(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public String name() {
+        return "json-ld";
+    }
+
+    @Override
+    public Optional<Double> extract(String body, String contentType) {
+        if (contentType != null && contentType.contains("json")) {
+            JsonNode root = read(body);
+            if (root == null) {
+                return Optional.empty();
+            }
+            Optional<Double> offer = findOffer(root);
+            return offer.isPresent() ? offer : PriceParser.parse(root.path("price").asText(null));
+        }
+        Matcher matcher = JSON_LD.matcher(body);
+        while (matcher.find()) {
+            JsonNode root = read(matcher.group(1));
+            if (root != null) {
+                Optional<Double> offer = findOffer(root);
+                if (offer.isPresent()) {
+                    return offer;
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    // Depth-first through objects and arrays (including @graph) for the first offer with a price
+    private Optional<Double> findOffer(JsonNode node) {
+        if (node.isArray()) {
+            for (JsonNode element : node) {
+                Optional<Double> price = findOffer(element);
+                if (price.isPresent()) {
+                    return price;
+                }
+            }
+        } else if (node.isObject()) {
+            JsonNode offers = node.path("offers");
+            JsonNode offer = offers.isArray() ? offers.path(0) : offers;
+            if (offer.isObject()) {
+                Optional<Double> price = PriceParser.parse(offer.path("price").asText(null))
+                    .or(() -> PriceParser.parse(offer.path("lowPrice").asText(null)));
+                if (price.isPresent()) {
+                    return price;
+                }
+            }
+            for (JsonNode child : node) {
+                Optional<Double> price = findOffer(child);
+                if (price.isPresent()) {
+                    return price;
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    private JsonNode read(String json) {
+        try {
+            return objectMapper.readTree(json.strip());
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+}
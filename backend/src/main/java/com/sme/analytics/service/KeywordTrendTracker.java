@@ -0,0 +1,170 @@
+package com.sme.analytics.service;
+
+import com.sme.analytics.dto.KeywordCount;
+import com.sme.analytics.dto.MarketNewsDTO;
+import com.sme.analytics.util.SpaceSavingCounter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Streaming top-K keywords of market news over trailing windows.
+ * Keywords are counted at ingest into Space-Saving summaries held in two rings:
+ * 24 hourly buckets and 7 daily buckets, keyed by publish time. Each bucket tracks at
+ * most {@code market.keywords.capacity} keywords, so memory stays bounded whatever the
+ * news volume, and a query merges at most 24 small summaries.
+ * Windows are bucket-aligned: HOUR is the current clock hour, DAY the last 24 clock
+ * hours and WEEK the last 7 calendar days. Counts are Space-Saving estimates.
+ */
+@Component
+public class KeywordTrendTracker {
+
+    public enum Window { HOUR, DAY, WEEK }
+
+    private static final int HOURS = 24;
+    private static final int DAYS = 7;
+
+    private final int capacity;
+
+    // Guarded by this
+    private Rings rings;
+
+    public KeywordTrendTracker(@Value("${market.keywords.capacity:200}") int capacity) {
+        this.capacity = capacity;
+        this.rings = new Rings();
+    }
+
+    /**
+     * Count the keywords of newly stored news
+     */
+    public synchronized void recordAll(Collection<MarketNewsDTO> news) {
+        long now = epochHour(LocalDateTime.now());
+        for (MarketNewsDTO item : news) {
+            rings.record(item.getPublishedAt(), item.getKeywords(), 1, now);
+        }
+    }
+
+    /**
+     * Replace all counts with the given observations, e.g. after reloading the last week from the database
+     */
+    public void rebuild(Collection<Observation> observations) {
+        Rings rebuilt = new Rings();
+        long now = epochHour(LocalDateTime.now());
+        for (Observation observation : observations) {
+            rebuilt.record(observation.publishedAt(), observation.keywords(), observation.count(), now);
+        }
+        synchronized (this) {
+            rings = rebuilt;
+        }
+    }
+
+    /**
+     * Keywords with the highest estimated counts in the window, highest first
+     */
+    public synchronized List<KeywordCount> top(Window window, int limit) {
+        long nowHour = epochHour(LocalDateTime.now());
+        long nowDay = Math.floorDiv(nowHour, HOURS);
+        List<SpaceSavingCounter> summaries = new ArrayList<>();
+        switch (window) {
+            case HOUR -> rings.hourly(nowHour, nowHour).forEach(summaries::add);
+            case DAY -> rings.hourly(nowHour - HOURS + 1, nowHour).forEach(summaries::add);
+            case WEEK -> rings.daily(nowDay - DAYS + 1, nowDay).forEach(summaries::add);
+        }
+
+        if (summaries.size() == 1) {
+            return summaries.get(0).top(limit).stream()
+                .map(estimate -> new KeywordCount(estimate.item(), estimate.count()))
+                .toList();
+        }
+        Map<String, Long> merged = new HashMap<>();
+        for (SpaceSavingCounter summary : summaries) {
+            summary.estimates().forEach(estimate -> merged.merge(estimate.item(), estimate.count(), Long::sum));
+        }
+        return merged.entrySet().stream()
+            .sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+            .limit(limit)
+            .map(entry -> new KeywordCount(entry.getKey(), entry.getValue()))
+            .toList();
+    }
+
+    /**
+     * Local clock hours since the epoch, so days split at local midnight
+     */
+    private static long epochHour(LocalDateTime time) {
+        return time.toLocalDate().toEpochDay() * HOURS + time.getHour();
+    }
+
+    /**
+     * Comma-separated keywords and the number of news items that carried them, in the hour starting at publishedAt
+     */
+    public record Observation(LocalDateTime publishedAt, String keywords, long count) {
+    }
+
+    /**
+     * Hourly and daily bucket rings; a slot is reset when a newer hour or day reuses it
+     */
+    private final class Rings {
+        private final long[] hourKeys = new long[HOURS];
+        private final SpaceSavingCounter[] hours = new SpaceSavingCounter[HOURS];
+        private final long[] dayKeys = new long[DAYS];
+        private final SpaceSavingCounter[] days = new SpaceSavingCounter[DAYS];
+
+        void record(LocalDateTime publishedAt, String keywords, long count, long nowHour) {
+            if (publishedAt == null || keywords == null) {
+                return;
+            }
+            // Future timestamps count towards the current hour
+            long hour = Math.min(epochHour(publishedAt), nowHour);
+            long day = Math.floorDiv(hour, HOURS);
+            if (day <= Math.floorDiv(nowHour, HOURS) - DAYS) {
+                return;
+            }
+            SpaceSavingCounter hourly = hour > nowHour - HOURS ? slot(hourKeys, hours, hour, HOURS) : null;
+            SpaceSavingCounter daily = slot(dayKeys, days, day, DAYS);
+            for (String keyword : keywords.split(",")) {
+                String trimmed = keyword.trim();
+                if (trimmed.isEmpty()) {
+                    continue;
+                }
+                if (hourly != null) {
+                    hourly.add(trimmed, count);
+                }
+                if (daily != null) {
+                    daily.add(trimmed, count);
+                }
+            }
+        }
+
+        private SpaceSavingCounter slot(long[] keys, SpaceSavingCounter[] counters, long key, int size) {
+            int index = (int) Math.floorMod(key, (long) size);
+            if (counters[index] == null || keys[index] < key) {
+                keys[index] = key;
+                counters[index] = new SpaceSavingCounter(capacity);
+            } else if (keys[index] > key) {
+                // Slot already holds a newer period; this observation is outside the ring
+                return null;
+            }
+            return counters[index];
+        }
+
+        List<SpaceSavingCounter> hourly(long from, long to) {
+            return collect(hourKeys, hours, from, to);
+        }
+
+        List<SpaceSavingCounter> daily(long from, long to) {
+            return collect(dayKeys, days, from, to);
+        }
+
+        private List<SpaceSavingCounter> collect(long[] keys, SpaceSavingCounter[] counters, long from, long to) {
+            List<SpaceSavingCounter> result = new ArrayList<>();
+            for (int i = 0; i < counters.length; i++) {
+                if (counters[i] != null && keys[i] >= from && keys[i] <= to) {
+                    result.add(counters[i]);
+                }
+            }
+            return result;
+        }
+    }
+}
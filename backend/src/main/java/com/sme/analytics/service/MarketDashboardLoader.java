@@ -0,0 +1,117 @@
+package com.sme.analytics.service;
+
+import com.sme.analytics.dto.CompetitorDTO;
+import com.sme.analytics.dto.MarketNewsDTO;
+import com.sme.analytics.mapper.CompetitorMapper;
+import com.sme.analytics.mapper.MarketNewsMapper;
+import com.sme.analytics.repository.CompetitorRepository;
+import com.sme.analytics.repository.MarketNewsRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Database reads behind {@link MarketDashboardSnapshot}, kept in their own bean so they run
+ * in a read-only transaction through the Spring proxy and outside the snapshot's lock
+ */
+@Component
+public class MarketDashboardLoader {
+
+    private final MarketNewsRepository marketNewsRepository;
+    private final CompetitorRepository competitorRepository;
+    private final MarketNewsMapper marketNewsMapper;
+    private final CompetitorMapper competitorMapper;
+
+    public MarketDashboardLoader(
+        MarketNewsRepository marketNewsRepository,
+        CompetitorRepository competitorRepository,
+        MarketNewsMapper marketNewsMapper,
+        CompetitorMapper competitorMapper
+    ) {
+        this.marketNewsRepository = marketNewsRepository;
+        this.competitorRepository = competitorRepository;
+        this.marketNewsMapper = marketNewsMapper;
+        this.competitorMapper = competitorMapper;
+    }
+
+    /**
+     * Everything the dashboard aggregates, read in one transaction. News rows are summed per
+     * hour (and per minute for the recent minutes) in the database, not loaded one by one.
+     * Repeatable read gives every query the same snapshot, so a change committed during the
+     * load is either in all of the results or in none.
+     */
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public DashboardData load(
+        int recentSize,
+        LocalDateTime keywordsSince,
+        LocalDateTime sentimentSince,
+        LocalDateTime minuteSentimentSince
+    ) {
+        List<CompetitorDTO> competitors = competitorMapper.toDtos(competitorRepository.findActiveWithKeywords());
+        List<MarketNewsDTO> latest = marketNewsMapper.toDtos(
+            marketNewsRepository.findByCanonicalNewsIdIsNullOrderByPublishedAtDesc(PageRequest.of(0, recentSize)).getContent());
+        long unread = marketNewsRepository.countByIsReadFalse();
+        long highImpact = marketNewsRepository.countByImpactLevel("HIGH");
+
+        List<KeywordTrendTracker.Observation> keywords = new ArrayList<>();
+        for (Object[] row : marketNewsRepository.countKeywordsByHourSince(keywordsSince)) {
+            keywords.add(new KeywordTrendTracker.Observation(hour(row[0], row[1]), (String) row[2], ((Number) row[3]).longValue()));
+        }
+
+        List<SentimentTimeSeries.Aggregate> hourly = new ArrayList<>();
+        for (Object[] row : marketNewsRepository.sumSentimentByHourSince(sentimentSince)) {
+            hourly.add(aggregate(hour(row[0], row[1]), row, 2));
+        }
+        List<SentimentTimeSeries.Aggregate> minutely = new ArrayList<>();
+        for (Object[] row : marketNewsRepository.sumSentimentByMinuteSince(minuteSentimentSince)) {
+            minutely.add(aggregate(hour(row[0], row[1]).plusMinutes(((Number) row[2]).longValue()), row, 3));
+        }
+        return new DashboardData(competitors, latest, unread, highImpact, keywords, hourly, minutely);
+    }
+
+    /**
+     * Active competitors with their monitoring keywords
+     */
+    @Transactional(readOnly = true)
+    public List<CompetitorDTO> loadCompetitors() {
+        return competitorMapper.toDtos(competitorRepository.findActiveWithKeywords());
+    }
+
+    private static LocalDateTime hour(Object date, Object hour) {
+        return ((LocalDate) date).atTime(((Number) hour).intValue(), 0);
+    }
+
+    /**
+     * Aggregate from the category, industry, competitor id, sum and count columns starting at offset
+     */
+    private static SentimentTimeSeries.Aggregate aggregate(LocalDateTime period, Object[] row, int offset) {
+        return new SentimentTimeSeries.Aggregate(
+            period,
+            (String) row[offset],
+            (String) row[offset + 1],
+            (Long) row[offset + 2],
+            ((Number) row[offset + 3]).doubleValue(),
+            ((Number) row[offset + 4]).longValue()
+        );
+    }
+
+    /**
+     * Result of {@link #load}
+     */
+    public record DashboardData(
+        List<CompetitorDTO> competitors,
+        List<MarketNewsDTO> recentNews,
+        long unreadCount,
+        long highImpactCount,
+        List<KeywordTrendTracker.Observation> keywords,
+        List<SentimentTimeSeries.Aggregate> hourlySentiment,
+        List<SentimentTimeSeries.Aggregate> minuteSentiment
+    ) {
+    }
+}
@@ -0,0 +1,266 @@
+package com.sme.analytics.service;
+
+import com.sme.analytics.dto.CompetitorDTO;
+import com.sme.analytics.dto.KeywordCount;
+import com.sme.analytics.dto.MarketIntelligenceResponse;
+import com.sme.analytics.dto.MarketNewsDTO;
+import com.sme.analytics.mapper.MarketNewsMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory market intelligence dashboard.
+ * Counters, the recent news list, the sentiment time series and the keyword tracker are
+ * updated from news and competitor events after commit, so serving the dashboard never
+ * touches the database. A scheduled reconciliation reloads everything from the database
+ * to correct any drift (missed events, rows changed outside the application); it reads
+ * through {@link MarketDashboardLoader} without holding this object's lock. News and flag
+ * events that arrive while it reads are applied at once and also buffered, then replayed
+ * onto the loaded state, since they committed after the load's snapshot was taken.
+ * Published views hold copies of the news DTOs, so later flag changes never alter a
+ * view a caller already has.
+ * Sentiment covers the trailing {@value #WINDOW_DAYS} days in whole hours; keywords the
+ * last {@value #WINDOW_DAYS} calendar days.
+ */
+@Component
+public class MarketDashboardSnapshot {
+
+    private static final Logger logger = LoggerFactory.getLogger(MarketDashboardSnapshot.class);
+
+    static final int WINDOW_DAYS = 7;
+    private static final int TOP_KEYWORDS = 10;
+    private static final Comparator<MarketNewsDTO> NEWEST_FIRST = Comparator
+        .comparing(MarketNewsDTO::getPublishedAt, Comparator.nullsLast(Comparator.reverseOrder()))
+        .thenComparing(MarketNewsDTO::getId, Comparator.nullsLast(Comparator.reverseOrder()));
+
+    private final MarketDashboardLoader loader;
+    private final MarketNewsMapper marketNewsMapper;
+    private final KeywordTrendTracker keywordTracker;
+    private final SentimentTimeSeries sentimentTimeSeries;
+    private final int recentSize;
+
+    // Guarded by this
+    private List<CompetitorDTO> competitors = List.of();
+    private final List<MarketNewsDTO> recentNews = new ArrayList<>();
+    private long unreadCount;
+    private long highImpactCount;
+    private volatile boolean loaded;
+    // Events received while a reconciliation is loading; null when none is
+    private List<Object> pendingEvents;
+    // Incremented on every competitor change, so a reconciliation does not overwrite newer competitors
+    private long competitorsVersion;
+
+    // Serializes reconciliations without blocking readers and event listeners
+    private final Object reconcileLock = new Object();
+
+    // Rebuilt lazily after a change; null means stale
+    private volatile MarketIntelligenceResponse view;
+    private volatile LocalDateTime viewHour;
+
+    public MarketDashboardSnapshot(
+        MarketDashboardLoader loader,
+        MarketNewsMapper marketNewsMapper,
+        KeywordTrendTracker keywordTracker,
+        SentimentTimeSeries sentimentTimeSeries,
+        @Value("${market.dashboard.recent-news:50}") int recentSize
+    ) {
+        this.loader = loader;
+        this.marketNewsMapper = marketNewsMapper;
+        this.keywordTracker = keywordTracker;
+        this.sentimentTimeSeries = sentimentTimeSeries;
+        this.recentSize = recentSize;
+    }
+
+    /**
+     * Current dashboard; only rebuilt from the in-memory aggregates after a change or when the hour rolls over
+     */
+    public MarketIntelligenceResponse current() {
+        MarketIntelligenceResponse current = view;
+        if (current != null && currentHour().equals(viewHour)) {
+            return current;
+        }
+        if (!loaded) {
+            reconcile();
+        }
+        synchronized (this) {
+            LocalDateTime hour = currentHour();
+            if (view == null || !hour.equals(viewHour)) {
+                view = buildView();
+                viewHour = hour;
+            }
+            return view;
+        }
+    }
+
+    /**
+     * Reload every aggregate from the database
+     */
+    @Scheduled(fixedDelayString = "${market.dashboard.reconcile-interval:5m}")
+    public void reconcile() {
+        synchronized (reconcileLock) {
+            long start = System.currentTimeMillis();
+            long competitorsSeen;
+            synchronized (this) {
+                pendingEvents = new ArrayList<>();
+                competitorsSeen = competitorsVersion;
+            }
+            LocalDateTime keywordsSince = LocalDate.now().minusDays(WINDOW_DAYS - 1).atStartOfDay();
+            MarketDashboardLoader.DashboardData data;
+            try {
+                data = loader.load(
+                    recentSize, keywordsSince, sentimentTimeSeries.retentionStart(), sentimentTimeSeries.minuteRetentionStart());
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    pendingEvents = null;
+                }
+                throw e;
+            }
+
+            synchronized (this) {
+                keywordTracker.rebuild(data.keywords());
+                sentimentTimeSeries.rebuild(data.hourlySentiment(), data.minuteSentiment());
+                if (competitorsVersion == competitorsSeen) {
+                    competitors = data.competitors();
+                }
+                recentNews.clear();
+                recentNews.addAll(data.recentNews());
+                unreadCount = data.unreadCount();
+                highImpactCount = data.highImpactCount();
+
+                List<Object> missed = pendingEvents;
+                pendingEvents = null;
+                for (Object event : missed) {
+                    if (event instanceof MarketNewsAddedEvent added) {
+                        applyNewsAdded(added);
+                    } else if (event instanceof MarketNewsFlagsChangedEvent flags) {
+                        applyFlagsChanged(flags);
+                    }
+                }
+                loaded = true;
+                view = null;
+            }
+            logger.debug("Reconciled market dashboard in {} ms", System.currentTimeMillis() - start);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onNewsAdded(MarketNewsAddedEvent event) {
+        if (pendingEvents != null) {
+            pendingEvents.add(event);
+        }
+        applyNewsAdded(event);
+        view = null;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onFlagsChanged(MarketNewsFlagsChangedEvent event) {
+        if (pendingEvents != null) {
+            pendingEvents.add(event);
+        }
+        applyFlagsChanged(event);
+        view = null;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCompetitorsChanged(CompetitorsChangedEvent event) {
+        synchronized (this) {
+            competitorsVersion++;
+        }
+        List<CompetitorDTO> activeCompetitors = loader.loadCompetitors();
+        synchronized (this) {
+            competitors = activeCompetitors;
+            view = null;
+        }
+    }
+
+    private void applyNewsAdded(MarketNewsAddedEvent event) {
+        List<MarketNewsDTO> canonical = new ArrayList<>();
+        for (MarketNewsDTO news : event.news()) {
+            if (!Boolean.TRUE.equals(news.getIsRead())) {
+                unreadCount++;
+            }
+            if ("HIGH".equals(news.getImpactLevel())) {
+                highImpactCount++;
+            }
+            // Near duplicates would count the same story again in the recent list, keywords and sentiment
+            if (news.getCanonicalNewsId() == null) {
+                // Own copy: the event's DTOs are also returned to the caller that stored them
+                insertRecent(marketNewsMapper.copy(news));
+                canonical.add(news);
+            }
+        }
+        keywordTracker.recordAll(canonical);
+        sentimentTimeSeries.recordAll(canonical);
+    }
+
+    private void applyFlagsChanged(MarketNewsFlagsChangedEvent event) {
+        unreadCount = Math.max(0, unreadCount + event.unreadDelta());
+        for (MarketNewsDTO news : recentNews) {
+            if (event.selection().matches(news)) {
+                if (event.read() != null) {
+                    news.setIsRead(event.read());
+                }
+                if (event.bookmarked() != null) {
+                    news.setIsBookmarked(event.bookmarked());
+                }
+            }
+        }
+    }
+
+    private void insertRecent(MarketNewsDTO news) {
+        int position = Collections.binarySearch(recentNews, news, NEWEST_FIRST);
+        if (position >= 0) {
+            return;
+        }
+        int insertAt = -position - 1;
+        if (insertAt >= recentSize) {
+            return;
+        }
+        recentNews.add(insertAt, news);
+        if (recentNews.size() > recentSize) {
+            recentNews.remove(recentNews.size() - 1);
+        }
+    }
+
+    private MarketIntelligenceResponse buildView() {
+        MarketIntelligenceResponse response = new MarketIntelligenceResponse();
+        response.setCompetitors(competitors);
+        // Copies, because onFlagsChanged updates the held DTOs in place
+        response.setRecentNews(recentNews.stream().map(marketNewsMapper::copy).toList());
+        response.setUnreadNewsCount((int) unreadCount);
+        response.setHighImpactNewsCount((int) highImpactCount);
+
+        Map<String, Integer> newsByCategory = new HashMap<>();
+        recentNews.forEach(news -> newsByCategory.merge(news.getCategory(), 1, Integer::sum));
+        response.setNewsByCategory(newsByCategory);
+
+        Duration window = Duration.ofDays(WINDOW_DAYS);
+        response.setSentimentTrends(
+            sentimentTimeSeries.averages(SentimentTimeSeries.Dimension.CATEGORY, window));
+
+        Double overall = sentimentTimeSeries.average(SentimentTimeSeries.Dimension.ALL, null, window);
+        double avgSentiment = overall != null ? overall : 0.0;
+        response.setAverageSentiment(avgSentiment);
+        response.setMarketSentiment(avgSentiment > 0.2 ? "BULLISH" : avgSentiment < -0.2 ? "BEARISH" : "NEUTRAL");
+
+        response.setTopKeywords(keywordTracker.top(KeywordTrendTracker.Window.WEEK, TOP_KEYWORDS).stream()
+            .map(KeywordCount::keyword)
+            .collect(Collectors.toList()));
+        return response;
+    }
+
+    private static LocalDateTime currentHour() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.HOURS);
+    }
+}
@@ -1,24 +1,27 @@
 package com.sme.analytics.service;
 
 import com.sme.analytics.dto.CompetitorDTO;
-import com.sme.analytics.dto.MarketNewsDTO;
 import com.sme.analytics.dto.MarketIntelligenceResponse;
+import com.sme.analytics.dto.MarketNewsDTO;
+import com.sme.analytics.dto.NewsFeedResponse;
+import com.sme.analytics.mapper.CompetitorMapper;
+import com.sme.analytics.mapper.MarketNewsMapper;
 import com.sme.analytics.model.Competitor;
 import com.sme.analytics.model.MarketNews;
+import com.sme.analytics.repository.CompetitorPriceHistoryRepository;
 import com.sme.analytics.repository.CompetitorRepository;
+import com.sme.analytics.repository.MarketNewsFeedRepository;
 import com.sme.analytics.repository.MarketNewsRepository;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.client.RestTemplate;
 
-import java.time.LocalDateTime;
-import java.util.*;
-import java.util.stream.Collectors;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 
 /**
  * Service for managing competitive intelligence and market monitoring
@@ -33,69 +36,31 @@ public class MarketIntelligenceService {
     private MarketNewsRepository marketNewsRepository;
 
     @Autowired
-    private RestTemplate restTemplate;
-
-    @Value("${ml.service.url:http://localhost:8001}")
-    private String mlServiceUrl;
-
-    /**
-     * Get comprehensive market intelligence dashboard
-     */
-    @Transactional(readOnly = true)
-    public MarketIntelligenceResponse getDashboard() {
-        MarketIntelligenceResponse response = new MarketIntelligenceResponse();
-
-        // Get active competitors
-        List<Competitor> competitors = competitorRepository.findByActiveTrue();
-        response.setCompetitors(competitors.stream()
-            .map(this::convertToDTO)
-            .collect(Collectors.toList()));
+    private MarketNewsFeedRepository marketNewsFeedRepository;
 
-        // Get recent news (last 50)
-        Pageable pageable = PageRequest.of(0, 50);
-        Page<MarketNews> newsPage = marketNewsRepository.findAllByOrderByPublishedAtDesc(pageable);
-        response.setRecentNews(newsPage.getContent().stream()
-            .map(this::convertToDTO)
-            .collect(Collectors.toList()));
+    @Autowired
+    private CompetitorPriceHistoryRepository priceHistoryRepository;
 
-        // Calculate statistics
-        response.setUnreadNewsCount(marketNewsRepository.countByIsReadFalse().intValue());
-        response.setHighImpactNewsCount(
-            marketNewsRepository.findByImpactLevelOrderByPublishedAtDesc("HIGH").size()
-        );
+    @Autowired
+    private MarketDashboardSnapshot dashboardSnapshot;
 
-        // Calculate news by category
-        Map<String, Integer> newsByCategory = new HashMap<>();
-        newsPage.getContent().forEach(news -> {
-            String category = news.getCategory();
-            newsByCategory.put(category, newsByCategory.getOrDefault(category, 0) + 1);
-        });
-        response.setNewsByCategory(newsByCategory);
+    @Autowired
+    private MarketNewsMapper marketNewsMapper;
 
-        // Calculate sentiment trends
-        LocalDateTime weekAgo = LocalDateTime.now().minusDays(7);
-        List<Object[]> sentimentData = marketNewsRepository.getAverageSentimentByCategory(weekAgo);
-        Map<String, Double> sentimentTrends = new HashMap<>();
-        sentimentData.forEach(row -> {
-            sentimentTrends.put((String) row[0], (Double) row[1]);
-        });
-        response.setSentimentTrends(sentimentTrends);
+    @Autowired
+    private CompetitorMapper competitorMapper;
 
-        // Calculate overall market sentiment
-        List<MarketNews> recentNews = marketNewsRepository.findByDateRange(weekAgo, LocalDateTime.now());
-        double avgSentiment = recentNews.stream()
-            .filter(n -> n.getSentimentScore() != null)
-            .mapToDouble(MarketNews::getSentimentScore)
-            .average()
-            .orElse(0.0);
-        response.setAverageSentiment(avgSentiment);
-        response.setMarketSentiment(avgSentiment > 0.2 ? "BULLISH" : avgSentiment < -0.2 ? "BEARISH" : "NEUTRAL");
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
 
-        // Extract top keywords
-        List<String> topKeywords = extractTopKeywords(recentNews);
-        response.setTopKeywords(topKeywords);
+    @Autowired
+    private NewsIngestionService newsIngestionService;
 
-        return response;
+    /**
+     * Get comprehensive market intelligence dashboard, served from the in-memory snapshot
+     */
+    public MarketIntelligenceResponse getDashboard() {
+        return dashboardSnapshot.current();
     }
 
     /**
@@ -114,7 +79,8 @@ public class MarketIntelligenceService {
         competitor.setActive(true);
 
         competitor = competitorRepository.save(competitor);
-        return convertToDTO(competitor);
+        eventPublisher.publishEvent(new CompetitorsChangedEvent(competitor.getId(), true));
+        return competitorMapper.toDto(competitor);
     }
 
     /**
@@ -122,9 +88,7 @@ public class MarketIntelligenceService {
      */
     @Transactional(readOnly = true)
     public List<CompetitorDTO> getAllCompetitors() {
-        return competitorRepository.findAll().stream()
-            .map(this::convertToDTO)
-            .collect(Collectors.toList());
+        return competitorMapper.toDtos(competitorRepository.findAll());
     }
 
     /**
@@ -133,7 +97,7 @@ public class MarketIntelligenceService {
     @Transactional(readOnly = true)
     public CompetitorDTO getCompetitor(Long id) {
         return competitorRepository.findById(id)
-            .map(this::convertToDTO)
+            .map(competitorMapper::toDto)
             .orElse(null);
     }
 
@@ -144,6 +108,9 @@ public class MarketIntelligenceService {
     public CompetitorDTO updateCompetitor(Long id, CompetitorDTO dto) {
         Competitor competitor = competitorRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("Competitor not found"));
+        boolean matchingChanged = !Objects.equals(competitor.getName(), dto.getName())
+            || !keywordSet(competitor.getMonitoringKeywords()).equals(keywordSet(dto.getMonitoringKeywords()))
+            || !Objects.equals(competitor.getActive(), dto.getActive());
 
         competitor.setName(dto.getName());
         competitor.setDescription(dto.getDescription());
@@ -151,11 +118,17 @@ public class MarketIntelligenceService {
         competitor.setIndustry(dto.getIndustry());
         competitor.setLocation(dto.getLocation());
         competitor.setMonitoringKeywords(dto.getMonitoringKeywords());
+        if (!Objects.equals(competitor.getPriceMonitoringUrl(), dto.getPriceMonitoringUrl())) {
+            // Validators belong to the old page
+            competitor.setPriceEtag(null);
+            competitor.setPriceLastModified(null);
+        }
         competitor.setPriceMonitoringUrl(dto.getPriceMonitoringUrl());
         competitor.setActive(dto.getActive());
 
         competitor = competitorRepository.save(competitor);
-        return convertToDTO(competitor);
+        eventPublisher.publishEvent(new CompetitorsChangedEvent(competitor.getId(), matchingChanged));
+        return competitorMapper.toDto(competitor);
     }
 
     /**
@@ -163,28 +136,36 @@ public class MarketIntelligenceService {
      */
     @Transactional
     public void deleteCompetitor(Long id) {
+        // News keeps its row; only the reference that would block the delete goes
+        marketNewsRepository.unlinkCompetitor(id);
         competitorRepository.deleteById(id);
+        priceHistoryRepository.deleteByCompetitorId(id);
+        eventPublisher.publishEvent(new CompetitorsChangedEvent(id, true));
     }
 
     /**
-     * Get news feed with filtering
+     * One page of the news feed, newest first, continuing after the given cursor
      */
     @Transactional(readOnly = true)
-    public List<MarketNewsDTO> getNewsFeed(String category, String industry, Integer limit) {
-        Pageable pageable = PageRequest.of(0, limit != null ? limit : 20);
-        Page<MarketNews> newsPage;
-
-        if (category != null) {
-            newsPage = marketNewsRepository.findByCategoryOrderByPublishedAtDesc(category, pageable);
-        } else if (industry != null) {
-            newsPage = marketNewsRepository.findByIndustryOrderByPublishedAtDesc(industry, pageable);
-        } else {
-            newsPage = marketNewsRepository.findAllByOrderByPublishedAtDesc(pageable);
+    public NewsFeedResponse getNewsFeed(NewsFeedFilter filter, String cursor, int limit) {
+        NewsFeedCursor after = cursor != null && !cursor.isBlank() ? NewsFeedCursor.decode(cursor) : null;
+        // One extra row tells whether there is a next page
+        List<MarketNews> page = marketNewsFeedRepository.findPage(filter, after, limit + 1);
+        String nextCursor = null;
+        if (page.size() > limit) {
+            page = page.subList(0, limit);
+            MarketNews last = page.get(limit - 1);
+            nextCursor = new NewsFeedCursor(last.getPublishedAt(), last.getId()).encode();
         }
+        return NewsFeedResponse.of(marketNewsMapper.toDtos(page), nextCursor);
+    }
 
-        return newsPage.getContent().stream()
-            .map(this::convertToDTO)
-            .collect(Collectors.toList());
+    /**
+     * Near duplicates clustered under a canonical article, newest first
+     */
+    @Transactional(readOnly = true)
+    public List<MarketNewsDTO> getDuplicates(Long canonicalNewsId) {
+        return marketNewsMapper.toDtos(marketNewsRepository.findByCanonicalNewsIdOrderByPublishedAtDesc(canonicalNewsId));
     }
 
     /**
@@ -192,10 +173,10 @@ public class MarketIntelligenceService {
      */
     @Transactional
     public void markNewsAsRead(Long newsId) {
-        MarketNews news = marketNewsRepository.findById(newsId)
-            .orElseThrow(() -> new RuntimeException("News not found"));
-        news.setIsRead(true);
-        marketNewsRepository.save(news);
+        int updated = setRead(NewsSelection.byIds(List.of(newsId)), true);
+        if (updated == 0 && !marketNewsRepository.existsById(newsId)) {
+            throw new RuntimeException("News not found");
+        }
     }
 
     /**
@@ -203,111 +184,50 @@ public class MarketIntelligenceService {
      */
     @Transactional
     public void bookmarkNews(Long newsId, boolean bookmark) {
-        MarketNews news = marketNewsRepository.findById(newsId)
-            .orElseThrow(() -> new RuntimeException("News not found"));
-        news.setIsBookmarked(bookmark);
-        marketNewsRepository.save(news);
+        int updated = setBookmarked(NewsSelection.byIds(List.of(newsId)), bookmark);
+        if (updated == 0 && !marketNewsRepository.existsById(newsId)) {
+            throw new RuntimeException("News not found");
+        }
     }
 
     /**
-     * Fetch latest news for tracked competitors and industry
-     * This would integrate with external news APIs
+     * Set the read flag on all selected news with one UPDATE; returns how many items changed
      */
     @Transactional
-    public void fetchLatestNews(String industry, String location) {
-        // TODO: Integrate with external news API (NewsAPI, GDELT, etc.)
-        // For now, creating sample data to demonstrate functionality
-        createSampleNews(industry, location);
-    }
-
-    /**
-     * Convert Competitor entity to DTO
-     */
-    private CompetitorDTO convertToDTO(Competitor competitor) {
-        CompetitorDTO dto = new CompetitorDTO();
-        dto.setId(competitor.getId());
-        dto.setName(competitor.getName());
-        dto.setDescription(competitor.getDescription());
-        dto.setWebsite(competitor.getWebsite());
-        dto.setIndustry(competitor.getIndustry());
-        dto.setLocation(competitor.getLocation());
-        dto.setActive(competitor.getActive());
-        dto.setCreatedAt(competitor.getCreatedAt());
-        dto.setLastMonitoredAt(competitor.getLastMonitoredAt());
-        dto.setMonitoringKeywords(competitor.getMonitoringKeywords());
-        dto.setPriceMonitoringUrl(competitor.getPriceMonitoringUrl());
-        dto.setLastKnownPrice(competitor.getLastKnownPrice());
-        dto.setPriceLastUpdated(competitor.getPriceLastUpdated());
-        return dto;
+    public int setRead(NewsSelection selection, boolean read) {
+        int updated = selection.isById()
+            ? (selection.ids().isEmpty() ? 0 : marketNewsRepository.updateReadByIds(selection.ids(), read))
+            : marketNewsFeedRepository.updateReadByFilter(selection.category(), selection.before(), read);
+        if (updated > 0) {
+            eventPublisher.publishEvent(new MarketNewsFlagsChangedEvent(
+                selection, read, null, read ? -updated : updated));
+        }
+        return updated;
     }
 
     /**
-     * Convert MarketNews entity to DTO
+     * Set the bookmark flag on all selected news with one UPDATE; returns how many items changed
      */
-    private MarketNewsDTO convertToDTO(MarketNews news) {
-        MarketNewsDTO dto = new MarketNewsDTO();
-        dto.setId(news.getId());
-        dto.setTitle(news.getTitle());
-        dto.setSummary(news.getSummary());
-        dto.setUrl(news.getUrl());
-        dto.setSource(news.getSource());
-        dto.setCategory(news.getCategory());
-        dto.setIndustry(news.getIndustry());
-        dto.setLocation(news.getLocation());
-        if (news.getRelatedCompetitor() != null) {
-            dto.setRelatedCompetitorId(news.getRelatedCompetitor().getId());
-            dto.setRelatedCompetitorName(news.getRelatedCompetitor().getName());
+    @Transactional
+    public int setBookmarked(NewsSelection selection, boolean bookmarked) {
+        int updated = selection.isById()
+            ? (selection.ids().isEmpty() ? 0 : marketNewsRepository.updateBookmarkedByIds(selection.ids(), bookmarked))
+            : marketNewsFeedRepository.updateBookmarkedByFilter(selection.category(), selection.before(), bookmarked);
+        if (updated > 0) {
+            eventPublisher.publishEvent(new MarketNewsFlagsChangedEvent(selection, null, bookmarked, 0));
         }
-        dto.setPublishedAt(news.getPublishedAt());
-        dto.setFetchedAt(news.getFetchedAt());
-        dto.setSentimentScore(news.getSentimentScore());
-        dto.setSentimentLabel(news.getSentimentLabel());
-        dto.setKeywords(news.getKeywords());
-        dto.setImpactLevel(news.getImpactLevel());
-        dto.setIsRead(news.getIsRead());
-        dto.setIsBookmarked(news.getIsBookmarked());
-        return dto;
+        return updated;
     }
 
     /**
-     * Extract top keywords from news
+     * Fetch the configured news feeds and store new articles tagged with the industry and location.
+     * Returns the number of articles stored.
      */
-    private List<String> extractTopKeywords(List<MarketNews> newsList) {
-        Map<String, Integer> keywordFreq = new HashMap<>();
-
-        newsList.forEach(news -> {
-            if (news.getKeywords() != null) {
-                Arrays.stream(news.getKeywords().split(","))
-                    .map(String::trim)
-                    .forEach(keyword -> keywordFreq.put(keyword, keywordFreq.getOrDefault(keyword, 0) + 1));
-            }
-        });
-
-        return keywordFreq.entrySet().stream()
-            .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
-            .limit(10)
-            .map(Map.Entry::getKey)
-            .collect(Collectors.toList());
+    public int fetchLatestNews(String industry, String location) {
+        return newsIngestionService.ingest(industry, location);
     }
 
-    /**
-     * Create sample news data for demonstration
-     */
-    private void createSampleNews(String industry, String location) {
-        // Sample news items to demonstrate functionality
-        MarketNews news1 = new MarketNews();
-        news1.setTitle("Industry Growth Report: " + industry + " Sector Shows 15% Increase");
-        news1.setSummary("Latest market analysis shows strong growth in the " + industry + " sector with significant opportunities ahead.");
-        news1.setUrl("https://example.com/news/industry-growth");
-        news1.setSource("Market Intelligence Daily");
-        news1.setCategory("INDUSTRY");
-        news1.setIndustry(industry);
-        news1.setLocation(location);
-        news1.setPublishedAt(LocalDateTime.now().minusHours(2));
-        news1.setSentimentScore(0.7);
-        news1.setSentimentLabel("POSITIVE");
-        news1.setKeywords("growth, market expansion, opportunity");
-        news1.setImpactLevel("HIGH");
-        marketNewsRepository.save(news1);
+    private static Set<String> keywordSet(Collection<String> keywords) {
+        return keywords == null ? Set.of() : new HashSet<>(keywords);
     }
 }
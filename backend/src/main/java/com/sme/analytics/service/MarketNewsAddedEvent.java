@@ -0,0 +1,11 @@
+package com.sme.analytics.service;
+
+import com.sme.analytics.dto.MarketNewsDTO;
+
+import java.util.List;
+
+/**
+ * Published when market news items are stored; listeners run after commit
+ */
+public record MarketNewsAddedEvent(List<MarketNewsDTO> news) {
+}
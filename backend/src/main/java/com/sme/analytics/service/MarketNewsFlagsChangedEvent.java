@@ -0,0 +1,13 @@
+package com.sme.analytics.service;
+
+/**
+ * Published when read or bookmark flags change on stored news.
+ * A null flag was left unchanged; unreadDelta is the change in the number of unread items.
+ */
+public record MarketNewsFlagsChangedEvent(
+    NewsSelection selection,
+    Boolean read,
+    Boolean bookmarked,
+    long unreadDelta
+) {
+}
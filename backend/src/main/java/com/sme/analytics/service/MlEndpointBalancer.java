@@ -0,0 +1,155 @@
+package com.sme.analytics.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Client-side load balancer over the ML service replicas listed in ml.service.urls.
+ * Each call goes to the healthy replica with the fewest outstanding requests (ties
+ * rotate). Replicas are health-checked on /health in the background and taken out
+ * of rotation immediately when a connection to them is refused. If no replica is
+ * healthy, all of them are eligible again so calls still reach the circuit breaker.
+ */
+@Component
+public class MlEndpointBalancer {
+
+    private static final Logger logger = LoggerFactory.getLogger(MlEndpointBalancer.class);
+
+    private final List<Endpoint> endpoints;
+    private final RestTemplate healthCheckTemplate;
+    private final AtomicInteger rotation = new AtomicInteger();
+
+    public MlEndpointBalancer(
+        @Value("${ml.service.urls:${ml.service.url:http://localhost:8001}}") List<String> urls,
+        @Value("${ml.service.health-check.timeout:2s}") Duration healthCheckTimeout
+    ) {
+        if (urls.isEmpty()) {
+            throw new IllegalArgumentException("At least one ML service URL is required");
+        }
+        this.endpoints = urls.stream()
+            .map(String::trim)
+            .map(url -> url.endsWith("/") ? url.substring(0, url.length() - 1) : url)
+            .map(Endpoint::new)
+            .toList();
+
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout((int) healthCheckTimeout.toMillis());
+        requestFactory.setReadTimeout((int) healthCheckTimeout.toMillis());
+        this.healthCheckTemplate = new RestTemplate(requestFactory);
+    }
+
+    /**
+     * Pick the healthy endpoint with the fewest outstanding requests, skipping the excluded one
+     * when another is available
+     */
+    public Endpoint choose(Endpoint exclude) {
+        Endpoint best = pick(exclude, true);
+        if (best == null) {
+            best = pick(exclude, false);
+        }
+        return best != null ? best : exclude;
+    }
+
+    /**
+     * Number of endpoints currently in rotation
+     */
+    public int healthyCount() {
+        int healthy = 0;
+        for (Endpoint endpoint : endpoints) {
+            if (endpoint.healthy) {
+                healthy++;
+            }
+        }
+        return healthy;
+    }
+
+    public List<Endpoint> getEndpoints() {
+        return endpoints;
+    }
+
+    /**
+     * Take an endpoint out of rotation until its next successful health check
+     */
+    public void markDown(Endpoint endpoint) {
+        if (endpoint.healthy) {
+            endpoint.healthy = false;
+            logger.warn("ML endpoint {} marked down", endpoint.url);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${ml.service.health-check.interval:10s}")
+    public void checkHealth() {
+        for (Endpoint endpoint : endpoints) {
+            boolean healthy;
+            try {
+                ResponseEntity<String> response = healthCheckTemplate.getForEntity(endpoint.url + "/health", String.class);
+                healthy = response.getStatusCode().is2xxSuccessful();
+            } catch (Exception e) {
+                healthy = false;
+            }
+            if (healthy != endpoint.healthy) {
+                logger.info("ML endpoint {} is now {}", endpoint.url, healthy ? "healthy" : "unhealthy");
+            }
+            endpoint.healthy = healthy;
+        }
+    }
+
+    private Endpoint pick(Endpoint exclude, boolean healthyOnly) {
+        int size = endpoints.size();
+        int start = Math.floorMod(rotation.getAndIncrement(), size);
+        Endpoint best = null;
+        for (int i = 0; i < size; i++) {
+            Endpoint candidate = endpoints.get((start + i) % size);
+            if (candidate == exclude || (healthyOnly && !candidate.healthy)) {
+                continue;
+            }
+            if (best == null || candidate.outstanding.get() < best.outstanding.get()) {
+                best = candidate;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * One ML service replica and its in-flight request count
+     */
+    public static final class Endpoint {
+        private final String url;
+        private final AtomicInteger outstanding = new AtomicInteger();
+        private volatile boolean healthy = true;
+
+        Endpoint(String url) {
+            this.url = url;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        public int getOutstanding() {
+            return outstanding.get();
+        }
+
+        public boolean isHealthy() {
+            return healthy;
+        }
+
+        void acquire() {
+            outstanding.incrementAndGet();
+        }
+
+        void release() {
+            outstanding.decrementAndGet();
+        }
+    }
+}
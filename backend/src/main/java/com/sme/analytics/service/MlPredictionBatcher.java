@@ -0,0 +1,170 @@
+package com.sme.analytics.service;
+
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+
+/**
+ * Collects individual prediction requests and sends them to the ML service as one
+ * POST /predict/batch call. A batch is sent once it holds max-size requests or the
+ * oldest request has waited max-delay, whichever comes first. Each caller gets its
+ * own future, completed with the result at its position in the batch.
+ * At most max-concurrent batches are in flight; while they are, requests keep queueing
+ * (and batching) and submit fails fast once the queue is full. A failed or rejected
+ * batch fails every caller's future and is counted in ml.predictions.batch.failures.
+ */
+@Component
+public class MlPredictionBatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(MlPredictionBatcher.class);
+
+    private final MlServiceClient mlServiceClient;
+    private final BlockingQueue<PendingPrediction> queue;
+    private final int maxBatchSize;
+    private final long maxDelayNanos;
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore inFlight;
+    private final DistributionSummary batchSizes;
+    private final MeterRegistry meterRegistry;
+    private final Thread collector;
+    private volatile boolean running = true;
+
+    public MlPredictionBatcher(
+        MlServiceClient mlServiceClient,
+        MeterRegistry meterRegistry,
+        @Value("${ml.predictions.batch.max-size:64}") int maxBatchSize,
+        @Value("${ml.predictions.batch.max-delay:5ms}") Duration maxDelay,
+        @Value("${ml.predictions.batch.queue-capacity:10000}") int queueCapacity,
+        @Value("${ml.predictions.batch.max-concurrent:4}") int maxConcurrentBatches
+    ) {
+        this.mlServiceClient = mlServiceClient;
+        this.meterRegistry = meterRegistry;
+        this.inFlight = new Semaphore(maxConcurrentBatches);
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelayNanos = maxDelay.toNanos();
+        this.queue = new LinkedBlockingQueue<>(queueCapacity);
+        this.batchSizes = DistributionSummary.builder("ml.predictions.batch.size")
+            .description("Prediction requests per batched ML call")
+            .register(meterRegistry);
+
+        this.collector = new Thread(this::collect, "ml-prediction-batcher");
+        this.collector.setDaemon(true);
+        this.collector.start();
+    }
+
+    /**
+     * Queue a prediction request (data, model_type, horizon).
+     * The future fails immediately if the queue is full.
+     */
+    public CompletableFuture<Map<String, Object>> submit(Map<String, Object> request) {
+        PendingPrediction pending = new PendingPrediction(request, new CompletableFuture<>());
+        if (!running || !queue.offer(pending)) {
+            pending.result().completeExceptionally(new RejectedExecutionException("Prediction queue is full"));
+        }
+        return pending.result();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        collector.interrupt();
+        senders.shutdown();
+        List<PendingPrediction> abandoned = new ArrayList<>();
+        queue.drainTo(abandoned);
+        abandoned.forEach(pending ->
+            pending.result().completeExceptionally(new RejectedExecutionException("Prediction batcher stopped")));
+        try {
+            if (!senders.awaitTermination(5, TimeUnit.SECONDS)) {
+                senders.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            senders.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void collect() {
+        while (running) {
+            List<PendingPrediction> batch = new ArrayList<>(maxBatchSize);
+            boolean permitted = false;
+            try {
+                // Wait for a free sender first, so requests keep batching while all are busy
+                inFlight.acquire();
+                permitted = true;
+                batch.add(queue.take());
+
+                long deadline = System.nanoTime() + maxDelayNanos;
+                while (batch.size() < maxBatchSize) {
+                    if (queue.drainTo(batch, maxBatchSize - batch.size()) > 0) {
+                        continue;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        break;
+                    }
+                    PendingPrediction next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+
+                senders.execute(() -> {
+                    try {
+                        send(batch);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            } catch (InterruptedException | RejectedExecutionException e) {
+                if (permitted) {
+                    inFlight.release();
+                }
+                batch.forEach(pending ->
+                    pending.result().completeExceptionally(new RejectedExecutionException("Prediction batcher stopped")));
+                return;
+            }
+        }
+    }
+
+    private void send(List<PendingPrediction> batch) {
+        batchSizes.record(batch.size());
+        try {
+            List<Map<String, Object>> results = mlServiceClient.predictBatch(
+                batch.stream().map(PendingPrediction::request).toList());
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).result().complete(results.get(i));
+            }
+        } catch (Exception e) {
+            String reason = failureReason(e);
+            meterRegistry.counter("ml.predictions.batch.failures", "reason", reason).increment();
+            logger.warn("Batched prediction call for {} requests failed ({}): {}", batch.size(), reason, e.getMessage());
+            batch.forEach(pending -> pending.result().completeExceptionally(e));
+        }
+    }
+
+    private static String failureReason(Exception e) {
+        if (e instanceof CallNotPermittedException) {
+            return "circuit_open";
+        }
+        if (e instanceof BulkheadFullException) {
+            return "bulkhead_full";
+        }
+        return "error";
+    }
+
+    private record PendingPrediction(Map<String, Object> request, CompletableFuture<Map<String, Object>> result) {
+    }
+}
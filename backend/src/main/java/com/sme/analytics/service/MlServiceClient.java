@@ -0,0 +1,335 @@
+package com.sme.analytics.service;
+
+import com.sme.analytics.util.LatencyWindow;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.*;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.ConnectException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Client for the Python ML service.
+ * Every call runs through the ML circuit breaker and bulkhead, so a slow or failing
+ * ML service makes callers fail fast instead of tying up request threads.
+ * Requests are spread over the configured replicas by {@link MlEndpointBalancer}; with
+ * hedging enabled, a request still unanswered at the observed p95 latency of its path is
+ * also sent to a second replica. Whichever answers first wins and the other is aborted.
+ */
+@Service
+public class MlServiceClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(MlServiceClient.class);
+
+    private final RestTemplate restTemplate;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    private final CircuitBreaker batchCircuitBreaker;
+    private final Bulkhead batchBulkhead;
+    private final MlEndpointBalancer balancer;
+    private final boolean hedgingEnabled;
+    private final Duration minHedgeDelay;
+    private final Map<String, LatencyWindow> latencies = new ConcurrentHashMap<>();
+    private final ExecutorService hedgeExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Counter circuitOpenRejections;
+    private final Counter bulkheadRejections;
+    private final Counter hedgesSent;
+    private final Counter hedgesWon;
+
+    public MlServiceClient(
+        RestTemplate restTemplate,
+        @Qualifier("mlServiceCircuitBreaker") CircuitBreaker mlServiceCircuitBreaker,
+        @Qualifier("mlServiceBulkhead") Bulkhead mlServiceBulkhead,
+        @Qualifier("mlBatchCircuitBreaker") CircuitBreaker mlBatchCircuitBreaker,
+        @Qualifier("mlBatchBulkhead") Bulkhead mlBatchBulkhead,
+        MlEndpointBalancer balancer,
+        MeterRegistry meterRegistry,
+        @Value("${ml.service.hedging.enabled:false}") boolean hedgingEnabled,
+        @Value("${ml.service.hedging.min-delay:50ms}") Duration minHedgeDelay
+    ) {
+        this.restTemplate = restTemplate;
+        this.circuitBreaker = mlServiceCircuitBreaker;
+        this.bulkhead = mlServiceBulkhead;
+        this.batchCircuitBreaker = mlBatchCircuitBreaker;
+        this.batchBulkhead = mlBatchBulkhead;
+        this.balancer = balancer;
+        this.hedgingEnabled = hedgingEnabled;
+        this.minHedgeDelay = minHedgeDelay;
+
+        this.circuitOpenRejections = Counter.builder("ml.service.rejections")
+            .description("ML service calls rejected without being sent")
+            .tag("reason", "circuit_open")
+            .register(meterRegistry);
+        this.bulkheadRejections = Counter.builder("ml.service.rejections")
+            .description("ML service calls rejected without being sent")
+            .tag("reason", "bulkhead_full")
+            .register(meterRegistry);
+        this.hedgesSent = Counter.builder("ml.service.hedges")
+            .description("Hedged ML requests by outcome")
+            .tag("outcome", "sent")
+            .register(meterRegistry);
+        this.hedgesWon = Counter.builder("ml.service.hedges")
+            .description("Hedged ML requests by outcome")
+            .tag("outcome", "won")
+            .register(meterRegistry);
+
+        circuitBreaker.getEventPublisher()
+            .onStateTransition(event -> {
+                logger.warn("ML service circuit breaker transitioned {} -> {}",
+                    event.getStateTransition().getFromState(), event.getStateTransition().getToState());
+                Counter.builder("ml.service.circuitbreaker.transitions")
+                    .description("ML service circuit breaker state transitions")
+                    .tag("from", event.getStateTransition().getFromState().name())
+                    .tag("to", event.getStateTransition().getToState().name())
+                    .register(meterRegistry)
+                    .increment();
+            })
+            .onCallNotPermitted(event -> circuitOpenRejections.increment());
+        bulkhead.getEventPublisher()
+            .onCallRejected(event -> bulkheadRejections.increment());
+    }
+
+    /**
+     * Ask the ML service a question about a document (POST /api/chat/ask).
+     * The request may be a map or an already serialized JSON body.
+     */
+    public Map<String, Object> askQuestion(Object request) {
+        return execute(circuitBreaker, bulkhead, () -> post("/api/chat/ask", request, bulkhead));
+    }
+
+    /**
+     * Run many predictions in one call (POST /predict/batch); results are in request order.
+     * Guarded by the batch circuit breaker and bulkhead, and never hedged: a duplicate batch
+     * would double the ML load of throughput work.
+     */
+    @SuppressWarnings("unchecked")
+    public List<Map<String, Object>> predictBatch(List<Map<String, Object>> requests) {
+        Map<String, Object> response = execute(batchCircuitBreaker, batchBulkhead,
+            () -> post("/predict/batch", Map.of("requests", requests), null));
+        Object results = response.get("results");
+        if (!(results instanceof List<?> list) || list.size() != requests.size()) {
+            throw new RuntimeException("ML batch prediction returned " +
+                (results instanceof List<?> list ? list.size() : 0) + " results for " + requests.size() + " requests");
+        }
+        return (List<Map<String, Object>>) results;
+    }
+
+    /**
+     * Current state of the ML service circuit breaker
+     */
+    public CircuitBreaker.State getCircuitState() {
+        return circuitBreaker.getState();
+    }
+
+    /**
+     * Run a call through a circuit breaker (outer) and bulkhead (inner).
+     * Throws CallNotPermittedException or BulkheadFullException when rejected.
+     */
+    private static <T> T execute(CircuitBreaker breaker, Bulkhead callBulkhead, Supplier<T> call) {
+        return breaker.executeSupplier(() -> callBulkhead.executeSupplier(call));
+    }
+
+    /**
+     * POST to a replica; hedged when a bulkhead for the hedge's own permit is given
+     */
+    private Map<String, Object> post(String path, Object body, Bulkhead hedgeBulkhead) {
+        LatencyWindow window = latencies.computeIfAbsent(path, key -> new LatencyWindow(256, 20));
+        MlEndpointBalancer.Endpoint primary = balancer.choose(null);
+        long hedgeDelayNanos = hedgeBulkhead == null ? -1 : hedgeDelayNanos(window);
+        if (hedgeDelayNanos < 0 || balancer.healthyCount() < 2) {
+            return send(primary, path, body, window);
+        }
+
+        Attempt first = start(primary, path, body, window);
+        Attempt second = null;
+        try {
+            try {
+                return first.result.get(hedgeDelayNanos, TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                // Primary is slower than usual, hedge below
+            } catch (ExecutionException e) {
+                throw unwrap(e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while waiting for ML service", e);
+            }
+
+            // The hedge is a second concurrent ML call, so it needs a bulkhead permit of its own
+            MlEndpointBalancer.Endpoint secondary = balancer.choose(primary);
+            if (secondary == primary || !hedgeBulkhead.tryAcquirePermission()) {
+                return await(first.result);
+            }
+            hedgesSent.increment();
+            logger.debug("Hedging {} to {} after {} ms", path, secondary.getUrl(), hedgeDelayNanos / 1_000_000);
+            second = start(secondary, path, body, window);
+
+            // First successful response wins; fail only if both attempts fail
+            CompletableFuture<Map<String, Object>> winner = new CompletableFuture<>();
+            AtomicInteger failures = new AtomicInteger();
+            Attempt hedge = second;
+            first.result.whenComplete((answer, error) -> {
+                if (error == null) {
+                    winner.complete(answer);
+                } else if (failures.incrementAndGet() == 2) {
+                    winner.completeExceptionally(error);
+                }
+            });
+            hedge.result.whenComplete((answer, error) -> {
+                if (error == null) {
+                    if (winner.complete(answer)) {
+                        hedgesWon.increment();
+                    }
+                } else if (failures.incrementAndGet() == 2) {
+                    winner.completeExceptionally(error);
+                }
+            });
+            return await(winner);
+        } finally {
+            // Abort the losing call so it does not keep a connection and an ML worker busy,
+            // and keep the bulkhead permits until both calls have really finished
+            first.cancel();
+            if (second != null) {
+                second.cancel();
+            }
+            first.finished.join();
+            if (second != null) {
+                second.finished.join();
+                hedgeBulkhead.onComplete();
+            }
+        }
+    }
+
+    private Attempt start(MlEndpointBalancer.Endpoint endpoint, String path, Object body, LatencyWindow window) {
+        Attempt attempt = new Attempt(() -> send(endpoint, path, body, window));
+        hedgeExecutor.execute(attempt);
+        return attempt;
+    }
+
+    /**
+     * Delay before hedging: the observed p95 for this path, never below the configured minimum.
+     * Negative while hedging is disabled or too few calls have been observed.
+     */
+    private long hedgeDelayNanos(LatencyWindow window) {
+        if (!hedgingEnabled) {
+            return -1;
+        }
+        long p95 = window.percentile(0.95);
+        return p95 < 0 ? -1 : Math.max(p95, minHedgeDelay.toNanos());
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> send(MlEndpointBalancer.Endpoint endpoint, String path, Object body, LatencyWindow window) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        HttpEntity<Object> entity = new HttpEntity<>(body, headers);
+
+        endpoint.acquire();
+        long start = System.nanoTime();
+        try {
+            ResponseEntity<Map> response = restTemplate.exchange(
+                endpoint.getUrl() + path,
+                HttpMethod.POST,
+                entity,
+                Map.class
+            );
+
+            if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
+                window.record(System.nanoTime() - start);
+                return response.getBody();
+            }
+            throw new RuntimeException("ML service returned non-OK status: " + response.getStatusCode());
+        } catch (ResourceAccessException e) {
+            // An aborted hedge loser says nothing about the replica
+            if (e.getCause() instanceof ConnectException && !Thread.currentThread().isInterrupted()) {
+                balancer.markDown(endpoint);
+            }
+            throw e;
+        } finally {
+            endpoint.release();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hedgeExecutor.shutdownNow();
+    }
+
+    private static Map<String, Object> await(CompletableFuture<Map<String, Object>> future) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for ML service", e);
+        }
+    }
+
+    private static RuntimeException unwrap(ExecutionException e) {
+        Throwable cause = e.getCause() instanceof CompletionException ? e.getCause().getCause() : e.getCause();
+        if (cause instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        return new RuntimeException("ML service call failed", cause);
+    }
+
+    /**
+     * One ML call on a hedge thread. Cancelling interrupts the thread, which closes the
+     * socket of a blocked virtual thread; {@code finished} completes once the call has ended.
+     */
+    private static final class Attempt implements Runnable {
+        private final Supplier<Map<String, Object>> call;
+        private final CompletableFuture<Map<String, Object>> result = new CompletableFuture<>();
+        private final CompletableFuture<Void> finished = new CompletableFuture<>();
+        private Thread runner;
+        private boolean cancelled;
+
+        Attempt(Supplier<Map<String, Object>> call) {
+            this.call = call;
+        }
+
+        @Override
+        public void run() {
+            synchronized (this) {
+                if (cancelled) {
+                    result.cancel(false);
+                    finished.complete(null);
+                    return;
+                }
+                runner = Thread.currentThread();
+            }
+            try {
+                result.complete(call.get());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            } finally {
+                synchronized (this) {
+                    runner = null;
+                }
+                finished.complete(null);
+            }
+        }
+
+        synchronized void cancel() {
+            cancelled = true;
+            if (runner != null) {
+                runner.interrupt();
+            }
+        }
+    }
+}
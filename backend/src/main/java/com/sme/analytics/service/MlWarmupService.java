@@ -0,0 +1,142 @@
+package com.sme.analytics.service;
+
+import com.sme.analytics.model.UploadedFile;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+
+/**
+ * Warms the ML service up after an upload by calling /api/chat/warmup in the background,
+ * so the first chat question does not pay the model load itself.
+ * Warmups are best effort: they never block or fail the upload. They bypass the chat
+ * circuit breaker and bulkhead, use their own short timeout, and back off exponentially
+ * after a failure so uploads do not keep probing an ML service that is down.
+ */
+@Service
+public class MlWarmupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MlWarmupService.class);
+
+    private final MlEndpointBalancer balancer;
+    private final ThreadPoolTaskExecutor executor;
+    private final MeterRegistry meterRegistry;
+    private final RestTemplate warmupTemplate;
+    private final boolean enabled;
+    private final long minBackoffNanos;
+    private final long maxBackoffNanos;
+
+    private final Object backoffLock = new Object();
+    private long backoffNanos;
+    private long nextAttemptNanos;
+
+    public MlWarmupService(
+        MlEndpointBalancer balancer,
+        @Qualifier("mlWarmupExecutor") ThreadPoolTaskExecutor executor,
+        MeterRegistry meterRegistry,
+        @Value("${ml.service.warmup.enabled:true}") boolean enabled,
+        @Value("${ml.service.warmup.timeout:2s}") Duration timeout,
+        @Value("${ml.service.warmup.backoff.min:10s}") Duration minBackoff,
+        @Value("${ml.service.warmup.backoff.max:5m}") Duration maxBackoff
+    ) {
+        this.balancer = balancer;
+        this.executor = executor;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.minBackoffNanos = minBackoff.toNanos();
+        this.maxBackoffNanos = maxBackoff.toNanos();
+
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(timeout);
+        requestFactory.setReadTimeout(timeout);
+        this.warmupTemplate = new RestTemplate(requestFactory);
+    }
+
+    /**
+     * Schedule a warmup for the file. Inside a transaction it is sent only after commit.
+     */
+    public void warmUp(UploadedFile uploadedFile) {
+        if (!enabled || uploadedFile.getFileContent() == null) {
+            return;
+        }
+
+        Long fileId = uploadedFile.getId();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submit(fileId);
+                }
+            });
+        } else {
+            submit(fileId);
+        }
+    }
+
+    private void submit(Long fileId) {
+        if (inBackoff()) {
+            record("skipped");
+            logger.debug("ML warmup for file {} skipped, backing off after a failed warmup", fileId);
+            return;
+        }
+        try {
+            executor.execute(() -> send(fileId));
+        } catch (TaskRejectedException e) {
+            record("rejected");
+            logger.debug("ML warmup for file {} skipped, warmup executor is saturated", fileId);
+        }
+    }
+
+    private void send(Long fileId) {
+        MlEndpointBalancer.Endpoint endpoint = balancer.choose(null);
+        long start = System.nanoTime();
+        try {
+            // The ML service loads the model in the background and answers at once
+            warmupTemplate.postForEntity(endpoint.getUrl() + "/api/chat/warmup", null, String.class);
+            onSuccess();
+            record("success");
+            logger.debug("ML warmup for file {} sent in {} ms", fileId, (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            long backoffMs = onFailure() / 1_000_000;
+            record("failure");
+            logger.warn("ML warmup for file {} failed, next attempt in {} ms: {}", fileId, backoffMs, e.getMessage());
+        }
+    }
+
+    boolean inBackoff() {
+        synchronized (backoffLock) {
+            return backoffNanos > 0 && System.nanoTime() - nextAttemptNanos < 0;
+        }
+    }
+
+    private void onSuccess() {
+        synchronized (backoffLock) {
+            backoffNanos = 0;
+        }
+    }
+
+    /**
+     * Double the backoff (from the minimum, up to the maximum) and return it
+     */
+    private long onFailure() {
+        synchronized (backoffLock) {
+            backoffNanos = backoffNanos == 0 ? minBackoffNanos : Math.min(backoffNanos * 2, maxBackoffNanos);
+            nextAttemptNanos = System.nanoTime() + backoffNanos;
+            return backoffNanos;
+        }
+    }
+
+    private void record(String outcome) {
+        meterRegistry.counter("ml.warmup", "outcome", outcome).increment();
+    }
+}
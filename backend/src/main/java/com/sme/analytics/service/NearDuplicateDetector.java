@@ -0,0 +1,153 @@
+package com.sme.analytics.service;
+
+import com.sme.analytics.model.MarketNews;
+import com.sme.analytics.repository.MarketNewsBatchRepository;
+import com.sme.analytics.util.SimHash;
+import com.sme.analytics.util.SimHashIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.OptionalLong;
+
+/**
+ * Clusters syndicated copies of a story under the first stored article (the canonical one).
+ * Each article gets a SimHash of its title and summary; an article within a few bits of a
+ * recent article is a near duplicate and stores that article's canonical id. Lookups go
+ * through an in-memory LSH index of the articles published within the window, reloaded
+ * from the database at startup and periodically so it does not grow without bound.
+ */
+@Component
+public class NearDuplicateDetector {
+
+    private static final Logger logger = LoggerFactory.getLogger(NearDuplicateDetector.class);
+
+    private final MarketNewsBatchRepository batchRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxDistance;
+    private final int minWords;
+    private final Duration window;
+
+    // Guarded by this for writes; replaced as a whole on reload
+    private volatile SimHashIndex index;
+
+    public NearDuplicateDetector(
+        MarketNewsBatchRepository batchRepository,
+        TransactionTemplate transactionTemplate,
+        @Value("${market.dedup.max-distance:3}") int maxDistance,
+        @Value("${market.dedup.min-words:8}") int minWords,
+        @Value("${market.dedup.window:14d}") Duration window
+    ) {
+        this.batchRepository = batchRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.maxDistance = maxDistance;
+        this.minWords = minWords;
+        this.window = window;
+        this.index = new SimHashIndex(maxDistance);
+    }
+
+    /**
+     * Reload the index with the articles published within the window.
+     * Registration waits while this runs, so articles stored meanwhile are not lost.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${market.dedup.reload-interval:24h}", initialDelayString = "${market.dedup.reload-interval:24h}")
+    public synchronized void reload() {
+        long start = System.currentTimeMillis();
+        SimHashIndex reloaded = new SimHashIndex(maxDistance);
+        transactionTemplate.executeWithoutResult(status -> batchRepository.forEachSimhashSince(
+            LocalDateTime.now().minus(window),
+            (id, simhash, canonicalNewsId) -> reloaded.add(simhash, canonicalNewsId != null ? canonicalNewsId : id)));
+        index = reloaded;
+        logger.info("Loaded {} news signatures for near-duplicate detection in {} ms",
+            reloaded.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Sign new articles and link the near duplicates of stored articles to their canonical article.
+     * Near duplicates of another article in the same batch are returned as deferred, to be linked
+     * once that article has been inserted and has an id.
+     */
+    public Clustering cluster(List<MarketNews> fresh) {
+        SimHashIndex current = index;
+        List<MarketNews> ready = new ArrayList<>();
+        List<Deferred> deferred = new ArrayList<>();
+        // Articles new in this batch, indexed like the stored ones so large batches stay linear;
+        // the index value is the position in batchCanonicals
+        List<MarketNews> batchCanonicals = new ArrayList<>();
+        SimHashIndex batchIndex = null;
+        for (MarketNews news : fresh) {
+            OptionalLong signature = SimHash.of(join(news.getTitle(), news.getSummary()), minWords);
+            if (signature.isEmpty()) {
+                ready.add(news);
+                continue;
+            }
+            news.setSimhash(signature.getAsLong());
+            OptionalLong canonical = current.findNearest(signature.getAsLong());
+            if (canonical.isPresent()) {
+                news.setCanonicalNewsId(canonical.getAsLong());
+                ready.add(news);
+                continue;
+            }
+            OptionalLong batchCanonical = batchIndex != null ? batchIndex.findNearest(signature.getAsLong()) : OptionalLong.empty();
+            if (batchCanonical.isPresent()) {
+                deferred.add(new Deferred(news, batchCanonicals.get((int) batchCanonical.getAsLong())));
+            } else {
+                if (batchIndex == null) {
+                    batchIndex = new SimHashIndex(maxDistance);
+                }
+                batchIndex.add(signature.getAsLong(), batchCanonicals.size());
+                batchCanonicals.add(news);
+                ready.add(news);
+            }
+        }
+        return new Clustering(ready, deferred);
+    }
+
+    /**
+     * Make stored articles available as canonical candidates for later batches
+     */
+    public synchronized void register(Collection<MarketNews> stored) {
+        for (MarketNews news : stored) {
+            if (news.getSimhash() != null && news.getId() != null) {
+                index.add(news.getSimhash(), news.getCanonicalNewsId() != null ? news.getCanonicalNewsId() : news.getId());
+            }
+        }
+    }
+
+    private static String join(String title, String summary) {
+        return summary == null ? title : title + " " + summary;
+    }
+
+    /**
+     * Articles ready to insert, and near duplicates of articles in the same batch
+     */
+    public record Clustering(List<MarketNews> ready, List<Deferred> deferred) {
+
+        /**
+         * Link deferred duplicates to their canonical article, which must have been inserted by now.
+         * A duplicate whose canonical article was not inserted becomes canonical itself.
+         */
+        public List<MarketNews> resolveDeferred() {
+            List<MarketNews> resolved = new ArrayList<>(deferred.size());
+            for (Deferred item : deferred) {
+                item.duplicate().setCanonicalNewsId(item.canonical().getId());
+                resolved.add(item.duplicate());
+            }
+            return resolved;
+        }
+    }
+
+    public record Deferred(MarketNews duplicate, MarketNews canonical) {
+    }
+}
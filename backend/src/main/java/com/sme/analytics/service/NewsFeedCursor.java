@@ -0,0 +1,34 @@
+package com.sme.analytics.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in the news feed: the (publishedAt, id) of the last item returned.
+ * The next page starts strictly after it in (publishedAt desc, id desc) order, so pages stay
+ * stable while news is inserted and cost the same however deep the reader scrolls.
+ */
+public record NewsFeedCursor(LocalDateTime publishedAt, long id) {
+
+    public String encode() {
+        String raw = publishedAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Parse a cursor returned by {@link #encode()}; throws IllegalArgumentException if it is malformed
+     */
+    public static NewsFeedCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            return new NewsFeedCursor(
+                LocalDateTime.parse(raw.substring(0, separator)),
+                Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
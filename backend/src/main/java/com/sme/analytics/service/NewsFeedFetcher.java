@@ -0,0 +1,168 @@
+package com.sme.analytics.service;
+
+import com.sme.analytics.util.HostRateLimiter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Fetches news feeds concurrently, one virtual thread per feed, within per-host politeness limits.
+ * Feeds are re-requested conditionally (ETag / Last-Modified), so an unchanged feed costs
+ * a 304 and no parsing. A failing feed is logged and skipped; it never fails the others.
+ * The validators of a response are held as pending until {@link #commitValidators} is called
+ * once its items are stored, so items lost to a failed insert are served again next time.
+ */
+@Component
+public class NewsFeedFetcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(NewsFeedFetcher.class);
+
+    private final Map<String, NewsFeedParser> parsers = new HashMap<>();
+    private final HostRateLimiter rateLimiter;
+    private final HttpClient httpClient;
+    private final Duration requestTimeout;
+    private final String userAgent;
+    private final Map<URI, Validators> validators = new ConcurrentHashMap<>();
+    private final Map<URI, Validators> pendingValidators = new ConcurrentHashMap<>();
+
+    public NewsFeedFetcher(
+        List<NewsFeedParser> parsers,
+        @Value("${market.ingest.per-host.min-interval:1s}") Duration perHostInterval,
+        @Value("${market.ingest.per-host.max-concurrent:2}") int perHostConcurrency,
+        @Value("${market.ingest.connect-timeout:5s}") Duration connectTimeout,
+        @Value("${market.ingest.request-timeout:20s}") Duration requestTimeout,
+        @Value("${market.ingest.user-agent:sme-analytics-news/1.0}") String userAgent
+    ) {
+        parsers.forEach(parser -> this.parsers.put(parser.format(), parser));
+        this.rateLimiter = new HostRateLimiter(perHostInterval, perHostConcurrency);
+        this.httpClient = HttpClient.newBuilder()
+            .connectTimeout(connectTimeout)
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .build();
+        this.requestTimeout = requestTimeout;
+        this.userAgent = userAgent;
+    }
+
+    /**
+     * Fetch and parse all feeds; returns the items per feed that answered with new content
+     */
+    public Map<NewsFeed, List<FeedItem>> fetchAll(Collection<NewsFeed> feeds) {
+        Map<NewsFeed, Future<List<FeedItem>>> pending = new LinkedHashMap<>();
+        Map<NewsFeed, List<FeedItem>> results = new LinkedHashMap<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (NewsFeed feed : feeds) {
+                pending.put(feed, executor.submit(() -> fetch(feed)));
+            }
+            pending.forEach((feed, future) -> {
+                try {
+                    results.put(feed, future.get());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (Exception e) {
+                    logger.warn("Failed to fetch feed {}: {}", feed.uri(), e.getMessage());
+                }
+            });
+        }
+        return results;
+    }
+
+    /**
+     * Fetch one feed; returns an empty list when the feed has not changed since the last fetch
+     */
+    public List<FeedItem> fetch(NewsFeed feed) throws IOException, InterruptedException {
+        NewsFeedParser parser = parsers.get(feed.format());
+        if (parser == null) {
+            throw new IllegalArgumentException("No parser for feed format " + feed.format());
+        }
+
+        HttpRequest.Builder request = HttpRequest.newBuilder(feed.uri())
+            .timeout(requestTimeout)
+            .header("User-Agent", userAgent)
+            .header("Accept-Encoding", "gzip")
+            .GET();
+        Validators known = validators.get(feed.uri());
+        if (known != null) {
+            if (known.etag() != null) {
+                request.header("If-None-Match", known.etag());
+            }
+            if (known.lastModified() != null) {
+                request.header("If-Modified-Since", known.lastModified());
+            }
+        }
+
+        HttpResponse<InputStream> response;
+        try (HostRateLimiter.Permit ignored = rateLimiter.acquire(feed.uri().getHost())) {
+            response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofInputStream());
+            if (response.statusCode() / 100 != 2) {
+                response.body().close();
+                if (response.statusCode() == 304) {
+                    return List.of();
+                }
+                throw new IOException("HTTP " + response.statusCode());
+            }
+            try (InputStream body = decode(response)) {
+                List<FeedItem> items = parser.parse(body);
+                pendingValidators.put(feed.uri(), new Validators(
+                    response.headers().firstValue("ETag").orElse(null),
+                    response.headers().firstValue("Last-Modified").orElse(null)));
+                return items;
+            }
+        }
+    }
+
+    /**
+     * Make the last fetched validators of the feeds current, once their items have been stored;
+     * until then the feeds are re-requested unconditionally
+     */
+    public void commitValidators(Collection<NewsFeed> feeds) {
+        for (NewsFeed feed : feeds) {
+            Validators pending = pendingValidators.remove(feed.uri());
+            if (pending != null) {
+                validators.put(feed.uri(), pending);
+            }
+        }
+    }
+
+    private static InputStream decode(HttpResponse<InputStream> response) throws IOException {
+        boolean gzip = response.headers().firstValue("Content-Encoding")
+            .map(encoding -> encoding.equalsIgnoreCase("gzip"))
+            .orElse(false);
+        return gzip ? new GZIPInputStream(response.body()) : response.body();
+    }
+
+    /**
+     * A configured feed: parser format and URL
+     */
+    public record NewsFeed(String format, URI uri) {
+
+        /**
+         * Parse a "format:url" entry, e.g. "rss:https://example.com/feed.xml"
+         */
+        public static NewsFeed parse(String entry) {
+            int separator = entry.indexOf(':');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Feed must be configured as format:url, got " + entry);
+            }
+            return new NewsFeed(entry.substring(0, separator).trim().toLowerCase(Locale.ROOT),
+                URI.create(entry.substring(separator + 1).trim()));
+        }
+    }
+
+    private record Validators(String etag, String lastModified) {
+    }
+}
@@ -0,0 +1,14 @@
+package com.sme.analytics.service;
+
+/**
+ * Optional news feed filters; null fields do not filter, and all given filters must match
+ */
+public record NewsFeedFilter(
+    String category,
+    String industry,
+    String location,
+    Long competitorId,
+    String impactLevel,
+    boolean unreadOnly
+) {
+}
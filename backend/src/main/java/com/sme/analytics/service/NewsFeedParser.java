@@ -0,0 +1,18 @@
+package com.sme.analytics.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * Parses one news feed format; implementations are picked by {@link #format()}
+ */
+public interface NewsFeedParser {
+
+    /**
+     * Format name used in feed configuration, e.g. "rss" or "json"
+     */
+    String format();
+
+    List<FeedItem> parse(InputStream body) throws IOException;
+}
@@ -0,0 +1,243 @@
+package com.sme.analytics.service;
+
+import com.sme.analytics.mapper.MarketNewsMapper;
+import com.sme.analytics.model.Competitor;
+import com.sme.analytics.model.MarketNews;
+import com.sme.analytics.repository.MarketNewsBatchRepository;
+import com.sme.analytics.util.BloomFilter;
+import com.sme.analytics.util.UrlHashes;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * News ingestion pipeline: fetch the configured feeds concurrently, drop URLs already
+ * stored, and insert the rest with JDBC batches.
+ * Duplicate URLs are filtered in three steps: a Bloom filter of every stored URL hash
+ * (a miss means the article is new), a batched lookup for the Bloom hits, and finally
+ * the unique url_hash constraint, which the insert skips on conflict.
+ * New articles that mention a competitor are linked to it by {@link CompetitorMatcher}, and
+ * syndicated copies of a story are clustered under one canonical article by {@link NearDuplicateDetector}.
+ * Feed validators (ETag / Last-Modified) are committed only after the insert succeeded, so a
+ * failed run fetches the same items again; the url_hash checks make that retry safe.
+ */
+@Service
+public class NewsIngestionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(NewsIngestionService.class);
+
+    // Column lengths of market_news
+    private static final int MAX_SUMMARY_CHARS = 5000;
+    private static final int MAX_TITLE_CHARS = 1000;
+    private static final int MAX_URL_CHARS = 2000;
+    private static final int MAX_KEYWORDS_CHARS = 2000;
+    private static final int MAX_VARCHAR_CHARS = 255;
+
+    private final NewsFeedFetcher feedFetcher;
+    private final MarketNewsBatchRepository batchRepository;
+    private final MarketNewsMapper marketNewsMapper;
+    private final CompetitorMatcher competitorMatcher;
+    private final NearDuplicateDetector duplicateDetector;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final List<NewsFeedFetcher.NewsFeed> feeds;
+    private final String defaultCategory;
+    private final int batchSize;
+    private final BloomFilter seenUrls;
+    private volatile boolean bloomSeeded;
+
+    public NewsIngestionService(
+        NewsFeedFetcher feedFetcher,
+        MarketNewsBatchRepository batchRepository,
+        MarketNewsMapper marketNewsMapper,
+        CompetitorMatcher competitorMatcher,
+        NearDuplicateDetector duplicateDetector,
+        ApplicationEventPublisher eventPublisher,
+        TransactionTemplate transactionTemplate,
+        MeterRegistry meterRegistry,
+        @Value("${market.ingest.feeds:}") List<String> feeds,
+        @Value("${market.ingest.default-category:MARKET}") String defaultCategory,
+        @Value("${market.ingest.batch-size:500}") int batchSize,
+        @Value("${market.ingest.bloom.expected-items:10000000}") long bloomExpectedItems,
+        @Value("${market.ingest.bloom.false-positive-rate:0.01}") double bloomFalsePositiveRate
+    ) {
+        this.feedFetcher = feedFetcher;
+        this.batchRepository = batchRepository;
+        this.marketNewsMapper = marketNewsMapper;
+        this.competitorMatcher = competitorMatcher;
+        this.duplicateDetector = duplicateDetector;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.meterRegistry = meterRegistry;
+        this.feeds = feeds.stream()
+            .filter(feed -> !feed.isBlank())
+            .map(NewsFeedFetcher.NewsFeed::parse)
+            .toList();
+        this.defaultCategory = defaultCategory;
+        this.batchSize = batchSize;
+        this.seenUrls = new BloomFilter(bloomExpectedItems, bloomFalsePositiveRate);
+    }
+
+    /**
+     * Load every stored URL hash into the Bloom filter; until this finishes every URL is checked in the database
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedBloomFilter() {
+        long start = System.currentTimeMillis();
+        long[] count = new long[1];
+        transactionTemplate.executeWithoutResult(status -> batchRepository.forEachUrlHash(hash -> {
+            seenUrls.put(hash);
+            count[0]++;
+        }));
+        bloomSeeded = true;
+        logger.info("Seeded news URL filter with {} hashes in {} ms", count[0], System.currentTimeMillis() - start);
+    }
+
+    @Scheduled(fixedDelayString = "${market.ingest.interval:15m}", initialDelayString = "${market.ingest.initial-delay:1m}")
+    public void ingestScheduled() {
+        if (!feeds.isEmpty()) {
+            ingest(null, null);
+        }
+    }
+
+    /**
+     * Fetch all configured feeds and store new articles tagged with the given industry and location.
+     * Returns the number of articles stored.
+     */
+    public int ingest(String industry, String location) {
+        if (feeds.isEmpty()) {
+            logger.info("No news feeds configured (market.ingest.feeds); nothing to ingest");
+            return 0;
+        }
+        long start = System.currentTimeMillis();
+        LocalDateTime fetchedAt = LocalDateTime.now();
+
+        // Deduplicate within this run as well: the same article often appears in several feeds
+        Map<String, MarketNews> candidates = new LinkedHashMap<>();
+        long invalid = 0;
+        Map<NewsFeedFetcher.NewsFeed, List<FeedItem>> fetchedFeeds = feedFetcher.fetchAll(feeds);
+        for (Map.Entry<NewsFeedFetcher.NewsFeed, List<FeedItem>> entry : fetchedFeeds.entrySet()) {
+            for (FeedItem item : entry.getValue()) {
+                // A cut URL would point somewhere else, so an article whose URL does not fit is skipped
+                if (item.url().length() > MAX_URL_CHARS) {
+                    invalid++;
+                    continue;
+                }
+                MarketNews news = toNews(item, entry.getKey(), industry, location, fetchedAt);
+                candidates.putIfAbsent(news.getUrlHash(), news);
+            }
+        }
+        int fetched = candidates.size();
+
+        List<MarketNews> fresh = dropStored(candidates);
+        fresh.forEach(this::linkCompetitor);
+        List<MarketNews> inserted = insertClustered(fresh);
+        inserted.forEach(news -> seenUrls.put(news.getUrlHash()));
+        feedFetcher.commitValidators(fetchedFeeds.keySet());
+
+        if (!inserted.isEmpty()) {
+            eventPublisher.publishEvent(new MarketNewsAddedEvent(marketNewsMapper.toDtos(inserted)));
+        }
+        meterRegistry.counter("market.news.ingested", "outcome", "stored").increment(inserted.size());
+        meterRegistry.counter("market.news.ingested", "outcome", "duplicate").increment(fetched - inserted.size());
+        meterRegistry.counter("market.news.ingested", "outcome", "invalid").increment(invalid);
+        meterRegistry.counter("market.news.near_duplicates")
+            .increment(inserted.stream().filter(news -> news.getCanonicalNewsId() != null).count());
+        logger.info("Ingested {} new of {} fetched news items from {} feeds in {} ms",
+            inserted.size(), fetched, feeds.size(), System.currentTimeMillis() - start);
+        return inserted.size();
+    }
+
+    /**
+     * Remove candidates whose URL is already stored: Bloom misses are new for sure, hits are confirmed in one query
+     */
+    private List<MarketNews> dropStored(Map<String, MarketNews> candidates) {
+        List<MarketNews> fresh = new ArrayList<>();
+        List<String> maybeStored = new ArrayList<>();
+        candidates.forEach((hash, news) -> {
+            if (bloomSeeded && !seenUrls.mightContain(hash)) {
+                fresh.add(news);
+            } else {
+                maybeStored.add(hash);
+            }
+        });
+        if (!maybeStored.isEmpty()) {
+            Set<String> stored = batchRepository.findExistingUrlHashes(maybeStored);
+            maybeStored.stream()
+                .filter(hash -> !stored.contains(hash))
+                .forEach(hash -> fresh.add(candidates.get(hash)));
+        }
+        return fresh;
+    }
+
+    /**
+     * Insert the articles with near duplicates linked to their canonical article.
+     * Duplicates of an article in the same batch go in a second insert, once that article has an id.
+     */
+    private List<MarketNews> insertClustered(List<MarketNews> fresh) {
+        NearDuplicateDetector.Clustering clustering = duplicateDetector.cluster(fresh);
+        List<MarketNews> inserted = new ArrayList<>(batchRepository.insertIgnoringDuplicates(clustering.ready(), batchSize));
+        inserted.addAll(batchRepository.insertIgnoringDuplicates(clustering.resolveDeferred(), batchSize));
+        duplicateDetector.register(inserted);
+        return inserted;
+    }
+
+    /**
+     * Link the article to the competitor it mentions most; only the id and name are needed for the insert and the event
+     */
+    private void linkCompetitor(MarketNews news) {
+        competitorMatcher.bestMatch(news.getTitle(), news.getSummary()).ifPresent(match -> {
+            Competitor competitor = new Competitor();
+            competitor.setId(match.id());
+            competitor.setName(match.name());
+            news.setRelatedCompetitor(competitor);
+            news.setCategory("COMPETITOR");
+        });
+    }
+
+    private MarketNews toNews(
+        FeedItem item,
+        NewsFeedFetcher.NewsFeed feed,
+        String industry,
+        String location,
+        LocalDateTime fetchedAt
+    ) {
+        MarketNews news = new MarketNews();
+        // title is NOT NULL; JSON feeds may leave it out
+        String title = item.title() == null || item.title().isBlank() ? item.url() : item.title();
+        news.setTitle(truncate(title, MAX_TITLE_CHARS));
+        news.setSummary(truncate(item.summary(), MAX_SUMMARY_CHARS));
+        news.setUrl(item.url());
+        news.setUrlHash(UrlHashes.hash(item.url()));
+        news.setSource(truncate(feed.uri().getHost(), MAX_VARCHAR_CHARS));
+        news.setCategory(truncate(defaultCategory, MAX_VARCHAR_CHARS));
+        news.setIndustry(truncate(industry, MAX_VARCHAR_CHARS));
+        news.setLocation(truncate(location, MAX_VARCHAR_CHARS));
+        news.setPublishedAt(item.publishedAt() != null ? item.publishedAt() : fetchedAt);
+        news.setFetchedAt(fetchedAt);
+        if (!item.keywords().isEmpty()) {
+            news.setKeywords(truncate(String.join(", ", item.keywords()), MAX_KEYWORDS_CHARS));
+        }
+        news.setIsRead(false);
+        news.setIsBookmarked(false);
+        return news;
+    }
+
+    private static String truncate(String text, int maxChars) {
+        if (text == null || text.length() <= maxChars) {
+            return text;
+        }
+        return text.substring(0, maxChars);
+    }
+}
@@ -0,0 +1,14 @@
+package com.sme.analytics.service;
+
+import com.sme.analytics.dto.NewsSearchHit;
+
+import java.util.List;
+
+/**
+ * Ranked full-text search over market news.
+ * Hits are ordered by relevance, then by publish time; highlights wrap matched words in &lt;mark&gt; tags.
+ */
+public interface NewsSearchIndex {
+
+    List<NewsSearchHit> search(NewsSearchQuery query);
+}
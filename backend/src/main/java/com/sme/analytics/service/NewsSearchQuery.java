@@ -0,0 +1,10 @@
+package com.sme.analytics.service;
+
+import java.time.LocalDateTime;
+
+/**
+ * Full-text news search: words to match (all required, "-word" excludes), optional exact
+ * category, and an optional publish window [from, to)
+ */
+public record NewsSearchQuery(String text, String category, LocalDateTime from, LocalDateTime to, int limit) {
+}
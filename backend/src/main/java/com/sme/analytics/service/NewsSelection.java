@@ -0,0 +1,37 @@
+package com.sme.analytics.service;
+
+import com.sme.analytics.dto.MarketNewsDTO;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * News items targeted by a bulk change: an explicit id list, or every item matching a category
+ * and/or published before a timestamp. A filter needs at least one of the two, so a selection
+ * never means "all news".
+ */
+public record NewsSelection(Collection<Long> ids, String category, LocalDateTime before) {
+
+    public static NewsSelection byIds(Collection<Long> ids) {
+        return new NewsSelection(ids, null, null);
+    }
+
+    public static NewsSelection byFilter(String category, LocalDateTime before) {
+        if (category == null && before == null) {
+            throw new IllegalArgumentException("A category or before filter is required");
+        }
+        return new NewsSelection(null, category, before);
+    }
+
+    public boolean isById() {
+        return ids != null;
+    }
+
+    public boolean matches(MarketNewsDTO news) {
+        if (isById()) {
+            return ids.contains(news.getId());
+        }
+        return (category == null || category.equals(news.getCategory()))
+            && (before == null || (news.getPublishedAt() != null && news.getPublishedAt().isBefore(before)));
+    }
+}
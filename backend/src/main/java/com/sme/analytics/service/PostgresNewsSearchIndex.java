@@ -0,0 +1,38 @@
+package com.sme.analytics.service;
+
+import com.sme.analytics.dto.NewsSearchHit;
+import com.sme.analytics.repository.MarketNewsSearchRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+
+import java.util.List;
+
+/**
+ * News search backed by the Postgres tsvector column and its GIN index
+ */
+public class PostgresNewsSearchIndex implements NewsSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(PostgresNewsSearchIndex.class);
+
+    private final MarketNewsSearchRepository searchRepository;
+
+    public PostgresNewsSearchIndex(MarketNewsSearchRepository searchRepository) {
+        this.searchRepository = searchRepository;
+    }
+
+    /**
+     * market_news is created by Hibernate, so the search column and index are added once it exists
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureSchema() {
+        searchRepository.ensureSchema();
+        logger.info("Market news full-text search index is in place");
+    }
+
+    @Override
+    public List<NewsSearchHit> search(NewsSearchQuery query) {
+        return searchRepository.search(query);
+    }
+}
@@ -0,0 +1,159 @@
+package com.sme.analytics.service;
+
+import com.sme.analytics.model.UploadedFile;
+import com.sme.analytics.repository.UploadedFileRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Nightly job that forecasts every numeric column of every uploaded file and stores
+ * the results in {@code uploaded_files.predictions}. Requests for all columns of a
+ * page of files are submitted together so {@link MlPredictionBatcher} can pack them
+ * into a few batched ML calls instead of one call per column.
+ */
+@Service
+public class PredictionJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PredictionJobService.class);
+
+    private final UploadedFileRepository uploadedFileRepository;
+    private final MlPredictionBatcher predictionBatcher;
+    private final int pageSize;
+    private final int horizon;
+    private final String modelType;
+
+    public PredictionJobService(
+        UploadedFileRepository uploadedFileRepository,
+        MlPredictionBatcher predictionBatcher,
+        @Value("${ml.predictions.job.page-size:50}") int pageSize,
+        @Value("${ml.predictions.horizon:7}") int horizon,
+        @Value("${ml.predictions.model-type:patchtst}") String modelType
+    ) {
+        this.uploadedFileRepository = uploadedFileRepository;
+        this.predictionBatcher = predictionBatcher;
+        this.pageSize = pageSize;
+        this.horizon = horizon;
+        this.modelType = modelType;
+    }
+
+    /**
+     * Refresh predictions for all uploaded files
+     * Cron: 0 0 2 * * * = Every day at 2 AM
+     */
+    @Scheduled(cron = "${ml.predictions.job.cron:0 0 2 * * *}")
+    public void refreshAllPredictions() {
+        logger.info("Starting nightly prediction refresh");
+        long start = System.currentTimeMillis();
+        int updated = 0;
+
+        Page<UploadedFile> page = uploadedFileRepository.findAll(PageRequest.of(0, pageSize, Sort.by("id")));
+        while (true) {
+            updated += refreshPredictions(page.getContent());
+            if (!page.hasNext()) {
+                break;
+            }
+            page = uploadedFileRepository.findAll(page.nextPageable());
+        }
+
+        logger.info("Prediction refresh updated {} files in {} ms", updated, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Forecast the numeric columns of the given files and save the results; returns the number of files updated
+     */
+    public int refreshPredictions(List<UploadedFile> files) {
+        Map<UploadedFile, Map<String, CompletableFuture<Map<String, Object>>>> pending = new LinkedHashMap<>();
+        for (UploadedFile file : files) {
+            Map<String, CompletableFuture<Map<String, Object>>> byColumn = new LinkedHashMap<>();
+            extractNumericColumns(file.getFileContent()).forEach((column, values) -> {
+                Map<String, Object> request = new HashMap<>();
+                request.put("data", values);
+                request.put("model_type", modelType);
+                request.put("horizon", horizon);
+                byColumn.put(column, predictionBatcher.submit(request));
+            });
+            if (!byColumn.isEmpty()) {
+                pending.put(file, byColumn);
+            }
+        }
+
+        int updated = 0;
+        for (Map.Entry<UploadedFile, Map<String, CompletableFuture<Map<String, Object>>>> entry : pending.entrySet()) {
+            UploadedFile file = entry.getKey();
+            try {
+                Map<String, Object> columns = new LinkedHashMap<>();
+                for (Map.Entry<String, CompletableFuture<Map<String, Object>>> column : entry.getValue().entrySet()) {
+                    columns.put(column.getKey(), column.getValue().join());
+                }
+                Map<String, Object> predictions = new LinkedHashMap<>();
+                predictions.put("generated_at", LocalDateTime.now().toString());
+                predictions.put("horizon", horizon);
+                predictions.put("columns", columns);
+
+                file.setPredictions(predictions);
+                uploadedFileRepository.save(file);
+                updated++;
+            } catch (Exception e) {
+                logger.error("Failed to refresh predictions for file {}: {}", file.getId(), e.getMessage());
+            }
+        }
+        if (updated < pending.size()) {
+            logger.warn("{} of {} files kept their previous predictions because their ML calls failed or were rejected",
+                pending.size() - updated, pending.size());
+        }
+        return updated;
+    }
+
+    /**
+     * Parse the CSV content into numeric series, one per column whose values are all numbers
+     */
+    private Map<String, List<Double>> extractNumericColumns(String csvContent) {
+        Map<String, List<Double>> series = new LinkedHashMap<>();
+        if (csvContent == null || csvContent.isBlank()) {
+            return series;
+        }
+
+        String[] lines = csvContent.split("\n");
+        String[] headers = lines[0].split(",");
+        List<List<Double>> values = new ArrayList<>();
+        boolean[] numeric = new boolean[headers.length];
+        for (int i = 0; i < headers.length; i++) {
+            values.add(new ArrayList<>());
+            numeric[i] = true;
+        }
+
+        for (int row = 1; row < lines.length; row++) {
+            if (lines[row].isBlank()) {
+                continue;
+            }
+            String[] cells = lines[row].split(",");
+            for (int i = 0; i < headers.length; i++) {
+                if (!numeric[i] || i >= cells.length) {
+                    continue;
+                }
+                try {
+                    values.get(i).add(Double.parseDouble(cells[i].trim()));
+                } catch (NumberFormatException e) {
+                    numeric[i] = false;
+                }
+            }
+        }
+
+        for (int i = 0; i < headers.length; i++) {
+            if (numeric[i] && !values.get(i).isEmpty()) {
+                series.put(headers[i].trim().replace("\"", ""), values.get(i));
+            }
+        }
+        return series;
+    }
+}
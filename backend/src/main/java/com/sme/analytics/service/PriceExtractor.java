@@ -0,0 +1,17 @@
+package com.sme.analytics.service;
+
+import java.util.Optional;
+
+/**
+ * Finds a product price in a fetched page. Extractors are tried in {@code @Order} order
+ * and the first price found wins.
+ */
+public interface PriceExtractor {
+
+    /**
+     * Name recorded with each observation, e.g. "json-ld"
+     */
+    String name();
+
+    Optional<Double> extract(String body, String contentType);
+}
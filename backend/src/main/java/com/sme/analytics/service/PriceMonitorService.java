@@ -0,0 +1,177 @@
+package com.sme.analytics.service;
+
+import com.sme.analytics.dto.PricePoint;
+import com.sme.analytics.mapper.CompetitorPriceHistoryMapper;
+import com.sme.analytics.model.Competitor;
+import com.sme.analytics.model.CompetitorPriceHistory;
+import com.sme.analytics.repository.CompetitorPriceHistoryRepository;
+import com.sme.analytics.repository.CompetitorRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.URI;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Competitor price monitoring: polls every active competitor's price page on a schedule and
+ * records what it finds. Each observation extends the current run of the price history or,
+ * when the price changed, starts a new run and updates the competitor's last known price.
+ */
+@Service
+public class PriceMonitorService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PriceMonitorService.class);
+
+    // Prices closer than this are the same price
+    private static final double PRICE_TOLERANCE = 0.005;
+
+    private final CompetitorRepository competitorRepository;
+    private final CompetitorPriceHistoryRepository priceHistoryRepository;
+    private final CompetitorPriceHistoryMapper priceHistoryMapper;
+    private final CompetitorPriceFetcher priceFetcher;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
+
+    public PriceMonitorService(
+        CompetitorRepository competitorRepository,
+        CompetitorPriceHistoryRepository priceHistoryRepository,
+        CompetitorPriceHistoryMapper priceHistoryMapper,
+        CompetitorPriceFetcher priceFetcher,
+        TransactionTemplate transactionTemplate,
+        ApplicationEventPublisher eventPublisher,
+        MeterRegistry meterRegistry
+    ) {
+        this.competitorRepository = competitorRepository;
+        this.priceHistoryRepository = priceHistoryRepository;
+        this.priceHistoryMapper = priceHistoryMapper;
+        this.priceFetcher = priceFetcher;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Scheduled(fixedDelayString = "${market.prices.interval:6h}", initialDelayString = "${market.prices.initial-delay:2m}")
+    public void pollScheduled() {
+        poll();
+    }
+
+    /**
+     * Check all monitored price pages now; returns the number of competitors whose price changed
+     */
+    public int poll() {
+        long start = System.currentTimeMillis();
+        List<CompetitorPriceFetcher.PriceTarget> targets = transactionTemplate.execute(status ->
+            competitorRepository.findByActiveTrueAndPriceMonitoringUrlIsNotNull().stream()
+                .map(this::toTarget)
+                .filter(Objects::nonNull)
+                .toList());
+        if (targets == null || targets.isEmpty()) {
+            return 0;
+        }
+
+        Map<CompetitorPriceFetcher.PriceTarget, CompetitorPriceFetcher.PriceCheck> checks = priceFetcher.checkAll(targets);
+        LocalDateTime observedAt = LocalDateTime.now();
+        int changed = 0;
+        for (var entry : checks.entrySet()) {
+            Boolean priceChanged = transactionTemplate.execute(status ->
+                record(entry.getKey().competitorId(), entry.getValue(), observedAt));
+            if (Boolean.TRUE.equals(priceChanged)) {
+                changed++;
+            }
+            meterRegistry.counter("market.prices.checks", "outcome",
+                entry.getValue().status().name().toLowerCase(Locale.ROOT)).increment();
+        }
+        meterRegistry.counter("market.prices.checks", "outcome", "failed").increment(targets.size() - checks.size());
+
+        if (changed > 0) {
+            // Prices are not matched on, so the competitor matcher is left as it is
+            eventPublisher.publishEvent(new CompetitorsChangedEvent(null, false));
+        }
+        logger.info("Checked {} competitor price pages ({} failed, {} prices changed) in {} ms",
+            targets.size(), targets.size() - checks.size(), changed, System.currentTimeMillis() - start);
+        return changed;
+    }
+
+    /**
+     * Price history of a competitor, oldest run first
+     */
+    @Transactional(readOnly = true)
+    public List<PricePoint> getHistory(Long competitorId) {
+        return priceHistoryMapper.toPoints(priceHistoryRepository.findByCompetitorIdOrderByFirstSeenAtAsc(competitorId));
+    }
+
+    /**
+     * Store one check result; returns whether the competitor's price changed
+     */
+    private boolean record(Long competitorId, CompetitorPriceFetcher.PriceCheck check, LocalDateTime observedAt) {
+        Competitor competitor = competitorRepository.findById(competitorId).orElse(null);
+        if (competitor == null) {
+            return false;
+        }
+        competitor.setLastMonitoredAt(observedAt);
+
+        switch (check.status()) {
+            case NOT_MODIFIED -> {
+                // Unchanged page: the last known price was observed again
+                if (competitor.getLastKnownPrice() != null) {
+                    observe(competitorId, competitor.getLastKnownPrice(), observedAt);
+                }
+                return false;
+            }
+            case NO_PRICE -> {
+                // Validators stand for the last known price, so a 304 for this page must not confirm it
+                competitor.setPriceEtag(null);
+                competitor.setPriceLastModified(null);
+                logger.debug("No price found on {} for competitor {}", competitor.getPriceMonitoringUrl(), competitorId);
+                return false;
+            }
+            default -> {
+                competitor.setPriceEtag(check.etag());
+                competitor.setPriceLastModified(check.lastModified());
+                observe(competitorId, check.price(), observedAt);
+                boolean changed = competitor.getLastKnownPrice() == null
+                    || !samePrice(competitor.getLastKnownPrice(), check.price());
+                competitor.setLastKnownPrice(check.price());
+                if (changed) {
+                    competitor.setPriceLastUpdated(observedAt);
+                }
+                return changed;
+            }
+        }
+    }
+
+    private void observe(Long competitorId, double price, LocalDateTime observedAt) {
+        Optional<CompetitorPriceHistory> latest = priceHistoryRepository.findTopByCompetitorIdOrderByFirstSeenAtDesc(competitorId);
+        if (latest.isPresent() && samePrice(latest.get().getPrice(), price)) {
+            latest.get().extend(observedAt);
+        } else {
+            priceHistoryRepository.save(new CompetitorPriceHistory(competitorId, price, observedAt));
+        }
+    }
+
+    private CompetitorPriceFetcher.PriceTarget toTarget(Competitor competitor) {
+        try {
+            URI url = URI.create(competitor.getPriceMonitoringUrl().trim());
+            if (!"http".equalsIgnoreCase(url.getScheme()) && !"https".equalsIgnoreCase(url.getScheme())) {
+                throw new IllegalArgumentException("unsupported scheme");
+            }
+            return new CompetitorPriceFetcher.PriceTarget(
+                competitor.getId(), url, competitor.getPriceEtag(), competitor.getPriceLastModified());
+        } catch (IllegalArgumentException e) {
+            logger.warn("Skipping invalid price URL for competitor {}: {}", competitor.getId(), e.getMessage());
+            return null;
+        }
+    }
+
+    private static boolean samePrice(double a, double b) {
+        return Math.abs(a - b) < PRICE_TOLERANCE;
+    }
+}
@@ -0,0 +1,76 @@
+package com.sme.analytics.service;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import reactor.core.publisher.Mono;
+
+import java.net.ConnectException;
+import java.util.Map;
+
+/**
+ * Non-blocking client for the Python ML service.
+ * Shares the circuit breaker and replica balancer with {@link MlServiceClient}, so both
+ * paths see the same ML health. Concurrency has its own bulkhead (mlReactive): calls beyond
+ * ml.service.reactive.max-connections wait for a connection in the Netty pool, and calls
+ * beyond ml.service.reactive.max-concurrent-calls are rejected.
+ */
+@Service
+public class ReactiveMlServiceClient {
+
+    private static final ParameterizedTypeReference<Map<String, Object>> JSON_OBJECT =
+        new ParameterizedTypeReference<>() {};
+
+    private final WebClient webClient;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    private final MlEndpointBalancer balancer;
+
+    public ReactiveMlServiceClient(
+        @Qualifier("mlWebClient") WebClient webClient,
+        @Qualifier("mlServiceCircuitBreaker") CircuitBreaker mlServiceCircuitBreaker,
+        @Qualifier("mlReactiveBulkhead") Bulkhead mlReactiveBulkhead,
+        MlEndpointBalancer balancer
+    ) {
+        this.webClient = webClient;
+        this.circuitBreaker = mlServiceCircuitBreaker;
+        this.bulkhead = mlReactiveBulkhead;
+        this.balancer = balancer;
+    }
+
+    /**
+     * Ask the ML service a question about a document (POST /api/chat/ask) with a pre-serialized JSON body
+     */
+    public Mono<Map<String, Object>> askQuestion(byte[] request) {
+        return post("/api/chat/ask", request);
+    }
+
+    private Mono<Map<String, Object>> post(String path, byte[] body) {
+        return Mono.defer(() -> {
+                MlEndpointBalancer.Endpoint endpoint = balancer.choose(null);
+                endpoint.acquire();
+                return webClient.post()
+                    .uri(endpoint.getUrl() + path)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .bodyValue(body)
+                    .retrieve()
+                    .bodyToMono(JSON_OBJECT)
+                    .doOnError(WebClientRequestException.class, e -> {
+                        if (e.getCause() instanceof ConnectException) {
+                            balancer.markDown(endpoint);
+                        }
+                    })
+                    .doFinally(signal -> endpoint.release());
+            })
+            // Same order as the blocking client: circuit breaker outside the bulkhead
+            .transformDeferred(BulkheadOperator.of(bulkhead))
+            .transformDeferred(CircuitBreakerOperator.of(circuitBreaker));
+    }
+}
@@ -0,0 +1,99 @@
+package com.sme.analytics.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sme.analytics.model.UploadedFile;
+import com.sme.analytics.util.RowRetrievalIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Holds a row retrieval index per uploaded file so chat requests can send the rows
+ * most relevant to each question instead of the first few rows of the file.
+ * Indexes are built at upload; files uploaded before a restart are indexed lazily
+ * on their first question. A file that cannot be indexed is answered from its first rows.
+ */
+@Service
+public class RowIndexService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RowIndexService.class);
+
+    private final Cache<Long, RowRetrievalIndex> indexes;
+    private final int topK;
+    private final int maxChars;
+
+    public RowIndexService(
+        @Value("${chat.retrieval.max-indexed-files:50}") long maxIndexedFiles,
+        @Value("${chat.retrieval.top-k:5}") int topK,
+        @Value("${chat.retrieval.max-chars:4000}") int maxChars
+    ) {
+        this.indexes = Caffeine.newBuilder()
+            .maximumSize(maxIndexedFiles)
+            .build();
+        this.topK = topK;
+        this.maxChars = maxChars;
+    }
+
+    /**
+     * Build (or rebuild) the index for an uploaded file.
+     * Failures are logged, not thrown; the file is retried lazily on its first question.
+     */
+    public void index(UploadedFile uploadedFile) {
+        if (uploadedFile.getId() == null) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            RowRetrievalIndex index = RowRetrievalIndex.fromCsv(uploadedFile.getFileContent());
+            indexes.put(uploadedFile.getId(), index);
+            logger.debug("Indexed {} rows of file {} in {} ms", index.rowCount(), uploadedFile.getId(),
+                (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            indexes.invalidate(uploadedFile.getId());
+            logger.warn("Could not index file {}: {}", uploadedFile.getId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Select the rows most relevant to a question within the configured row and size budget
+     */
+    public List<Map<String, String>> selectRows(UploadedFile uploadedFile, String question) {
+        try {
+            RowRetrievalIndex index = indexes.get(uploadedFile.getId(),
+                id -> RowRetrievalIndex.fromCsv(uploadedFile.getFileContent()));
+            return index.search(question, topK, maxChars);
+        } catch (RuntimeException e) {
+            logger.warn("Row retrieval failed for file {}, using its first rows: {}",
+                uploadedFile.getId(), e.getMessage());
+            return firstRows(uploadedFile.getFileContent());
+        }
+    }
+
+    /**
+     * Unindexed retrieval: the first topK rows keyed by header, as sent before row retrieval existed
+     */
+    List<Map<String, String>> firstRows(String csvContent) {
+        List<Map<String, String>> rows = new ArrayList<>();
+        if (csvContent == null || csvContent.isEmpty()) {
+            return rows;
+        }
+        String[] lines = csvContent.split("\n");
+        String[] columns = lines[0].split(",");
+        for (int i = 1; i < lines.length && rows.size() < topK; i++) {
+            String[] values = lines[i].split(",");
+            Map<String, String> row = new LinkedHashMap<>();
+            for (int j = 0; j < Math.min(columns.length, values.length); j++) {
+                row.put(columns[j].trim(), values[j].trim());
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,140 @@
+package com.sme.analytics.service;
+
+import org.springframework.stereotype.Component;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming parser for RSS 2.0 {@code <item>} and Atom {@code <entry>} elements using the JDK's StAX reader.
+ * DTDs and external entities are disabled.
+ */
+@Component
+public class RssFeedParser implements NewsFeedParser {
+
+    private final XMLInputFactory inputFactory;
+
+    public RssFeedParser() {
+        this.inputFactory = XMLInputFactory.newFactory();
+        inputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        inputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        inputFactory.setProperty(XMLInputFactory.IS_COALESCING, true);
+    }
+
+    @Override
+    public String format() {
+        return "rss";
+    }
+
+    @Override
+    public List<FeedItem> parse(InputStream body) throws IOException {
+        List<FeedItem> items = new ArrayList<>();
+        XMLStreamReader reader = null;
+        try {
+            reader = inputFactory.createXMLStreamReader(body);
+            Entry entry = null;
+            while (reader.hasNext()) {
+                if (reader.next() != XMLStreamConstants.START_ELEMENT) {
+                    if (entry != null && reader.getEventType() == XMLStreamConstants.END_ELEMENT
+                            && isEntry(reader.getLocalName())) {
+                        entry.toItem(items);
+                        entry = null;
+                    }
+                    continue;
+                }
+                String name = reader.getLocalName();
+                if (isEntry(name)) {
+                    entry = new Entry();
+                } else if (entry != null) {
+                    readField(reader, name, entry);
+                }
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException("Malformed feed: " + e.getMessage(), e);
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (XMLStreamException ignored) {
+                    // Nothing left to release
+                }
+            }
+        }
+        return items;
+    }
+
+    private static boolean isEntry(String name) {
+        return "item".equals(name) || "entry".equals(name);
+    }
+
+    private static void readField(XMLStreamReader reader, String name, Entry entry) throws XMLStreamException {
+        switch (name) {
+            case "title" -> entry.title = reader.getElementText().trim();
+            case "link" -> {
+                // Atom puts the URL in href; prefer rel="alternate" (or no rel)
+                String href = reader.getAttributeValue(null, "href");
+                String rel = reader.getAttributeValue(null, "rel");
+                if (href != null) {
+                    if (entry.link == null || rel == null || "alternate".equals(rel)) {
+                        entry.link = href.trim();
+                    }
+                } else {
+                    entry.link = reader.getElementText().trim();
+                }
+            }
+            case "description", "summary" -> entry.summary = reader.getElementText().trim();
+            case "pubDate", "published", "updated" -> {
+                LocalDateTime parsed = parseDate(reader.getElementText().trim());
+                if (entry.publishedAt == null || "published".equals(name)) {
+                    entry.publishedAt = parsed != null ? parsed : entry.publishedAt;
+                }
+            }
+            case "category" -> {
+                String term = reader.getAttributeValue(null, "term");
+                entry.categories.add(term != null ? term.trim() : reader.getElementText().trim());
+            }
+            default -> {
+                // Other elements are not used
+            }
+        }
+    }
+
+    private static LocalDateTime parseDate(String value) {
+        try {
+            return ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME)
+                .withZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+        } catch (DateTimeParseException e) {
+            try {
+                return OffsetDateTime.parse(value).atZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+            } catch (DateTimeParseException ignored) {
+                return null;
+            }
+        }
+    }
+
+    private static final class Entry {
+        private String title;
+        private String link;
+        private String summary;
+        private LocalDateTime publishedAt;
+        private final List<String> categories = new ArrayList<>();
+
+        void toItem(List<FeedItem> items) {
+            if (title != null && link != null && !link.isEmpty()) {
+                items.add(new FeedItem(title, summary, link, publishedAt, categories));
+            }
+        }
+    }
+}
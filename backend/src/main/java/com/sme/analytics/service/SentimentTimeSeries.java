@@ -0,0 +1,281 @@
+package com.sme.analytics.service;
+
+import com.sme.analytics.dto.MarketNewsDTO;
+import com.sme.analytics.dto.SentimentPoint;
+import com.sme.analytics.util.TimeBucketRing;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Rolling news sentiment per minute and per hour, overall and by category, industry
+ * and competitor. Each series keeps a ring of per-minute and a ring of per-hour
+ * sum/count buckets keyed by publish time, so the average over any trailing window is
+ * a sum over at most a few hundred buckets instead of a table scan. Updated at ingest;
+ * rebuilt from per-hour and per-minute sums aggregated in the database by
+ * {@link MarketDashboardSnapshot#reconcile()}, which also runs at startup.
+ * News older than the hour ring is ignored, and a series with no bucket left in either
+ * ring is evicted, so keys that stop receiving news do not accumulate.
+ */
+@Component
+public class SentimentTimeSeries {
+
+    public enum Dimension { ALL, CATEGORY, INDUSTRY, COMPETITOR }
+
+    public enum Resolution { MINUTE, HOUR }
+
+    private static final String ALL_KEY = "all";
+
+    private final int minuteBuckets;
+    private final int hourBuckets;
+    private final Clock clock;
+
+    // Guarded by this
+    private Map<SeriesKey, Series> series = new HashMap<>();
+    private long lastEvictionHour;
+
+    @Autowired
+    public SentimentTimeSeries(
+        @Value("${market.sentiment.minute-buckets:120}") int minuteBuckets,
+        @Value("${market.sentiment.hour-buckets:336}") int hourBuckets
+    ) {
+        this(minuteBuckets, hourBuckets, Clock.systemDefaultZone());
+    }
+
+    SentimentTimeSeries(int minuteBuckets, int hourBuckets, Clock clock) {
+        this.minuteBuckets = minuteBuckets;
+        this.hourBuckets = hourBuckets;
+        this.clock = clock;
+    }
+
+    /**
+     * Oldest publish time the hourly rings can hold
+     */
+    public LocalDateTime retentionStart() {
+        return fromEpochMinute(oldestHour(epochMinute(now())) * 60);
+    }
+
+    /**
+     * Oldest publish time the minute rings can hold
+     */
+    public LocalDateTime minuteRetentionStart() {
+        return fromEpochMinute(epochMinute(now()) - minuteBuckets + 1);
+    }
+
+    public synchronized void recordAll(Collection<MarketNewsDTO> news) {
+        long now = epochMinute(now());
+        for (MarketNewsDTO item : news) {
+            if (item.getPublishedAt() == null || item.getSentimentScore() == null) {
+                continue;
+            }
+            long minute = clamp(item.getPublishedAt(), now);
+            if (Math.floorDiv(minute, 60) < oldestHour(now)) {
+                continue;
+            }
+            double score = item.getSentimentScore();
+            forEachSeries(series, item.getCategory(), item.getIndustry(), item.getRelatedCompetitorId(), target -> {
+                target.minutes.add(minute, score);
+                target.hours.add(Math.floorDiv(minute, 60), score);
+            });
+        }
+        evictIdle(now);
+    }
+
+    /**
+     * Replace all buckets with sums aggregated per hour and, for the minute rings, per minute
+     */
+    public void rebuild(Collection<Aggregate> hourly, Collection<Aggregate> minutely) {
+        Map<SeriesKey, Series> rebuilt = new HashMap<>();
+        long now = epochMinute(now());
+        for (Aggregate aggregate : hourly) {
+            long hour = Math.floorDiv(clamp(aggregate.period(), now), 60);
+            if (hour >= oldestHour(now)) {
+                forEachSeries(rebuilt, aggregate.category(), aggregate.industry(), aggregate.competitorId(),
+                    target -> target.hours.add(hour, aggregate.sum(), aggregate.count()));
+            }
+        }
+        for (Aggregate aggregate : minutely) {
+            long minute = clamp(aggregate.period(), now);
+            if (minute > now - minuteBuckets) {
+                forEachSeries(rebuilt, aggregate.category(), aggregate.industry(), aggregate.competitorId(),
+                    target -> target.minutes.add(minute, aggregate.sum(), aggregate.count()));
+            }
+        }
+        synchronized (this) {
+            series = rebuilt;
+            lastEvictionHour = Math.floorDiv(now, 60);
+        }
+    }
+
+    /**
+     * Number of series currently held
+     */
+    synchronized int seriesCount() {
+        return series.size();
+    }
+
+    /**
+     * Average sentiment of one series over the trailing window, or null if no news was scored in it
+     */
+    public synchronized Double average(Dimension dimension, String key, Duration window) {
+        Series target = series.get(new SeriesKey(dimension, normalizeKey(dimension, key)));
+        if (target == null) {
+            return null;
+        }
+        double[] totals = target.total(window, epochMinute(now()));
+        return totals[1] > 0 ? totals[0] / totals[1] : null;
+    }
+
+    /**
+     * Average sentiment over the trailing window for every key of a dimension that has scored news in it
+     */
+    public synchronized Map<String, Double> averages(Dimension dimension, Duration window) {
+        Map<String, Double> result = new HashMap<>();
+        long now = epochMinute(now());
+        series.forEach((seriesKey, target) -> {
+            if (seriesKey.dimension() == dimension) {
+                double[] totals = target.total(window, now);
+                if (totals[1] > 0) {
+                    result.put(seriesKey.key(), totals[0] / totals[1]);
+                }
+            }
+        });
+        return result;
+    }
+
+    /**
+     * The most recent buckets of one series, oldest first, including empty buckets
+     */
+    public synchronized List<SentimentPoint> points(Dimension dimension, String key, Resolution resolution, int buckets) {
+        Series target = series.get(new SeriesKey(dimension, normalizeKey(dimension, key)));
+        TimeBucketRing ring = target == null ? null : resolution == Resolution.MINUTE ? target.minutes : target.hours;
+        int size = Math.min(buckets, resolution == Resolution.MINUTE ? minuteBuckets : hourBuckets);
+        long now = resolution == Resolution.MINUTE ? epochMinute(now()) : Math.floorDiv(epochMinute(now()), 60);
+
+        List<SentimentPoint> points = new ArrayList<>(size);
+        for (long period = now - size + 1; period <= now; period++) {
+            double[] bucket = ring == null ? null : ring.bucket(period);
+            long count = bucket == null ? 0 : (long) bucket[1];
+            points.add(new SentimentPoint(
+                resolution == Resolution.MINUTE ? fromEpochMinute(period) : fromEpochMinute(period * 60),
+                count > 0 ? bucket[0] / count : null,
+                count));
+        }
+        return points;
+    }
+
+    /**
+     * Apply an update to the overall series and to the series of each key the news has
+     */
+    private void forEachSeries(
+        Map<SeriesKey, Series> target,
+        String category,
+        String industry,
+        Long competitorId,
+        Consumer<Series> update
+    ) {
+        update.accept(series(target, Dimension.ALL, ALL_KEY));
+        if (category != null) {
+            update.accept(series(target, Dimension.CATEGORY, category));
+        }
+        if (industry != null) {
+            update.accept(series(target, Dimension.INDUSTRY, industry));
+        }
+        if (competitorId != null) {
+            update.accept(series(target, Dimension.COMPETITOR, competitorId.toString()));
+        }
+    }
+
+    /**
+     * Drop series whose buckets have all left both rings; runs at most once per hour
+     */
+    private void evictIdle(long now) {
+        long hour = Math.floorDiv(now, 60);
+        if (hour == lastEvictionHour) {
+            return;
+        }
+        lastEvictionHour = hour;
+        long oldestHour = oldestHour(now);
+        long oldestMinute = now - minuteBuckets + 1;
+        series.values().removeIf(target -> target.hours.latest() < oldestHour && target.minutes.latest() < oldestMinute);
+    }
+
+    private long oldestHour(long nowMinute) {
+        return Math.floorDiv(nowMinute, 60) - hourBuckets + 1;
+    }
+
+    /**
+     * Future timestamps count towards the current minute
+     */
+    private static long clamp(LocalDateTime time, long nowMinute) {
+        return Math.min(epochMinute(time), nowMinute);
+    }
+
+    private LocalDateTime now() {
+        return LocalDateTime.now(clock);
+    }
+
+    private Series series(Map<SeriesKey, Series> target, Dimension dimension, String key) {
+        return target.computeIfAbsent(new SeriesKey(dimension, key), k -> new Series());
+    }
+
+    private static String normalizeKey(Dimension dimension, String key) {
+        return dimension == Dimension.ALL ? ALL_KEY : key;
+    }
+
+    /**
+     * Local clock minutes since the epoch
+     */
+    private static long epochMinute(LocalDateTime time) {
+        return time.toLocalDate().toEpochDay() * 1440 + time.getHour() * 60L + time.getMinute();
+    }
+
+    private static LocalDateTime fromEpochMinute(long minute) {
+        return LocalDate.ofEpochDay(Math.floorDiv(minute, 1440)).atStartOfDay().plusMinutes(Math.floorMod(minute, 1440));
+    }
+
+    /**
+     * Sum and count of scored news in one period (an hour or a minute, starting at period)
+     * for one combination of category, industry and competitor, as aggregated by the database
+     */
+    public record Aggregate(
+        LocalDateTime period,
+        String category,
+        String industry,
+        Long competitorId,
+        double sum,
+        long count
+    ) {
+    }
+
+    private record SeriesKey(Dimension dimension, String key) {
+    }
+
+    /**
+     * Minute and hour rings of one series
+     */
+    private final class Series {
+        private final TimeBucketRing minutes = new TimeBucketRing(minuteBuckets);
+        private final TimeBucketRing hours = new TimeBucketRing(hourBuckets);
+
+        /**
+         * Totals over the trailing window: minute buckets when the window fits, whole hours otherwise
+         */
+        double[] total(Duration window, long now) {
+            long windowMinutes = Math.max(1, window.toMinutes());
+            if (windowMinutes <= minuteBuckets) {
+                return minutes.total(now - windowMinutes + 1, now);
+            }
+            long nowHour = Math.floorDiv(now, 60);
+            long windowHours = Math.min(hourBuckets, (windowMinutes + 59) / 60);
+            return hours.total(nowHour - windowHours + 1, nowHour);
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.sme.analytics.util;
+
+import java.util.*;
+
+/**
+ * Immutable Aho-Corasick automaton over case-insensitive keywords.
+ * All occurrences of all keywords are found in one pass over the text, in time linear
+ * in the text length plus the number of matches, however many keywords there are.
+ * Matches must start and end on word boundaries, so "ai" does not match inside "retail".
+ * Transitions are stored per state as sorted character arrays to keep large automata compact.
+ *
+ * @param <T> value attached to each keyword (several keywords may share a value)
+ */
+public final class AhoCorasickMatcher<T> {
+
+    private static final char[] NO_CHARS = new char[0];
+    private static final int[] NO_STATES = new int[0];
+
+    // Per state: outgoing characters (sorted) and target states
+    private final char[][] edgeChars;
+    private final int[][] edgeTargets;
+    private final int[] fail;
+    // Per state: keyword ids ending here, and the nearest fail-chain state that has outputs (-1 if none)
+    private final int[][] outputs;
+    private final int[] outputLink;
+    private final int[] keywordLengths;
+    private final List<T> values;
+
+    private AhoCorasickMatcher(Builder<T> builder) {
+        int states = builder.trie.size();
+        this.edgeChars = new char[states][];
+        this.edgeTargets = new int[states][];
+        this.fail = new int[states];
+        this.outputs = new int[states][];
+        this.outputLink = new int[states];
+        this.keywordLengths = builder.lengths.stream().mapToInt(Integer::intValue).toArray();
+        this.values = List.copyOf(builder.values);
+
+        for (int state = 0; state < states; state++) {
+            TreeMap<Character, Integer> edges = builder.trie.get(state);
+            if (edges.isEmpty()) {
+                edgeChars[state] = NO_CHARS;
+                edgeTargets[state] = NO_STATES;
+            } else {
+                edgeChars[state] = new char[edges.size()];
+                edgeTargets[state] = new int[edges.size()];
+                int i = 0;
+                for (Map.Entry<Character, Integer> edge : edges.entrySet()) {
+                    edgeChars[state][i] = edge.getKey();
+                    edgeTargets[state][i] = edge.getValue();
+                    i++;
+                }
+            }
+            List<Integer> ending = builder.ending.get(state);
+            outputs[state] = ending == null ? NO_STATES : ending.stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        // Breadth-first over the trie: a state's fail link is the longest proper suffix that is also a trie path
+        Arrays.fill(outputLink, -1);
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int child : edgeTargets[0]) {
+            fail[child] = 0;
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            for (int i = 0; i < edgeChars[state].length; i++) {
+                char c = edgeChars[state][i];
+                int child = edgeTargets[state][i];
+                int fallback = fail[state];
+                while (fallback != 0 && next(fallback, c) < 0) {
+                    fallback = fail[fallback];
+                }
+                int target = next(fallback, c);
+                fail[child] = Math.max(target, 0);
+                outputLink[child] = outputs[fail[child]].length > 0 ? fail[child] : outputLink[fail[child]];
+                queue.add(child);
+            }
+        }
+    }
+
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    public int keywordCount() {
+        return keywordLengths.length;
+    }
+
+    /**
+     * Report every whole-word keyword occurrence in the text
+     */
+    public void match(CharSequence text, MatchListener<T> listener) {
+        int state = 0;
+        for (int position = 0; position < text.length(); position++) {
+            char c = Character.toLowerCase(text.charAt(position));
+            if (Character.isWhitespace(c)) {
+                c = ' ';
+            }
+            int target = next(state, c);
+            while (target < 0 && state != 0) {
+                state = fail[state];
+                target = next(state, c);
+            }
+            state = Math.max(target, 0);
+
+            int end = position + 1;
+            if (end < text.length() && isWordChar(text.charAt(end))) {
+                continue;
+            }
+            for (int out = outputs[state].length > 0 ? state : outputLink[state]; out > 0; out = outputLink[out]) {
+                for (int keyword : outputs[out]) {
+                    int start = end - keywordLengths[keyword];
+                    if (start == 0 || !isWordChar(text.charAt(start - 1))) {
+                        listener.onMatch(values.get(keyword), start, end);
+                    }
+                }
+            }
+        }
+    }
+
+    private int next(int state, char c) {
+        int index = Arrays.binarySearch(edgeChars[state], c);
+        return index >= 0 ? edgeTargets[state][index] : -1;
+    }
+
+    private static boolean isWordChar(char c) {
+        return Character.isLetterOrDigit(c);
+    }
+
+    /**
+     * Receives each keyword occurrence as the keyword's value and its [start, end) range in the text
+     */
+    @FunctionalInterface
+    public interface MatchListener<T> {
+        void onMatch(T value, int start, int end);
+    }
+
+    /**
+     * Collects keywords; not thread-safe
+     */
+    public static final class Builder<T> {
+        private final List<TreeMap<Character, Integer>> trie = new ArrayList<>();
+        private final Map<Integer, List<Integer>> ending = new HashMap<>();
+        private final List<Integer> lengths = new ArrayList<>();
+        private final List<T> values = new ArrayList<>();
+
+        private Builder() {
+            trie.add(new TreeMap<>());
+        }
+
+        /**
+         * Add a keyword; blank keywords are ignored and whitespace runs are collapsed to one space
+         */
+        public Builder<T> add(String keyword, T value) {
+            if (keyword == null) {
+                return this;
+            }
+            String normalized = keyword.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+            if (normalized.isEmpty()) {
+                return this;
+            }
+            int state = 0;
+            for (int i = 0; i < normalized.length(); i++) {
+                char c = normalized.charAt(i);
+                Integer target = trie.get(state).get(c);
+                if (target == null) {
+                    target = trie.size();
+                    trie.add(new TreeMap<>());
+                    trie.get(state).put(c, target);
+                }
+                state = target;
+            }
+            ending.computeIfAbsent(state, key -> new ArrayList<>()).add(values.size());
+            lengths.add(normalized.length());
+            values.add(value);
+            return this;
+        }
+
+        public AhoCorasickMatcher<T> build() {
+            return new AhoCorasickMatcher<>(this);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.sme.analytics.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe Bloom filter over hex SHA-256 strings (see {@link UrlHashes}).
+ * The k bit positions come from double hashing of the first 128 bits of the hash,
+ * which are already uniformly distributed. A negative answer is definite; a positive
+ * one must be confirmed against the database.
+ */
+public final class BloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashFunctions;
+
+    /**
+     * Size the filter for the expected number of items at the given false positive probability
+     */
+    public BloomFilter(long expectedItems, double falsePositiveRate) {
+        long optimalBits = (long) Math.ceil(-expectedItems * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (optimalBits + 63) / 64));
+        this.bits = new AtomicLongArray(words);
+        this.bitCount = (long) words * 64;
+        this.hashFunctions = Math.max(1, (int) Math.round((double) bitCount / expectedItems * Math.log(2)));
+    }
+
+    public void put(String hexHash) {
+        long h1 = Long.parseUnsignedLong(hexHash, 0, 16, 16);
+        long h2 = Long.parseUnsignedLong(hexHash, 16, 32, 16);
+        for (int i = 0; i < hashFunctions; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << (bit & 63);
+            long current;
+            do {
+                current = bits.get(word);
+                if ((current & mask) != 0) {
+                    break;
+                }
+            } while (!bits.compareAndSet(word, current, current | mask));
+        }
+    }
+
+    public boolean mightContain(String hexHash) {
+        long h1 = Long.parseUnsignedLong(hexHash, 0, 16, 16);
+        long h2 = Long.parseUnsignedLong(hexHash, 16, 32, 16);
+        for (int i = 0; i < hashFunctions; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            if ((bits.get((int) (bit >>> 6)) & (1L << (bit & 63))) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
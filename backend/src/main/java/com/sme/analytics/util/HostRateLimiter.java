@@ -0,0 +1,66 @@
+package com.sme.analytics.util;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Politeness limits per remote host: at most {@code maxConcurrent} requests in flight
+ * and request starts spaced at least {@code minInterval} apart. Waiting blocks the
+ * caller, which is meant to be a virtual thread.
+ */
+public final class HostRateLimiter {
+
+    private final long minIntervalNanos;
+    private final int maxConcurrent;
+    private final Map<String, Host> hosts = new ConcurrentHashMap<>();
+
+    public HostRateLimiter(Duration minInterval, int maxConcurrent) {
+        this.minIntervalNanos = minInterval.toNanos();
+        this.maxConcurrent = maxConcurrent;
+    }
+
+    /**
+     * Wait for a slot on the host; close the returned permit when the request completes
+     */
+    public Permit acquire(String host) throws InterruptedException {
+        Host state = hosts.computeIfAbsent(host, key -> new Host(maxConcurrent));
+        state.permits.acquire();
+        try {
+            long waitNanos = state.reserve(minIntervalNanos);
+            if (waitNanos > 0) {
+                Thread.sleep(Duration.ofNanos(waitNanos));
+            }
+        } catch (InterruptedException e) {
+            state.permits.release();
+            throw e;
+        }
+        return state.permits::release;
+    }
+
+    /**
+     * Held while a request to a host is in flight
+     */
+    @FunctionalInterface
+    public interface Permit extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private static final class Host {
+        private final Semaphore permits;
+        private long nextStart;
+
+        Host(int maxConcurrent) {
+            this.permits = new Semaphore(maxConcurrent, true);
+        }
+
+        synchronized long reserve(long intervalNanos) {
+            long now = System.nanoTime();
+            long start = nextStart == 0 ? now : Math.max(now, nextStart);
+            nextStart = start + intervalNanos;
+            return start - now;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.sme.analytics.util;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size sliding window of recent call latencies with on-demand percentiles.
+ * Percentiles are computed from a sorted copy of the window, which is cheap for the
+ * few hundred samples kept here.
+ */
+public final class LatencyWindow {
+
+    private final long[] samples;
+    private final int minSamples;
+    private int next;
+    private int count;
+
+    public LatencyWindow(int size, int minSamples) {
+        this.samples = new long[size];
+        this.minSamples = minSamples;
+    }
+
+    public synchronized void record(long nanos) {
+        samples[next] = nanos;
+        next = (next + 1) % samples.length;
+        if (count < samples.length) {
+            count++;
+        }
+    }
+
+    /**
+     * Latency at the given percentile (0..1) in nanoseconds, or -1 until enough samples are recorded
+     */
+    public synchronized long percentile(double percentile) {
+        if (count < minSamples) {
+            return -1;
+        }
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile * count) - 1;
+        return sorted[Math.max(0, Math.min(index, count - 1))];
+    }
+}
@@ -0,0 +1,93 @@
+package com.sme.analytics.util;
+
+import java.io.IOException;
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.util.function.Predicate;
+
+/**
+ * Decides whether the server may request a user-supplied URL, so such URLs cannot reach the
+ * server's own network (SSRF). The host is resolved and every address it resolves to must be
+ * allowed; by default only public addresses are, which rules out loopback, link-local (e.g. the
+ * 169.254.169.254 cloud metadata endpoint), private, any-local and multicast addresses.
+ * A client must connect to the addresses {@link #resolve} returned rather than look the host up
+ * again, or a DNS answer that changes between the two lookups gets past the check.
+ */
+public final class OutboundUrlPolicy {
+
+    public static final OutboundUrlPolicy PUBLIC_ONLY = new OutboundUrlPolicy(OutboundUrlPolicy::isPublic);
+
+    private final Predicate<InetAddress> allowed;
+    private final Resolver resolver;
+
+    public OutboundUrlPolicy(Predicate<InetAddress> allowed) {
+        this(allowed, InetAddress::getAllByName);
+    }
+
+    public OutboundUrlPolicy(Predicate<InetAddress> allowed, Resolver resolver) {
+        this.allowed = allowed;
+        this.resolver = resolver;
+    }
+
+    /**
+     * Throws when the URL is not http(s) or its host resolves to an address that is not allowed
+     */
+    public void check(URI url) throws IOException {
+        checkScheme(url);
+        resolve(url.getHost());
+    }
+
+    /**
+     * Throws when the URL is not http(s) with a host; the host itself is checked by {@link #resolve}
+     */
+    public void checkScheme(URI url) throws IOException {
+        if (!"http".equalsIgnoreCase(url.getScheme()) && !"https".equalsIgnoreCase(url.getScheme())) {
+            throw new IOException("Unsupported scheme in " + url);
+        }
+        if (url.getHost() == null) {
+            throw new IOException("No host in " + url);
+        }
+    }
+
+    /**
+     * The addresses of the host, looked up once; throws when any of them is not allowed
+     */
+    public InetAddress[] resolve(String host) throws UnknownHostException {
+        InetAddress[] addresses = resolver.resolve(host);
+        for (InetAddress address : addresses) {
+            if (!allowed.test(address)) {
+                // UnknownHostException, so HTTP clients treat it as a failed lookup and do not retry
+                throw new UnknownHostException("Refusing to request " + host + ": resolves to non-public address "
+                    + address.getHostAddress());
+            }
+        }
+        return addresses;
+    }
+
+    /**
+     * Whether the address is routable on the public internet
+     */
+    public static boolean isPublic(InetAddress address) {
+        if (address.isLoopbackAddress() || address.isLinkLocalAddress() || address.isSiteLocalAddress()
+            || address.isAnyLocalAddress() || address.isMulticastAddress()) {
+            return false;
+        }
+        byte[] bytes = address.getAddress();
+        if (address instanceof Inet6Address) {
+            // Unique local fc00::/7, which isSiteLocalAddress (the deprecated fec0::/10) does not cover
+            return (bytes[0] & 0xfe) != 0xfc;
+        }
+        // Carrier-grade NAT 100.64.0.0/10 and the 0.0.0.0/8 "this network" block
+        return !((bytes[0] & 0xff) == 100 && (bytes[1] & 0xc0) == 64) && bytes[0] != 0;
+    }
+
+    /**
+     * Host name lookup, {@link InetAddress#getAllByName} unless a test replaces it
+     */
+    @FunctionalInterface
+    public interface Resolver {
+        InetAddress[] resolve(String host) throws UnknownHostException;
+    }
+}
@@ -0,0 +1,43 @@
+package com.sme.analytics.util;
+
+import java.util.Optional;
+
+/**
+ * Parses prices as written on web pages: "19.99", "1,299.00", "$ 19.99", "1.299,00 EUR".
+ * When both separators appear the later one is the decimal point; a lone comma is decimal
+ * only when followed by exactly two digits.
+ */
+public final class PriceParser {
+
+    private PriceParser() {
+    }
+
+    public static Optional<Double> parse(String text) {
+        if (text == null) {
+            return Optional.empty();
+        }
+        String digits = text.replaceAll("[^0-9.,]", "");
+        if (digits.isEmpty() || !Character.isDigit(digits.charAt(0))) {
+            return Optional.empty();
+        }
+        int lastComma = digits.lastIndexOf(',');
+        int lastDot = digits.lastIndexOf('.');
+        String normalized;
+        if (lastComma >= 0 && lastDot >= 0) {
+            normalized = lastComma > lastDot
+                ? digits.replace(".", "").replace(',', '.')
+                : digits.replace(",", "");
+        } else if (lastComma >= 0) {
+            boolean decimal = digits.indexOf(',') == lastComma && digits.length() - lastComma - 1 == 2;
+            normalized = decimal ? digits.replace(',', '.') : digits.replace(",", "");
+        } else {
+            normalized = digits;
+        }
+        try {
+            double price = Double.parseDouble(normalized);
+            return price > 0 && Double.isFinite(price) ? Optional.of(price) : Optional.empty();
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+}
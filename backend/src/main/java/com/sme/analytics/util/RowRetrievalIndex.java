@@ -0,0 +1,373 @@
+package com.sme.analytics.util;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.time.format.TextStyle;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Immutable in-memory retrieval index over the rows of one uploaded CSV file.
+ * Text relevance uses BM25 over row tokens (ISO dates also contribute month and
+ * year tokens, so "March" finds 2024-03-xx rows). Numeric conditions such as
+ * "Revenue over 5000" are answered from per-block min/max zone maps, so only
+ * blocks that can contain matches are scanned.
+ */
+public final class RowRetrievalIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int BLOCK_SIZE = 64;
+
+    private static final Pattern TOKEN_SPLIT = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final String NUMBER = "(-?\\d[\\d,]*(?:\\.\\d+)?)";
+    private static final String OPERATOR =
+        "(>=|<=|>|<|=|over|above|more than|greater than|at least|under|below|less than|at most|between)";
+
+    private static final Set<String> STOP_WORDS = Set.of(
+        "a", "an", "and", "are", "as", "at", "be", "by", "did", "do", "does", "for", "from", "has", "have",
+        "how", "i", "in", "is", "it", "me", "of", "on", "or", "show", "tell", "that", "the", "there", "to",
+        "was", "were", "what", "when", "where", "which", "who", "with", "happened", "about", "rows", "row"
+    );
+
+    private final List<String> columns;
+    private final String[][] cells;
+    private final Map<String, Postings> postings;
+    private final int[] rowLengths;
+    private final double averageRowLength;
+    private final Map<Integer, double[]> numericValues;
+    private final Map<Integer, double[][]> zoneMaps;
+    private final List<RangePattern> rangePatterns;
+
+    private RowRetrievalIndex(List<String> columns, String[][] cells) {
+        this.columns = columns;
+        this.cells = cells;
+        this.rowLengths = new int[cells.length];
+        this.postings = new HashMap<>();
+        this.numericValues = new HashMap<>();
+        this.zoneMaps = new HashMap<>();
+        this.rangePatterns = new ArrayList<>();
+
+        long totalLength = 0;
+        for (int row = 0; row < cells.length; row++) {
+            Map<String, Integer> termFrequencies = new HashMap<>();
+            for (String cell : cells[row]) {
+                for (String token : rowTokens(cell)) {
+                    termFrequencies.merge(token, 1, Integer::sum);
+                    rowLengths[row]++;
+                }
+            }
+            for (Map.Entry<String, Integer> entry : termFrequencies.entrySet()) {
+                postings.computeIfAbsent(entry.getKey(), key -> new Postings()).add(row, entry.getValue());
+            }
+            totalLength += rowLengths[row];
+        }
+        this.averageRowLength = cells.length > 0 ? Math.max(1.0, (double) totalLength / cells.length) : 1.0;
+
+        buildZoneMaps();
+    }
+
+    /**
+     * Build an index from CSV content with a header row
+     */
+    public static RowRetrievalIndex fromCsv(String csvContent) {
+        if (csvContent == null || csvContent.isEmpty()) {
+            return new RowRetrievalIndex(List.of(), new String[0][]);
+        }
+        String[] lines = csvContent.split("\n");
+        List<String> columns = new ArrayList<>();
+        for (String column : lines[0].split(",")) {
+            columns.add(clean(column));
+        }
+
+        List<String[]> rows = new ArrayList<>(lines.length);
+        for (int i = 1; i < lines.length; i++) {
+            if (lines[i].isBlank()) {
+                continue;
+            }
+            String[] values = lines[i].split(",");
+            String[] row = new String[Math.min(columns.size(), values.length)];
+            for (int j = 0; j < row.length; j++) {
+                row[j] = clean(values[j]);
+            }
+            rows.add(row);
+        }
+        return new RowRetrievalIndex(List.copyOf(columns), rows.toArray(new String[0][]));
+    }
+
+    public int rowCount() {
+        return cells.length;
+    }
+
+    public List<String> columns() {
+        return columns;
+    }
+
+    /**
+     * Select the most relevant rows for a question, up to topK rows and maxChars of row content.
+     * Falls back to the first rows of the file when nothing in the question matches.
+     */
+    public List<Map<String, String>> search(String question, int topK, int maxChars) {
+        String text = question == null ? "" : question.toLowerCase(Locale.ROOT).replace('_', ' ');
+
+        List<NumericRange> ranges = new ArrayList<>();
+        text = extractNumericRanges(text, ranges);
+
+        BitSet allowed = null;
+        for (NumericRange range : ranges) {
+            BitSet matching = scanRange(range);
+            if (allowed == null) {
+                allowed = matching;
+            } else {
+                allowed.and(matching);
+            }
+        }
+
+        List<Integer> selected = rankByBm25(queryTokens(text), allowed, topK);
+        if (selected.isEmpty()) {
+            // No text match: use rows satisfying the numeric conditions, or the head of the file
+            int limit = Math.min(topK, cells.length);
+            if (allowed != null) {
+                for (int row = allowed.nextSetBit(0); row >= 0 && selected.size() < limit; row = allowed.nextSetBit(row + 1)) {
+                    selected.add(row);
+                }
+            } else {
+                for (int row = 0; row < limit; row++) {
+                    selected.add(row);
+                }
+            }
+        }
+
+        List<Map<String, String>> result = new ArrayList<>();
+        int usedChars = 0;
+        for (int row : selected) {
+            Map<String, String> values = new LinkedHashMap<>();
+            int rowChars = 0;
+            for (int col = 0; col < cells[row].length; col++) {
+                values.put(columns.get(col), cells[row][col]);
+                rowChars += columns.get(col).length() + cells[row][col].length() + 6;
+            }
+            if (!result.isEmpty() && usedChars + rowChars > maxChars) {
+                break;
+            }
+            usedChars += rowChars;
+            result.add(values);
+        }
+        return result;
+    }
+
+    private List<Integer> rankByBm25(Set<String> terms, BitSet allowed, int topK) {
+        if (terms.isEmpty() || cells.length == 0) {
+            return new ArrayList<>();
+        }
+
+        Map<Integer, Double> scores = new HashMap<>();
+        int n = cells.length;
+        for (String term : terms) {
+            Postings termPostings = postings.get(term);
+            if (termPostings == null) {
+                continue;
+            }
+            double idf = Math.log(1.0 + (n - termPostings.size + 0.5) / (termPostings.size + 0.5));
+            for (int i = 0; i < termPostings.size; i++) {
+                int row = termPostings.rows[i];
+                if (allowed != null && !allowed.get(row)) {
+                    continue;
+                }
+                int tf = termPostings.frequencies[i];
+                double norm = K1 * (1 - B + B * rowLengths[row] / averageRowLength);
+                scores.merge(row, idf * (tf * (K1 + 1)) / (tf + norm), Double::sum);
+            }
+        }
+
+        PriorityQueue<Map.Entry<Integer, Double>> best = new PriorityQueue<>(
+            Comparator.<Map.Entry<Integer, Double>>comparingDouble(Map.Entry::getValue)
+                .thenComparing(Map.Entry::getKey, Comparator.reverseOrder()));
+        for (Map.Entry<Integer, Double> entry : scores.entrySet()) {
+            best.offer(entry);
+            if (best.size() > topK) {
+                best.poll();
+            }
+        }
+
+        List<Integer> ranked = new ArrayList<>(best.size());
+        while (!best.isEmpty()) {
+            ranked.add(best.poll().getKey());
+        }
+        Collections.reverse(ranked);
+        return ranked;
+    }
+
+    private String extractNumericRanges(String text, List<NumericRange> ranges) {
+        for (RangePattern rangePattern : rangePatterns) {
+            Matcher matcher = rangePattern.pattern().matcher(text);
+            if (matcher.find()) {
+                NumericRange range = toRange(rangePattern.column(), matcher.group(1), matcher.group(2), matcher.group(3));
+                if (range != null) {
+                    ranges.add(range);
+                    text = text.substring(0, matcher.start()) + " " + rangePattern.phrase() + " " + text.substring(matcher.end());
+                }
+            }
+        }
+        return text;
+    }
+
+    private BitSet scanRange(NumericRange range) {
+        BitSet matching = new BitSet(cells.length);
+        double[] values = numericValues.get(range.column);
+        double[][] zones = zoneMaps.get(range.column);
+        for (int block = 0; block < zones[0].length; block++) {
+            if (zones[1][block] < range.min || zones[0][block] > range.max) {
+                continue;
+            }
+            int end = Math.min(cells.length, (block + 1) * BLOCK_SIZE);
+            for (int row = block * BLOCK_SIZE; row < end; row++) {
+                if (range.contains(values[row])) {
+                    matching.set(row);
+                }
+            }
+        }
+        return matching;
+    }
+
+    private void buildZoneMaps() {
+        int blocks = (cells.length + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        for (int col = 0; col < columns.size(); col++) {
+            double[] values = new double[cells.length];
+            int numeric = 0;
+            int present = 0;
+            for (int row = 0; row < cells.length; row++) {
+                values[row] = Double.NaN;
+                if (col < cells[row].length && !cells[row][col].isEmpty()) {
+                    present++;
+                    try {
+                        values[row] = Double.parseDouble(cells[row][col]);
+                        numeric++;
+                    } catch (NumberFormatException e) {
+                        // Not numeric
+                    }
+                }
+            }
+            if (present == 0 || (double) numeric / present < 0.8) {
+                continue;
+            }
+
+            double[][] zones = new double[2][blocks];
+            for (int block = 0; block < blocks; block++) {
+                double min = Double.POSITIVE_INFINITY;
+                double max = Double.NEGATIVE_INFINITY;
+                int end = Math.min(cells.length, (block + 1) * BLOCK_SIZE);
+                for (int row = block * BLOCK_SIZE; row < end; row++) {
+                    if (!Double.isNaN(values[row])) {
+                        min = Math.min(min, values[row]);
+                        max = Math.max(max, values[row]);
+                    }
+                }
+                zones[0][block] = min;
+                zones[1][block] = max;
+            }
+            numericValues.put(col, values);
+            zoneMaps.put(col, zones);
+
+            // Conditions on this column are matched by a pattern compiled once per index
+            String phrase = columns.get(col).toLowerCase(Locale.ROOT).replaceAll("[^\\p{L}\\p{N}]+", " ").trim();
+            if (!phrase.isEmpty()) {
+                rangePatterns.add(new RangePattern(col, phrase, Pattern.compile(Pattern.quote(phrase)
+                    + "\\s*(?:is\\s+|of\\s+)?" + OPERATOR + "\\s*" + NUMBER + "(?:\\s*and\\s*" + NUMBER + ")?")));
+            }
+        }
+    }
+
+    private static NumericRange toRange(int column, String operator, String first, String second) {
+        double value = Double.parseDouble(first.replace(",", ""));
+        switch (operator) {
+            case ">", "over", "above", "more than", "greater than":
+                return new NumericRange(column, value, Double.POSITIVE_INFINITY, false, true);
+            case ">=", "at least":
+                return new NumericRange(column, value, Double.POSITIVE_INFINITY, true, true);
+            case "<", "under", "below", "less than":
+                return new NumericRange(column, Double.NEGATIVE_INFINITY, value, true, false);
+            case "<=", "at most":
+                return new NumericRange(column, Double.NEGATIVE_INFINITY, value, true, true);
+            case "=":
+                return new NumericRange(column, value, value, true, true);
+            case "between":
+                if (second == null) {
+                    return null;
+                }
+                double other = Double.parseDouble(second.replace(",", ""));
+                return new NumericRange(column, Math.min(value, other), Math.max(value, other), true, true);
+            default:
+                return null;
+        }
+    }
+
+    private static Set<String> queryTokens(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String token : TOKEN_SPLIT.split(text)) {
+            if (!token.isEmpty() && !STOP_WORDS.contains(token)) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static List<String> rowTokens(String cell) {
+        List<String> tokens = new ArrayList<>();
+        String lower = cell.toLowerCase(Locale.ROOT);
+        for (String token : TOKEN_SPLIT.split(lower)) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        // ISO dates also index their month name and year
+        if (lower.length() >= 10 && Character.isDigit(lower.charAt(0)) && lower.charAt(4) == '-') {
+            try {
+                LocalDate date = LocalDate.parse(lower.substring(0, 10));
+                tokens.add(date.getMonth().getDisplayName(TextStyle.FULL, Locale.ENGLISH).toLowerCase(Locale.ROOT));
+                tokens.add(date.getMonth().getDisplayName(TextStyle.SHORT, Locale.ENGLISH).toLowerCase(Locale.ROOT));
+            } catch (DateTimeParseException e) {
+                // Not an ISO date
+            }
+        }
+        return tokens;
+    }
+
+    private static String clean(String value) {
+        return value.trim().replace("\"", "");
+    }
+
+    private record RangePattern(int column, String phrase, Pattern pattern) {
+    }
+
+    private record NumericRange(int column, double min, double max, boolean minInclusive, boolean maxInclusive) {
+        boolean contains(double value) {
+            if (Double.isNaN(value)) {
+                return false;
+            }
+            boolean aboveMin = minInclusive ? value >= min : value > min;
+            boolean belowMax = maxInclusive ? value <= max : value < max;
+            return aboveMin && belowMax;
+        }
+    }
+
+    /**
+     * Growable parallel arrays of row ids and term frequencies for one term
+     */
+    private static final class Postings {
+        private int[] rows = new int[4];
+        private int[] frequencies = new int[4];
+        private int size;
+
+        void add(int row, int frequency) {
+            if (size == rows.length) {
+                rows = Arrays.copyOf(rows, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            rows[size] = row;
+            frequencies[size] = frequency;
+            size++;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.sme.analytics.util;
+
+import java.util.Locale;
+import java.util.OptionalLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 64-bit SimHash of a text over its words and two-word shingles.
+ * Texts that share most shingles get signatures that differ in only a few bits, so near
+ * duplicates (the same story with a reworded title or an extra sentence) are found by
+ * Hamming distance instead of by comparing the texts.
+ */
+public final class SimHash {
+
+    private static final Pattern WORD = Pattern.compile("[\\p{L}\\p{N}]+");
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private SimHash() {
+    }
+
+    /**
+     * Signature of the text, or empty when it has fewer than minWords words (too short to compare reliably)
+     */
+    public static OptionalLong of(String text, int minWords) {
+        if (text == null) {
+            return OptionalLong.empty();
+        }
+        int[] votes = new int[64];
+        int words = 0;
+        long previous = 0;
+        Matcher matcher = WORD.matcher(text);
+        while (matcher.find()) {
+            long word = fnv(FNV_OFFSET, matcher.group().toLowerCase(Locale.ROOT));
+            vote(votes, mix(word));
+            if (words > 0) {
+                vote(votes, mix(previous * 31 + word));
+            }
+            previous = word;
+            words++;
+        }
+        if (words < Math.max(2, minWords)) {
+            return OptionalLong.empty();
+        }
+        long signature = 0;
+        for (int bit = 0; bit < 64; bit++) {
+            if (votes[bit] > 0) {
+                signature |= 1L << bit;
+            }
+        }
+        return OptionalLong.of(signature);
+    }
+
+    public static int distance(long a, long b) {
+        return Long.bitCount(a ^ b);
+    }
+
+    private static void vote(int[] votes, long hash) {
+        for (int bit = 0; bit < 64; bit++) {
+            votes[bit] += ((hash >>> bit) & 1L) != 0 ? 1 : -1;
+        }
+    }
+
+    private static long fnv(long hash, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+
+    // SplitMix64 finalizer: spreads FNV's weak high bits over all 64 bits
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,109 @@
+package com.sme.analytics.util;
+
+import java.util.Arrays;
+import java.util.OptionalLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Finds a stored 64-bit SimHash within a small Hamming distance of a query signature,
+ * without comparing against every stored signature.
+ * Signatures are split into {@value #BANDS} bands of 16 bits (LSH banding). Two signatures that
+ * differ in at most BANDS - 1 bits agree exactly on at least one band, so only entries sharing
+ * a band value need checking: about BANDS * size / 65536 candidates per lookup.
+ * Entries are held in parallel primitive arrays; thread-safe.
+ */
+public final class SimHashIndex {
+
+    private static final int BANDS = 4;
+    private static final int BAND_BITS = 16;
+    private static final int BUCKETS = 1 << BAND_BITS;
+
+    private final int maxDistance;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private long[] signatures = new long[1024];
+    private long[] values = new long[1024];
+    private int size;
+    // Per band and band value: indexes of the entries in that bucket
+    private final int[][][] buckets = new int[BANDS][BUCKETS][];
+    private final int[][] bucketSizes = new int[BANDS][BUCKETS];
+
+    /**
+     * @param maxDistance largest Hamming distance that counts as a match; at most {@value #BANDS} - 1
+     */
+    public SimHashIndex(int maxDistance) {
+        if (maxDistance < 0 || maxDistance >= BANDS) {
+            throw new IllegalArgumentException("maxDistance must be between 0 and " + (BANDS - 1));
+        }
+        this.maxDistance = maxDistance;
+    }
+
+    public void add(long signature, long value) {
+        lock.writeLock().lock();
+        try {
+            if (size == signatures.length) {
+                signatures = Arrays.copyOf(signatures, size * 2);
+                values = Arrays.copyOf(values, size * 2);
+            }
+            signatures[size] = signature;
+            values[size] = value;
+            for (int band = 0; band < BANDS; band++) {
+                int key = band(signature, band);
+                int[] bucket = buckets[band][key];
+                int count = bucketSizes[band][key];
+                if (bucket == null) {
+                    bucket = new int[4];
+                } else if (count == bucket.length) {
+                    bucket = Arrays.copyOf(bucket, count * 2);
+                }
+                bucket[count] = size;
+                buckets[band][key] = bucket;
+                bucketSizes[band][key] = count + 1;
+            }
+            size++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Value of the closest stored signature within maxDistance; ties go to the earliest added
+     */
+    public OptionalLong findNearest(long signature) {
+        lock.readLock().lock();
+        try {
+            int best = -1;
+            int bestDistance = maxDistance + 1;
+            for (int band = 0; band < BANDS; band++) {
+                int key = band(signature, band);
+                int[] bucket = buckets[band][key];
+                int count = bucketSizes[band][key];
+                for (int i = 0; i < count; i++) {
+                    int entry = bucket[i];
+                    int distance = Long.bitCount(signatures[entry] ^ signature);
+                    if (distance < bestDistance || (distance == bestDistance && entry < best)) {
+                        best = entry;
+                        bestDistance = distance;
+                    }
+                }
+            }
+            return best >= 0 ? OptionalLong.of(values[best]) : OptionalLong.empty();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static int band(long signature, int band) {
+        return (int) (signature >>> (band * BAND_BITS)) & (BUCKETS - 1);
+    }
+}
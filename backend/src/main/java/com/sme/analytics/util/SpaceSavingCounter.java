@@ -0,0 +1,106 @@
+package com.sme.analytics.util;
+
+import java.util.*;
+
+/**
+ * Space-Saving heavy-hitters summary (Metwally et al.) over a stream of string items.
+ * At most {@code capacity} items are tracked; when a new item arrives and the summary is
+ * full, it replaces the item with the smallest count and inherits that count as its error.
+ * Any item whose true frequency exceeds total/capacity is guaranteed to be tracked, and
+ * every reported count overestimates the true count by at most its error.
+ * Not thread-safe.
+ */
+public final class SpaceSavingCounter {
+
+    private final int capacity;
+    private final Map<String, Counter> counters;
+    // Ordered by count, then insertion sequence, so the first entry is the eviction candidate
+    private final TreeSet<Counter> byCount = new TreeSet<>(
+        Comparator.comparingLong((Counter counter) -> counter.count).thenComparingLong(counter -> counter.sequence));
+    private long nextSequence;
+    private long total;
+
+    public SpaceSavingCounter(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.counters = new HashMap<>(capacity * 2);
+    }
+
+    public void add(String item) {
+        add(item, 1);
+    }
+
+    public void add(String item, long weight) {
+        total += weight;
+        Counter counter = counters.get(item);
+        if (counter != null) {
+            byCount.remove(counter);
+            counter.count += weight;
+            byCount.add(counter);
+            return;
+        }
+        if (counters.size() < capacity) {
+            counter = new Counter(item, weight, 0, nextSequence++);
+        } else {
+            Counter evicted = byCount.pollFirst();
+            counters.remove(evicted.item);
+            counter = new Counter(item, evicted.count + weight, evicted.count, nextSequence++);
+        }
+        counters.put(item, counter);
+        byCount.add(counter);
+    }
+
+    /**
+     * Tracked items with the highest estimated counts, highest first
+     */
+    public List<Estimate> top(int limit) {
+        List<Estimate> result = new ArrayList<>(Math.min(limit, counters.size()));
+        for (Iterator<Counter> it = byCount.descendingIterator(); it.hasNext() && result.size() < limit; ) {
+            Counter counter = it.next();
+            result.add(new Estimate(counter.item, counter.count, counter.error));
+        }
+        return result;
+    }
+
+    /**
+     * All tracked items, in no particular order
+     */
+    public Collection<Estimate> estimates() {
+        List<Estimate> result = new ArrayList<>(counters.size());
+        counters.values().forEach(counter -> result.add(new Estimate(counter.item, counter.count, counter.error)));
+        return result;
+    }
+
+    /**
+     * Number of items added, including those no longer tracked
+     */
+    public long total() {
+        return total;
+    }
+
+    public int size() {
+        return counters.size();
+    }
+
+    /**
+     * Estimated count of an item; count - error is a lower bound on its true frequency
+     */
+    public record Estimate(String item, long count, long error) {
+    }
+
+    private static final class Counter {
+        private final String item;
+        private final long error;
+        private final long sequence;
+        private long count;
+
+        Counter(String item, long count, long error, long sequence) {
+            this.item = item;
+            this.count = count;
+            this.error = error;
+            this.sequence = sequence;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.sme.analytics.util;
+
+import java.util.Arrays;
+
+/**
+ * Fixed number of consecutive time buckets holding a running sum and count each.
+ * Bucket keys are caller-defined period numbers (e.g. minutes since the epoch); a slot
+ * is cleared when a newer period reuses it, and values older than the ring are dropped.
+ * Not thread-safe.
+ */
+public final class TimeBucketRing {
+
+    private final long[] keys;
+    private final double[] sums;
+    private final long[] counts;
+
+    public TimeBucketRing(int size) {
+        this.keys = new long[size];
+        this.sums = new double[size];
+        this.counts = new long[size];
+        Arrays.fill(keys, Long.MIN_VALUE);
+    }
+
+    public int size() {
+        return keys.length;
+    }
+
+    /**
+     * Add a value to the bucket for the given period; ignored if the period has already left the ring
+     */
+    public void add(long key, double value) {
+        add(key, value, 1);
+    }
+
+    /**
+     * Add a pre-aggregated sum and count to the bucket for the given period
+     */
+    public void add(long key, double sum, long count) {
+        int index = (int) Math.floorMod(key, (long) keys.length);
+        if (keys[index] < key) {
+            keys[index] = key;
+            sums[index] = 0;
+            counts[index] = 0;
+        } else if (keys[index] > key) {
+            return;
+        }
+        sums[index] += sum;
+        counts[index] += count;
+    }
+
+    /**
+     * Newest period held, or Long.MIN_VALUE if the ring is empty
+     */
+    public long latest() {
+        long latest = Long.MIN_VALUE;
+        for (long key : keys) {
+            latest = Math.max(latest, key);
+        }
+        return latest;
+    }
+
+    /**
+     * Sum of the buckets for periods from..to inclusive, as {sum, count}
+     */
+    public double[] total(long from, long to) {
+        double sum = 0;
+        long count = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] >= from && keys[i] <= to) {
+                sum += sums[i];
+                count += counts[i];
+            }
+        }
+        return new double[] {sum, count};
+    }
+
+    /**
+     * Sum and count of a single period, or null if the ring holds nothing for it
+     */
+    public double[] bucket(long key) {
+        int index = (int) Math.floorMod(key, (long) keys.length);
+        if (keys[index] != key) {
+            return null;
+        }
+        return new double[] {sums[index], counts[index]};
+    }
+}
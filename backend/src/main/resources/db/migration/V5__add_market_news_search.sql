@@ -0,0 +1,10 @@
+-- Full-text search over market news: weighted tsvector (title A, keywords B, summary C) with a GIN index.
+-- Idempotent; also applied at startup by MarketNewsSearchRepository because market_news is created by Hibernate.
+ALTER TABLE market_news ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('english'::regconfig, coalesce(title, '')), 'A') ||
+        setweight(to_tsvector('english'::regconfig, coalesce(keywords, '')), 'B') ||
+        setweight(to_tsvector('english'::regconfig, coalesce(summary, '')), 'C')
+    ) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_market_news_search_vector ON market_news USING GIN (search_vector);
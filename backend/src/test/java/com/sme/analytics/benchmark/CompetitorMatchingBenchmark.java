@@ -0,0 +1,98 @@
+package com.sme.analytics.benchmark;
+
+import com.sme.analytics.util.AhoCorasickMatcher;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares tagging one news item with competitors by checking every competitor keyword
+ * in turn against a single Aho-Corasick scan over all keywords.
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ *   -Dexec.mainClass=com.sme.analytics.benchmark.CompetitorMatchingBenchmark
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CompetitorMatchingBenchmark {
+
+    private static final int KEYWORDS_PER_COMPETITOR = 3;
+
+    @Param({"10000"})
+    private int competitorCount;
+
+    private List<String> keywords;
+    private List<Integer> keywordOwners;
+    private AhoCorasickMatcher<Integer> matcher;
+    private String text;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        keywords = new ArrayList<>();
+        keywordOwners = new ArrayList<>();
+        AhoCorasickMatcher.Builder<Integer> builder = AhoCorasickMatcher.builder();
+        for (int competitor = 0; competitor < competitorCount; competitor++) {
+            for (int k = 0; k < KEYWORDS_PER_COMPETITOR; k++) {
+                String keyword = randomWord(random) + (k == 0 ? "" : " " + randomWord(random));
+                keywords.add(keyword);
+                keywordOwners.add(competitor);
+                builder.add(keyword, competitor);
+            }
+        }
+        matcher = builder.build();
+
+        // A typical title plus summary mentioning two competitors
+        StringBuilder article = new StringBuilder("Quarterly update: ");
+        for (int word = 0; word < 80; word++) {
+            article.append(randomWord(random)).append(' ');
+            if (word == 20 || word == 60) {
+                article.append(keywords.get(random.nextInt(keywords.size()))).append(' ');
+            }
+        }
+        text = article.toString();
+    }
+
+    /** One case-insensitive substring search per keyword, as a straightforward implementation would do */
+    @Benchmark
+    public void match_keywordLoop(Blackhole blackhole) {
+        String lower = text.toLowerCase(Locale.ROOT);
+        for (int i = 0; i < keywords.size(); i++) {
+            if (lower.contains(keywords.get(i))) {
+                blackhole.consume(keywordOwners.get(i));
+            }
+        }
+    }
+
+    /** A single pass over the text with the automaton */
+    @Benchmark
+    public void match_ahoCorasick(Blackhole blackhole) {
+        matcher.match(text, (competitor, start, end) -> blackhole.consume(competitor));
+    }
+
+    private static String randomWord(Random random) {
+        int length = 4 + random.nextInt(6);
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = (char) ('a' + random.nextInt(26));
+        }
+        return new String(chars);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(CompetitorMatchingBenchmark.class.getSimpleName())
+            .build();
+        new Runner(options).run();
+    }
+}
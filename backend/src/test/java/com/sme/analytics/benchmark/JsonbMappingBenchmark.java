@@ -0,0 +1,271 @@
+package com.sme.analytics.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.hypersistence.utils.hibernate.type.json.JsonBinaryType;
+import jakarta.persistence.*;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.hibernate.annotations.Type;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the chat read paths with JSONB columns held as String (parsed with a
+ * TypeReference on every read) against typed columns that Hibernate converts when
+ * the entity is loaded.
+ * Both variants go through a Hibernate session against PostgreSQL, so each pays for the
+ * query, hydration, the snapshot Hibernate keeps for dirty checking and the dirty check at
+ * commit. The read-only variant shows the typed mapping in a read-only transaction, where
+ * no snapshot is kept and nothing is flushed.
+ *
+ * Needs Docker for the PostgreSQL container. Run with: mvn test-compile exec:java
+ *   -Dexec.classpathScope=test -Dexec.mainClass=com.sme.analytics.benchmark.JsonbMappingBenchmark
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonbMappingBenchmark {
+
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {};
+    private static final long CONVERSATION_ID = 1L;
+    private static final long FILE_ID = 1L;
+
+    @Param({"50"})
+    private int messageCount;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private PostgreSQLContainer<?> postgres;
+    private SessionFactory sessionFactory;
+
+    @Setup
+    public void setUp() throws Exception {
+        postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+        postgres.start();
+        sessionFactory = new Configuration()
+            .addAnnotatedClass(TextMessage.class)
+            .addAnnotatedClass(TypedMessage.class)
+            .addAnnotatedClass(TextStatisticsFile.class)
+            .addAnnotatedClass(TypedStatisticsFile.class)
+            .setProperty("hibernate.connection.url", postgres.getJdbcUrl())
+            .setProperty("hibernate.connection.username", postgres.getUsername())
+            .setProperty("hibernate.connection.password", postgres.getPassword())
+            .setProperty("hibernate.hbm2ddl.auto", "create-drop")
+            .buildSessionFactory();
+
+        Map<String, Object> statistics = new HashMap<>();
+        for (int column = 0; column < 20; column++) {
+            statistics.put("Column_" + column, Map.of(
+                "count", 1000, "sum", 52340.5, "average", 52.34, "min", 1.0, "max", 99.5));
+        }
+
+        // Identical rows for both mappings
+        try (Session session = sessionFactory.openSession()) {
+            Transaction transaction = session.beginTransaction();
+            for (long i = 1; i <= messageCount; i++) {
+                Map<String, Object> metadata = new HashMap<>();
+                metadata.put("confidence", "high");
+                metadata.put("referenced_data", Map.of("column", "Revenue", "statistic", "average", "value", 1234.5 + i));
+                metadata.put("suggestions", List.of(
+                    "What is the trend of Revenue over time?",
+                    "Which records have the highest Revenue?"));
+                session.persist(new TextMessage(i, CONVERSATION_ID, "Answer " + i, objectMapper.writeValueAsString(metadata)));
+                session.persist(new TypedMessage(i, CONVERSATION_ID, "Answer " + i, metadata));
+            }
+            session.persist(new TextStatisticsFile(FILE_ID, objectMapper.writeValueAsString(statistics)));
+            session.persist(new TypedStatisticsFile(FILE_ID, statistics));
+            transaction.commit();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        sessionFactory.close();
+        postgres.stop();
+    }
+
+    /** Message listing with metadata stored as a JSON string: load, parse each row, serialize the response */
+    @Benchmark
+    public byte[] listMessages_stringColumn() throws Exception {
+        return inTransaction(false, session -> {
+            List<Map<String, Object>> response = new ArrayList<>(messageCount);
+            for (TextMessage message : session.createQuery(
+                    "from TextMessage m where m.conversationId = :id order by m.id", TextMessage.class)
+                .setParameter("id", CONVERSATION_ID)
+                .getResultList()) {
+                Map<String, Object> entry = new HashMap<>();
+                entry.put("content", message.content);
+                entry.put("metadata", objectMapper.readValue(message.metadata, MAP_TYPE));
+                response.add(entry);
+            }
+            return objectMapper.writeValueAsBytes(response);
+        });
+    }
+
+    /** Message listing with typed metadata: load and serialize the response */
+    @Benchmark
+    public byte[] listMessages_typedColumn() throws Exception {
+        return inTransaction(false, this::listTypedMessages);
+    }
+
+    /** Message listing with typed metadata in a read-only transaction */
+    @Benchmark
+    public byte[] listMessages_typedColumnReadOnly() throws Exception {
+        return inTransaction(true, this::listTypedMessages);
+    }
+
+    /** Statistics lookup for the chat fast path when stored as a JSON string */
+    @Benchmark
+    public Object readStatistics_stringColumn() throws Exception {
+        return inTransaction(false, session ->
+            objectMapper.readValue(session.get(TextStatisticsFile.class, FILE_ID).statistics, MAP_TYPE).get("Column_7"));
+    }
+
+    /** Statistics lookup for the chat fast path with a typed column */
+    @Benchmark
+    public Object readStatistics_typedColumn() throws Exception {
+        return inTransaction(false, session -> session.get(TypedStatisticsFile.class, FILE_ID).statistics.get("Column_7"));
+    }
+
+    /** Statistics lookup for the chat fast path with a typed column in a read-only transaction */
+    @Benchmark
+    public Object readStatistics_typedColumnReadOnly() throws Exception {
+        return inTransaction(true, session -> session.get(TypedStatisticsFile.class, FILE_ID).statistics.get("Column_7"));
+    }
+
+    private byte[] listTypedMessages(Session session) throws Exception {
+        List<Map<String, Object>> response = new ArrayList<>(messageCount);
+        for (TypedMessage message : session.createQuery(
+                "from TypedMessage m where m.conversationId = :id order by m.id", TypedMessage.class)
+            .setParameter("id", CONVERSATION_ID)
+            .getResultList()) {
+            Map<String, Object> entry = new HashMap<>();
+            entry.put("content", message.content);
+            entry.put("metadata", message.metadata);
+            response.add(entry);
+        }
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    /**
+     * Run the work in a transaction the way Spring does: a read-only transaction loads
+     * entities read-only and never flushes, otherwise commit flushes and dirty-checks
+     */
+    private <T> T inTransaction(boolean readOnly, SessionWork<T> work) throws Exception {
+        try (Session session = sessionFactory.openSession()) {
+            if (readOnly) {
+                session.setDefaultReadOnly(true);
+                session.setHibernateFlushMode(FlushMode.MANUAL);
+            }
+            Transaction transaction = session.beginTransaction();
+            T result = work.apply(session);
+            transaction.commit();
+            return result;
+        }
+    }
+
+    @FunctionalInterface
+    private interface SessionWork<T> {
+        T apply(Session session) throws Exception;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(JsonbMappingBenchmark.class.getSimpleName())
+            .build();
+        new Runner(options).run();
+    }
+
+    @Entity(name = "TextMessage")
+    @Table(name = "benchmark_message_text")
+    static class TextMessage {
+        @Id
+        Long id;
+        Long conversationId;
+        String content;
+        @Type(JsonBinaryType.class)
+        @Column(columnDefinition = "jsonb")
+        String metadata;
+
+        TextMessage() {
+        }
+
+        TextMessage(Long id, Long conversationId, String content, String metadata) {
+            this.id = id;
+            this.conversationId = conversationId;
+            this.content = content;
+            this.metadata = metadata;
+        }
+    }
+
+    @Entity(name = "TypedMessage")
+    @Table(name = "benchmark_message_typed")
+    static class TypedMessage {
+        @Id
+        Long id;
+        Long conversationId;
+        String content;
+        @Type(JsonBinaryType.class)
+        @Column(columnDefinition = "jsonb")
+        Map<String, Object> metadata;
+
+        TypedMessage() {
+        }
+
+        TypedMessage(Long id, Long conversationId, String content, Map<String, Object> metadata) {
+            this.id = id;
+            this.conversationId = conversationId;
+            this.content = content;
+            this.metadata = metadata;
+        }
+    }
+
+    @Entity(name = "TextStatisticsFile")
+    @Table(name = "benchmark_file_text")
+    static class TextStatisticsFile {
+        @Id
+        Long id;
+        @Type(JsonBinaryType.class)
+        @Column(columnDefinition = "jsonb")
+        String statistics;
+
+        TextStatisticsFile() {
+        }
+
+        TextStatisticsFile(Long id, String statistics) {
+            this.id = id;
+            this.statistics = statistics;
+        }
+    }
+
+    @Entity(name = "TypedStatisticsFile")
+    @Table(name = "benchmark_file_typed")
+    static class TypedStatisticsFile {
+        @Id
+        Long id;
+        @Type(JsonBinaryType.class)
+        @Column(columnDefinition = "jsonb")
+        Map<String, Object> statistics;
+
+        TypedStatisticsFile() {
+        }
+
+        TypedStatisticsFile(Long id, Map<String, Object> statistics) {
+            this.id = id;
+            this.statistics = statistics;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.sme.analytics.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.sme.analytics.dto.MessageDTO;
+import com.sme.analytics.dto.MessageListResponse;
+import com.sme.analytics.mapper.MessageMapper;
+import com.sme.analytics.mapper.MessageMapperImpl;
+import com.sme.analytics.model.Conversation;
+import com.sme.analytics.model.Message;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares building and serializing the message listing response as nested HashMaps
+ * (the previous controller code) against the generated mapper and typed records.
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ *   -Dexec.mainClass=com.sme.analytics.benchmark.ResponseSerializationBenchmark
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResponseSerializationBenchmark {
+
+    @Param({"50"})
+    private int messageCount;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+        .registerModule(new JavaTimeModule())
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private final MessageMapper messageMapper = new MessageMapperImpl();
+    private List<Message> messages;
+
+    @Setup
+    public void setUp() {
+        Conversation conversation = new Conversation();
+        conversation.setId(7L);
+
+        messages = new ArrayList<>();
+        for (int i = 0; i < messageCount; i++) {
+            Message message = new Message();
+            message.setId((long) i);
+            message.setConversation(conversation);
+            message.setSenderType(i % 2 == 0 ? "USER" : "AI");
+            message.setContent("The average Revenue is 1,234.5 for the selected period (" + i + ").");
+            message.setCreatedAt(LocalDateTime.of(2024, 3, 1, 12, 0).plusMinutes(i));
+            message.setMetadata(Map.of(
+                "confidence", "high",
+                "suggestions", List.of("What is the trend of Revenue over time?")));
+            messages.add(message);
+        }
+    }
+
+    /** Previous approach: HashMap per message and for the envelope */
+    @Benchmark
+    public byte[] hashMapPayload() throws Exception {
+        List<Map<String, Object>> dtos = new ArrayList<>(messages.size());
+        for (Message message : messages) {
+            Map<String, Object> map = new HashMap<>();
+            map.put("id", message.getId());
+            map.put("conversationId", message.getConversation().getId());
+            map.put("senderType", message.getSenderType());
+            map.put("content", message.getContent());
+            map.put("createdAt", message.getCreatedAt().toString());
+            map.put("metadata", message.getMetadata());
+            dtos.add(map);
+        }
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("messages", dtos);
+        response.put("count", dtos.size());
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    /** Generated mapper and typed response record */
+    @Benchmark
+    public byte[] typedPayload() throws Exception {
+        List<MessageDTO> dtos = messageMapper.toDtos(messages);
+        return objectMapper.writeValueAsBytes(MessageListResponse.of(dtos));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(ResponseSerializationBenchmark.class.getSimpleName())
+            .build();
+        new Runner(options).run();
+    }
+}
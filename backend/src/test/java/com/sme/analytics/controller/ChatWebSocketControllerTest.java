@@ -0,0 +1,103 @@
+package com.sme.analytics.controller;
+
+import com.sme.analytics.dto.SendMessageRequest;
+import com.sme.analytics.service.ChatEventPublisher;
+import com.sme.analytics.service.ChatService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ChatWebSocketControllerTest {
+
+    private ChatService chatService;
+    private ChatEventPublisher chatEventPublisher;
+    private ChatWebSocketController controller;
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        chatService = mock(ChatService.class);
+        chatEventPublisher = mock(ChatEventPublisher.class);
+        controller = new ChatWebSocketController(chatService, chatEventPublisher, 2);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        release.countDown();
+        controller.shutdown();
+    }
+
+    @Test
+    void rejectsMessagesBeyondTheConcurrencyLimit() {
+        // Arrange: answers block until released
+        when(chatService.sendMessage(anyLong(), anyString())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        });
+
+        // Act
+        controller.sendMessage(1L, request("first"));
+        controller.sendMessage(2L, request("second"));
+        controller.sendMessage(3L, request("third"));
+
+        // Assert
+        verify(chatEventPublisher).error(eq(3L), anyString());
+        verify(chatEventPublisher, never()).typing(3L);
+        verify(chatService, timeout(2000)).sendMessage(1L, "first");
+        verify(chatService, timeout(2000)).sendMessage(2L, "second");
+        verify(chatService, never()).sendMessage(3L, "third");
+    }
+
+    @Test
+    void releasesPermitsWhenAnswersFinishOrFail() throws InterruptedException {
+        // Arrange
+        when(chatService.sendMessage(1L, "fails")).thenThrow(new RuntimeException("boom"));
+
+        // Act: more messages than permits, one at a time
+        for (int i = 0; i < 4; i++) {
+            controller.sendMessage(1L, request(i % 2 == 0 ? "fails" : "works"));
+            verify(chatService, timeout(2000).times(i + 1)).sendMessage(eq(1L), anyString());
+            Thread.sleep(20);
+        }
+
+        // Assert
+        verify(chatEventPublisher, times(2)).error(1L, "boom");
+        verify(chatEventPublisher, times(4)).typing(1L);
+    }
+
+    @Test
+    void shutdownWaitsForInFlightAnswersAndRejectsNewOnes() throws InterruptedException {
+        // Arrange
+        CountDownLatch started = new CountDownLatch(1);
+        when(chatService.sendMessage(anyLong(), anyString())).thenAnswer(invocation -> {
+            started.countDown();
+            Thread.sleep(100);
+            return null;
+        });
+        controller.sendMessage(1L, request("in flight"));
+        assertTrue(started.await(2, TimeUnit.SECONDS));
+
+        // Act
+        controller.shutdown();
+        controller.sendMessage(2L, request("too late"));
+
+        // Assert
+        verify(chatService).sendMessage(1L, "in flight");
+        verify(chatService, never()).sendMessage(2L, "too late");
+        verify(chatEventPublisher).error(eq(2L), anyString());
+    }
+
+    private static SendMessageRequest request(String message) {
+        SendMessageRequest request = new SendMessageRequest();
+        request.setMessage(message);
+        return request;
+    }
+}
@@ -0,0 +1,128 @@
+package com.sme.analytics.controller;
+
+import com.sme.analytics.config.SecurityConfig;
+import com.sme.analytics.service.KeywordTrendTracker;
+import com.sme.analytics.service.MarketIntelligenceService;
+import com.sme.analytics.service.NewsSearchIndex;
+import com.sme.analytics.service.NewsSelection;
+import com.sme.analytics.service.PriceMonitorService;
+import com.sme.analytics.service.SentimentTimeSeries;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(MarketIntelligenceController.class)
+@Import(SecurityConfig.class)
+class MarketIntelligenceControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private MarketIntelligenceService marketIntelligenceService;
+
+    @MockBean
+    private KeywordTrendTracker keywordTrendTracker;
+
+    @MockBean
+    private SentimentTimeSeries sentimentTimeSeries;
+
+    @MockBean
+    private NewsSearchIndex newsSearchIndex;
+
+    @MockBean
+    private PriceMonitorService priceMonitorService;
+
+    @Test
+    void testMarkNewsRead_ByIds() throws Exception {
+        // Arrange
+        when(marketIntelligenceService.setRead(any(), anyBoolean())).thenReturn(3);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/market-intelligence/news/read", "{\"ids\": [1, 2, 3]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.updated").value(3));
+        verify(marketIntelligenceService).setRead(NewsSelection.byIds(List.of(1L, 2L, 3L)), true);
+    }
+
+    @Test
+    void testMarkNewsRead_ByFilter() throws Exception {
+        // Arrange
+        when(marketIntelligenceService.setRead(any(), anyBoolean())).thenReturn(5);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/market-intelligence/news/read",
+                        "{\"category\": \"market\", \"before\": \"2026-10-01T00:00:00\", \"value\": false}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updated").value(5));
+        verify(marketIntelligenceService).setRead(
+                NewsSelection.byFilter("MARKET", LocalDateTime.of(2026, 10, 1, 0, 0)), false);
+    }
+
+    @Test
+    void testMarkNewsRead_RejectsEmptySelection() throws Exception {
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/market-intelligence/news/read", "{\"category\": \" \"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success").value(false));
+        verifyNoInteractions(marketIntelligenceService);
+    }
+
+    @Test
+    void testBookmarkNews_ByFilter() throws Exception {
+        // Arrange
+        when(marketIntelligenceService.setBookmarked(any(), anyBoolean())).thenReturn(2);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/market-intelligence/news/bookmark", "{\"category\": \"COMPETITOR\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updated").value(2));
+        verify(marketIntelligenceService).setBookmarked(NewsSelection.byFilter("COMPETITOR", null), true);
+    }
+
+    @Test
+    void testBookmarkNews_RejectsEmptyAndMixedSelections() throws Exception {
+        // Act & Assert
+        mockMvc.perform(post("/api/v1/market-intelligence/news/bookmark", "{}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Give ids or at least one of category/before"));
+        mockMvc.perform(post("/api/v1/market-intelligence/news/bookmark", "{\"ids\": [1], \"category\": \"MARKET\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Use either ids or category/before, not both"));
+        verifyNoInteractions(marketIntelligenceService);
+    }
+
+    @Test
+    void testCors_AllowsOnlyConfiguredOrigins() throws Exception {
+        // Act & Assert
+        mockMvc.perform(MockMvcRequestBuilders.options("/api/v1/market-intelligence/news/read")
+                        .header("Origin", "http://localhost:3000")
+                        .header("Access-Control-Request-Method", "POST"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Access-Control-Allow-Origin", "http://localhost:3000"));
+        mockMvc.perform(MockMvcRequestBuilders.options("/api/v1/market-intelligence/news/read")
+                        .header("Origin", "https://evil.example")
+                        .header("Access-Control-Request-Method", "POST"))
+                .andExpect(status().isForbidden());
+    }
+
+    private static MockHttpServletRequestBuilder post(String path, String body) {
+        return MockMvcRequestBuilders.post(path)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body);
+    }
+}
@@ -0,0 +1,287 @@
+package com.sme.analytics.load;
+
+import com.sme.analytics.mapper.MessageMapper;
+import com.sme.analytics.model.Conversation;
+import com.sme.analytics.model.UploadedFile;
+import com.sme.analytics.repository.ConversationRepository;
+import com.sme.analytics.repository.MessageRepository;
+import com.sme.analytics.service.ChatAnswerCoalescer;
+import com.sme.analytics.service.ChatService;
+import com.sme.analytics.service.DocumentContextBuilder;
+import com.sme.analytics.service.MlServiceClient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.coyote.AbstractProtocol;
+import org.apache.tomcat.util.threads.VirtualThreadExecutor;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServer;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Load tests for the virtual-thread execution mode.
+ * The first compares the default Tomcat platform-thread pool (200 threads) with the
+ * virtual-thread executor that spring.threads.virtual.enabled installs, on a servlet that
+ * blocks for as long as a typical ML call. It counts platform threads, each of which
+ * reserves its own stack, rather than measuring memory.
+ * Virtual threads only remove the Tomcat ceiling: chat also needs a database connection
+ * (DB_POOL_SIZE, 20 by default) and an ML bulkhead permit. The second test drives
+ * ChatService.sendMessage with a 20-connection pool to check that connections are not
+ * held across the ML call, so the pool does not cap concurrent chats.
+ * Run with: mvn test -Pload-test
+ */
+@Tag("load")
+class VirtualThreadLoadTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadLoadTest.class);
+
+    private static final int PLATFORM_MAX_THREADS = 200;
+    private static final int DB_POOL_SIZE = 20;
+    private static final int CONCURRENT_REQUESTS = 1000;
+    private static final long BLOCKING_MILLIS = 200;
+
+    @Test
+    void testVirtualThreads_ScalePastPlatformPoolCeiling() throws Exception {
+        // Arrange & Act
+        LoadResult platform = runLoad(false);
+        LoadResult virtual = runLoad(true);
+
+        logger.info("platform: {} ms, peak in flight {}, peak threads {}",
+            platform.elapsedMillis(), platform.peakInFlight(), platform.peakThreads());
+        logger.info("virtual: {} ms, peak in flight {}, peak threads {}",
+            virtual.elapsedMillis(), virtual.peakInFlight(), virtual.peakThreads());
+
+        // Assert - the platform pool blocks at most 200 requests at once, virtual threads are not capped.
+        // Wall time is logged only: on few cores it is dominated by connection handling, not blocking.
+        assertTrue(platform.peakInFlight() <= PLATFORM_MAX_THREADS,
+            "Platform pool should be capped at " + PLATFORM_MAX_THREADS + " concurrent requests");
+        assertTrue(virtual.peakInFlight() > PLATFORM_MAX_THREADS,
+            "Virtual threads should not be bound by the pool ceiling, peak was " + virtual.peakInFlight());
+        // Each platform thread reserves its own stack; virtual threads run on a few carriers
+        assertTrue(virtual.peakThreads() < platform.peakThreads(),
+            "Virtual threads should not create more platform threads than the fixed pool");
+    }
+
+    @Test
+    void testChatMessages_NotCappedByConnectionPool() throws Exception {
+        // Arrange - every ML answer blocks, every transaction holds one of 20 connections
+        PooledTransactionManager transactionManager = new PooledTransactionManager(DB_POOL_SIZE);
+        AtomicInteger mlInFlight = new AtomicInteger();
+        AtomicInteger peakMlInFlight = new AtomicInteger();
+        ChatService chatService = chatService(transactionManager, () -> {
+            peakMlInFlight.accumulateAndGet(mlInFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(BLOCKING_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                mlInFlight.decrementAndGet();
+            }
+        });
+
+        // Act
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<CompletableFuture<Void>> chats = new ArrayList<>();
+            for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+                String question = "Question " + i;
+                chats.add(CompletableFuture.runAsync(() -> chatService.sendMessage(1L, question), executor));
+            }
+            CompletableFuture.allOf(chats.toArray(new CompletableFuture[0])).join();
+        }
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        logger.info("chat: {} ms for {} messages, peak ML calls in flight {}, peak connections {}",
+            elapsedMillis, CONCURRENT_REQUESTS, peakMlInFlight.get(), transactionManager.peakConnections());
+
+        // Assert - holding a connection across the ML call would cap ML calls at the pool size
+        assertEquals(2 * CONCURRENT_REQUESTS, transactionManager.commits());
+        assertTrue(transactionManager.peakConnections() <= DB_POOL_SIZE);
+        assertTrue(peakMlInFlight.get() > DB_POOL_SIZE,
+            "Chat messages should not be capped at " + DB_POOL_SIZE + " concurrent ML calls, peak was " + peakMlInFlight.get());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ChatService chatService(PlatformTransactionManager transactionManager, Runnable mlCall) {
+        UploadedFile uploadedFile = new UploadedFile();
+        uploadedFile.setId(1L);
+        Conversation conversation = new Conversation();
+        conversation.setId(1L);
+        conversation.setUploadedFile(uploadedFile);
+
+        ConversationRepository conversationRepository = mock(ConversationRepository.class);
+        when(conversationRepository.findById(1L)).thenReturn(Optional.of(conversation));
+        MessageRepository messageRepository = mock(MessageRepository.class);
+        when(messageRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(messageRepository.findByConversationIdOrderByCreatedAtAsc(1L)).thenReturn(List.of());
+        DocumentContextBuilder documentContextBuilder = mock(DocumentContextBuilder.class);
+        when(documentContextBuilder.buildRequest(anyString(), any(), anyList())).thenReturn(new byte[0]);
+        ChatAnswerCoalescer chatAnswerCoalescer = mock(ChatAnswerCoalescer.class);
+        when(chatAnswerCoalescer.getOrCompute(any(), any()))
+            .thenAnswer(invocation -> ((Supplier<Map<String, Object>>) invocation.getArgument(1)).get());
+        MlServiceClient mlServiceClient = mock(MlServiceClient.class);
+        when(mlServiceClient.askQuestion(any())).thenAnswer(invocation -> {
+            mlCall.run();
+            return Map.of("answer", "ok", "confidence", "high");
+        });
+
+        ChatService chatService = new ChatService();
+        ReflectionTestUtils.setField(chatService, "conversationRepository", conversationRepository);
+        ReflectionTestUtils.setField(chatService, "messageRepository", messageRepository);
+        ReflectionTestUtils.setField(chatService, "documentContextBuilder", documentContextBuilder);
+        ReflectionTestUtils.setField(chatService, "chatAnswerCoalescer", chatAnswerCoalescer);
+        ReflectionTestUtils.setField(chatService, "mlServiceClient", mlServiceClient);
+        ReflectionTestUtils.setField(chatService, "messageMapper", mock(MessageMapper.class));
+        ReflectionTestUtils.setField(chatService, "eventPublisher", mock(ApplicationEventPublisher.class));
+        ReflectionTestUtils.setField(chatService, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(chatService, "transactionTemplate", new TransactionTemplate(transactionManager));
+        return chatService;
+    }
+
+    private LoadResult runLoad(boolean virtualThreads) throws Exception {
+        TomcatServletWebServerFactory factory = new TomcatServletWebServerFactory(0);
+        factory.addConnectorCustomizers(connector -> {
+            connector.setProperty("acceptCount", String.valueOf(CONCURRENT_REQUESTS));
+            if (!virtualThreads) {
+                ((AbstractProtocol<?>) connector.getProtocolHandler()).setMaxThreads(PLATFORM_MAX_THREADS);
+            }
+        });
+        if (virtualThreads) {
+            factory.addProtocolHandlerCustomizers(handler -> handler.setExecutor(new VirtualThreadExecutor("tomcat-handler-")));
+        }
+        BlockingServlet servlet = new BlockingServlet();
+        WebServer server = factory.getWebServer(context ->
+            context.addServlet("blocking", servlet).addMapping("/blocking"));
+        server.start();
+
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        ExecutorService clientExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .executor(clientExecutor)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+        try {
+            URI uri = URI.create("http://127.0.0.1:" + server.getPort() + "/blocking");
+            threads.resetPeakThreadCount();
+            long start = System.nanoTime();
+
+            List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+            for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+                responses.add(client.sendAsync(HttpRequest.newBuilder(uri).build(), HttpResponse.BodyHandlers.ofString()));
+            }
+            for (CompletableFuture<HttpResponse<String>> response : responses) {
+                assertEquals(200, response.join().statusCode());
+            }
+
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+            return new LoadResult(elapsedMillis, servlet.peakInFlight.get(), threads.getPeakThreadCount());
+        } finally {
+            clientExecutor.shutdownNow();
+            server.stop();
+        }
+    }
+
+    private record LoadResult(long elapsedMillis, int peakInFlight, int peakThreads) {
+    }
+
+    /**
+     * Holds one of a fixed number of connections for the length of each transaction,
+     * like a Hikari pool behind JpaTransactionManager
+     */
+    private static final class PooledTransactionManager implements PlatformTransactionManager {
+        private final Semaphore connections;
+        private final AtomicInteger inUse = new AtomicInteger();
+        private final AtomicInteger peak = new AtomicInteger();
+        private final AtomicInteger commits = new AtomicInteger();
+
+        PooledTransactionManager(int poolSize) {
+            this.connections = new Semaphore(poolSize);
+        }
+
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            connections.acquireUninterruptibly();
+            peak.accumulateAndGet(inUse.incrementAndGet(), Math::max);
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+            commits.incrementAndGet();
+            release();
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+            release();
+        }
+
+        private void release() {
+            inUse.decrementAndGet();
+            connections.release();
+        }
+
+        int peakConnections() {
+            return peak.get();
+        }
+
+        int commits() {
+            return commits.get();
+        }
+    }
+
+    private static final class BlockingServlet extends HttpServlet {
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger peakInFlight = new AtomicInteger();
+
+        @Override
+        protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+            peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                // Stands in for a blocking ML, SMTP or JDBC call
+                Thread.sleep(BLOCKING_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                inFlight.decrementAndGet();
+            }
+            response.setContentType("text/plain");
+            response.getWriter().write("ok");
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.sme.analytics.repository;
+
+import com.sme.analytics.dto.ConversationDTO;
+import com.sme.analytics.model.Conversation;
+import com.sme.analytics.model.Message;
+import com.sme.analytics.model.UploadedFile;
+import com.sme.analytics.model.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class ConversationRepositoryTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private ConversationRepository conversationRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setUsername("chat_user");
+        user.setEmail("chat_user@example.com");
+        user.setPasswordHash("hash");
+        user.setRole("USER");
+        entityManager.persist(user);
+
+        for (int i = 0; i < 5; i++) {
+            UploadedFile file = new UploadedFile();
+            file.setUser(user);
+            file.setSessionId(UUID.randomUUID().toString());
+            file.setFileName("sales_" + i + ".csv");
+            file.setFileType("csv");
+            file.setFileSize(1024L);
+            file.setFileContent("Date,Revenue\n2024-01-01,100\n");
+            entityManager.persist(file);
+
+            Conversation conversation = new Conversation();
+            conversation.setUser(user);
+            conversation.setUploadedFile(file);
+            conversation.setTitle("Chat about " + file.getFileName());
+            conversation.setLastMessageAt(LocalDateTime.now().minusMinutes(i));
+            entityManager.persist(conversation);
+
+            for (int m = 0; m < i; m++) {
+                Message message = new Message();
+                message.setConversation(conversation);
+                message.setSenderType(m % 2 == 0 ? "USER" : "AI");
+                message.setContent("message " + m);
+                entityManager.persist(message);
+            }
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void testFindSummariesByUserId_UsesSingleQuery() {
+        // Arrange
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // Act
+        List<ConversationDTO> summaries = conversationRepository.findSummariesByUserId(user.getId());
+
+        // Assert
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(5, summaries.size());
+        assertEquals("sales_0.csv", summaries.get(0).getFileName());
+        assertEquals(0, summaries.get(0).getMessageCount());
+        assertEquals("sales_4.csv", summaries.get(4).getFileName());
+        assertEquals(4, summaries.get(4).getMessageCount());
+        assertEquals(user.getId(), summaries.get(4).getUserId());
+    }
+
+    @Test
+    void testFindSummaryById_UsesSingleQuery() {
+        // Arrange
+        Long conversationId = conversationRepository.findSummariesByUserId(user.getId()).get(3).getId();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // Act
+        ConversationDTO summary = conversationRepository.findSummaryById(conversationId).orElseThrow();
+
+        // Assert
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals("sales_3.csv", summary.getFileName());
+        assertEquals(3, summary.getMessageCount());
+    }
+}
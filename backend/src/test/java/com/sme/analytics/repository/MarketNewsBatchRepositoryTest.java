@@ -0,0 +1,116 @@
+package com.sme.analytics.repository;
+
+import com.sme.analytics.model.MarketNews;
+import com.sme.analytics.util.UrlHashes;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(MarketNewsBatchRepository.class)
+@Testcontainers(disabledWithoutDocker = true)
+class MarketNewsBatchRepositoryTest {
+
+    private static final LocalDateTime FETCHED_AT = LocalDateTime.of(2026, 10, 1, 12, 0);
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private MarketNewsBatchRepository batchRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private MarketNews stored;
+
+    @BeforeEach
+    void setUp() {
+        stored = news("https://news.example/stored");
+        stored.setTitle("Stored");
+        entityManager.persist(stored);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void batchInsertSkipsConflictingUrlHashes() {
+        // Arrange - five batches of two, one item conflicting with the stored row
+        List<MarketNews> batch = new ArrayList<>();
+        for (int i = 0; i < 9; i++) {
+            batch.add(news("https://news.example/" + i));
+        }
+        batch.add(4, news("https://news.example/stored"));
+
+        // Act
+        List<MarketNews> inserted = batchRepository.insertIgnoringDuplicates(batch, 2);
+
+        // Assert
+        assertEquals(9, inserted.size());
+        assertTrue(inserted.stream().noneMatch(item -> item.getUrl().endsWith("/stored")));
+        assertTrue(inserted.stream().allMatch(item -> item.getId() != null && !item.getId().equals(stored.getId())));
+        assertEquals(10, jdbcTemplate.queryForObject("SELECT count(*) FROM market_news", Long.class));
+        assertEquals("Stored", jdbcTemplate.queryForObject(
+            "SELECT title FROM market_news WHERE url_hash = ?", String.class, stored.getUrlHash()));
+    }
+
+    @Test
+    void insertingTheSameBatchTwiceStoresItOnce() {
+        // Arrange
+        List<MarketNews> batch = List.of(news("https://news.example/a"), news("https://news.example/b"));
+
+        // Act
+        List<MarketNews> first = batchRepository.insertIgnoringDuplicates(batch, 10);
+        List<MarketNews> second = batchRepository.insertIgnoringDuplicates(
+            List.of(news("https://news.example/a"), news("https://news.example/b")), 10);
+
+        // Assert
+        assertEquals(2, first.size());
+        assertTrue(second.isEmpty());
+        assertEquals(3, jdbcTemplate.queryForObject("SELECT count(*) FROM market_news", Long.class));
+    }
+
+    @Test
+    void findsExistingUrlHashes() {
+        // Act
+        Set<String> existing = batchRepository.findExistingUrlHashes(
+            List.of(stored.getUrlHash(), UrlHashes.hash("https://news.example/missing")));
+
+        // Assert
+        assertEquals(Set.of(stored.getUrlHash()), existing);
+    }
+
+    private static MarketNews news(String url) {
+        MarketNews news = new MarketNews();
+        news.setTitle("News " + url);
+        news.setUrl(url);
+        news.setUrlHash(UrlHashes.hash(url));
+        news.setCategory("MARKET");
+        news.setPublishedAt(FETCHED_AT);
+        news.setFetchedAt(FETCHED_AT);
+        news.setIsRead(false);
+        news.setIsBookmarked(false);
+        return news;
+    }
+}
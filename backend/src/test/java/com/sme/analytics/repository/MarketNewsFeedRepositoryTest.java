@@ -0,0 +1,132 @@
+package com.sme.analytics.repository;
+
+import com.sme.analytics.model.Competitor;
+import com.sme.analytics.model.MarketNews;
+import com.sme.analytics.service.NewsFeedCursor;
+import com.sme.analytics.service.NewsFeedFilter;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(MarketNewsFeedRepository.class)
+@Testcontainers(disabledWithoutDocker = true)
+class MarketNewsFeedRepositoryTest {
+
+    private static final NewsFeedFilter NO_FILTER = new NewsFeedFilter(null, null, null, null, null, false);
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private MarketNewsFeedRepository feedRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Competitor competitor;
+
+    @BeforeEach
+    void setUp() {
+        competitor = new Competitor();
+        competitor.setName("Acme");
+        entityManager.persist(competitor);
+
+        LocalDateTime base = LocalDateTime.of(2026, 10, 1, 12, 0);
+        for (int i = 0; i < 10; i++) {
+            MarketNews news = new MarketNews();
+            news.setTitle("News " + i);
+            news.setUrl("https://news.example/" + i);
+            news.setCategory(i % 2 == 0 ? "COMPETITOR" : "MARKET");
+            news.setImpactLevel(i < 5 ? "HIGH" : "LOW");
+            news.setRelatedCompetitor(i % 2 == 0 ? competitor : null);
+            news.setIsRead(i % 3 == 0);
+            // Pairs share a publish time so pages must break ties on id
+            news.setPublishedAt(base.minusHours(i / 2));
+            entityManager.persist(news);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void pagesThroughTiesWithoutGapsOrDuplicates() {
+        // Arrange
+        List<String> titles = new ArrayList<>();
+        NewsFeedCursor cursor = null;
+
+        // Act
+        for (int page = 0; page < 4; page++) {
+            List<MarketNews> news = feedRepository.findPage(NO_FILTER, cursor, 3);
+            news.forEach(item -> titles.add(item.getTitle()));
+            if (news.isEmpty()) {
+                break;
+            }
+            MarketNews last = news.get(news.size() - 1);
+            cursor = new NewsFeedCursor(last.getPublishedAt(), last.getId());
+        }
+
+        // Assert: newest first, and within a publish time the higher id first
+        assertEquals(List.of("News 1", "News 0", "News 3", "News 2", "News 5", "News 4",
+            "News 7", "News 6", "News 9", "News 8"), titles);
+    }
+
+    @Test
+    void combinesFiltersAndLoadsCompetitorInSameQuery() {
+        // Arrange
+        NewsFeedFilter filter = new NewsFeedFilter("COMPETITOR", null, null, competitor.getId(), "HIGH", true);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // Act
+        List<MarketNews> news = feedRepository.findPage(filter, null, 10);
+
+        // Assert: even, high impact (0-4) and unread (not a multiple of 3) leaves 2 and 4
+        assertEquals(List.of("News 2", "News 4"), news.stream().map(MarketNews::getTitle).toList());
+        assertEquals("Acme", news.get(0).getRelatedCompetitor().getName());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void updatesFlagsByCategoryOrPublishTime() {
+        // Act: category only, then publish time only; both leave the other parameter out of the statement
+        int readMarket = feedRepository.updateReadByFilter("MARKET", null, true);
+        int bookmarkedOld = feedRepository.updateBookmarkedByFilter(null, LocalDateTime.of(2026, 10, 1, 10, 0), true);
+
+        // Assert: odd news is MARKET, of which 3 and 9 were read already; news 6-9 are older than 10:00
+        assertEquals(3, readMarket);
+        assertEquals(4, bookmarkedOld);
+        List<MarketNews> news = feedRepository.findPage(NO_FILTER, null, 10);
+        assertTrue(news.stream().filter(item -> "MARKET".equals(item.getCategory())).allMatch(MarketNews::getIsRead));
+        assertEquals(List.of("News 7", "News 6", "News 9", "News 8"), news.stream()
+            .filter(item -> Boolean.TRUE.equals(item.getIsBookmarked())).map(MarketNews::getTitle).toList());
+    }
+
+    @Test
+    void rejectsAnUpdateWithoutFilter() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> feedRepository.updateReadByFilter(null, null, true));
+    }
+}
@@ -0,0 +1,85 @@
+package com.sme.analytics.repository;
+
+import com.sme.analytics.model.Competitor;
+import com.sme.analytics.model.MarketNews;
+import com.sme.analytics.util.UrlHashes;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class MarketNewsRepositoryTest {
+
+    private static final LocalDateTime PUBLISHED_AT = LocalDateTime.of(2026, 10, 1, 12, 0);
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private MarketNewsRepository marketNewsRepository;
+
+    @Autowired
+    private CompetitorRepository competitorRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void competitorWithLinkedNewsCanBeDeletedOnceUnlinked() {
+        // Arrange
+        Competitor deleted = competitor("Deleted");
+        Competitor kept = competitor("Kept");
+        MarketNews aboutDeleted = news("https://news.example/deleted", deleted);
+        MarketNews aboutKept = news("https://news.example/kept", kept);
+        entityManager.flush();
+        entityManager.clear();
+
+        // Act
+        int unlinked = marketNewsRepository.unlinkCompetitor(deleted.getId());
+        competitorRepository.deleteById(deleted.getId());
+        entityManager.flush();
+        entityManager.clear();
+
+        // Assert
+        assertEquals(1, unlinked);
+        assertFalse(competitorRepository.existsById(deleted.getId()));
+        assertNull(marketNewsRepository.findById(aboutDeleted.getId()).orElseThrow().getRelatedCompetitor());
+        assertEquals(kept.getId(),
+            marketNewsRepository.findById(aboutKept.getId()).orElseThrow().getRelatedCompetitor().getId());
+    }
+
+    private Competitor competitor(String name) {
+        Competitor competitor = new Competitor();
+        competitor.setName(name);
+        competitor.setActive(true);
+        competitor.setCreatedAt(PUBLISHED_AT);
+        return entityManager.persist(competitor);
+    }
+
+    private MarketNews news(String url, Competitor competitor) {
+        MarketNews news = new MarketNews();
+        news.setTitle("News " + url);
+        news.setUrl(url);
+        news.setUrlHash(UrlHashes.hash(url));
+        news.setCategory("COMPETITOR");
+        news.setPublishedAt(PUBLISHED_AT);
+        news.setFetchedAt(PUBLISHED_AT);
+        news.setIsRead(false);
+        news.setIsBookmarked(false);
+        news.setRelatedCompetitor(competitor);
+        return entityManager.persist(news);
+    }
+}
@@ -0,0 +1,108 @@
+package com.sme.analytics.repository;
+
+import com.sme.analytics.dto.NewsSearchHit;
+import com.sme.analytics.model.MarketNews;
+import com.sme.analytics.service.NewsSearchQuery;
+import com.sme.analytics.service.PostgresNewsSearchIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(MarketNewsSearchRepository.class)
+@Testcontainers(disabledWithoutDocker = true)
+class MarketNewsSearchRepositoryTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 10, 10, 12, 0);
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private MarketNewsSearchRepository searchRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private PostgresNewsSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new PostgresNewsSearchIndex(searchRepository);
+        index.ensureSchema();
+        persist("Acme cuts prices on delivery", "The retailer lowers delivery fees.", "COMPETITOR", NOW);
+        persist("Quarterly results", "Acme reported that delivery prices will fall.", "MARKET", NOW.minusDays(2));
+        persist("Delivery rumor denied", "Acme denies a price rumor.", "COMPETITOR", NOW.minusDays(5));
+        persist("<script>alert(1)</script> Delivery & returns", "Free <b>delivery</b> for \"members\"", "MARKET", NOW.minusDays(1));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void ranksAndHighlightsMatches() {
+        // Act
+        List<NewsSearchHit> hits = index.search(new NewsSearchQuery("prices", null, null, null, 10));
+
+        // Assert: stemming matches "price" as well; the title hit ranks first
+        assertEquals(3, hits.size());
+        assertEquals("Acme cuts prices on delivery", hits.get(0).news().getTitle());
+        assertEquals("Acme cuts <mark>prices</mark> on delivery", hits.get(0).titleHighlight());
+    }
+
+    @Test
+    void appliesExclusionsAndFilters() {
+        // Act
+        List<NewsSearchHit> withoutRumors = index.search(new NewsSearchQuery("acme -rumor", null, null, null, 10));
+        List<NewsSearchHit> competitorThisWeek = index.search(
+            new NewsSearchQuery("delivery", "COMPETITOR", NOW.minusDays(3), NOW.plusDays(1), 10));
+
+        // Assert
+        assertEquals(2, withoutRumors.size());
+        assertTrue(withoutRumors.stream().noneMatch(hit -> hit.news().getTitle().contains("rumor")));
+        assertEquals(List.of("Acme cuts prices on delivery"),
+            competitorThisWeek.stream().map(hit -> hit.news().getTitle()).toList());
+    }
+
+    @Test
+    void escapesFeedMarkupInHighlights() {
+        // Act
+        List<NewsSearchHit> hits = index.search(new NewsSearchQuery("returns", null, null, null, 10));
+
+        // Assert: the stored text is untouched; only the mark tags are markup in the highlights
+        assertEquals(1, hits.size());
+        NewsSearchHit hit = hits.get(0);
+        assertTrue(hit.news().getTitle().startsWith("<script>"));
+        assertFalse(hit.titleHighlight().contains("<script>"));
+        assertTrue(hit.titleHighlight().contains("&lt;script&gt;"));
+        assertTrue(hit.titleHighlight().contains("&amp; <mark>returns</mark>"));
+        assertFalse(hit.summaryHighlight().contains("<b>"));
+        assertTrue(hit.summaryHighlight().contains("&lt;b&gt;"));
+    }
+
+    private void persist(String title, String summary, String category, LocalDateTime publishedAt) {
+        MarketNews news = new MarketNews();
+        news.setTitle(title);
+        news.setSummary(summary);
+        news.setUrl("https://news.example/" + title.hashCode());
+        news.setCategory(category);
+        news.setPublishedAt(publishedAt);
+        news.setIsRead(false);
+        news.setIsBookmarked(false);
+        entityManager.persist(news);
+    }
+}
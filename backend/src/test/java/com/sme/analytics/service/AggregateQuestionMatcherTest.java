@@ -0,0 +1,107 @@
+package com.sme.analytics.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AggregateQuestionMatcherTest {
+
+    private static final Map<String, Object> STATISTICS = Map.of(
+        "Revenue", Map.of("count", 120, "min", 10.5, "max", 9800, "average", 1234.5, "sum", 148140),
+        "Net Revenue", Map.of("count", 120, "average", 900),
+        "Price", Map.of("count", 120, "average", 19.99),
+        "Region", Map.of("count", 120, "average", "n/a")
+    );
+
+    private final AggregateQuestionMatcher matcher = new AggregateQuestionMatcher();
+
+    @Test
+    void answersEachAggregateAndItsSynonyms() {
+        // Act & Assert
+        assertStat("What is the average Revenue?", "average", 1234.5);
+        assertStat("mean revenue", "average", 1234.5);
+        assertStat("avg revenue", "average", 1234.5);
+        assertStat("total revenue", "sum", 148140);
+        assertStat("sum of revenue", "sum", 148140);
+        assertStat("highest revenue", "max", 9800);
+        assertStat("maximum revenue", "max", 9800);
+        assertStat("lowest revenue", "min", 10.5);
+        assertStat("smallest revenue", "min", 10.5);
+        assertStat("count revenue", "count", 120);
+        assertStat("how many revenue values are there", "count", 120);
+    }
+
+    @Test
+    void formatsTheAnswerLikeTheMlService() {
+        // Act
+        Map<String, Object> answer = matcher.answer("average revenue", STATISTICS, 120).orElseThrow();
+
+        // Assert
+        assertEquals("The average Revenue is 1,234.5.", answer.get("answer"));
+        assertEquals("high", answer.get("confidence"));
+        assertEquals(Map.of("statistic", "average", "value", 1234.5, "source", "statistics", "column", "Revenue"),
+            answer.get("referenced_data"));
+    }
+
+    @Test
+    void countsRows() {
+        // Act
+        Optional<Map<String, Object>> rows = matcher.answer("How many rows are in this dataset?", STATISTICS, 1500);
+        Optional<Map<String, Object>> totalRows = matcher.answer("total number of records", STATISTICS, 1500);
+
+        // Assert
+        assertEquals("The dataset contains 1,500 rows.", rows.orElseThrow().get("answer"));
+        assertTrue(totalRows.isPresent());
+        assertTrue(matcher.answer("how many rows", STATISTICS, null).isEmpty());
+    }
+
+    @Test
+    void toleratesFillerWordsAndNormalizesCaseAndWhitespace() {
+        // Act & Assert
+        assertStat("Can you please tell me what's the overall AVERAGE value of the Revenue column in my data?",
+            "average", 1234.5);
+        assertStat("   MAX\t  rEvEnUe  ", "max", 9800);
+    }
+
+    @Test
+    void prefersTheLongestColumnName() {
+        // Act & Assert
+        assertEquals("Net Revenue", referenced(matcher.answer("average net revenue", STATISTICS, 120)).get("column"));
+    }
+
+    @Test
+    void leavesQualifiedQuestionsToTheMlService() {
+        // Act & Assert
+        assertTrue(matcher.answer("average price last month", STATISTICS, 120).isEmpty());
+        assertTrue(matcher.answer("total revenue by region", STATISTICS, 120).isEmpty());
+        assertTrue(matcher.answer("why is revenue the highest", STATISTICS, 120).isEmpty());
+        assertTrue(matcher.answer("average and max revenue", STATISTICS, 120).isEmpty());
+        assertTrue(matcher.answer("average revenue rows", STATISTICS, 120).isEmpty());
+    }
+
+    @Test
+    void rejectsUnknownColumnsAndNonNumericStatistics() {
+        // Act & Assert
+        assertTrue(matcher.answer("average profit", STATISTICS, 120).isEmpty());
+        assertTrue(matcher.answer("average", STATISTICS, 120).isEmpty());
+        assertTrue(matcher.answer("average region", STATISTICS, 120).isEmpty());
+        assertTrue(matcher.answer("min price", STATISTICS, 120).isEmpty());
+        assertTrue(matcher.answer("average revenue", null, 120).isEmpty());
+        assertTrue(matcher.answer("  ", STATISTICS, 120).isEmpty());
+        assertTrue(matcher.answer(null, STATISTICS, 120).isEmpty());
+    }
+
+    private void assertStat(String question, String stat, Number value) {
+        Map<?, ?> referenced = referenced(matcher.answer(question, STATISTICS, 120));
+        assertEquals(stat, referenced.get("statistic"), question);
+        assertEquals(value, referenced.get("value"), question);
+    }
+
+    private static Map<?, ?> referenced(Optional<Map<String, Object>> answer) {
+        assertTrue(answer.isPresent());
+        return (Map<?, ?>) answer.get().get("referenced_data");
+    }
+}
@@ -0,0 +1,104 @@
+package com.sme.analytics.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChatAnswerCoalescerTest {
+
+    private static final ChatAnswerCoalescer.AnswerKey KEY =
+        new ChatAnswerCoalescer.AnswerKey(1L, "what is the total revenue", "history");
+
+    private MeterRegistry meterRegistry;
+    private ChatAnswerCoalescer coalescer;
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        coalescer = new ChatAnswerCoalescer(Duration.ofSeconds(30), 100, Duration.ofMillis(100), meterRegistry);
+    }
+
+    @Test
+    void asyncCallersShareOneInFlightCall() throws Exception {
+        // Arrange
+        CompletableFuture<Map<String, Object>> mlCall = new CompletableFuture<>();
+
+        // Act
+        CompletableFuture<Map<String, Object>> first = coalescer.getOrComputeAsync(KEY, () -> load(mlCall));
+        CompletableFuture<Map<String, Object>> second = coalescer.getOrComputeAsync(KEY, () -> load(mlCall));
+        mlCall.complete(Map.of("answer", "42"));
+        CompletableFuture<Map<String, Object>> third = coalescer.getOrComputeAsync(KEY, () -> load(mlCall));
+
+        // Assert
+        assertEquals("42", first.get(1, TimeUnit.SECONDS).get("answer"));
+        assertEquals("42", second.get(1, TimeUnit.SECONDS).get("answer"));
+        assertEquals("42", third.get(1, TimeUnit.SECONDS).get("answer"));
+        assertEquals(1, loads.get());
+        assertEquals(1.0, count("computed"));
+        assertEquals(1.0, count("joined"));
+        assertEquals(1.0, count("cached"));
+    }
+
+    @Test
+    void asyncFailuresAreNotCached() throws Exception {
+        // Arrange
+        coalescer.getOrComputeAsync(KEY, () -> load(CompletableFuture.failedFuture(new RuntimeException("ML down"))));
+
+        // Act
+        CompletableFuture<Map<String, Object>> retry =
+            coalescer.getOrComputeAsync(KEY, () -> load(CompletableFuture.completedFuture(Map.of("answer", "42"))));
+
+        // Assert
+        assertEquals("42", retry.get(1, TimeUnit.SECONDS).get("answer"));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void asyncLoaderThatThrowsFailsOnlyItsFuture() {
+        // Act
+        CompletableFuture<Map<String, Object>> failed = coalescer.getOrComputeAsync(KEY, () -> {
+            throw new IllegalStateException("bulkhead full");
+        });
+
+        // Assert
+        ExecutionException error = assertThrows(ExecutionException.class, () -> failed.get(1, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, error.getCause());
+    }
+
+    @Test
+    void joinerTimeoutLeavesTheSharedCallRunning() throws Exception {
+        // Arrange
+        CompletableFuture<Map<String, Object>> mlCall = new CompletableFuture<>();
+        CompletableFuture<Map<String, Object>> owner = coalescer.getOrComputeAsync(KEY, () -> load(mlCall));
+
+        // Act - the joiner gives up after the 100 ms join timeout
+        CompletableFuture<Map<String, Object>> joiner = coalescer.getOrComputeAsync(KEY, () -> load(mlCall));
+        ExecutionException error = assertThrows(ExecutionException.class, () -> joiner.get(1, TimeUnit.SECONDS));
+        mlCall.complete(Map.of("answer", "42"));
+
+        // Assert
+        assertInstanceOf(TimeoutException.class, error.getCause());
+        assertEquals("42", owner.get(1, TimeUnit.SECONDS).get("answer"));
+    }
+
+    private CompletableFuture<Map<String, Object>> load(CompletableFuture<Map<String, Object>> result) {
+        loads.incrementAndGet();
+        return result;
+    }
+
+    private double count(String outcome) {
+        return meterRegistry.counter("chat.answer.coalescer", "outcome", outcome).count();
+    }
+}
@@ -0,0 +1,148 @@
+package com.sme.analytics.service;
+
+import com.sme.analytics.dto.SendMessageResponse;
+import com.sme.analytics.mapper.MessageMapper;
+import com.sme.analytics.model.Conversation;
+import com.sme.analytics.model.Message;
+import com.sme.analytics.model.UploadedFile;
+import com.sme.analytics.repository.ConversationRepository;
+import com.sme.analytics.repository.MessageRepository;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Reactive chat path with mocked repositories and ML client
+ */
+class ChatServiceTest {
+
+    private MessageRepository messageRepository;
+    private AggregateQuestionMatcher aggregateQuestionMatcher;
+    private ReactiveMlServiceClient reactiveMlServiceClient;
+    private PlatformTransactionManager transactionManager;
+    private MeterRegistry meterRegistry;
+    private Scheduler chatDbScheduler;
+    private UploadedFile uploadedFile;
+    private ChatService chatService;
+
+    @BeforeEach
+    void setUp() {
+        uploadedFile = new UploadedFile();
+        uploadedFile.setId(1L);
+        Conversation conversation = new Conversation();
+        conversation.setId(1L);
+        conversation.setUploadedFile(uploadedFile);
+
+        ConversationRepository conversationRepository = mock(ConversationRepository.class);
+        when(conversationRepository.findById(1L)).thenReturn(Optional.of(conversation));
+        messageRepository = mock(MessageRepository.class);
+        when(messageRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(messageRepository.findByConversationIdOrderByCreatedAtAsc(1L)).thenReturn(List.of());
+        DocumentContextBuilder documentContextBuilder = mock(DocumentContextBuilder.class);
+        when(documentContextBuilder.buildRequest(anyString(), any(), anyList())).thenReturn(new byte[0]);
+        aggregateQuestionMatcher = mock(AggregateQuestionMatcher.class);
+        reactiveMlServiceClient = mock(ReactiveMlServiceClient.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        meterRegistry = new SimpleMeterRegistry();
+        chatDbScheduler = Schedulers.newBoundedElastic(2, 100, "chat-db-test");
+
+        chatService = new ChatService();
+        ReflectionTestUtils.setField(chatService, "conversationRepository", conversationRepository);
+        ReflectionTestUtils.setField(chatService, "messageRepository", messageRepository);
+        ReflectionTestUtils.setField(chatService, "documentContextBuilder", documentContextBuilder);
+        ReflectionTestUtils.setField(chatService, "aggregateQuestionMatcher", aggregateQuestionMatcher);
+        ReflectionTestUtils.setField(chatService, "reactiveMlServiceClient", reactiveMlServiceClient);
+        ReflectionTestUtils.setField(chatService, "chatAnswerCoalescer",
+            new ChatAnswerCoalescer(Duration.ofSeconds(30), 100, Duration.ofSeconds(5), meterRegistry));
+        ReflectionTestUtils.setField(chatService, "messageMapper", Mappers.getMapper(MessageMapper.class));
+        ReflectionTestUtils.setField(chatService, "eventPublisher", mock(ApplicationEventPublisher.class));
+        ReflectionTestUtils.setField(chatService, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(chatService, "transactionTemplate", new TransactionTemplate(transactionManager));
+        ReflectionTestUtils.setField(chatService, "chatDbScheduler", chatDbScheduler);
+    }
+
+    @AfterEach
+    void tearDown() {
+        chatDbScheduler.dispose();
+    }
+
+    @Test
+    void testSendMessageReactive_AnswersFromStatisticsWithoutMl() {
+        // Arrange
+        uploadedFile.setStatistics(Map.of("Revenue", Map.of("sum", 100)));
+        when(aggregateQuestionMatcher.answer(eq("Total revenue?"), anyMap(), any()))
+            .thenReturn(Optional.of(Map.of("answer", "Total Revenue is 100", "confidence", "high")));
+
+        // Act
+        SendMessageResponse response = chatService.sendMessageReactive(1L, "Total revenue?").block(Duration.ofSeconds(5));
+
+        // Assert
+        assertNotNull(response);
+        assertEquals("Total revenue?", response.userMessage().getContent());
+        assertEquals("Total Revenue is 100", response.aiMessage().getContent());
+        verifyNoInteractions(reactiveMlServiceClient);
+        assertEquals(1.0, meterRegistry.counter("chat.fastpath", "result", "hit").count());
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    void testSendMessageReactive_IdenticalQuestionsShareOneMlCall() {
+        // Arrange
+        when(reactiveMlServiceClient.askQuestion(any()))
+            .thenReturn(Mono.just(Map.<String, Object>of("answer", "Revenue grew 10%", "confidence", "high"))
+                .delayElement(Duration.ofMillis(200)));
+
+        // Act
+        List<SendMessageResponse> responses = Mono.zip(
+                chatService.sendMessageReactive(1L, "How did revenue change?"),
+                chatService.sendMessageReactive(1L, "how did revenue change"))
+            .map(pair -> List.of(pair.getT1(), pair.getT2()))
+            .block(Duration.ofSeconds(5));
+
+        // Assert
+        assertNotNull(responses);
+        responses.forEach(response -> assertEquals("Revenue grew 10%", response.aiMessage().getContent()));
+        verify(reactiveMlServiceClient, times(1)).askQuestion(any());
+        assertEquals(2.0, meterRegistry.counter("chat.fastpath", "result", "miss").count());
+    }
+
+    @Test
+    void testSendMessageReactive_RejectedCallStoresFallbackAnswer() {
+        // Arrange
+        when(reactiveMlServiceClient.askQuestion(any()))
+            .thenReturn(Mono.error(BulkheadFullException.createBulkheadFullException(Bulkhead.ofDefaults("mlReactive"))));
+
+        // Act
+        SendMessageResponse response = chatService.sendMessageReactive(1L, "Forecast next month").block(Duration.ofSeconds(5));
+
+        // Assert
+        assertNotNull(response);
+        assertTrue(response.success());
+        assertEquals("I'm sorry, I'm having trouble answering that question right now.", response.aiMessage().getContent());
+        verify(messageRepository, times(2)).save(any(Message.class));
+        verify(transactionManager, times(2)).commit(any());
+    }
+}
@@ -0,0 +1,35 @@
+package com.sme.analytics.service;
+
+import com.sme.analytics.model.Competitor;
+import com.sme.analytics.repository.CompetitorRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CompetitorMatcherTest {
+
+    @Test
+    void rebuildsOnlyWhenMatchingChanged() {
+        // Arrange
+        Competitor acme = new Competitor();
+        acme.setId(1L);
+        acme.setName("Acme");
+        acme.setMonitoringKeywords(List.of("Acme Foods"));
+        CompetitorRepository repository = mock(CompetitorRepository.class);
+        when(repository.findActiveWithKeywords()).thenReturn(List.of(acme));
+        CompetitorMatcher matcher = new CompetitorMatcher(repository);
+
+        // Act - a price change, then a keyword change
+        matcher.onCompetitorsChanged(new CompetitorsChangedEvent(null, false));
+        boolean matchedAfterPriceChange = matcher.bestMatch("Acme Foods opens a store", null).isPresent();
+        matcher.onCompetitorsChanged(new CompetitorsChangedEvent(1L, true));
+
+        // Assert
+        assertFalse(matchedAfterPriceChange);
+        assertEquals(1L, matcher.bestMatch("Acme Foods opens a store", null).orElseThrow().id());
+        verify(repository, times(1)).findActiveWithKeywords();
+    }
+}
@@ -0,0 +1,214 @@
+package com.sme.analytics.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sme.analytics.util.OutboundUrlPolicy;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks competitor price pages served by a local stand-in shop.
+ */
+class CompetitorPriceFetcherTest {
+
+    private static final String JSON_LD_PAGE = """
+        <html><head><title>Espresso machine</title>
+        <script type="application/ld+json">
+          {"@context": "https://schema.org", "@type": "Product", "name": "Espresso machine",
+           "offers": {"@type": "Offer", "price": "1,299.00", "priceCurrency": "USD"}}
+        </script></head><body>Buy now</body></html>
+        """;
+
+    private static final String META_PAGE = """
+        <html><head>
+        <meta property="og:title" content="Grinder">
+        <meta content="89,90" property="product:price:amount">
+        </head><body></body></html>
+        """;
+
+    private static final String LAST_MODIFIED = "Mon, 05 Oct 2026 08:30:00 GMT";
+
+    private HttpServer server;
+    private CompetitorPriceFetcher fetcher;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/espresso", exchange -> respond(exchange, JSON_LD_PAGE, "text/html; charset=utf-8"));
+        server.createContext("/grinder", exchange -> respond(exchange, META_PAGE, "text/html"));
+        server.createContext("/api/kettle", exchange -> respond(exchange, "{\"sku\": \"K1\", \"price\": 24.5}", "application/json"));
+        server.createContext("/about", exchange -> respond(exchange, "<html><body>About us</body></html>", "text/html"));
+        server.createContext("/moved", exchange -> redirect(exchange, "/espresso"));
+        server.createContext("/to-metadata", exchange -> redirect(exchange, "http://169.254.169.254/latest/meta-data/"));
+        server.createContext("/loop", exchange -> redirect(exchange, "/loop"));
+        server.createContext("/catalogue", exchange -> respond(exchange, "<html>" + "x".repeat(3_000_000) + "</html>", "text/html"));
+        server.createContext("/broken", exchange -> {
+            exchange.sendResponseHeaders(503, -1);
+            exchange.close();
+        });
+        server.setExecutor(null);
+        server.start();
+
+        // The stand-in shop is on loopback, so that (and only that) is allowed besides public addresses
+        fetcher = fetcher(new OutboundUrlPolicy(address -> address.isLoopbackAddress() || OutboundUrlPolicy.isPublic(address)));
+    }
+
+    private static CompetitorPriceFetcher fetcher(OutboundUrlPolicy urlPolicy) {
+        ObjectMapper objectMapper = new ObjectMapper();
+        return new CompetitorPriceFetcher(
+            List.of(new JsonLdPriceExtractor(objectMapper), new HtmlMetaPriceExtractor()),
+            urlPolicy,
+            Duration.ofMillis(10),
+            1,
+            Duration.ofSeconds(2),
+            Duration.ofSeconds(5),
+            1_000_000,
+            "test-agent"
+        );
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void extractsPricesWithEachExtractorAndSkipsFailingPages() {
+        // Arrange
+        CompetitorPriceFetcher.PriceTarget espresso = target(1L, "/espresso");
+        CompetitorPriceFetcher.PriceTarget grinder = target(2L, "/grinder");
+        CompetitorPriceFetcher.PriceTarget kettle = target(3L, "/api/kettle");
+        CompetitorPriceFetcher.PriceTarget about = target(4L, "/about");
+        CompetitorPriceFetcher.PriceTarget broken = target(5L, "/broken");
+
+        // Act
+        Map<CompetitorPriceFetcher.PriceTarget, CompetitorPriceFetcher.PriceCheck> checks =
+            fetcher.checkAll(List.of(espresso, grinder, kettle, about, broken));
+
+        // Assert
+        assertEquals(4, checks.size());
+        assertEquals(1299.0, checks.get(espresso).price());
+        assertEquals("json-ld", checks.get(espresso).extractor());
+        assertEquals(89.9, checks.get(grinder).price());
+        assertEquals("html-meta", checks.get(grinder).extractor());
+        assertEquals(24.5, checks.get(kettle).price());
+        assertEquals(CompetitorPriceFetcher.PriceCheck.Status.NO_PRICE, checks.get(about).status());
+    }
+
+    @Test
+    void recheckWithValidatorsIsNotModified() throws Exception {
+        // Arrange
+        CompetitorPriceFetcher.PriceCheck first = fetcher.check(target(1L, "/espresso"));
+
+        // Act
+        CompetitorPriceFetcher.PriceCheck second = fetcher.check(new CompetitorPriceFetcher.PriceTarget(
+            1L, URI.create(url("/espresso")), first.etag(), first.lastModified()));
+
+        // Assert
+        assertEquals(CompetitorPriceFetcher.PriceCheck.Status.PRICE, first.status());
+        assertNotNull(first.etag());
+        assertEquals(LAST_MODIFIED, first.lastModified());
+        assertEquals(CompetitorPriceFetcher.PriceCheck.Status.NOT_MODIFIED, second.status());
+        assertEquals(first.etag(), second.etag());
+    }
+
+    @Test
+    void followsRedirectsWithinAllowedHosts() throws Exception {
+        // Act
+        CompetitorPriceFetcher.PriceCheck check = fetcher.check(target(1L, "/moved"));
+
+        // Assert
+        assertEquals(1299.0, check.price());
+    }
+
+    @Test
+    void refusesPrivateAddressesAndRedirectsToThem() {
+        // Arrange
+        CompetitorPriceFetcher publicOnly = fetcher(OutboundUrlPolicy.PUBLIC_ONLY);
+
+        // Act & Assert - loopback itself, the metadata endpoint behind a redirect, and redirect loops
+        IOException loopback = assertThrows(IOException.class, () -> publicOnly.check(target(1L, "/espresso")));
+        assertTrue(loopback.getMessage().contains("non-public address"));
+        IOException metadata = assertThrows(IOException.class, () -> fetcher.check(target(1L, "/to-metadata")));
+        assertTrue(metadata.getMessage().contains("169.254.169.254"));
+        assertThrows(IOException.class, () -> fetcher.check(target(1L, "/loop")));
+        assertThrows(IOException.class, () -> fetcher.check(
+            new CompetitorPriceFetcher.PriceTarget(1L, URI.create("file:///etc/passwd"), null, null)));
+    }
+
+    @Test
+    void connectsToTheAddressThatWasCheckedEvenIfDnsChangesItsAnswer() throws Exception {
+        // Arrange - the first lookup answers loopback (allowed here), later ones the metadata endpoint
+        AtomicInteger lookups = new AtomicInteger();
+        OutboundUrlPolicy.Resolver rebinding = host -> new InetAddress[] {
+            InetAddress.getByName(lookups.getAndIncrement() == 0 ? "127.0.0.1" : "169.254.169.254")};
+        CompetitorPriceFetcher pinned = fetcher(new OutboundUrlPolicy(
+            address -> address.isLoopbackAddress() || OutboundUrlPolicy.isPublic(address), rebinding));
+        URI url = URI.create("http://shop.test:" + server.getAddress().getPort() + "/espresso");
+
+        // Act
+        CompetitorPriceFetcher.PriceCheck check = pinned.check(new CompetitorPriceFetcher.PriceTarget(1L, url, null, null));
+
+        // Assert - the page came from the checked address, looked up only once
+        assertEquals(1299.0, check.price());
+        assertEquals(1, lookups.get());
+    }
+
+    @Test
+    void readsOnlyUpToTheBodyLimit() throws Exception {
+        // Act - the page is three times the limit
+        CompetitorPriceFetcher.PriceCheck check = fetcher.check(target(1L, "/catalogue"));
+        CompetitorPriceFetcher.PriceCheck next = fetcher.check(target(1L, "/espresso"));
+
+        // Assert
+        assertEquals(CompetitorPriceFetcher.PriceCheck.Status.NO_PRICE, check.status());
+        assertEquals(1299.0, next.price());
+    }
+
+    private CompetitorPriceFetcher.PriceTarget target(Long competitorId, String path) {
+        return new CompetitorPriceFetcher.PriceTarget(competitorId, URI.create(url(path)), null, null);
+    }
+
+    private String url(String path) {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + path;
+    }
+
+    private static void redirect(HttpExchange exchange, String location) throws IOException {
+        exchange.getResponseHeaders().add("Location", location);
+        exchange.sendResponseHeaders(302, -1);
+        exchange.close();
+    }
+
+    private void respond(HttpExchange exchange, String body, String contentType) throws IOException {
+        String etag = "\"" + Integer.toHexString(body.hashCode()) + "\"";
+        if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))
+            || LAST_MODIFIED.equals(exchange.getRequestHeaders().getFirst("If-Modified-Since"))) {
+            exchange.sendResponseHeaders(304, -1);
+            exchange.close();
+            return;
+        }
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", contentType);
+        exchange.getResponseHeaders().add("ETag", etag);
+        exchange.getResponseHeaders().add("Last-Modified", LAST_MODIFIED);
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.sme.analytics.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sme.analytics.dto.DataInsight;
+import com.sme.analytics.model.Message;
+import com.sme.analytics.model.UploadedFile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class DocumentContextBuilderTest {
+
+    private static final String QUESTION = "Why did revenue drop?";
+    private static final List<String> STATISTICS_ORDER = List.of("Revenue", "Cost", "Profit");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private RowIndexService rowIndexService;
+    private UploadedFile uploadedFile;
+    private List<Message> history;
+
+    @BeforeEach
+    void setUp() {
+        uploadedFile = new UploadedFile();
+        uploadedFile.setFileName("sales.csv");
+        uploadedFile.setSessionId("session-1");
+        uploadedFile.setRowCount(3);
+        uploadedFile.setColumnCount(3);
+        uploadedFile.setFileContent("Revenue,Cost,Profit\n1,2,3\n");
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        // Inserted out of order; columns named in the question go first, the rest alphabetically
+        statistics.put("Profit", columnStats(3));
+        statistics.put("Revenue", columnStats(1));
+        statistics.put("Cost", columnStats(2));
+        uploadedFile.setStatistics(statistics);
+        uploadedFile.setInsights(List.of(insight("first"), insight("second")));
+
+        rowIndexService = mock(RowIndexService.class);
+        List<Map<String, String>> rows = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            rows.add(Map.of("Revenue", "1" + "0".repeat(40) + i, "Cost", "2", "Profit", "3"));
+        }
+        when(rowIndexService.selectRows(any(), any())).thenReturn(rows);
+
+        history = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Message message = new Message();
+            message.setSenderType(i % 2 == 0 ? "USER" : "AI");
+            message.setContent("m" + i + " " + "x".repeat(100));
+            history.add(message);
+        }
+    }
+
+    @Test
+    void sendsEverythingWhenItFits() throws Exception {
+        // Act
+        JsonNode request = objectMapper.readTree(builder(65536).buildRequest(QUESTION, uploadedFile, history));
+
+        // Assert
+        JsonNode context = request.get("document_context");
+        assertEquals(3, context.get("sample_data").size());
+        assertEquals(STATISTICS_ORDER, fieldNames(context.get("statistics")));
+        assertEquals(List.of("m0", "m1", "m2", "m3"), messageIds(request));
+        assertEquals(2, context.get("insights").size());
+        assertFalse(context.has("truncated_sections"));
+    }
+
+    @Test
+    void staysWithinTheCapAndFillsSectionsInPriorityOrder() throws Exception {
+        // Arrange - from the always-sent part alone up to everything
+        int base = builder(0).buildRequest(QUESTION, uploadedFile, history).length;
+        int full = builder(65536).buildRequest(QUESTION, uploadedFile, history).length;
+        for (int maxBytes = base; maxBytes <= full + 200; maxBytes += 3) {
+            // Act
+            byte[] payload = builder(maxBytes).buildRequest(QUESTION, uploadedFile, history);
+
+            // Assert
+            assertTrue(payload.length <= maxBytes, "payload of " + payload.length + " bytes for cap " + maxBytes);
+            JsonNode request = objectMapper.readTree(payload);
+            JsonNode context = request.get("document_context");
+            int rows = context.get("sample_data").size();
+            List<String> statistics = fieldNames(context.get("statistics"));
+            List<String> messages = messageIds(request);
+            int insights = context.get("insights").size();
+
+            // Rows, statistics in priority order, newest messages, insights; nothing after the first cut
+            assertEquals(STATISTICS_ORDER.subList(0, statistics.size()), statistics);
+            assertEquals(List.of("m0", "m1", "m2", "m3").subList(4 - messages.size(), 4), messages);
+            if (rows < 3) {
+                assertTrue(statistics.isEmpty() && messages.isEmpty() && insights == 0, "cap " + maxBytes);
+            }
+            if (statistics.size() < 3) {
+                assertTrue(messages.isEmpty() && insights == 0, "cap " + maxBytes);
+            }
+            if (messages.size() < 4) {
+                assertEquals(0, insights, "cap " + maxBytes);
+            }
+
+            // The marker names exactly the incomplete sections
+            List<String> expected = new ArrayList<>();
+            if (rows < 3) {
+                expected.add("sample_data");
+            }
+            if (statistics.size() < 3) {
+                expected.add("statistics");
+            }
+            if (messages.size() < 4) {
+                expected.add("conversation_history");
+            }
+            if (insights < 2) {
+                expected.add("insights");
+            }
+            List<String> marked = new ArrayList<>();
+            if (context.has("truncated_sections")) {
+                context.get("truncated_sections").forEach(section -> marked.add(section.asText()));
+            }
+            assertEquals(expected, marked, "cap " + maxBytes);
+        }
+    }
+
+    @Test
+    void truncatesLongMessages() throws Exception {
+        // Arrange
+        history.get(3).setContent("y".repeat(50));
+
+        // Act
+        JsonNode request = objectMapper.readTree(
+            builder(65536, 20).buildRequest(QUESTION, uploadedFile, history));
+
+        // Assert
+        assertEquals("y".repeat(20) + "...", request.get("conversation_history").get(3).get("content").asText());
+    }
+
+    @Test
+    void sameInputsGiveTheSamePayload() {
+        // Arrange - the same statistics in another map order
+        Map<String, Object> reordered = new HashMap<>();
+        STATISTICS_ORDER.forEach(column -> reordered.put(column, uploadedFile.getStatistics().get(column)));
+
+        // Act
+        byte[] first = builder(900).buildRequest(QUESTION, uploadedFile, history);
+        uploadedFile.setStatistics(reordered);
+        byte[] second = builder(900).buildRequest(QUESTION, uploadedFile, history);
+
+        // Assert
+        assertArrayEquals(first, second);
+    }
+
+    private DocumentContextBuilder builder(int maxBytes) {
+        return builder(maxBytes, 2000);
+    }
+
+    private DocumentContextBuilder builder(int maxBytes, int maxMessageChars) {
+        return new DocumentContextBuilder(objectMapper, rowIndexService, new SimpleMeterRegistry(), maxBytes, maxMessageChars);
+    }
+
+    private static Map<String, Object> columnStats(int seed) {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("count", 100 * seed);
+        stats.put("average", 12.5 * seed);
+        stats.put("min", seed);
+        stats.put("max", 1000 * seed);
+        stats.put("sum", 1250 * seed);
+        stats.put("std", 3.25 * seed);
+        return stats;
+    }
+
+    private static DataInsight insight(String name) {
+        return new DataInsight("trend", name + " insight", "z".repeat(300), "1", "sales", 0.9);
+    }
+
+    private static List<String> fieldNames(JsonNode node) {
+        List<String> names = new ArrayList<>();
+        node.fieldNames().forEachRemaining(names::add);
+        return names;
+    }
+
+    private static List<String> messageIds(JsonNode request) {
+        List<String> ids = new ArrayList<>();
+        request.get("conversation_history").forEach(message -> ids.add(message.get("content").asText().split(" ")[0]));
+        return ids;
+    }
+}
@@ -0,0 +1,76 @@
+package com.sme.analytics.service;
+
+import com.sme.analytics.dto.MarketNewsDTO;
+import com.sme.analytics.dto.NewsSearchHit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryNewsSearchIndexTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 10, 10, 12, 0);
+
+    private final InMemoryNewsSearchIndex index = new InMemoryNewsSearchIndex();
+
+    @BeforeEach
+    void setUp() {
+        index.index(List.of(
+            article(1L, "Acme cuts prices on delivery", "The retailer lowers delivery fees.", "COMPETITOR", NOW),
+            article(2L, "Quarterly results", "Acme reported that delivery prices will fall.", "MARKET", NOW.minusDays(2)),
+            article(3L, "Delivery rumor denied", "Acme denies a price rumor.", "COMPETITOR", NOW.minusDays(5))
+        ));
+    }
+
+    @Test
+    void ranksTitleMatchesFirstAndHighlightsThem() {
+        // Act
+        List<NewsSearchHit> hits = index.search(new NewsSearchQuery("delivery prices", null, null, null, 10));
+
+        // Assert: "prices" and "price" fold to the same term; title hits outrank summary hits
+        assertEquals(List.of(1L, 3L, 2L), hits.stream().map(hit -> hit.news().getId()).toList());
+        assertEquals("Acme cuts <mark>prices</mark> on <mark>delivery</mark>", hits.get(0).titleHighlight());
+        assertEquals("The retailer lowers <mark>delivery</mark> fees.", hits.get(0).summaryHighlight());
+    }
+
+    @Test
+    void appliesExclusionsAndFilters() {
+        // Act
+        List<NewsSearchHit> withoutRumors = index.search(new NewsSearchQuery("acme -rumor", null, null, null, 10));
+        List<NewsSearchHit> competitorThisWeek = index.search(
+            new NewsSearchQuery("delivery", "COMPETITOR", NOW.minusDays(3), NOW.plusDays(1), 10));
+
+        // Assert
+        assertEquals(2, withoutRumors.size());
+        assertTrue(withoutRumors.stream().noneMatch(hit -> hit.news().getId() == 3L));
+        assertEquals(List.of(1L), competitorThisWeek.stream().map(hit -> hit.news().getId()).toList());
+    }
+
+    @Test
+    void escapesFeedMarkupInHighlights() {
+        // Arrange
+        index.index(List.of(article(4L, "<img src=x onerror=alert(1)> Returns & refunds",
+            "Free <b>returns</b> for \"members\"", "MARKET", NOW)));
+
+        // Act
+        List<NewsSearchHit> hits = index.search(new NewsSearchQuery("returns", null, null, null, 10));
+
+        // Assert: only the mark tags are markup
+        assertEquals(1, hits.size());
+        assertEquals("&lt;img src=x onerror=alert(1)&gt; <mark>Returns</mark> &amp; refunds", hits.get(0).titleHighlight());
+        assertEquals("Free &lt;b&gt;<mark>returns</mark>&lt;/b&gt; for &quot;members&quot;", hits.get(0).summaryHighlight());
+    }
+
+    private static MarketNewsDTO article(Long id, String title, String summary, String category, LocalDateTime publishedAt) {
+        MarketNewsDTO dto = new MarketNewsDTO();
+        dto.setId(id);
+        dto.setTitle(title);
+        dto.setSummary(summary);
+        dto.setCategory(category);
+        dto.setPublishedAt(publishedAt);
+        return dto;
+    }
+}
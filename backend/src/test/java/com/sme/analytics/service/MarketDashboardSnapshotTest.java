@@ -0,0 +1,201 @@
+package com.sme.analytics.service;
+
+import com.sme.analytics.dto.CompetitorDTO;
+import com.sme.analytics.dto.MarketIntelligenceResponse;
+import com.sme.analytics.dto.MarketNewsDTO;
+import com.sme.analytics.mapper.MarketNewsMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+class MarketDashboardSnapshotTest {
+
+    private MarketDashboardLoader loader;
+    private MarketDashboardSnapshot snapshot;
+
+    @BeforeEach
+    void setUp() {
+        loader = mock(MarketDashboardLoader.class);
+        snapshot = new MarketDashboardSnapshot(
+            loader,
+            Mappers.getMapper(MarketNewsMapper.class),
+            new KeywordTrendTracker(50),
+            new SentimentTimeSeries(120, 336),
+            10
+        );
+    }
+
+    @Test
+    void loadsOnFirstReadAndServesLaterReadsFromMemory() {
+        // Arrange
+        loads(news(1L, false));
+
+        // Act
+        MarketIntelligenceResponse first = snapshot.current();
+        MarketIntelligenceResponse second = snapshot.current();
+
+        // Assert
+        assertSame(first, second);
+        assertEquals(1, first.getUnreadNewsCount());
+        assertEquals(0.5, first.getAverageSentiment());
+        verify(loader, times(1)).load(anyInt(), any(), any(), any());
+    }
+
+    @Test
+    void flagChangesDoNotAlterAPublishedView() {
+        // Arrange
+        loads(news(1L, false));
+        MarketIntelligenceResponse before = snapshot.current();
+
+        // Act
+        snapshot.onFlagsChanged(new MarketNewsFlagsChangedEvent(NewsSelection.byIds(List.of(1L)), true, true, -1));
+        MarketIntelligenceResponse after = snapshot.current();
+
+        // Assert
+        assertFalse(before.getRecentNews().get(0).getIsRead());
+        assertFalse(before.getRecentNews().get(0).getIsBookmarked());
+        assertEquals(1, before.getUnreadNewsCount());
+        assertTrue(after.getRecentNews().get(0).getIsRead());
+        assertTrue(after.getRecentNews().get(0).getIsBookmarked());
+        assertEquals(0, after.getUnreadNewsCount());
+    }
+
+    @Test
+    void addedNewsIsCopiedIntoTheSnapshot() {
+        // Arrange
+        loads();
+        snapshot.current();
+        MarketNewsDTO added = news(2L, false);
+
+        // Act
+        snapshot.onNewsAdded(new MarketNewsAddedEvent(List.of(added)));
+        added.setTitle("changed by the caller");
+        MarketIntelligenceResponse view = snapshot.current();
+
+        // Assert
+        assertEquals(1, view.getRecentNews().size());
+        assertEquals("News 2", view.getRecentNews().get(0).getTitle());
+        assertNotSame(added, view.getRecentNews().get(0));
+        assertEquals(1, view.getUnreadNewsCount());
+    }
+
+    @Test
+    void reconcileDoesNotBlockEventsWhileReading() throws Exception {
+        // Arrange - the database read blocks until released
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(loader.load(anyInt(), any(), any(), any())).thenAnswer(invocation -> {
+            reading.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return data(List.of(news(1L, false)));
+        });
+        CompletableFuture<Void> reconcile = CompletableFuture.runAsync(snapshot::reconcile);
+        assertTrue(reading.await(2, TimeUnit.SECONDS));
+
+        // Act - an event listener runs while the reconciliation is reading
+        CompletableFuture<Void> event = CompletableFuture.runAsync(() ->
+            snapshot.onFlagsChanged(new MarketNewsFlagsChangedEvent(NewsSelection.byIds(List.of(9L)), true, null, 0)));
+
+        // Assert
+        event.get(1, TimeUnit.SECONDS);
+        release.countDown();
+        reconcile.get(2, TimeUnit.SECONDS);
+        assertEquals(1, snapshot.current().getRecentNews().size());
+    }
+
+    @Test
+    void eventsArrivingDuringTheLoadAreReflectedAfterwards() throws Exception {
+        // Arrange - the load's snapshot holds news 1 only
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(loader.load(anyInt(), any(), any(), any())).thenAnswer(invocation -> {
+            reading.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return data(List.of(news(1L, false)));
+        });
+        CompletableFuture<Void> reconcile = CompletableFuture.runAsync(snapshot::reconcile);
+        assertTrue(reading.await(2, TimeUnit.SECONDS));
+
+        // Act - news 2 is added and news 1 marked read after the snapshot was taken
+        snapshot.onNewsAdded(new MarketNewsAddedEvent(List.of(news(2L, false))));
+        snapshot.onFlagsChanged(new MarketNewsFlagsChangedEvent(NewsSelection.byIds(List.of(1L)), true, null, -1));
+        release.countDown();
+        reconcile.get(2, TimeUnit.SECONDS);
+        MarketIntelligenceResponse view = snapshot.current();
+
+        // Assert
+        assertEquals(List.of(1L, 2L), view.getRecentNews().stream().map(MarketNewsDTO::getId).toList());
+        assertTrue(view.getRecentNews().get(0).getIsRead());
+        assertEquals(1, view.getUnreadNewsCount());
+
+        // Act - a later reconciliation sees both changes in the database and starts no replay
+        loads(news(1L, true), news(2L, false));
+        snapshot.reconcile();
+
+        // Assert
+        assertEquals(1, snapshot.current().getUnreadNewsCount());
+        assertEquals(2, snapshot.current().getRecentNews().size());
+    }
+
+    @Test
+    void competitorChangeDuringTheLoadIsNotOverwritten() throws Exception {
+        // Arrange
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(loader.load(anyInt(), any(), any(), any())).thenAnswer(invocation -> {
+            reading.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return data(List.of());
+        });
+        CompetitorDTO added = new CompetitorDTO();
+        added.setName("Added during the load");
+        when(loader.loadCompetitors()).thenReturn(List.of(added));
+        CompletableFuture<Void> reconcile = CompletableFuture.runAsync(snapshot::reconcile);
+        assertTrue(reading.await(2, TimeUnit.SECONDS));
+
+        // Act
+        snapshot.onCompetitorsChanged(new CompetitorsChangedEvent(1L, true));
+        release.countDown();
+        reconcile.get(2, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(List.of(added), snapshot.current().getCompetitors());
+    }
+
+    private void loads(MarketNewsDTO... news) {
+        when(loader.load(anyInt(), any(), any(), any())).thenReturn(data(List.of(news)));
+    }
+
+    private static MarketDashboardLoader.DashboardData data(List<MarketNewsDTO> news) {
+        List<SentimentTimeSeries.Aggregate> sentiment = new ArrayList<>();
+        news.forEach(item -> sentiment.add(new SentimentTimeSeries.Aggregate(
+            item.getPublishedAt(), item.getCategory(), null, null, item.getSentimentScore(), 1)));
+        long unread = news.stream().filter(item -> !item.getIsRead()).count();
+        return new MarketDashboardLoader.DashboardData(
+            List.of(), new ArrayList<>(news), unread, 0, List.of(), sentiment, sentiment);
+    }
+
+    private static MarketNewsDTO news(Long id, boolean read) {
+        MarketNewsDTO news = new MarketNewsDTO();
+        news.setId(id);
+        news.setTitle("News " + id);
+        news.setCategory("MARKET");
+        news.setPublishedAt(LocalDateTime.now().minusMinutes(id));
+        news.setSentimentScore(0.5);
+        news.setIsRead(read);
+        news.setIsBookmarked(false);
+        return news;
+    }
+}
@@ -0,0 +1,196 @@
+package com.sme.analytics.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Exercises client-side balancing, health checks and hedging against two local stub ML replicas.
+ */
+class MlEndpointBalancerTest {
+
+    private StubReplica fast;
+    private StubReplica slow;
+    private MeterRegistry meterRegistry;
+    private Bulkhead bulkhead;
+    private MlEndpointBalancer balancer;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        fast = new StubReplica("fast");
+        slow = new StubReplica("slow");
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        fast.stop();
+        slow.stop();
+    }
+
+    @Test
+    void testChoose_PrefersEndpointWithFewestOutstandingRequests() {
+        // Arrange
+        MlEndpointBalancer balancer = new MlEndpointBalancer(List.of(fast.url(), slow.url()), Duration.ofMillis(500));
+        MlEndpointBalancer.Endpoint busy = balancer.getEndpoints().get(0);
+        busy.acquire();
+        busy.acquire();
+
+        // Act & Assert - every pick avoids the busy endpoint
+        for (int i = 0; i < 4; i++) {
+            assertSame(balancer.getEndpoints().get(1), balancer.choose(null));
+        }
+        busy.release();
+        busy.release();
+    }
+
+    @Test
+    void testCheckHealth_UnhealthyReplicaLeavesRotationAndReturns() {
+        // Arrange
+        MlEndpointBalancer balancer = new MlEndpointBalancer(List.of(fast.url(), slow.url()), Duration.ofMillis(500));
+        slow.healthy = false;
+
+        // Act
+        balancer.checkHealth();
+
+        // Assert
+        assertEquals(1, balancer.healthyCount());
+        for (int i = 0; i < 4; i++) {
+            assertEquals(fast.url(), balancer.choose(null).getUrl());
+        }
+
+        slow.healthy = true;
+        balancer.checkHealth();
+        assertEquals(2, balancer.healthyCount());
+    }
+
+    @Test
+    void testHedgedRequest_SlowReplicaIsOvertakenByFastOne() {
+        // Arrange - both replicas fast while the client learns the normal latency
+        MlServiceClient client = createClient(List.of(fast.url(), slow.url()), true);
+        for (int i = 0; i < 30; i++) {
+            client.askQuestion(Map.of("question", "warm"));
+        }
+        slow.latencyMillis.set(2000);
+
+        // Act
+        long start = System.nanoTime();
+        for (int i = 0; i < 4; i++) {
+            assertEquals("42", client.askQuestion(Map.of("question", "hedged")).get("answer"));
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // Assert - at least one call went to the slow replica first and was rescued by a hedge
+        assertTrue(elapsedMillis < 1500, "Hedged calls should not wait for the slow replica but took " + elapsedMillis + "ms");
+        assertTrue(meterRegistry.get("ml.service.hedges").tag("outcome", "sent").counter().count() >= 1);
+        assertTrue(meterRegistry.get("ml.service.hedges").tag("outcome", "won").counter().count() >= 1);
+        // The losing calls were aborted before returning, so nothing is still in flight
+        assertTrue(balancer.getEndpoints().stream().allMatch(endpoint -> endpoint.getOutstanding() == 0));
+        assertEquals(10, bulkhead.getMetrics().getAvailableConcurrentCalls());
+    }
+
+    @Test
+    void testHedgingDisabled_SingleRequestPerCall() {
+        // Arrange
+        MlServiceClient client = createClient(List.of(fast.url(), slow.url()), false);
+
+        // Act
+        for (int i = 0; i < 10; i++) {
+            client.askQuestion(Map.of("question", "plain"));
+        }
+
+        // Assert
+        assertEquals(10, fast.requests.get() + slow.requests.get());
+        assertTrue(fast.requests.get() > 0 && slow.requests.get() > 0);
+        assertEquals(0.0, meterRegistry.get("ml.service.hedges").tag("outcome", "sent").counter().count());
+    }
+
+    private MlServiceClient createClient(List<String> urls, boolean hedging) {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(500);
+        requestFactory.setReadTimeout(5000);
+        bulkhead = Bulkhead.of("mlService", BulkheadConfig.custom().maxConcurrentCalls(10).build());
+        balancer = new MlEndpointBalancer(urls, Duration.ofMillis(500));
+
+        return new MlServiceClient(
+            new RestTemplate(requestFactory),
+            CircuitBreaker.ofDefaults("mlService"),
+            bulkhead,
+            CircuitBreaker.ofDefaults("mlBatch"),
+            Bulkhead.ofDefaults("mlBatch"),
+            balancer,
+            meterRegistry,
+            hedging,
+            Duration.ofMillis(20)
+        );
+    }
+
+    private static final class StubReplica {
+        private final HttpServer server;
+        private final ExecutorService executor = Executors.newCachedThreadPool();
+        private final AtomicLong latencyMillis = new AtomicLong(5);
+        private final AtomicInteger requests = new AtomicInteger();
+        private volatile boolean healthy = true;
+
+        StubReplica(String name) throws IOException {
+            server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+            server.setExecutor(executor);
+            server.createContext("/api/chat/ask", exchange -> {
+                requests.incrementAndGet();
+                try {
+                    Thread.sleep(latencyMillis.get());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                respond(exchange, 200, "{\"answer\":\"42\",\"replica\":\"" + name + "\"}");
+            });
+            server.createContext("/health", exchange ->
+                respond(exchange, healthy ? 200 : 503, "{\"status\":\"" + (healthy ? "healthy" : "down") + "\"}"));
+            server.start();
+        }
+
+        String url() {
+            return "http://127.0.0.1:" + server.getAddress().getPort();
+        }
+
+        void stop() {
+            server.stop(0);
+            executor.shutdownNow();
+        }
+
+        private static void respond(HttpExchange exchange, int status, String json) {
+            byte[] body = json.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            try (OutputStream out = exchange.getResponseBody()) {
+                exchange.sendResponseHeaders(status, body.length);
+                out.write(body);
+            } catch (IOException e) {
+                // Client already gave up on this request
+            }
+        }
+    }
+}
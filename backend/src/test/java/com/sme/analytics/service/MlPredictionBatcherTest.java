@@ -0,0 +1,139 @@
+package com.sme.analytics.service;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class MlPredictionBatcherTest {
+
+    private MlServiceClient mlServiceClient;
+    private MeterRegistry meterRegistry;
+    private MlPredictionBatcher batcher;
+    private final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        mlServiceClient = mock(MlServiceClient.class);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (batcher != null) {
+            batcher.shutdown();
+        }
+    }
+
+    @Test
+    void flushesFullBatchesWithoutWaitingForTheDelay() throws Exception {
+        // Arrange: a delay far longer than the test, so only size can flush
+        echoPredictions();
+        batcher = new MlPredictionBatcher(mlServiceClient, meterRegistry, 4, Duration.ofSeconds(30), 100, 2);
+
+        // Act
+        List<CompletableFuture<Map<String, Object>>> futures = submit(8);
+
+        // Assert
+        for (int i = 0; i < futures.size(); i++) {
+            assertEquals(i, futures.get(i).get(2, TimeUnit.SECONDS).get("id"));
+        }
+        assertEquals(List.of(4, 4), batchSizes);
+    }
+
+    @Test
+    void flushesPartialBatchAfterMaxDelay() throws Exception {
+        // Arrange
+        echoPredictions();
+        batcher = new MlPredictionBatcher(mlServiceClient, meterRegistry, 64, Duration.ofMillis(50), 100, 2);
+
+        // Act
+        long start = System.nanoTime();
+        List<CompletableFuture<Map<String, Object>>> futures = submit(3);
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(2, TimeUnit.SECONDS);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // Assert
+        assertEquals(List.of(3), batchSizes);
+        assertTrue(elapsedMillis >= 40, "Partial batch should wait for the delay but took " + elapsedMillis + "ms");
+    }
+
+    @Test
+    void failsEveryCallerOfAFailedBatchAndCountsTheFailure() {
+        // Arrange
+        when(mlServiceClient.predictBatch(anyList()))
+            .thenThrow(BulkheadFullException.createBulkheadFullException(Bulkhead.ofDefaults("mlBatch")));
+        batcher = new MlPredictionBatcher(mlServiceClient, meterRegistry, 2, Duration.ofMillis(5), 100, 2);
+
+        // Act
+        List<CompletableFuture<Map<String, Object>>> futures = submit(2);
+
+        // Assert
+        for (CompletableFuture<Map<String, Object>> future : futures) {
+            ExecutionException error = assertThrows(ExecutionException.class, () -> future.get(2, TimeUnit.SECONDS));
+            assertInstanceOf(BulkheadFullException.class, error.getCause());
+        }
+        assertEquals(1.0, meterRegistry.counter("ml.predictions.batch.failures", "reason", "bulkhead_full").count());
+    }
+
+    @Test
+    void limitsConcurrentBatchesAndRejectsWhenQueueIsFull() throws Exception {
+        // Arrange: batches block until released
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger concurrent = new AtomicInteger();
+        AtomicInteger maxConcurrent = new AtomicInteger();
+        when(mlServiceClient.predictBatch(anyList())).thenAnswer(invocation -> {
+            maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+            release.await(5, TimeUnit.SECONDS);
+            concurrent.decrementAndGet();
+            List<Map<String, Object>> requests = invocation.getArgument(0);
+            return new ArrayList<>(requests);
+        });
+        batcher = new MlPredictionBatcher(mlServiceClient, meterRegistry, 1, Duration.ofMillis(1), 2, 2);
+
+        // Act: two batches in flight, two requests queued, the fifth is rejected
+        List<CompletableFuture<Map<String, Object>>> accepted = submit(2);
+        Thread.sleep(100);
+        accepted.addAll(submit(2));
+        CompletableFuture<Map<String, Object>> rejected = batcher.submit(Map.of("id", 99));
+        release.countDown();
+
+        // Assert
+        ExecutionException error = assertThrows(ExecutionException.class, () -> rejected.get(2, TimeUnit.SECONDS));
+        assertInstanceOf(RejectedExecutionException.class, error.getCause());
+        for (CompletableFuture<Map<String, Object>> future : accepted) {
+            assertNotNull(future.get(2, TimeUnit.SECONDS));
+        }
+        assertEquals(2, maxConcurrent.get());
+    }
+
+    private void echoPredictions() {
+        when(mlServiceClient.predictBatch(anyList())).thenAnswer(invocation -> {
+            List<Map<String, Object>> requests = invocation.getArgument(0);
+            batchSizes.add(requests.size());
+            return new ArrayList<>(requests);
+        });
+    }
+
+    private List<CompletableFuture<Map<String, Object>>> submit(int count) {
+        List<CompletableFuture<Map<String, Object>>> futures = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            futures.add(batcher.submit(Map.of("id", i)));
+        }
+        return futures;
+    }
+}
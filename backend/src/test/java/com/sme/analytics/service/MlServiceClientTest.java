@@ -0,0 +1,210 @@
+package com.sme.analytics.service;
+
+import com.sun.net.httpserver.HttpServer;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Exercises the ML circuit breaker and bulkhead against a local stub ML server
+ * whose response latency can be changed per test.
+ */
+class MlServiceClientTest {
+
+    private HttpServer stubServer;
+    private ExecutorService stubExecutor;
+    private final AtomicLong latencyMillis = new AtomicLong();
+    private final AtomicInteger requestCount = new AtomicInteger();
+    private final AtomicInteger responseStatus = new AtomicInteger(200);
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        stubServer = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        stubExecutor = Executors.newCachedThreadPool();
+        stubServer.setExecutor(stubExecutor);
+        stubServer.createContext("/api/chat/ask", exchange -> {
+            requestCount.incrementAndGet();
+            try {
+                Thread.sleep(latencyMillis.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            int status = responseStatus.get();
+            byte[] body = (status == 200
+                ? "{\"answer\":\"42\",\"confidence\":\"high\",\"referenced_data\":{},\"suggestions\":[]}"
+                : "{\"detail\":\"Question cannot be empty\"}")
+                .getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            } catch (IOException e) {
+                // Client already gave up on this request
+            }
+        });
+        stubServer.start();
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        stubServer.stop(0);
+        stubExecutor.shutdownNow();
+    }
+
+    @Test
+    void testCircuitOpensOnSlowMlServiceAndFailsFast() {
+        // Arrange
+        MlServiceClient client = createClient(200, 10);
+        latencyMillis.set(1000);
+
+        // Act - every call times out until the breaker opens
+        for (int i = 0; i < 4; i++) {
+            assertThrows(RuntimeException.class, () -> client.askQuestion(Map.of("question", "slow")));
+        }
+        int requestsBeforeRejection = requestCount.get();
+        long start = System.nanoTime();
+        assertThrows(CallNotPermittedException.class, () -> client.askQuestion(Map.of("question", "rejected")));
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // Assert
+        assertEquals(CircuitBreaker.State.OPEN, client.getCircuitState());
+        assertTrue(elapsedMillis < 100, "Open circuit should reject immediately but took " + elapsedMillis + "ms");
+        assertEquals(requestsBeforeRejection, requestCount.get());
+        assertEquals(1.0, meterRegistry.get("ml.service.rejections").tag("reason", "circuit_open").counter().count());
+        assertEquals(1.0, meterRegistry.get("ml.service.circuitbreaker.transitions")
+            .tag("from", "CLOSED").tag("to", "OPEN").counter().count());
+    }
+
+    @Test
+    void testCircuitProbesHalfOpenAndRecovers() throws InterruptedException {
+        // Arrange
+        MlServiceClient client = createClient(200, 10);
+        latencyMillis.set(1000);
+        for (int i = 0; i < 4; i++) {
+            assertThrows(RuntimeException.class, () -> client.askQuestion(Map.of("question", "slow")));
+        }
+        assertEquals(CircuitBreaker.State.OPEN, client.getCircuitState());
+
+        // Act - ML service recovers and the open period elapses
+        latencyMillis.set(0);
+        Thread.sleep(600);
+        Map<String, Object> answer = client.askQuestion(Map.of("question", "probe"));
+
+        // Assert
+        assertEquals("42", answer.get("answer"));
+        assertEquals(CircuitBreaker.State.CLOSED, client.getCircuitState());
+        assertEquals(1.0, meterRegistry.get("ml.service.circuitbreaker.transitions")
+            .tag("from", "OPEN").tag("to", "HALF_OPEN").counter().count());
+        assertEquals(1.0, meterRegistry.get("ml.service.circuitbreaker.transitions")
+            .tag("from", "HALF_OPEN").tag("to", "CLOSED").counter().count());
+    }
+
+    @Test
+    void testClientErrorsDoNotOpenCircuit() {
+        // Arrange
+        MlServiceClient client = createClient(200, 10);
+        responseStatus.set(400);
+
+        // Act - a run of rejected requests fills the sliding window
+        for (int i = 0; i < 6; i++) {
+            assertThrows(HttpClientErrorException.class, () -> client.askQuestion(Map.of("question", "")));
+        }
+
+        // Assert
+        assertEquals(CircuitBreaker.State.CLOSED, client.getCircuitState());
+        responseStatus.set(200);
+        assertEquals("42", client.askQuestion(Map.of("question", "still served")).get("answer"));
+        assertEquals(7, requestCount.get());
+    }
+
+    @Test
+    void testBulkheadRejectsCallsBeyondConcurrencyLimit() throws Exception {
+        // Arrange
+        MlServiceClient client = createClient(2000, 2);
+        latencyMillis.set(500);
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+
+        try {
+            // Act - two slow calls occupy the bulkhead
+            CompletableFuture<Map<String, Object>> first = CompletableFuture.supplyAsync(
+                () -> client.askQuestion(Map.of("question", "one")), callers);
+            CompletableFuture<Map<String, Object>> second = CompletableFuture.supplyAsync(
+                () -> client.askQuestion(Map.of("question", "two")), callers);
+            long deadline = System.currentTimeMillis() + 2000;
+            while (requestCount.get() < 2 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+
+            // Assert
+            assertThrows(BulkheadFullException.class, () -> client.askQuestion(Map.of("question", "three")));
+            assertEquals("42", first.get(5, TimeUnit.SECONDS).get("answer"));
+            assertEquals("42", second.get(5, TimeUnit.SECONDS).get("answer"));
+            assertEquals(2, requestCount.get());
+            assertEquals(CircuitBreaker.State.CLOSED, client.getCircuitState());
+            assertEquals(1.0, meterRegistry.get("ml.service.rejections").tag("reason", "bulkhead_full").counter().count());
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    private MlServiceClient createClient(int readTimeoutMillis, int maxConcurrentCalls) {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(500);
+        requestFactory.setReadTimeout(readTimeoutMillis);
+
+        CircuitBreaker circuitBreaker = CircuitBreaker.of("mlService", CircuitBreakerConfig.custom()
+            .slidingWindowType(CircuitBreakerConfig.SlidingWindowType.COUNT_BASED)
+            .slidingWindowSize(4)
+            .minimumNumberOfCalls(4)
+            .failureRateThreshold(50)
+            .waitDurationInOpenState(Duration.ofMillis(500))
+            .permittedNumberOfCallsInHalfOpenState(1)
+            .ignoreExceptions(BulkheadFullException.class, HttpClientErrorException.class)
+            .build());
+        Bulkhead bulkhead = Bulkhead.of("mlService", BulkheadConfig.custom()
+            .maxConcurrentCalls(maxConcurrentCalls)
+            .maxWaitDuration(Duration.ZERO)
+            .build());
+
+        return new MlServiceClient(
+            new RestTemplate(requestFactory),
+            circuitBreaker,
+            bulkhead,
+            CircuitBreaker.ofDefaults("mlBatch"),
+            Bulkhead.ofDefaults("mlBatch"),
+            new MlEndpointBalancer(List.of("http://127.0.0.1:" + stubServer.getAddress().getPort()), Duration.ofMillis(500)),
+            meterRegistry,
+            false,
+            Duration.ofMillis(50)
+        );
+    }
+}
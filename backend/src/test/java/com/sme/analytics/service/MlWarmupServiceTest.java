@@ -0,0 +1,110 @@
+package com.sme.analytics.service;
+
+import com.sme.analytics.model.UploadedFile;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Exercises warmup backoff against a local stub ML server
+ */
+class MlWarmupServiceTest {
+
+    private HttpServer stubServer;
+    private ThreadPoolTaskExecutor executor;
+    private final AtomicInteger responseStatus = new AtomicInteger(200);
+    private final AtomicInteger requestCount = new AtomicInteger();
+    private MeterRegistry meterRegistry;
+    private MlWarmupService warmupService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        stubServer = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        stubServer.createContext("/api/chat/warmup", exchange -> {
+            requestCount.incrementAndGet();
+            exchange.sendResponseHeaders(responseStatus.get(), -1);
+            exchange.close();
+        });
+        stubServer.start();
+
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(10);
+        executor.initialize();
+
+        meterRegistry = new SimpleMeterRegistry();
+        warmupService = new MlWarmupService(
+            new MlEndpointBalancer(List.of("http://127.0.0.1:" + stubServer.getAddress().getPort()), Duration.ofMillis(500)),
+            executor,
+            meterRegistry,
+            true,
+            Duration.ofMillis(500),
+            Duration.ofMillis(300),
+            Duration.ofSeconds(5)
+        );
+    }
+
+    @AfterEach
+    void tearDown() {
+        stubServer.stop(0);
+        executor.shutdown();
+    }
+
+    @Test
+    void backsOffAfterFailureAndResumesAfterwards() throws InterruptedException {
+        // Arrange
+        responseStatus.set(503);
+
+        // Act - the first warmup fails, the next upload inside the backoff is not sent
+        warmupService.warmUp(file(1L));
+        awaitCount("failure", 1);
+        warmupService.warmUp(file(2L));
+
+        // Assert
+        assertTrue(warmupService.inBackoff());
+        assertEquals(1, requestCount.get());
+        assertEquals(1.0, count("skipped"));
+
+        // Act - once the backoff has elapsed warmups are sent again
+        responseStatus.set(200);
+        Thread.sleep(400);
+        warmupService.warmUp(file(3L));
+        awaitCount("success", 1);
+
+        // Assert
+        assertFalse(warmupService.inBackoff());
+        assertEquals(2, requestCount.get());
+    }
+
+    private void awaitCount(String outcome, double expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (count(outcome) < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(expected, count(outcome));
+    }
+
+    private double count(String outcome) {
+        return meterRegistry.counter("ml.warmup", "outcome", outcome).count();
+    }
+
+    private static UploadedFile file(Long id) {
+        UploadedFile file = new UploadedFile();
+        file.setId(id);
+        file.setFileContent("a,b\n1,2\n");
+        return file;
+    }
+}
@@ -0,0 +1,104 @@
+package com.sme.analytics.service;
+
+import com.sme.analytics.model.MarketNews;
+import com.sme.analytics.repository.MarketNewsBatchRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class NearDuplicateDetectorTest {
+
+    private static final String STORY = "Acme Foods expands same-day delivery to Berlin. The grocery chain said on Monday "
+        + "that customers in all districts can now order fresh produce and receive it within four hours.";
+    private static final String REWORDED = "UPDATE: Acme Foods expands same day delivery to Berlin - The grocery chain said "
+        + "on Monday that customers in all districts can now order fresh produce and receive it within four hours.";
+
+    private NearDuplicateDetector detector;
+
+    @BeforeEach
+    void setUp() {
+        detector = new NearDuplicateDetector(
+            mock(MarketNewsBatchRepository.class), mock(TransactionTemplate.class), 3, 8, Duration.ofDays(14));
+    }
+
+    @Test
+    void linksDuplicatesOfStoredArticles() {
+        // Arrange
+        MarketNews stored = news(STORY);
+        detector.cluster(List.of(stored));
+        stored.setId(42L);
+        detector.register(List.of(stored));
+
+        // Act
+        NearDuplicateDetector.Clustering clustering = detector.cluster(List.of(news(REWORDED), news("Too short to sign")));
+
+        // Assert
+        assertEquals(2, clustering.ready().size());
+        assertEquals(42L, clustering.ready().get(0).getCanonicalNewsId());
+        assertNull(clustering.ready().get(1).getSimhash());
+        assertTrue(clustering.deferred().isEmpty());
+    }
+
+    @Test
+    void clustersALargeBatchAgainstItself() {
+        // Arrange - 20,000 distinct stories, every tenth followed later in the batch by a syndicated copy
+        int stories = 20_000;
+        List<MarketNews> batch = new ArrayList<>();
+        for (int i = 0; i < stories; i++) {
+            batch.add(news(story(i)));
+        }
+        for (int i = 0; i < stories; i += 10) {
+            batch.add(news(story(i)));
+        }
+        batch.add(news(STORY));
+        batch.add(news(REWORDED));
+
+        // Act
+        NearDuplicateDetector.Clustering clustering = detector.cluster(batch);
+
+        // Assert - each copy waits for the first article of its story
+        assertEquals(stories + 1, clustering.ready().size());
+        assertEquals(stories / 10 + 1, clustering.deferred().size());
+        for (NearDuplicateDetector.Deferred deferred : clustering.deferred()) {
+            assertNotSame(deferred.duplicate(), deferred.canonical());
+            assertEquals(deferred.canonical().getTitle(), deferred.duplicate().getTitle().replace("UPDATE: ", "")
+                .replace("same day", "same-day").replace(" -", "."));
+        }
+        assertSame(batch.get(0), clustering.deferred().get(0).canonical());
+        assertSame(batch.get(stories + stories / 10), clustering.deferred().get(stories / 10).canonical());
+
+        // Act - canonical articles get their ids on insert
+        for (int i = 0; i < clustering.ready().size(); i++) {
+            clustering.ready().get(i).setId(i + 1L);
+        }
+        List<MarketNews> resolved = clustering.resolveDeferred();
+
+        // Assert
+        assertEquals(1L, resolved.get(0).getCanonicalNewsId());
+        assertEquals(11L, resolved.get(1).getCanonicalNewsId());
+    }
+
+    /**
+     * A story of unique words, long enough to be signed
+     */
+    private static String story(int number) {
+        StringBuilder text = new StringBuilder();
+        for (int word = 0; word < 12; word++) {
+            text.append("w").append(number).append("x").append(word).append(' ');
+        }
+        return text.toString().strip();
+    }
+
+    private static MarketNews news(String title) {
+        MarketNews news = new MarketNews();
+        news.setTitle(title);
+        return news;
+    }
+}
@@ -0,0 +1,172 @@
+package com.sme.analytics.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Fetches RSS, Atom and JSON feeds from a local stand-in news server.
+ */
+class NewsFeedFetcherTest {
+
+    private static final String RSS = """
+        <?xml version="1.0"?>
+        <rss version="2.0"><channel><title>Retail Daily</title>
+          <item>
+            <title>Grocer expands delivery</title>
+            <link>https://news.example/grocer</link>
+            <description>Delivery now covers the whole city.</description>
+            <pubDate>Mon, 05 Oct 2026 08:30:00 GMT</pubDate>
+            <category>delivery</category><category>retail</category>
+          </item>
+          <item><title>No link, skipped</title></item>
+        </channel></rss>
+        """;
+
+    private static final String ATOM = """
+        <?xml version="1.0" encoding="utf-8"?>
+        <feed xmlns="http://www.w3.org/2005/Atom"><title>Markets</title>
+          <entry>
+            <title>Rates unchanged</title>
+            <link rel="alternate" href="https://news.example/rates"/>
+            <summary>The central bank held rates.</summary>
+            <published>2026-10-05T09:00:00Z</published>
+            <category term="rates"/>
+          </entry>
+        </feed>
+        """;
+
+    private static final String JSON = """
+        {"version": "https://jsonfeed.org/version/1.1", "title": "Tech",
+         "items": [{"id": "1", "url": "https://news.example/chips", "title": "Chip prices fall",
+                    "content_text": "Prices dropped 5%.", "date_published": "2026-10-05T10:00:00+00:00",
+                    "tags": ["chips", "pricing"]}]}
+        """;
+
+    private HttpServer server;
+    private final List<Long> requestTimes = new CopyOnWriteArrayList<>();
+    private NewsFeedFetcher fetcher;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/rss", exchange -> respond(exchange, RSS, "\"rss-v1\""));
+        server.createContext("/atom", exchange -> respond(exchange, ATOM, null));
+        server.createContext("/json", exchange -> respond(exchange, JSON, null));
+        server.createContext("/broken", exchange -> {
+            exchange.sendResponseHeaders(500, -1);
+            exchange.close();
+        });
+        server.setExecutor(null);
+        server.start();
+
+        fetcher = new NewsFeedFetcher(
+            List.of(new RssFeedParser(), new JsonFeedParser(new ObjectMapper())),
+            Duration.ofMillis(100),
+            1,
+            Duration.ofSeconds(2),
+            Duration.ofSeconds(5),
+            "test-agent"
+        );
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void parsesEveryFormatAndSkipsFailingFeeds() {
+        // Arrange
+        NewsFeedFetcher.NewsFeed rss = NewsFeedFetcher.NewsFeed.parse("rss:" + url("/rss"));
+        NewsFeedFetcher.NewsFeed atom = NewsFeedFetcher.NewsFeed.parse("rss:" + url("/atom"));
+        NewsFeedFetcher.NewsFeed json = NewsFeedFetcher.NewsFeed.parse("json:" + url("/json"));
+        NewsFeedFetcher.NewsFeed broken = NewsFeedFetcher.NewsFeed.parse("rss:" + url("/broken"));
+
+        // Act
+        Map<NewsFeedFetcher.NewsFeed, List<FeedItem>> results = fetcher.fetchAll(List.of(rss, atom, json, broken));
+
+        // Assert
+        assertEquals(3, results.size());
+        FeedItem grocer = results.get(rss).get(0);
+        assertEquals(1, results.get(rss).size());
+        assertEquals("https://news.example/grocer", grocer.url());
+        assertEquals(List.of("delivery", "retail"), grocer.keywords());
+        assertNotNull(grocer.publishedAt());
+
+        FeedItem rates = results.get(atom).get(0);
+        assertEquals("https://news.example/rates", rates.url());
+        assertEquals("The central bank held rates.", rates.summary());
+
+        FeedItem chips = results.get(json).get(0);
+        assertEquals("Chip prices fall", chips.title());
+        assertEquals(List.of("chips", "pricing"), chips.keywords());
+    }
+
+    @Test
+    void refetchIsConditionalAndPerHostRequestsAreSpaced() throws Exception {
+        // Arrange
+        NewsFeedFetcher.NewsFeed rss = NewsFeedFetcher.NewsFeed.parse("rss:" + url("/rss"));
+
+        // Act
+        List<FeedItem> first = fetcher.fetch(rss);
+        fetcher.commitValidators(List.of(rss));
+        List<FeedItem> second = fetcher.fetch(rss);
+
+        // Assert: unchanged feed answers 304 and yields nothing; the two requests are spaced by the host interval
+        assertEquals(1, first.size());
+        assertTrue(second.isEmpty());
+        assertEquals(2, requestTimes.size());
+        assertTrue(requestTimes.get(1) - requestTimes.get(0) >= Duration.ofMillis(90).toNanos());
+    }
+
+    @Test
+    void refetchIsUnconditionalUntilValidatorsAreCommitted() throws Exception {
+        // Arrange
+        NewsFeedFetcher.NewsFeed rss = NewsFeedFetcher.NewsFeed.parse("rss:" + url("/rss"));
+
+        // Act: the items of the first fetch were never stored
+        List<FeedItem> first = fetcher.fetch(rss);
+        List<FeedItem> second = fetcher.fetch(rss);
+
+        // Assert: the feed is served in full again
+        assertEquals(1, first.size());
+        assertEquals(1, second.size());
+    }
+
+    private String url(String path) {
+        return URI.create("http://127.0.0.1:" + server.getAddress().getPort() + path).toString();
+    }
+
+    private void respond(HttpExchange exchange, String body, String etag) throws IOException {
+        requestTimes.add(System.nanoTime());
+        if (etag != null && etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+            exchange.sendResponseHeaders(304, -1);
+            exchange.close();
+            return;
+        }
+        byte[] bytes = body.strip().getBytes(StandardCharsets.UTF_8);
+        if (etag != null) {
+            exchange.getResponseHeaders().add("ETag", etag);
+        }
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
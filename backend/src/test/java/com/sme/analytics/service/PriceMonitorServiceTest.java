@@ -0,0 +1,127 @@
+package com.sme.analytics.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sme.analytics.mapper.CompetitorPriceHistoryMapper;
+import com.sme.analytics.model.Competitor;
+import com.sme.analytics.repository.CompetitorPriceHistoryRepository;
+import com.sme.analytics.repository.CompetitorRepository;
+import com.sme.analytics.util.OutboundUrlPolicy;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+/**
+ * Polls a local stand-in price page through the real fetcher, with the repositories mocked.
+ */
+class PriceMonitorServiceTest {
+
+    private static final String ETAG = "\"v1\"";
+
+    private HttpServer server;
+    private final List<Integer> statuses = new CopyOnWriteArrayList<>();
+    private CompetitorRepository competitorRepository;
+    private CompetitorPriceHistoryRepository priceHistoryRepository;
+    private PriceMonitorService priceMonitorService;
+    private Competitor competitor;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        // A page that lost its price: 200 without one, 304 whenever its validator comes back
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/pricing", exchange -> {
+            if (ETAG.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                statuses.add(304);
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+                return;
+            }
+            statuses.add(200);
+            byte[] bytes = "<html><body>Contact us for pricing</body></html>".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "text/html");
+            exchange.getResponseHeaders().add("ETag", ETAG);
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        });
+        server.start();
+
+        competitor = new Competitor();
+        competitor.setId(1L);
+        competitor.setName("Acme");
+        competitor.setCreatedAt(LocalDateTime.now());
+        competitor.setPriceMonitoringUrl("http://127.0.0.1:" + server.getAddress().getPort() + "/pricing");
+        competitor.setLastKnownPrice(10.0);
+
+        competitorRepository = mock(CompetitorRepository.class);
+        when(competitorRepository.findByActiveTrueAndPriceMonitoringUrlIsNotNull()).thenReturn(List.of(competitor));
+        when(competitorRepository.findById(1L)).thenReturn(Optional.of(competitor));
+        priceHistoryRepository = mock(CompetitorPriceHistoryRepository.class);
+
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        CompetitorPriceFetcher priceFetcher = new CompetitorPriceFetcher(
+            List.of(new JsonLdPriceExtractor(new ObjectMapper()), new HtmlMetaPriceExtractor()),
+            new OutboundUrlPolicy(address -> address.isLoopbackAddress() || OutboundUrlPolicy.isPublic(address)),
+            Duration.ofMillis(10),
+            1,
+            Duration.ofSeconds(2),
+            Duration.ofSeconds(5),
+            1_000_000,
+            "test-agent"
+        );
+        priceMonitorService = new PriceMonitorService(
+            competitorRepository,
+            priceHistoryRepository,
+            Mappers.getMapper(CompetitorPriceHistoryMapper.class),
+            priceFetcher,
+            new TransactionTemplate(transactionManager),
+            mock(ApplicationEventPublisher.class),
+            new SimpleMeterRegistry()
+        );
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void pageWithoutPriceDoesNotKeepValidatorsThatWouldConfirmTheOldPrice() {
+        // Act - the first poll gets a 200 without a price, the second polls the same page again
+        int firstChanged = priceMonitorService.poll();
+        String etagAfterNoPrice = competitor.getPriceEtag();
+        int secondChanged = priceMonitorService.poll();
+
+        // Assert - no 304 was provoked and the old price was never observed again
+        assertEquals(0, firstChanged);
+        assertEquals(0, secondChanged);
+        assertNull(etagAfterNoPrice);
+        assertEquals(List.of(200, 200), statuses);
+        assertEquals(10.0, competitor.getLastKnownPrice());
+        verify(priceHistoryRepository, never()).findTopByCompetitorIdOrderByFirstSeenAtDesc(anyLong());
+        verify(priceHistoryRepository, never()).save(any());
+    }
+}
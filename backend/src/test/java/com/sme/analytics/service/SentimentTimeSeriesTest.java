@@ -0,0 +1,164 @@
+package com.sme.analytics.service;
+
+import com.sme.analytics.dto.MarketNewsDTO;
+import com.sme.analytics.dto.SentimentPoint;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SentimentTimeSeriesTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2026, 3, 2, 10, 30);
+
+    private MutableClock clock;
+    private SentimentTimeSeries series;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(START);
+        // 60 minute buckets, 24 hour buckets
+        series = new SentimentTimeSeries(60, 24, clock);
+    }
+
+    @Test
+    void aggregatesByDimension() {
+        // Act
+        series.recordAll(List.of(
+            news(START.minusMinutes(5), 0.6, "TECH", "RETAIL", 1L),
+            news(START.minusMinutes(3), -0.2, "TECH", null, null),
+            news(START.minusMinutes(1), 0.4, "FINANCE", "RETAIL", 2L)));
+
+        // Assert
+        Duration window = Duration.ofMinutes(30);
+        assertEquals(0.2667, series.average(SentimentTimeSeries.Dimension.ALL, null, window), 1e-4);
+        assertEquals(Map.of("TECH", 0.2, "FINANCE", 0.4), rounded(series.averages(SentimentTimeSeries.Dimension.CATEGORY, window)));
+        assertEquals(0.5, series.average(SentimentTimeSeries.Dimension.INDUSTRY, "RETAIL", window), 1e-9);
+        assertEquals(0.6, series.average(SentimentTimeSeries.Dimension.COMPETITOR, "1", window), 1e-9);
+        assertNull(series.average(SentimentTimeSeries.Dimension.COMPETITOR, "3", window));
+    }
+
+    @Test
+    void longWindowsUseHourBucketsAndRollOver() {
+        // Arrange
+        series.recordAll(List.of(news(START.minusHours(3), 1.0, "TECH", null, null)));
+        series.recordAll(List.of(news(START.minusMinutes(10), 0.0, "TECH", null, null)));
+
+        // Act & Assert - within 6 hours both count, within 30 minutes only the recent one
+        assertEquals(0.5, series.average(SentimentTimeSeries.Dimension.ALL, null, Duration.ofHours(6)), 1e-9);
+        assertEquals(0.0, series.average(SentimentTimeSeries.Dimension.ALL, null, Duration.ofMinutes(30)), 1e-9);
+
+        // Act - two hours later the minute buckets have rolled over
+        clock.advance(Duration.ofHours(2));
+
+        // Assert
+        assertNull(series.average(SentimentTimeSeries.Dimension.ALL, null, Duration.ofMinutes(30)));
+        assertEquals(0.5, series.average(SentimentTimeSeries.Dimension.ALL, null, Duration.ofHours(6)), 1e-9);
+    }
+
+    @Test
+    void dropsNewsOutsideTheWindowAndEvictsIdleSeries() {
+        // Act - older than the 24 hour ring
+        series.recordAll(List.of(news(START.minusDays(2), 1.0, "OLD", null, null)));
+
+        // Assert
+        assertEquals(0, series.seriesCount());
+
+        // Arrange
+        series.recordAll(List.of(news(START, 1.0, "TECH", "RETAIL", 7L)));
+        assertEquals(4, series.seriesCount());
+
+        // Act - a day later every bucket has left both rings
+        clock.advance(Duration.ofHours(25));
+        series.recordAll(List.of(news(clock.now(), -1.0, null, null, null)));
+
+        // Assert - only the overall series, which just got news, is left
+        assertEquals(1, series.seriesCount());
+        assertTrue(series.averages(SentimentTimeSeries.Dimension.CATEGORY, Duration.ofDays(1)).isEmpty());
+        assertEquals(-1.0, series.average(SentimentTimeSeries.Dimension.ALL, null, Duration.ofDays(1)), 1e-9);
+    }
+
+    @Test
+    void rebuildsFromDatabaseAggregates() {
+        // Arrange
+        LocalDateTime thisHour = START.withMinute(0);
+        List<SentimentTimeSeries.Aggregate> hourly = List.of(
+            new SentimentTimeSeries.Aggregate(thisHour, "TECH", null, null, 1.5, 3),
+            new SentimentTimeSeries.Aggregate(thisHour.minusHours(2), "TECH", null, 4L, -1.0, 2),
+            new SentimentTimeSeries.Aggregate(thisHour.minusDays(3), "TECH", null, null, 9.0, 9));
+        List<SentimentTimeSeries.Aggregate> minutely = List.of(
+            new SentimentTimeSeries.Aggregate(START.minusMinutes(2), "TECH", null, null, 1.5, 3));
+
+        // Act
+        series.rebuild(hourly, minutely);
+
+        // Assert - the 3 day old aggregate is outside the ring
+        assertEquals(0.1, series.average(SentimentTimeSeries.Dimension.CATEGORY, "TECH", Duration.ofHours(12)), 1e-9);
+        assertEquals(-0.5, series.average(SentimentTimeSeries.Dimension.COMPETITOR, "4", Duration.ofHours(12)), 1e-9);
+        assertEquals(0.5, series.average(SentimentTimeSeries.Dimension.ALL, null, Duration.ofMinutes(10)), 1e-9);
+        List<SentimentPoint> points = series.points(
+            SentimentTimeSeries.Dimension.ALL, null, SentimentTimeSeries.Resolution.MINUTE, 3);
+        assertEquals(3, points.get(0).count());
+        assertEquals(START.minusMinutes(2), points.get(0).bucketStart());
+        assertEquals(LocalDateTime.of(2026, 3, 1, 11, 0), series.retentionStart());
+    }
+
+    private static Map<String, Double> rounded(Map<String, Double> averages) {
+        return averages.entrySet().stream().collect(Collectors.toMap(
+            Map.Entry::getKey, entry -> Math.round(entry.getValue() * 1e4) / 1e4));
+    }
+
+    private static MarketNewsDTO news(LocalDateTime publishedAt, double score, String category, String industry, Long competitorId) {
+        MarketNewsDTO news = new MarketNewsDTO();
+        news.setPublishedAt(publishedAt);
+        news.setSentimentScore(score);
+        news.setCategory(category);
+        news.setIndustry(industry);
+        news.setRelatedCompetitorId(competitorId);
+        return news;
+    }
+
+    /**
+     * Clock in UTC that tests move forward by hand
+     */
+    private static final class MutableClock extends Clock {
+        private Instant instant;
+
+        MutableClock(LocalDateTime start) {
+            this.instant = start.toInstant(ZoneOffset.UTC);
+        }
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        LocalDateTime now() {
+            return LocalDateTime.ofInstant(instant, ZoneOffset.UTC);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.sme.analytics.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AhoCorasickMatcherTest {
+
+    @Test
+    void findsOverlappingWholeWordKeywordsCaseInsensitively() {
+        // Arrange
+        AhoCorasickMatcher<String> matcher = AhoCorasickMatcher.<String>builder()
+            .add("Acme", "acme")
+            .add("Acme  Foods", "acme-foods")
+            .add("ai", "ai")
+            .add("  ", "blank")
+            .build();
+        List<String> matches = new ArrayList<>();
+
+        // Act
+        matcher.match("ACME foods bets on AI for retail at acme.", (value, start, end) -> matches.add(value + "@" + start));
+
+        // Assert: "ai" inside "retail" is not a whole word; the blank keyword is ignored
+        assertEquals(3, matcher.keywordCount());
+        assertEquals(List.of("acme@0", "acme-foods@0", "ai@19", "acme@36"), matches);
+    }
+}
@@ -0,0 +1,56 @@
+package com.sme.analytics.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OutboundUrlPolicyTest {
+
+    @Test
+    void onlyPublicAddressesArePublic() throws Exception {
+        // Assert
+        for (String address : new String[] {"127.0.0.1", "::1", "169.254.169.254", "fe80::1", "10.1.2.3", "172.16.0.1",
+                "192.168.1.1", "0.0.0.0", "::", "224.0.0.1", "ff02::1", "fd00::1", "100.64.0.1", "0.1.2.3"}) {
+            assertFalse(OutboundUrlPolicy.isPublic(InetAddress.getByName(address)), address);
+        }
+        for (String address : new String[] {"93.184.216.34", "8.8.8.8", "100.128.0.1", "172.32.0.1", "2606:4700::1111"}) {
+            assertTrue(OutboundUrlPolicy.isPublic(InetAddress.getByName(address)), address);
+        }
+    }
+
+    @Test
+    void rejectsUrlsResolvingToPrivateAddressesAndOtherSchemes() {
+        // Act & Assert - IP literals resolve without DNS
+        assertThrows(IOException.class, () -> OutboundUrlPolicy.PUBLIC_ONLY.check(URI.create("http://169.254.169.254/latest/meta-data/")));
+        assertThrows(IOException.class, () -> OutboundUrlPolicy.PUBLIC_ONLY.check(URI.create("http://[::1]:8080/")));
+        assertThrows(IOException.class, () -> OutboundUrlPolicy.PUBLIC_ONLY.check(URI.create("http://10.0.0.5/prices")));
+        assertThrows(IOException.class, () -> OutboundUrlPolicy.PUBLIC_ONLY.check(URI.create("ftp://93.184.216.34/prices")));
+        assertDoesNotThrow(() -> OutboundUrlPolicy.PUBLIC_ONLY.check(URI.create("https://93.184.216.34/prices")));
+    }
+
+    @Test
+    void resolvesOnceAndReturnsTheCheckedAddresses() throws Exception {
+        // Arrange
+        InetAddress checked = InetAddress.getByName("93.184.216.34");
+        List<String> lookups = new ArrayList<>();
+        OutboundUrlPolicy policy = new OutboundUrlPolicy(OutboundUrlPolicy::isPublic, host -> {
+            lookups.add(host);
+            return lookups.size() == 1 ? new InetAddress[] {checked} : new InetAddress[] {InetAddress.getByName("10.0.0.5")};
+        });
+
+        // Act
+        InetAddress[] addresses = policy.resolve("shop.example");
+
+        // Assert
+        assertArrayEquals(new InetAddress[] {checked}, addresses);
+        assertEquals(List.of("shop.example"), lookups);
+        assertThrows(UnknownHostException.class, () -> policy.resolve("shop.example"));
+    }
+}
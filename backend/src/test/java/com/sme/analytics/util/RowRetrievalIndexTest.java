@@ -0,0 +1,111 @@
+package com.sme.analytics.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RowRetrievalIndexTest {
+
+    private static final String SALES = """
+        Date,Region,Product,Revenue,Units
+        2024-01-15,North,Widget,1200,10
+        2024-02-10,South,Gadget,5400,45
+        2024-03-05,East,Widget,7800,60
+        2024-03-20,West,Gizmo,300,3
+        2024-04-01,North,Gadget,9100,70
+        """;
+
+    @Test
+    void tokenizesCellsAndIndexesMonthNamesOfIsoDates() {
+        // Arrange
+        RowRetrievalIndex index = RowRetrievalIndex.fromCsv(SALES);
+
+        // Act
+        List<Map<String, String>> march = index.search("What happened in March?", 5, 10_000);
+        List<Map<String, String>> abbreviated = index.search("sales in Feb", 5, 10_000);
+
+        // Assert
+        assertEquals(5, index.rowCount());
+        assertEquals(List.of("Date", "Region", "Product", "Revenue", "Units"), index.columns());
+        assertEquals(List.of("2024-03-05", "2024-03-20"), march.stream().map(row -> row.get("Date")).sorted().toList());
+        assertEquals(List.of("2024-02-10"), abbreviated.stream().map(row -> row.get("Date")).toList());
+    }
+
+    @Test
+    void appliesNumericRangesFromTheQuestion() {
+        // Arrange
+        RowRetrievalIndex index = RowRetrievalIndex.fromCsv(SALES);
+
+        // Act
+        List<Map<String, String>> over = index.search("Revenue over 5,000", 5, 10_000);
+        List<Map<String, String>> between = index.search("units between 40 and 60", 5, 10_000);
+        List<Map<String, String>> combined = index.search("gadget with revenue at least 9000", 5, 10_000);
+
+        // Assert
+        assertEquals(List.of("5400", "7800", "9100"), over.stream().map(row -> row.get("Revenue")).sorted().toList());
+        assertEquals(List.of("45", "60"), between.stream().map(row -> row.get("Units")).sorted().toList());
+        assertEquals(1, combined.size());
+        assertEquals("2024-04-01", combined.get(0).get("Date"));
+    }
+
+    @Test
+    void numericRangesUseZoneMapsAcrossBlocks() {
+        // Arrange: 1,000 rows, only the last block holds values above 990
+        StringBuilder csv = new StringBuilder("Id,Score\n");
+        for (int i = 0; i < 1_000; i++) {
+            csv.append("row").append(i).append(',').append(i).append('\n');
+        }
+        RowRetrievalIndex index = RowRetrievalIndex.fromCsv(csv.toString());
+
+        // Act
+        List<Map<String, String>> rows = index.search("score > 990", 20, 10_000);
+
+        // Assert
+        assertEquals(9, rows.size());
+        assertTrue(rows.stream().allMatch(row -> Integer.parseInt(row.get("Score")) > 990));
+    }
+
+    @Test
+    void ranksRowsByRelevanceAndKeepsTopK() {
+        // Arrange: rarer terms weigh more, so the row matching both query terms ranks first
+        RowRetrievalIndex index = RowRetrievalIndex.fromCsv(SALES);
+
+        // Act
+        List<Map<String, String>> ranked = index.search("north gadget", 5, 10_000);
+        List<Map<String, String>> topOne = index.search("north gadget", 1, 10_000);
+
+        // Assert
+        assertEquals(3, ranked.size());
+        assertEquals("2024-04-01", ranked.get(0).get("Date"));
+        assertEquals(List.of(ranked.get(0)), topOne);
+    }
+
+    @Test
+    void respectsCharacterBudgetButReturnsAtLeastOneRow() {
+        // Arrange
+        RowRetrievalIndex index = RowRetrievalIndex.fromCsv(SALES);
+
+        // Act
+        List<Map<String, String>> rows = index.search("widget", 5, 10);
+
+        // Assert
+        assertEquals(1, rows.size());
+    }
+
+    @Test
+    void fallsBackToFirstRowsWhenNothingMatches() {
+        // Arrange
+        RowRetrievalIndex index = RowRetrievalIndex.fromCsv(SALES);
+
+        // Act
+        List<Map<String, String>> rows = index.search("what is the trend?", 2, 10_000);
+        List<Map<String, String>> empty = RowRetrievalIndex.fromCsv("").search("anything", 5, 10_000);
+
+        // Assert
+        assertEquals(List.of("2024-01-15", "2024-02-10"), rows.stream().map(row -> row.get("Date")).toList());
+        assertTrue(empty.isEmpty());
+    }
+}
@@ -0,0 +1,44 @@
+package com.sme.analytics.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.OptionalLong;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SimHashIndexTest {
+
+    private static final String STORY = "Acme Foods expands same-day delivery to Berlin. The grocery chain said on Monday "
+        + "that customers in all districts can now order fresh produce and receive it within four hours.";
+    private static final String REWORDED = "UPDATE: Acme Foods expands same day delivery to Berlin - The grocery chain said "
+        + "on Monday that customers in all districts can now order fresh produce and receive it within four hours.";
+    private static final String OTHER = "Central bank holds rates steady as inflation cools. Policymakers left the main "
+        + "rate unchanged on Thursday and signalled cuts could come next year if price growth keeps slowing.";
+
+    @Test
+    void findsRewordedStoryAmongManySignatures() {
+        // Arrange
+        SimHashIndex index = new SimHashIndex(3);
+        Random random = new Random(7);
+        for (int i = 0; i < 100_000; i++) {
+            index.add(random.nextLong(), 1000 + i);
+        }
+        index.add(SimHash.of(STORY, 8).orElseThrow(), 1);
+
+        // Act
+        OptionalLong reworded = index.findNearest(SimHash.of(REWORDED, 8).orElseThrow());
+        OptionalLong other = index.findNearest(SimHash.of(OTHER, 8).orElseThrow());
+
+        // Assert
+        assertEquals(OptionalLong.of(1), reworded);
+        assertTrue(other.isEmpty());
+    }
+
+    @Test
+    void skipsShortTextsAndRejectsDistancesBandingCannotGuarantee() {
+        // Act & Assert
+        assertTrue(SimHash.of("Rates unchanged", 8).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> new SimHashIndex(4));
+    }
+}
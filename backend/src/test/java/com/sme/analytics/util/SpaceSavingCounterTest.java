@@ -0,0 +1,57 @@
+package com.sme.analytics.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpaceSavingCounterTest {
+
+    @Test
+    void keepsHeavyHittersWithinCapacity() {
+        // Arrange: three frequent keywords hidden in a long tail of one-off keywords
+        SpaceSavingCounter counter = new SpaceSavingCounter(20);
+        Random random = new Random(42);
+        for (int i = 0; i < 10_000; i++) {
+            int roll = random.nextInt(10);
+            if (roll < 3) {
+                counter.add("growth");
+            } else if (roll < 5) {
+                counter.add("pricing");
+            } else if (roll < 6) {
+                counter.add("merger");
+            } else {
+                counter.add("tail-" + i);
+            }
+        }
+
+        // Act
+        List<SpaceSavingCounter.Estimate> top = counter.top(3);
+
+        // Assert
+        assertEquals(20, counter.size());
+        assertEquals(10_000, counter.total());
+        assertEquals(List.of("growth", "pricing", "merger"), top.stream().map(SpaceSavingCounter.Estimate::item).toList());
+        // Guaranteed lower bound: growth appears roughly 3,000 times
+        assertTrue(top.get(0).count() - top.get(0).error() > 2_000);
+    }
+
+    @Test
+    void countsExactlyBelowCapacity() {
+        // Arrange
+        SpaceSavingCounter counter = new SpaceSavingCounter(10);
+
+        // Act
+        counter.add("a");
+        counter.add("b", 3);
+        counter.add("a");
+
+        // Assert
+        List<SpaceSavingCounter.Estimate> top = counter.top(5);
+        assertEquals(2, top.size());
+        assertEquals(new SpaceSavingCounter.Estimate("b", 3, 0), top.get(0));
+        assertEquals(new SpaceSavingCounter.Estimate("a", 2, 0), top.get(1));
+    }
+}
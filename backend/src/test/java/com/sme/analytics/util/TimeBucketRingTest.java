@@ -0,0 +1,73 @@
+package com.sme.analytics.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimeBucketRingTest {
+
+    @Test
+    void sumsValuesPerPeriod() {
+        // Arrange
+        TimeBucketRing ring = new TimeBucketRing(4);
+
+        // Act
+        ring.add(10, 0.5);
+        ring.add(10, -0.25);
+        ring.add(11, 1.0);
+        ring.add(12, 1.5, 3);
+
+        // Assert
+        assertArrayEquals(new double[] {0.25, 2}, ring.bucket(10));
+        assertArrayEquals(new double[] {1.0, 1}, ring.bucket(11));
+        assertArrayEquals(new double[] {2.75, 6}, ring.total(10, 12));
+        assertArrayEquals(new double[] {2.5, 4}, ring.total(11, 13));
+        assertEquals(12, ring.latest());
+    }
+
+    @Test
+    void newerPeriodReusingASlotClearsIt() {
+        // Arrange
+        TimeBucketRing ring = new TimeBucketRing(4);
+        ring.add(10, 1.0);
+
+        // Act - period 14 maps to the same slot as 10
+        ring.add(14, 2.0);
+
+        // Assert
+        assertNull(ring.bucket(10));
+        assertArrayEquals(new double[] {2.0, 1}, ring.bucket(14));
+        assertArrayEquals(new double[] {2.0, 1}, ring.total(10, 14));
+    }
+
+    @Test
+    void dropsValuesOlderThanTheRing() {
+        // Arrange
+        TimeBucketRing ring = new TimeBucketRing(4);
+        ring.add(14, 2.0);
+
+        // Act - period 10 has already been overwritten by 14
+        ring.add(10, 5.0);
+
+        // Assert
+        assertNull(ring.bucket(10));
+        assertArrayEquals(new double[] {2.0, 1}, ring.total(0, 20));
+    }
+
+    @Test
+    void handlesNegativePeriodsAndEmptyRing() {
+        // Arrange
+        TimeBucketRing ring = new TimeBucketRing(3);
+
+        // Assert
+        assertEquals(Long.MIN_VALUE, ring.latest());
+        assertArrayEquals(new double[] {0, 0}, ring.total(-10, 10));
+
+        // Act
+        ring.add(-1, 1.0);
+
+        // Assert
+        assertArrayEquals(new double[] {1.0, 1}, ring.bucket(-1));
+        assertEquals(-1, ring.latest());
+    }
+}
@@ -2,7 +2,8 @@
 Chat API routes for document Q&A
 """
 
-from fastapi import APIRouter, HTTPException
+from fastapi import APIRouter, BackgroundTasks, HTTPException
+from fastapi.concurrency import run_in_threadpool
 from pydantic import BaseModel
 from typing import List, Optional, Dict, Any
 from src.services.document_qa_service import DocumentQAService
@@ -43,7 +44,7 @@ class AnswerResponse(BaseModel):
 
 
 @router.post("/analyze-document", response_model=DocumentContextResponse)
-async def analyze_document(request: DocumentContextRequest):
+async def analyze_document(request: DocumentContextRequest, background_tasks: BackgroundTasks):
     """
     Analyze a document and create context for Q&A
 
@@ -52,11 +53,15 @@ async def analyze_document(request: DocumentContextRequest):
     for answering questions.
     """
     try:
-        context = qa_service.analyze_document_context(
+        context = await run_in_threadpool(
+            qa_service.analyze_document_context,
             csv_data=request.csv_data,
             file_metadata=request.file_metadata
         )
 
+        # Questions usually follow, so load the model after responding
+        background_tasks.add_task(qa_service.warm_model)
+
         return DocumentContextResponse(
             context=context,
             success=True,
@@ -70,6 +75,24 @@ async def analyze_document(request: DocumentContextRequest):
         )
 
 
+@router.post("/warmup")
+async def warmup(background_tasks: BackgroundTasks):
+    """
+    Load the model ahead of the first question on a new upload
+
+    Returns at once; the model is loaded on a worker thread after the response
+    is sent, so the caller never waits on a cold model load.
+    """
+    warm = qa_service.is_warm()
+    if not warm:
+        background_tasks.add_task(qa_service.warm_model)
+    return {
+        "model": qa_service.model_name,
+        "model_loaded": warm,
+        "warming": not warm
+    }
+
+
 @router.post("/ask", response_model=AnswerResponse)
 async def ask_question(request: QuestionRequest):
     """
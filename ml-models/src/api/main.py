@@ -1,5 +1,6 @@
 from fastapi import FastAPI, HTTPException
 from fastapi.middleware.cors import CORSMiddleware
+from fastapi.middleware.gzip import GZipMiddleware
 from pydantic import BaseModel
 from typing import List, Optional, Dict, Any
 import uvicorn
@@ -24,6 +25,9 @@ app.include_router(benchmark_router)
 # Include chat routes
 app.include_router(chat_router)
 
+# Compress larger responses for clients that send Accept-Encoding: gzip
+app.add_middleware(GZipMiddleware, minimum_size=1024)
+
 # Configure CORS
 app.add_middleware(
     CORSMiddleware,
@@ -69,9 +73,13 @@ async def root():
 async def health_check():
     return {"status": "healthy", "service": "ml-services"}
 
-@app.post("/predict", response_model=PredictionResponse)
-async def predict(request: PredictionRequest):
-    """Generate predictions using the specified model."""
+class BatchPredictionRequest(BaseModel):
+    requests: List[PredictionRequest]
+
+class BatchPredictionResponse(BaseModel):
+    results: List[PredictionResponse]
+
+def run_prediction(request: PredictionRequest) -> PredictionResponse:
     # Placeholder implementation
     # In production, this would call actual ML models
     predictions = [100.0 + i * 2.5 for i in range(request.horizon)]
@@ -82,6 +90,16 @@ async def predict(request: PredictionRequest):
         model_used=request.model_type
     )
 
+@app.post("/predict", response_model=PredictionResponse)
+async def predict(request: PredictionRequest):
+    """Generate predictions using the specified model."""
+    return run_prediction(request)
+
+@app.post("/predict/batch", response_model=BatchPredictionResponse)
+async def predict_batch(request: BatchPredictionRequest):
+    """Generate predictions for many series in one call; results keep the request order."""
+    return BatchPredictionResponse(results=[run_prediction(item) for item in request.requests])
+
 @app.post("/analyze", response_model=AnalysisResult)
 async def analyze_data(request: DataAnalysisRequest):
     """Perform comprehensive data analysis on uploaded CSV data."""
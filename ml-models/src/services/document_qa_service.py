@@ -9,12 +9,21 @@ from typing import Dict, List, Any, Optional
 import json
 import requests
 import os
+import time
 import logging
+import threading
 
 # Configure logging
 logging.basicConfig(level=logging.INFO)
 logger = logging.getLogger(__name__)
 
+# Local Ollama unloads an idle model after 5 minutes; re-warm a little before that
+MODEL_IDLE_SECONDS = 240
+
+# After a failed warmup, wait this long before trying again (doubling up to the maximum)
+WARMUP_BACKOFF_MIN_SECONDS = 10
+WARMUP_BACKOFF_MAX_SECONDS = 300
+
 
 class DocumentQAService:
     """Service for answering questions about uploaded documents using AI"""
@@ -39,6 +48,10 @@ class DocumentQAService:
             logger.info(f"🏠 Using Local Ollama at {self.ollama_url}")
         
         self.model_loaded = False
+        self.last_used = 0.0
+        self._warmup_lock = threading.Lock()
+        self._warmup_backoff = 0.0
+        self._next_warmup_at = 0.0
         self._preload_model()
     
     def _preload_model(self):
@@ -65,12 +78,39 @@ class DocumentQAService:
                 },
                 timeout=120
             )
+            response.raise_for_status()
             self.model_loaded = True
+            self.last_used = time.time()
+            self._warmup_backoff = 0.0
             logger.info(f"✅ Successfully preloaded {self.model_name} model")
         except Exception as e:
-            logger.warning(f"⚠️  Could not preload model: {str(e)}")
+            self._warmup_backoff = min(
+                max(self._warmup_backoff * 2, WARMUP_BACKOFF_MIN_SECONDS),
+                WARMUP_BACKOFF_MAX_SECONDS
+            )
+            self._next_warmup_at = time.time() + self._warmup_backoff
+            logger.warning(f"⚠️  Could not preload model, retrying in {self._warmup_backoff:.0f}s: {str(e)}")
             self.model_loaded = False
 
+    def is_warm(self) -> bool:
+        """Whether the model is loaded and has not been idle long enough to be unloaded"""
+        return self.use_cloud or (self.model_loaded and time.time() - self.last_used < MODEL_IDLE_SECONDS)
+
+    def warm_model(self):
+        """
+        Make sure the model is loaded before the first question on a new document.
+        Blocking; call it from a worker thread. Concurrent calls and calls during the
+        backoff after a failed load return immediately.
+        """
+        if self.is_warm() or time.time() < self._next_warmup_at:
+            return
+        if not self._warmup_lock.acquire(blocking=False):
+            return
+        try:
+            self._preload_model()
+        finally:
+            self._warmup_lock.release()
+
     def analyze_document_context(self, csv_data: str, file_metadata: Dict[str, Any]) -> Dict[str, Any]:
         """
         Analyze the document and create a context summary for Q&A
@@ -327,6 +367,7 @@ class DocumentQAService:
                 )
 
             if response.status_code == 200:
+                self.last_used = time.time()
                 result = response.json()
                 return result.get("response", "Unable to generate response")
             else: